@@ -0,0 +1,62 @@
+package com.charter.provisioning.hss.benchmark;
+
+import com.charter.provisioning.hss.cache.ServiceProfileTemplateCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.ServiceUtil;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.model.CacheSettings;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the SPML add request from the digital phone payload,
+ * including feature lookup and generation of the subscriber keys, with and
+ * without memoized service profile templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AddRequestBenchmark {
+
+	@Param({ BenchmarkFixtures.DPHONE, BenchmarkFixtures.HGROUP, BenchmarkFixtures.BGROUP })
+	public String kind;
+
+	@Param({ "1000", "0" })
+	public int serviceProfileCacheSize;
+
+	private DigitalPhoneCommon digitalPhoneCommon;
+
+	private DigitalPhone digitalPhone;
+
+	@Setup
+	public void setup() {
+
+		HssServiceConfig serviceConfig = BenchmarkFixtures.hssServiceConfig();
+		CacheSettings serviceProfileCache = new CacheSettings();
+		serviceProfileCache.setMaxSize(serviceProfileCacheSize);
+		digitalPhoneCommon = new DigitalPhoneCommon(BenchmarkFixtures.spmlConfig(null), new ServiceUtil(),
+				serviceConfig, new ServiceProfileTemplateCache(serviceProfileCache));
+		digitalPhone = BenchmarkFixtures.digitalPhone(kind);
+	}
+
+	@Benchmark
+	public AddRequest createAddRequest() {
+		return digitalPhoneCommon.createAddRequest(digitalPhone);
+	}
+}
@@ -0,0 +1,226 @@
+package com.charter.provisioning.hss.benchmark;
+
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.hss.model.Feature;
+import com.charter.provisioning.hss.model.FeatureProperty;
+import com.charter.provisioning.hss.model.PrivateIdentity;
+import com.charter.provisioning.hss.model.Profile;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payloads and gateway responses shared by the benchmarks. Configuration is bound
+ * from the hss-config.yml and spml-config.yml packaged with hss-service, so the
+ * benchmarks run with the same values as the service.
+ */
+public final class BenchmarkFixtures {
+
+	public static final String DPHONE = "DPHONE";
+
+	public static final String HGROUP = "HGROUP";
+
+	public static final String BGROUP = "BGROUP";
+
+	public static final String SITE = "DV2";
+
+	private static final String OPERATION_CREATE = "create";
+
+	private static final String CRLF = "\r\n";
+
+	private BenchmarkFixtures() {
+	}
+
+	public static HssServiceConfig hssServiceConfig() {
+
+		HssServiceConfig serviceConfig = bind("hss-config.yml", "hss", HssServiceConfig.class);
+		serviceConfig.buildIndexes();
+		return serviceConfig;
+	}
+
+	public static SpmlConfig spmlConfig(String codec) {
+
+		SpmlConfig spmlConfig = bind("spml-config.yml", "spml", SpmlConfig.class);
+		spmlConfig.setCodec(codec);
+		return spmlConfig;
+	}
+
+	/**
+	 * Returns the digital phone passed to createAddRequest for the given subscriber
+	 * kind, HGROUP and BGROUP are shaped as the create handlers prepare them.
+	 * @param kind
+	 *            DPHONE, HGROUP or BGROUP.
+	 * @return DigitalPhone
+	 */
+	public static DigitalPhone digitalPhone(String kind) {
+
+		switch (kind) {
+		case DPHONE:
+			return DigitalPhone.builder().name(DPHONE).featurePackage("BC01").site(SITE).operation(OPERATION_CREATE)
+					.publicIdentity(publicIdentities("8216328886")).privateIdentity(privateIdentities())
+					.profile(profile()).build();
+		case HGROUP:
+			List<Feature> hgFeatures = new ArrayList<>();
+			hgFeatures.add(Feature.builder().operation(OPERATION_CREATE).name("MO-DCA011-UNREG").build());
+			hgFeatures.add(Feature.builder().operation(OPERATION_CREATE).name("MUT-DCA011-UNREG").build());
+			return DigitalPhone.builder().name(HGROUP).publicIdentity(publicIdentities("mlhg_409077_0000"))
+					.privateIdentity(privateIdentities())
+					.profile(Profile.builder().operation(OPERATION_CREATE).tas("DCA01q").features(hgFeatures).build())
+					.build();
+		case BGROUP:
+			return DigitalPhone.builder().name(BGROUP).publicIdentity(publicIdentities("pickup_group_123456"))
+					.privateIdentity(privateIdentities()).profile(profile()).build();
+		default:
+			throw new IllegalArgumentException("Unknown subscriber kind " + kind);
+		}
+	}
+
+	/**
+	 * Returns a DPHONE payload carrying the given number of telephone numbers.
+	 * @param publicIdentities
+	 * @return DigitalPhone
+	 */
+	public static DigitalPhone digitalPhone(int publicIdentities) {
+
+		List<PublicIdentity> identities = new ArrayList<>();
+		for (int i = 0; i < publicIdentities; i++) {
+			identities.add(PublicIdentity.builder().operation(OPERATION_CREATE).userId(String.valueOf(8216328886L + i))
+					.build());
+		}
+		DigitalPhone digitalPhone = digitalPhone(DPHONE);
+		digitalPhone.setPublicIdentity(identities);
+		return digitalPhone;
+	}
+
+	/**
+	 * Returns a search response soap envelope as sent by the provisioning gateway,
+	 * carrying a subscriber with the given number of public identities.
+	 * @param publicIdentities
+	 * @return String
+	 */
+	public static String searchResponseEnvelope(int publicIdentities) {
+
+		StringBuilder xml = new StringBuilder(2048 + publicIdentities * 512);
+		xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(CRLF)
+				.append("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+						+ "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+						+ "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">").append(CRLF)
+				.append("   <soapenv:Body>").append(CRLF)
+				.append("      <spml:searchResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" executionTime=\"14\" "
+						+ "requestID=\"-782d1f7e:16293c626b7:536\" result=\"success\" searchStatus=\"completeResult\">")
+				.append(CRLF)
+				.append("         <version>HSS_SUBSCRIBER_v82</version>").append(CRLF)
+				.append("         <objects xmlns:ns2=\"urn:siemens:names:prov:gw:HSS_SUBSCRIBER:8:2\" xsi:type=\"ns2:Subscriber\">")
+				.append(CRLF)
+				.append("            <identifier>13718275614005466511585250035104</identifier>").append(CRLF)
+				.append("            <hss>").append(CRLF);
+		element(xml, 15, "subscriptionId", "1");
+		element(xml, 15, "profileType", "normal");
+		element(xml, 15, "adminBlocked", "false");
+		element(xml, 15, "defaultScscfRequired", "true");
+		element(xml, 15, "ccfPrimary", "primaryccf.ims.rr.com");
+		element(xml, 15, "ccfSecondary", "secondaryccf.ims.rr.com");
+		xml.append("               <privateUserId>").append(CRLF);
+		element(xml, 18, "privateUserId", "219BF751A12481C6@ims.eng.rr.com");
+		element(xml, 18, "httpDigestKey", "<![CDATA[01623E63117EB61561AD55AE4C072CA4]]>");
+		element(xml, 18, "httpDigestKeyVersion", "1");
+		element(xml, 18, "preferredAuthenticationScheme", "httpDigest");
+		element(xml, 18, "actAsVLR", "false");
+		element(xml, 18, "preferredDomain", "ims");
+		element(xml, 18, "looseRoutingIndicationRequired", "false");
+		xml.append("               </privateUserId>").append(CRLF);
+		xml.append("               <implicitRegisteredSet>").append(CRLF);
+		element(xml, 18, "irsId", "irs1601409354118132");
+		element(xml, 18, "registrationStatus", "notRegistered");
+		element(xml, 18, "authenticationPending", "false");
+		xml.append("               </implicitRegisteredSet>").append(CRLF);
+		for (int i = 0; i < publicIdentities; i++) {
+			// alternate E.164 and national forms as provisioned for a digital phone line
+			String userId = (i % 2 == 0 ? "sip:+1" : "sip:") + (8163888611L + i / 2) + "@ims.eng.rr.com";
+			xml.append("               <publicUserId>").append(CRLF);
+			element(xml, 18, "publicUserId", userId);
+			element(xml, 18, "originalPublicUserId", userId);
+			element(xml, 18, "barringIndication", "false");
+			element(xml, 18, "defaultIndication", i == 0 ? "true" : "false");
+			element(xml, 18, "serviceProfileName", "sp1601409354118132");
+			element(xml, 18, "irsId", "irs1601409354118132");
+			element(xml, 18, "displayNamePrivacy", "false");
+			xml.append("               </publicUserId>").append(CRLF);
+		}
+		xml.append("               <serviceProfile>").append(CRLF);
+		element(xml, 18, "profileName", "sp1601409354118132");
+		for (String globalFilterId : new String[] { "900COS", "INTLCOS", "MUT-CTS", "MO-CTS", "CIDBCP", "REG-CTS" }) {
+			xml.append("                  <globalFilterId>").append(CRLF);
+			element(xml, 21, "globalFilterId", globalFilterId);
+			xml.append("                  </globalFilterId>").append(CRLF);
+		}
+		xml.append("                  <subscribedMediaProfileID>").append(CRLF);
+		element(xml, 21, "sessionReleasePolicy", "deregisterNoForcedSessionRelease");
+		element(xml, 21, "forkingPolicy", "mixedForking");
+		xml.append("                  </subscribedMediaProfileID>").append(CRLF)
+				.append("               </serviceProfile>").append(CRLF)
+				.append("            </hss>").append(CRLF)
+				.append("         </objects>").append(CRLF)
+				.append("      </spml:searchResponse>").append(CRLF)
+				.append("   </soapenv:Body>").append(CRLF)
+				.append("</soapenv:Envelope>");
+		return xml.toString();
+	}
+
+	private static void element(StringBuilder xml, int indent, String name, String value) {
+
+		for (int i = 0; i < indent; i++)
+			xml.append(' ');
+		xml.append('<').append(name).append('>').append(value).append("</").append(name).append('>').append(CRLF);
+	}
+
+	private static List<PublicIdentity> publicIdentities(String userId) {
+
+		List<PublicIdentity> publicIdentities = new ArrayList<>();
+		publicIdentities.add(PublicIdentity.builder().operation(OPERATION_CREATE).userId(userId).build());
+		return publicIdentities;
+	}
+
+	private static List<PrivateIdentity> privateIdentities() {
+
+		List<PrivateIdentity> privateIdentities = new ArrayList<>();
+		privateIdentities.add(PrivateIdentity.builder().operation(OPERATION_CREATE).userId("219BF751A12481C6")
+				.password("01623E63117EB61561AD55AE4C072CA4").build());
+		return privateIdentities;
+	}
+
+	private static Profile profile() {
+
+		List<FeatureProperty> featureProperties = new ArrayList<>();
+		featureProperties.add(FeatureProperty.builder().operation(OPERATION_CREATE).name("900").build());
+		featureProperties.add(FeatureProperty.builder().operation(OPERATION_CREATE).name("INTL").build());
+
+		List<Feature> features = new ArrayList<>();
+		features.add(Feature.builder().operation(OPERATION_CREATE).name("BC01").build());
+		features.add(Feature.builder().operation(OPERATION_CREATE).name("package").value("BC01").build());
+		features.add(Feature.builder().operation(OPERATION_CREATE).name("BLOCK").featureProperties(featureProperties)
+				.build());
+
+		return Profile.builder().operation(OPERATION_CREATE).tas("DCA01q").features(features).build();
+	}
+
+	private static <T> T bind(String resource, String prefix, Class<T> type) {
+
+		try {
+			StandardEnvironment environment = new StandardEnvironment();
+			new YamlPropertySourceLoader().load(resource, new ClassPathResource(resource))
+					.forEach(environment.getPropertySources()::addLast);
+			return Binder.get(environment).bind(prefix, type).get();
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to load " + resource, e);
+		}
+	}
+}
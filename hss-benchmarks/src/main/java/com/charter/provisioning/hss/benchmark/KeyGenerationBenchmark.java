@@ -0,0 +1,78 @@
+package com.charter.provisioning.hss.benchmark;
+
+import com.charter.provisioning.hss.cache.ServiceProfileTemplateCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.IdentifierGenerator;
+import com.charter.provisioning.hss.common.SequentialIdentifierGenerator;
+import com.charter.provisioning.hss.common.ServiceUtil;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generation of the subscriber identifier for each
+ * spml.identifier_generator, and of the private identity, irs suffix and digest
+ * keys, from concurrent provisioning threads sharing one DigitalPhoneCommon. The
+ * sequential generator issues at most 1,000,000 identifiers per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+public class KeyGenerationBenchmark {
+
+	@Param({ "random", "sequential" })
+	public String generator;
+
+	private IdentifierGenerator identifierGenerator;
+
+	private DigitalPhoneCommon digitalPhoneCommon;
+
+	private ServiceUtil serviceUtil;
+
+	@Setup
+	public void setup() {
+
+		serviceUtil = new ServiceUtil();
+		IdentifierGenerator random = length -> serviceUtil.appendRandom(length, false);
+		identifierGenerator = "sequential".equals(generator) ? new SequentialIdentifierGenerator("1", random) : random;
+		HssServiceConfig serviceConfig = BenchmarkFixtures.hssServiceConfig();
+		digitalPhoneCommon = new DigitalPhoneCommon(BenchmarkFixtures.spmlConfig(null), serviceUtil, serviceConfig,
+				new ServiceProfileTemplateCache(serviceConfig));
+	}
+
+	@Benchmark
+	public String generateSubscriberIdentifier() {
+		return identifierGenerator.generate(32);
+	}
+
+	@Benchmark
+	public String generate16CharRandomKey() {
+		return digitalPhoneCommon.generate16CharRandomKey();
+	}
+
+	@Benchmark
+	public String generate32CharTimestampRandomKey() {
+		return digitalPhoneCommon.generate32CharTimestampRandomKey();
+	}
+
+	@Benchmark
+	public String appendRandom32Digits() {
+		return serviceUtil.appendRandom(32, false);
+	}
+}
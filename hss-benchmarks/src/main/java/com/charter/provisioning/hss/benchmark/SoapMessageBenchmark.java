@@ -0,0 +1,81 @@
+package com.charter.provisioning.hss.benchmark;
+
+import com.charter.provisioning.hss.cache.ServiceProfileTemplateCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.ServiceUtil;
+import com.charter.provisioning.hss.common.SoapEnvelopeReader;
+import com.charter.provisioning.hss.common.SoapMessage;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SerializableConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the soap envelope stages around the SPML payload: placing a marshalled
+ * add request in a new message, writing the envelope xml, and reading the SPML
+ * payload back out of a gateway search response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SoapMessageBenchmark {
+
+	@Param({ "1", "10", "100" })
+	public int publicIdentities;
+
+	private String requestPayload;
+
+	private SoapMessage soapMessage;
+
+	private byte[] searchResponse;
+
+	@Setup
+	public void setup() throws Exception {
+
+		SpmlConfig spmlConfig = BenchmarkFixtures.spmlConfig(null);
+		HssServiceConfig serviceConfig = BenchmarkFixtures.hssServiceConfig();
+
+		requestPayload = new SerializableConfig(spmlConfig, serviceConfig)
+				.marshall(new DigitalPhoneCommon(spmlConfig, new ServiceUtil(), serviceConfig,
+						new ServiceProfileTemplateCache(serviceConfig))
+						.createAddRequest(BenchmarkFixtures.digitalPhone(publicIdentities)));
+		soapMessage = new SoapMessage("SOAPAction", "SpmlRequest");
+		soapMessage.populateMessageBody(requestPayload);
+		searchResponse = BenchmarkFixtures.searchResponseEnvelope(publicIdentities).getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public SoapMessage populateMessageBody() throws Exception {
+
+		SoapMessage message = new SoapMessage("SOAPAction", "SpmlRequest");
+		message.populateMessageBody(requestPayload);
+		return message;
+	}
+
+	@Benchmark
+	public String getSoapXml() {
+		return soapMessage.getSoapXml();
+	}
+
+	@Benchmark
+	public String readPayload() throws Exception {
+		return SoapEnvelopeReader.readPayload(new ByteArrayInputStream(searchResponse));
+	}
+}
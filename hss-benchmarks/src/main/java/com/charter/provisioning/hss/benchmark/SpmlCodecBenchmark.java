@@ -0,0 +1,76 @@
+package com.charter.provisioning.hss.benchmark;
+
+import com.charter.provisioning.hss.cache.ServiceProfileTemplateCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.ServiceUtil;
+import com.charter.provisioning.hss.common.SoapEnvelopeReader;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SerializableConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SerializableConfig with each spml.codec: marshalling an add request
+ * and unmarshalling a search response, both carrying the given number of public
+ * identities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SpmlCodecBenchmark {
+
+	@Param({ "xstream", "stax" })
+	public String codec;
+
+	@Param({ "1", "10", "100" })
+	public int publicIdentities;
+
+	private SerializableConfig serializableConfig;
+
+	private AddRequest addRequest;
+
+	private String searchResponse;
+
+	@Setup
+	public void setup() throws Exception {
+
+		SpmlConfig spmlConfig = BenchmarkFixtures.spmlConfig(codec);
+		HssServiceConfig serviceConfig = BenchmarkFixtures.hssServiceConfig();
+
+		serializableConfig = new SerializableConfig(spmlConfig, serviceConfig);
+		addRequest = new DigitalPhoneCommon(spmlConfig, new ServiceUtil(), serviceConfig,
+				new ServiceProfileTemplateCache(serviceConfig))
+				.createAddRequest(BenchmarkFixtures.digitalPhone(publicIdentities));
+		searchResponse = SoapEnvelopeReader.readPayload(new ByteArrayInputStream(
+				BenchmarkFixtures.searchResponseEnvelope(publicIdentities).getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Benchmark
+	public String marshall() {
+		return serializableConfig.marshall(addRequest);
+	}
+
+	@Benchmark
+	public SpmlResponse unmarshall() {
+		return serializableConfig.unmarshall(searchResponse);
+	}
+}
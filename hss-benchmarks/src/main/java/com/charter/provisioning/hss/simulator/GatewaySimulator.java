@@ -0,0 +1,170 @@
+package com.charter.provisioning.hss.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.w3c.dom.Element;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the Provisioning Gateway SPMLHssSubscriber82Service, used
+ * to load-test hss-service without the real gateway. Subscribers are kept in
+ * memory, latency, SPML errors and SOAP faults are injected as configured in
+ * {@link SimulatorConfig}.
+ *
+ * <pre>
+ * java -cp hss-benchmarks/target/benchmarks.jar com.charter.provisioning.hss.simulator.GatewaySimulator
+ * </pre>
+ *
+ * hss-service is pointed at it with the simulator profile, or with
+ * --hss.endPointURL=http://localhost:8081/ProvisioningGateway/services/SPMLHssSubscriber82Service
+ */
+@Slf4j
+public class GatewaySimulator {
+
+	private static final String ENVELOPE_PREFIX = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+			+ "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\" "
+			+ "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">"
+			+ "<soapenv:Body>";
+
+	private static final String ENVELOPE_SUFFIX = "</soapenv:Body></soapenv:Envelope>";
+
+	private static final String CONTENT_TYPE = "text/xml; charset=utf-8";
+
+	private final SimulatorConfig config;
+
+	@Getter
+	private final SubscriberStore store = new SubscriberStore();
+
+	private final SpmlRequestHandler requestHandler;
+
+	private HttpServer server;
+
+	private ExecutorService executor;
+
+	private ScheduledExecutorService scheduler;
+
+	public GatewaySimulator(SimulatorConfig config) {
+
+		this.config = config;
+		this.requestHandler = new SpmlRequestHandler(store, config);
+	}
+
+	public static void main(String[] args) throws IOException {
+
+		GatewaySimulator simulator = new GatewaySimulator(SimulatorConfig.load());
+		simulator.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(simulator::stop, "gateway-simulator-shutdown"));
+	}
+
+	/**
+	 * Starts listening on the configured port, port 0 picks a free port.
+	 * @throws IOException
+	 */
+	public void start() throws IOException {
+
+		executor = Executors.newFixedThreadPool(config.getThreads());
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+
+		server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
+		server.createContext(config.getPath(), this::handle);
+		server.setExecutor(executor);
+		server.start();
+
+		log.info("SPML gateway simulator listening on {}, latency {} {}-{} ms, error rate {}, fault rate {}",
+				getEndPointURL(), config.getLatencyDistribution(), config.getLatencyMillis(),
+				config.getLatencyMaxMillis(), config.getErrorRate(), config.getFaultRate());
+	}
+
+	public void stop() {
+
+		if (server != null) {
+			server.stop(0);
+			scheduler.shutdownNow();
+			executor.shutdownNow();
+			log.info("SPML gateway simulator stopped with {} subscribers", store.size());
+		}
+	}
+
+	/**
+	 * Returns the url to use as hss.endPointURL.
+	 * @return String
+	 */
+	public String getEndPointURL() {
+		return "http://localhost:" + server.getAddress().getPort() + config.getPath();
+	}
+
+	private void handle(HttpExchange exchange) {
+
+		if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+			write(exchange, HttpURLConnection.HTTP_BAD_METHOD, "");
+			return;
+		}
+
+		int status = HttpURLConnection.HTTP_OK;
+		String response;
+		try (InputStream body = exchange.getRequestBody()) {
+			Element request = requestHandler.readRequest(body);
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+
+			if (random.nextDouble() < config.getFaultRate()) {
+				status = config.getFaultStatus();
+				response = fault("soapenv:Server", "Simulated gateway fault");
+			} else if (random.nextDouble() < config.getErrorRate()) {
+				response = envelope(requestHandler.failure(request, "Simulated gateway error"));
+			} else {
+				response = envelope(requestHandler.process(request));
+			}
+		} catch (Exception e) {
+			log.warn("Rejected SPML request", e);
+			status = HttpURLConnection.HTTP_INTERNAL_ERROR;
+			response = fault("soapenv:Client", e.getMessage());
+		}
+
+		long delay = config.getLatencyDistribution().sample(config.getLatencyMillis(), config.getLatencyMaxMillis(),
+				ThreadLocalRandom.current());
+		int responseStatus = status;
+		String responseBody = response;
+		if (delay > 0)
+			scheduler.schedule(() -> write(exchange, responseStatus, responseBody), delay, TimeUnit.MILLISECONDS);
+		else
+			write(exchange, responseStatus, responseBody);
+	}
+
+	private static void write(HttpExchange exchange, int status, String response) {
+
+		byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+		try (OutputStream out = exchange.getResponseBody()) {
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+			out.write(bytes);
+		} catch (IOException e) {
+			log.warn("Unable to write SPML response", e);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static String envelope(String spmlResponse) {
+		return ENVELOPE_PREFIX + spmlResponse + ENVELOPE_SUFFIX;
+	}
+
+	private static String fault(String faultCode, String faultString) {
+
+		return envelope("<soapenv:Fault><faultcode>" + faultCode + "</faultcode><faultstring>"
+				+ (faultString == null ? "" : faultString.replace("&", "&amp;").replace("<", "&lt;"))
+				+ "</faultstring></soapenv:Fault>");
+	}
+}
@@ -0,0 +1,47 @@
+package com.charter.provisioning.hss.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response delay added by the simulator before a gateway answer is written.
+ */
+public enum LatencyDistribution {
+
+	/** Answers as soon as the request is processed. */
+	NONE {
+		@Override
+		long sample(long millis, long maxMillis, ThreadLocalRandom random) {
+			return 0;
+		}
+	},
+
+	/** Every answer is delayed by latencyMillis. */
+	FIXED {
+		@Override
+		long sample(long millis, long maxMillis, ThreadLocalRandom random) {
+			return millis;
+		}
+	},
+
+	/** Delay drawn evenly between latencyMillis and latencyMaxMillis. */
+	UNIFORM {
+		@Override
+		long sample(long millis, long maxMillis, ThreadLocalRandom random) {
+			return maxMillis > millis ? random.nextLong(millis, maxMillis + 1) : millis;
+		}
+	},
+
+	/**
+	 * Delay drawn with mean latencyMillis, giving the long tail seen on a loaded
+	 * gateway, capped at latencyMaxMillis when set.
+	 */
+	EXPONENTIAL {
+		@Override
+		long sample(long millis, long maxMillis, ThreadLocalRandom random) {
+			long delay = Math.round(-millis * Math.log(1.0 - random.nextDouble()));
+			return maxMillis > 0 ? Math.min(delay, maxMillis) : delay;
+		}
+	};
+
+	abstract long sample(long millis, long maxMillis, ThreadLocalRandom random);
+}
@@ -0,0 +1,61 @@
+package com.charter.provisioning.hss.simulator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+
+/**
+ * Settings of the gateway simulator, bound from gateway-simulator.yml. Every
+ * value can be overridden with a system property, e.g.
+ * -Dsimulator.latencyDistribution=exponential -Dsimulator.errorRate=0.01
+ */
+@Data
+public class SimulatorConfig {
+
+	private static final String CONFIG_RESOURCE = "gateway-simulator.yml";
+
+	private int port = 8081;
+
+	private String path = "/ProvisioningGateway/services/SPMLHssSubscriber82Service";
+
+	private int threads = 16;
+
+	private LatencyDistribution latencyDistribution = LatencyDistribution.NONE;
+
+	private long latencyMillis;
+
+	private long latencyMaxMillis;
+
+	/** Share of requests answered with an SPML failure result, 0.0 - 1.0. */
+	private double errorRate;
+
+	/** Share of requests answered with a SOAP fault, 0.0 - 1.0. */
+	private double faultRate;
+
+	private int faultStatus = 500;
+
+	private String version = "HSS_SUBSCRIBER_v82";
+
+	private String subscriberNamespace = "urn:siemens:names:prov:gw:HSS_SUBSCRIBER:8:2";
+
+	/**
+	 * Loads the simulator settings from the classpath, system properties take
+	 * precedence over gateway-simulator.yml.
+	 * @return SimulatorConfig
+	 */
+	public static SimulatorConfig load() {
+
+		try {
+			StandardEnvironment environment = new StandardEnvironment();
+			new YamlPropertySourceLoader().load(CONFIG_RESOURCE, new ClassPathResource(CONFIG_RESOURCE))
+					.forEach(environment.getPropertySources()::addLast);
+			return Binder.get(environment).bind("simulator", SimulatorConfig.class).orElseGet(SimulatorConfig::new);
+		} catch (IOException e) {
+			throw new IllegalStateException("Unable to load " + CONFIG_RESOURCE, e);
+		}
+	}
+}
@@ -0,0 +1,409 @@
+package com.charter.provisioning.hss.simulator;
+
+import com.charter.provisioning.hss.simulator.SubscriberStore.StoredSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes SPML add, search, modify and delete requests against the
+ * {@link SubscriberStore} and writes the SPML response the Provisioning
+ * Gateway would return. Requests are read without namespace processing, so
+ * prefixes are matched by local name only.
+ */
+@Slf4j
+public class SpmlRequestHandler {
+
+	static final String SPML_NAMESPACE = "urn:siemens:names:prov:gw:SPML:2:0";
+
+	static final String ADD_REQUEST = "addRequest";
+
+	static final String SEARCH_REQUEST = "searchRequest";
+
+	static final String MODIFY_REQUEST = "modifyRequest";
+
+	static final String DELETE_REQUEST = "deleteRequest";
+
+	static final String SUCCESS = "success";
+
+	static final String FAILURE = "failure";
+
+	static final String ALREADY_EXISTS = "spml:object with xsi:type subscriber:Subscriber already exists";
+
+	static final String NOT_FOUND = "spml:object with xsi:type subscriber:Subscriber not found";
+
+	private static final String IDENTIFIER = "identifier";
+
+	private static final String HSS = "hss";
+
+	private static final String PUBLIC_USER_ID = "publicUserId";
+
+	private static final String ORIGINAL_PUBLIC_USER_ID = "originalPublicUserId";
+
+	private static final String PRIVATE_USER_ID = "privateUserId";
+
+	private static final String IMPLICIT_REGISTERED_DATA_SET = "ImplicitRegisteredDataSet";
+
+	private final SubscriberStore store;
+
+	private final SimulatorConfig config;
+
+	private final AtomicLong requestIds = new AtomicLong();
+
+	private final ThreadLocal<DocumentBuilder> documentBuilders;
+
+	public SpmlRequestHandler(SubscriberStore store, SimulatorConfig config) {
+
+		this.store = store;
+		this.config = config;
+
+		DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+		try {
+			documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException("Unable to configure xml parser", e);
+		}
+
+		this.documentBuilders = ThreadLocal.withInitial(() -> {
+			try {
+				return documentBuilderFactory.newDocumentBuilder();
+			} catch (ParserConfigurationException e) {
+				throw new IllegalStateException("Unable to create xml parser", e);
+			}
+		});
+	}
+
+	/**
+	 * Reads the SPML request out of a soap envelope.
+	 * @param soapRequest
+	 * @return Element the SPML request element.
+	 * @throws Exception
+	 *             if the request is not a soap envelope with a body element.
+	 */
+	public Element readRequest(InputStream soapRequest) throws Exception {
+
+		DocumentBuilder documentBuilder = documentBuilders.get();
+		documentBuilder.reset();
+		Element envelope = documentBuilder.parse(soapRequest).getDocumentElement();
+
+		Element request = firstChild(child(envelope, "Body"));
+		if (request == null)
+			throw new IllegalArgumentException("Soap body does not contain an SPML request");
+		return request;
+	}
+
+	/**
+	 * Executes the SPML request against the store.
+	 * @param request
+	 * @return String SPML response xml.
+	 */
+	public String process(Element request) {
+
+		long start = System.nanoTime();
+		switch (localName(request)) {
+		case ADD_REQUEST:
+			return add(request, start);
+		case SEARCH_REQUEST:
+			return search(request, start);
+		case MODIFY_REQUEST:
+			return modify(request, start);
+		case DELETE_REQUEST:
+			return delete(request, start);
+		default:
+			return failure(request, "Unsupported SPML request " + localName(request));
+		}
+	}
+
+	/**
+	 * Answers the SPML request with a failure result without touching the store.
+	 * @param request
+	 * @param errorMessage
+	 * @return String SPML response xml.
+	 */
+	public String failure(Element request, String errorMessage) {
+		return response(request, System.nanoTime(), FAILURE).errorMessage(errorMessage).end();
+	}
+
+	private String add(Element request, long start) {
+
+		Element object = child(request, "object");
+		Element hss = child(object, HSS);
+		if (hss == null)
+			return failure(request, "spml:object is missing the hss data");
+
+		String identifier = text(child(object, IDENTIFIER));
+		if (identifier == null || identifier.isEmpty())
+			identifier = generateIdentifier();
+
+		String subscriberNamespace = request.getAttribute("xmlns:subscriber");
+		StoredSubscriber subscriber = toStoredSubscriber(identifier,
+				subscriberNamespace.isEmpty() ? config.getSubscriberNamespace() : subscriberNamespace, hss);
+
+		if (!store.add(subscriber))
+			return response(request, start, FAILURE).errorMessage(ALREADY_EXISTS).end();
+
+		log.debug("Added subscriber {}", identifier);
+		return response(request, start, SUCCESS).element(IDENTIFIER, identifier).end();
+	}
+
+	private String search(Element request, long start) {
+
+		Element base = child(request, "base");
+		Element alias = child(base, "alias");
+
+		StoredSubscriber subscriber = alias != null
+				? store.findByAlias(alias.getAttribute("name"), alias.getAttribute("value"))
+				: store.findByIdentifier(text(child(base, IDENTIFIER)));
+
+		if (subscriber == null)
+			return response(request, start, FAILURE).searchStatus().errorMessage(NOT_FOUND).end();
+
+		return response(request, start, SUCCESS).searchStatus()
+				.raw("<objects xmlns:ns2=\"").text(subscriber.getSubscriberNamespace())
+				.raw("\" xsi:type=\"ns2:Subscriber\">").element(IDENTIFIER, subscriber.getIdentifier())
+				.raw(subscriber.getHssXml()).raw("</objects>").end();
+	}
+
+	private String modify(Element request, long start) {
+
+		String identifier = text(child(request, IDENTIFIER));
+		StoredSubscriber current = store.findByIdentifier(identifier);
+		if (current == null)
+			return response(request, start, FAILURE).errorMessage(NOT_FOUND).end();
+
+		Element hss = parse(current.getHssXml());
+		List<Element> modifications = children(request, "modification");
+		modifications.forEach(modification -> applyModification(hss, modification));
+
+		if (!store.replace(toStoredSubscriber(identifier, current.getSubscriberNamespace(), hss)))
+			return response(request, start, FAILURE).errorMessage(ALREADY_EXISTS).end();
+
+		log.debug("Modified subscriber {}", identifier);
+		SpmlResponseWriter response = response(request, start, SUCCESS).element("objectclass", "Subscriber")
+				.element(IDENTIFIER, identifier);
+		modifications.forEach(modification -> response.raw(serialize(modification)));
+		return response.end();
+	}
+
+	private String delete(Element request, long start) {
+
+		String identifier = text(child(request, IDENTIFIER));
+		if (store.delete(identifier) == null)
+			return response(request, start, FAILURE).errorMessage(NOT_FOUND).end();
+
+		log.debug("Deleted subscriber {}", identifier);
+		return response(request, start, SUCCESS).element(IDENTIFIER, identifier).end();
+	}
+
+	/**
+	 * Applies a single modification to the hss element. The element changed is
+	 * selected by the xsi:type of match or valueObject, match selects the
+	 * entries whose values all equal the match values.
+	 */
+	private static void applyModification(Element hss, Element modification) {
+
+		Element match = child(modification, "match");
+		Element valueObject = child(modification, "valueObject");
+		Element typed = match != null ? match : valueObject;
+		if (typed == null)
+			return;
+
+		String elementName = elementName(typed.getAttribute("xsi:type"));
+		List<Element> matched = match == null ? Collections.emptyList() : matching(hss, elementName, match);
+
+		if ("remove".equalsIgnoreCase(modification.getAttribute("operation"))) {
+			matched.forEach(hss::removeChild);
+		} else if (valueObject != null) {
+			if (matched.isEmpty())
+				insert(hss, elementName, valueObject);
+			else
+				matched.forEach(entry -> merge(entry, valueObject));
+		}
+	}
+
+	private static List<Element> matching(Element hss, String elementName, Element match) {
+
+		List<Element> matched = new ArrayList<>();
+		for (Element entry : children(hss, elementName)) {
+			boolean matches = children(match, null).stream()
+					.allMatch(value -> text(value).equals(text(child(entry, localName(value)))));
+			if (matches)
+				matched.add(entry);
+		}
+		return matched;
+	}
+
+	private static void insert(Element hss, String elementName, Element valueObject) {
+
+		Element entry = hss.getOwnerDocument().createElement(elementName);
+		children(valueObject, null).forEach(value -> entry.appendChild(hss.getOwnerDocument().importNode(value, true)));
+
+		// keep entries of the same type together, as the gateway returns them
+		List<Element> siblings = children(hss, elementName);
+		if (siblings.isEmpty())
+			hss.appendChild(entry);
+		else
+			hss.insertBefore(entry, siblings.get(siblings.size() - 1).getNextSibling());
+	}
+
+	private static void merge(Element entry, Element valueObject) {
+
+		for (Element value : children(valueObject, null)) {
+			Node copy = entry.getOwnerDocument().importNode(value, true);
+			Element existing = child(entry, localName(value));
+			if (existing != null)
+				entry.replaceChild(copy, existing);
+			else
+				entry.appendChild(copy);
+		}
+	}
+
+	private static StoredSubscriber toStoredSubscriber(String identifier, String subscriberNamespace, Element hss) {
+
+		Set<String> publicUserIds = new LinkedHashSet<>();
+		for (Element publicUserId : children(hss, PUBLIC_USER_ID)) {
+			// the gateway answers with the provisioned uri as publicUserId
+			String original = text(child(publicUserId, ORIGINAL_PUBLIC_USER_ID));
+			if (child(publicUserId, PUBLIC_USER_ID) == null && original != null) {
+				Element value = hss.getOwnerDocument().createElement(PUBLIC_USER_ID);
+				value.setTextContent(original);
+				publicUserId.insertBefore(value, publicUserId.getFirstChild());
+			}
+			addIfPresent(publicUserIds, text(child(publicUserId, PUBLIC_USER_ID)));
+			addIfPresent(publicUserIds, original);
+		}
+
+		Set<String> privateUserIds = new LinkedHashSet<>();
+		children(hss, PRIVATE_USER_ID)
+				.forEach(privateUserId -> addIfPresent(privateUserIds, text(child(privateUserId, PRIVATE_USER_ID))));
+
+		return StoredSubscriber.builder().identifier(identifier).subscriberNamespace(subscriberNamespace)
+				.hssXml(serialize(hss)).publicUserIds(publicUserIds).privateUserIds(privateUserIds).build();
+	}
+
+	private SpmlResponseWriter response(Element request, long start, String result) {
+
+		String name = localName(request).replace("Request", "Response");
+		String version = text(child(request, "version"));
+		return new SpmlResponseWriter(name, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+				"simulator:" + Long.toHexString(requestIds.incrementAndGet()), result,
+				version == null ? config.getVersion() : version);
+	}
+
+	private Element parse(String xml) {
+
+		try {
+			DocumentBuilder documentBuilder = documentBuilders.get();
+			documentBuilder.reset();
+			Document document = documentBuilder.parse(new InputSource(new StringReader(xml)));
+			return document.getDocumentElement();
+		} catch (Exception e) {
+			throw new IllegalStateException("Stored subscriber is not valid xml", e);
+		}
+	}
+
+	private static String serialize(Element element) {
+
+		StringBuilder xml = new StringBuilder(1024);
+		write(element, xml);
+		return xml.toString();
+	}
+
+	private static void write(Node node, StringBuilder xml) {
+
+		if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+			SpmlResponseWriter.escape(node.getNodeValue(), xml);
+		} else if (node.getNodeType() == Node.ELEMENT_NODE) {
+			xml.append('<').append(node.getNodeName());
+			NamedNodeMap attributes = node.getAttributes();
+			for (int i = 0; i < attributes.getLength(); i++) {
+				Node attribute = attributes.item(i);
+				xml.append(' ').append(attribute.getNodeName()).append("=\"");
+				SpmlResponseWriter.escape(attribute.getNodeValue(), xml);
+				xml.append('"');
+			}
+			xml.append('>');
+			for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling())
+				write(child, xml);
+			xml.append("</").append(node.getNodeName()).append('>');
+		}
+	}
+
+	private static String generateIdentifier() {
+
+		StringBuilder identifier = new StringBuilder(32);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < 32; i++)
+			identifier.append((char) ('0' + random.nextInt(10)));
+		return identifier.toString();
+	}
+
+	private static String elementName(String xsiType) {
+
+		String type = xsiType.substring(xsiType.indexOf(':') + 1);
+		if (IMPLICIT_REGISTERED_DATA_SET.equals(type))
+			return "implicitRegisteredSet";
+		return type.isEmpty() ? type : Character.toLowerCase(type.charAt(0)) + type.substring(1);
+	}
+
+	private static void addIfPresent(Set<String> values, String value) {
+		if (value != null && !value.isEmpty())
+			values.add(value);
+	}
+
+	static String localName(Node node) {
+
+		String name = node.getNodeName();
+		return name.substring(name.indexOf(':') + 1);
+	}
+
+	private static Element child(Element parent, String name) {
+
+		if (parent == null)
+			return null;
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node.getNodeType() == Node.ELEMENT_NODE && localName(node).equals(name))
+				return (Element) node;
+		}
+		return null;
+	}
+
+	private static Element firstChild(Element parent) {
+
+		List<Element> children = children(parent, null);
+		return children.isEmpty() ? null : children.get(0);
+	}
+
+	private static List<Element> children(Element parent, String name) {
+
+		List<Element> children = new ArrayList<>();
+		if (parent == null)
+			return children;
+		for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+			if (node.getNodeType() == Node.ELEMENT_NODE && (name == null || localName(node).equals(name)))
+				children.add((Element) node);
+		}
+		return children;
+	}
+
+	private static String text(Element element) {
+		return element == null ? null : element.getTextContent().trim();
+	}
+}
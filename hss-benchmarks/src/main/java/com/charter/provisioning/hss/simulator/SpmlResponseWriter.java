@@ -0,0 +1,97 @@
+package com.charter.provisioning.hss.simulator;
+
+/**
+ * Writes an SPML response element in the form the Provisioning Gateway sends
+ * it: result attributes on the root, version first, then the response data.
+ */
+class SpmlResponseWriter {
+
+	private final StringBuilder xml = new StringBuilder(512);
+
+	private final String name;
+
+	private final String version;
+
+	private boolean startTagOpen = true;
+
+	SpmlResponseWriter(String name, long executionTime, String requestId, String result, String version) {
+
+		this.name = name;
+		this.version = version;
+		xml.append("<spml:").append(name).append(" xmlns:spml=\"").append(SpmlRequestHandler.SPML_NAMESPACE)
+				.append("\" executionTime=\"").append(executionTime).append("\" requestID=\"").append(requestId)
+				.append("\" result=\"").append(result).append('"');
+	}
+
+	SpmlResponseWriter searchStatus() {
+
+		if (startTagOpen)
+			xml.append(" searchStatus=\"completeResult\"");
+		return this;
+	}
+
+	SpmlResponseWriter element(String element, String value) {
+
+		closeStartTag();
+		xml.append('<').append(element).append('>');
+		text(value);
+		xml.append("</").append(element).append('>');
+		return this;
+	}
+
+	SpmlResponseWriter errorMessage(String errorMessage) {
+		return element("errorMessage", errorMessage);
+	}
+
+	SpmlResponseWriter raw(String markup) {
+
+		closeStartTag();
+		xml.append(markup);
+		return this;
+	}
+
+	SpmlResponseWriter text(String value) {
+
+		escape(value, xml);
+		return this;
+	}
+
+	static void escape(String value, StringBuilder xml) {
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '<':
+				xml.append("&lt;");
+				break;
+			case '>':
+				xml.append("&gt;");
+				break;
+			case '&':
+				xml.append("&amp;");
+				break;
+			case '"':
+				xml.append("&quot;");
+				break;
+			default:
+				xml.append(c);
+			}
+		}
+	}
+
+	String end() {
+
+		closeStartTag();
+		return xml.append("</spml:").append(name).append('>').toString();
+	}
+
+	private void closeStartTag() {
+
+		if (startTagOpen) {
+			startTagOpen = false;
+			xml.append("><version>");
+			text(version);
+			xml.append("</version>");
+		}
+	}
+}
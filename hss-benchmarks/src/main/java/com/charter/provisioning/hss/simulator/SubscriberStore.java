@@ -0,0 +1,143 @@
+package com.charter.provisioning.hss.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory subscriber store of the gateway simulator. Subscribers are
+ * immutable and found by identifier or by any of their public (impu) and
+ * private (impi) user ids. Reads go straight to the maps, writes are
+ * serialized so a subscriber and its aliases always change together.
+ */
+public class SubscriberStore {
+
+	static final String PUBLIC_ALIAS = "impu";
+
+	static final String PRIVATE_ALIAS = "impi";
+
+	private final Map<String, StoredSubscriber> subscribers = new ConcurrentHashMap<>();
+
+	private final Map<String, String> publicAliases = new ConcurrentHashMap<>();
+
+	private final Map<String, String> privateAliases = new ConcurrentHashMap<>();
+
+	/**
+	 * Adds a new subscriber.
+	 * @param subscriber
+	 * @return false if the identifier or one of the user ids is already provisioned.
+	 */
+	public synchronized boolean add(StoredSubscriber subscriber) {
+
+		if (subscribers.containsKey(subscriber.getIdentifier()) || isTaken(subscriber, null))
+			return false;
+
+		subscribers.put(subscriber.getIdentifier(), subscriber);
+		index(subscriber);
+		return true;
+	}
+
+	/**
+	 * Replaces a provisioned subscriber with its modified copy.
+	 * @param subscriber
+	 * @return false if the subscriber is gone or a new user id belongs to another subscriber.
+	 */
+	public synchronized boolean replace(StoredSubscriber subscriber) {
+
+		StoredSubscriber current = subscribers.get(subscriber.getIdentifier());
+		if (current == null || isTaken(subscriber, subscriber.getIdentifier()))
+			return false;
+
+		unindex(current);
+		subscribers.put(subscriber.getIdentifier(), subscriber);
+		index(subscriber);
+		return true;
+	}
+
+	/**
+	 * Removes a subscriber and all of its user ids.
+	 * @param identifier
+	 * @return StoredSubscriber removed, null if not found.
+	 */
+	public synchronized StoredSubscriber delete(String identifier) {
+
+		StoredSubscriber removed = subscribers.remove(identifier);
+		if (removed != null)
+			unindex(removed);
+		return removed;
+	}
+
+	public StoredSubscriber findByIdentifier(String identifier) {
+		return identifier == null ? null : subscribers.get(identifier);
+	}
+
+	/**
+	 * Finds a subscriber the way the gateway resolves a search alias.
+	 * @param aliasName
+	 *            impu or impi.
+	 * @param value
+	 *            sip uri or private user id.
+	 * @return StoredSubscriber, null if not found.
+	 */
+	public StoredSubscriber findByAlias(String aliasName, String value) {
+
+		if (value == null)
+			return null;
+
+		String identifier = null;
+		if (PUBLIC_ALIAS.equalsIgnoreCase(aliasName))
+			identifier = publicAliases.get(value);
+		else if (PRIVATE_ALIAS.equalsIgnoreCase(aliasName))
+			identifier = privateAliases.get(value);
+
+		return findByIdentifier(identifier);
+	}
+
+	public int size() {
+		return subscribers.size();
+	}
+
+	private boolean isTaken(StoredSubscriber subscriber, String owner) {
+
+		return subscriber.getPublicUserIds().stream().anyMatch(id -> isTaken(publicAliases.get(id), owner))
+				|| subscriber.getPrivateUserIds().stream().anyMatch(id -> isTaken(privateAliases.get(id), owner));
+	}
+
+	private static boolean isTaken(String identifier, String owner) {
+		return identifier != null && !identifier.equals(owner);
+	}
+
+	private void index(StoredSubscriber subscriber) {
+
+		subscriber.getPublicUserIds().forEach(id -> publicAliases.put(id, subscriber.getIdentifier()));
+		subscriber.getPrivateUserIds().forEach(id -> privateAliases.put(id, subscriber.getIdentifier()));
+	}
+
+	private void unindex(StoredSubscriber subscriber) {
+
+		subscriber.getPublicUserIds().forEach(publicAliases::remove);
+		subscriber.getPrivateUserIds().forEach(privateAliases::remove);
+	}
+
+	/**
+	 * Provisioned subscriber, the hss element is kept as xml so searches can
+	 * answer without any further processing.
+	 */
+	@Getter
+	@Builder
+	public static class StoredSubscriber {
+
+		private final String identifier;
+
+		private final String subscriberNamespace;
+
+		private final String hssXml;
+
+		private final Set<String> publicUserIds;
+
+		private final Set<String> privateUserIds;
+	}
+}
@@ -0,0 +1,215 @@
+package com.charter.provisioning.hss.simulator;
+
+import com.charter.provisioning.hss.benchmark.BenchmarkFixtures;
+import com.charter.provisioning.hss.cache.ServiceProfileTemplateCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.ServiceUtil;
+import com.charter.provisioning.hss.common.SoapMessage;
+import com.charter.provisioning.hss.common.SoapMessageFactory;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SerializableConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+import com.charter.provisioning.hss.external.HSSSubscriberProxy;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import com.charter.provisioning.network.hss.subscriber.spml.ModifyRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.PublicUserId;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Drives the simulator through the same request building, marshalling and
+ * transport hss-service uses against the real gateway.
+ */
+public class GatewaySimulatorTest {
+
+	private static final String E164_PUBLIC_USER_ID = "sip:+18216328886@ims.eng.rr.com";
+
+	private SimulatorConfig simulatorConfig;
+
+	private GatewaySimulator simulator;
+
+	private CloseableHttpAsyncClient httpClient;
+
+	private SpmlConfig spmlConfig;
+
+	private HssServiceConfig serviceConfig;
+
+	private DigitalPhoneCommon digitalPhoneCommon;
+
+	private SerializableConfig serializableConfig;
+
+	private HSSSubscriberProxy subscriberProxy;
+
+	@Before
+	public void setup() throws Exception {
+
+		simulatorConfig = new SimulatorConfig();
+		simulatorConfig.setPort(0);
+		simulatorConfig.setThreads(2);
+
+		spmlConfig = BenchmarkFixtures.spmlConfig("stax");
+		serviceConfig = BenchmarkFixtures.hssServiceConfig();
+		digitalPhoneCommon = new DigitalPhoneCommon(spmlConfig, new ServiceUtil(), serviceConfig,
+				new ServiceProfileTemplateCache(serviceConfig));
+		serializableConfig = new SerializableConfig(spmlConfig, serviceConfig);
+
+		httpClient = HttpAsyncClients.createDefault();
+		httpClient.start();
+		subscriberProxy = new HSSSubscriberProxy(serviceConfig, httpClient, Runnable::run);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+
+		httpClient.close();
+		if (simulator != null)
+			simulator.stop();
+	}
+
+	@Test
+	public void process_AddSearchModifyDelete_ExpectsSubscriberLifecycle() throws Exception {
+
+		startSimulator();
+
+		SpmlResponse addResponse = send(digitalPhoneCommon.createAddRequest(BenchmarkFixtures.digitalPhone(BenchmarkFixtures.DPHONE)));
+		assertThat(addResponse.getResult(), is("success"));
+		String identifier = addResponse.getIdentifier();
+
+		SpmlResponse searchResponse = send(digitalPhoneCommon.createSearchRequest(spmlConfig.getPublic_identity_search_name(),
+				"8216328886", BenchmarkFixtures.SITE, true));
+		assertThat(searchResponse.getResult(), is("success"));
+		assertThat(searchResponse.getSubscriber().getIdentifier(), is(identifier));
+		assertThat(publicUserIds(searchResponse), hasItem(E164_PUBLIC_USER_ID));
+
+		String privateUserId = searchResponse.getSubscriber().getHss().getPrivateUserId().get(0).getPrivateUserId();
+		SpmlResponse privateSearchResponse = send(digitalPhoneCommon.createSearchRequest(
+				spmlConfig.getPrivate_identity_search_name(), privateUserId.substring(0, privateUserId.indexOf('@')),
+				BenchmarkFixtures.SITE, false));
+		assertThat(privateSearchResponse.getSubscriber().getIdentifier(), is(identifier));
+
+		PublicUserId existing = searchResponse.getSubscriber().getHss().getPublicUserId().get(0);
+		ModifyRequest modifyRequest = digitalPhoneCommon.createModifyRequest(identifier);
+		modifyRequest.setModification(Collections.singletonList(digitalPhoneCommon.createPublicIdentityModification(
+				PublicIdentity.builder().userId("mlhg_409077_0001").build(), existing.getServiceProfileName(),
+				existing.getIrsId(), "false")));
+		assertThat(send(modifyRequest).getResult(), is("success"));
+
+		SpmlResponse modifiedResponse = send(digitalPhoneCommon.createSearchRequest(
+				spmlConfig.getPublic_identity_search_name(), "mlhg_409077_0001", BenchmarkFixtures.SITE, false));
+		assertThat(modifiedResponse.getSubscriber().getIdentifier(), is(identifier));
+		assertThat(publicUserIds(modifiedResponse), hasItem("sip:mlhg_409077_0001@ims.eng.rr.com"));
+
+		assertThat(send(digitalPhoneCommon.createDeleteRequest(identifier)).getResult(), is("success"));
+		assertThat(simulator.getStore().size(), is(0));
+
+		SpmlResponse deletedResponse = send(digitalPhoneCommon.createSearchRequest(
+				spmlConfig.getPublic_identity_search_name(), "8216328886", BenchmarkFixtures.SITE, true));
+		assertThat(deletedResponse.getResult(), is("failure"));
+		assertThat(deletedResponse.getSubscriber(), is((Object) null));
+	}
+
+	@Test
+	public void process_AddExistingPublicIdentity_ExpectsAlreadyExistsFailure() throws Exception {
+
+		startSimulator();
+
+		assertThat(send(digitalPhoneCommon.createAddRequest(BenchmarkFixtures.digitalPhone(BenchmarkFixtures.DPHONE))).getResult(),
+				is("success"));
+		SpmlResponse duplicate = send(digitalPhoneCommon.createAddRequest(BenchmarkFixtures.digitalPhone(BenchmarkFixtures.DPHONE)));
+
+		assertThat(duplicate.getResult(), is("failure"));
+		assertThat(duplicate.getErrorMessage(), containsString("already exists"));
+		assertThat(simulator.getStore().size(), is(1));
+	}
+
+	@Test
+	public void process_ErrorRateOne_ExpectsFailureResultWithoutStoreChange() throws Exception {
+
+		simulatorConfig.setErrorRate(1.0);
+		startSimulator();
+
+		SpmlResponse response = send(digitalPhoneCommon.createAddRequest(BenchmarkFixtures.digitalPhone(BenchmarkFixtures.HGROUP)));
+
+		assertThat(response.getResult(), is("failure"));
+		assertThat(response.getErrorMessage(), is(notNullValue()));
+		assertThat(simulator.getStore().size(), is(0));
+	}
+
+	@Test(expected = SoapServiceException.class)
+	public void process_FaultRateOne_ExpectsSoapServiceException() throws Exception {
+
+		simulatorConfig.setFaultRate(1.0);
+		startSimulator();
+
+		send(digitalPhoneCommon.createAddRequest(BenchmarkFixtures.digitalPhone(BenchmarkFixtures.BGROUP)));
+	}
+
+	@Test
+	public void process_FixedLatency_ExpectsDelayedResponse() throws Exception {
+
+		simulatorConfig.setLatencyDistribution(LatencyDistribution.FIXED);
+		simulatorConfig.setLatencyMillis(100);
+		startSimulator();
+
+		long start = System.nanoTime();
+		send(digitalPhoneCommon.createDeleteRequest("14786136245232146014940388441980"));
+
+		assertThat((System.nanoTime() - start) / 1_000_000, greaterThanOrEqualTo(100L));
+	}
+
+	@Test
+	public void load_DefaultConfig_ExpectsGatewayPath() throws Exception {
+
+		SimulatorConfig config = SimulatorConfig.load();
+
+		assertThat(config.getPort(), is(8081));
+		assertThat(config.getPath(), is("/ProvisioningGateway/services/SPMLHssSubscriber82Service"));
+		assertThat(config.getLatencyDistribution(), is(LatencyDistribution.NONE));
+		assertThat(config.getFaultRate(), is(not(1.0)));
+	}
+
+	private void startSimulator() throws Exception {
+
+		simulator = new GatewaySimulator(simulatorConfig);
+		simulator.start();
+		serviceConfig.setEndPointURL(simulator.getEndPointURL());
+	}
+
+	private SpmlResponse send(Object spmlRequest) throws Exception {
+
+		SoapMessage soapMessage = new SoapMessageFactory("SOAPAction", "SpmlRequest")
+				.createSoapMessage(serializableConfig.marshall(spmlRequest));
+		digitalPhoneCommon.populateSoapMessageProperties(soapMessage);
+		try {
+			return serializableConfig.unmarshall(subscriberProxy.sendAndReceiveAsync(soapMessage, "simulator-test")
+					.get(5, TimeUnit.SECONDS));
+		} catch (ExecutionException e) {
+			throw (Exception) e.getCause();
+		}
+	}
+
+	private static List<String> publicUserIds(SpmlResponse response) {
+
+		return response.getSubscriber().getHss().getPublicUserId().stream().map(PublicUserId::getPublicUserId)
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,81 @@
+package com.charter.provisioning.hss.simulator;
+
+import com.charter.provisioning.hss.simulator.SubscriberStore.StoredSubscriber;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class SubscriberStoreTest {
+
+	private SubscriberStore store;
+
+	@Before
+	public void setup() {
+		store = new SubscriberStore();
+	}
+
+	@Test
+	public void add_NewSubscriber_ExpectsFoundByEveryAlias() {
+
+		assertThat(store.add(subscriber("1", "sip:+18216328886@ims.eng.rr.com", "219BF751A12481C6@ims.eng.rr.com")), is(true));
+
+		assertThat(store.findByAlias("impu", "sip:+18216328886@ims.eng.rr.com").getIdentifier(), is("1"));
+		assertThat(store.findByAlias("IMPI", "219BF751A12481C6@ims.eng.rr.com").getIdentifier(), is("1"));
+		assertThat(store.findByAlias("impi", "sip:+18216328886@ims.eng.rr.com"), is(nullValue()));
+	}
+
+	@Test
+	public void add_PublicUserIdOfAnotherSubscriber_ExpectsRejected() {
+
+		store.add(subscriber("1", "sip:+18216328886@ims.eng.rr.com", "219BF751A12481C6@ims.eng.rr.com"));
+
+		assertThat(store.add(subscriber("2", "sip:+18216328886@ims.eng.rr.com", "319BF751A12481C6@ims.eng.rr.com")), is(false));
+		assertThat(store.findByAlias("impi", "319BF751A12481C6@ims.eng.rr.com"), is(nullValue()));
+		assertThat(store.size(), is(1));
+	}
+
+	@Test
+	public void replace_ChangedPublicUserIds_ExpectsOldAliasRemoved() {
+
+		store.add(subscriber("1", "sip:+18216328886@ims.eng.rr.com", "219BF751A12481C6@ims.eng.rr.com"));
+
+		assertThat(store.replace(subscriber("1", "sip:mlhg_409077_0001@ims.eng.rr.com", "219BF751A12481C6@ims.eng.rr.com")), is(true));
+
+		assertThat(store.findByAlias("impu", "sip:+18216328886@ims.eng.rr.com"), is(nullValue()));
+		assertThat(store.findByAlias("impu", "sip:mlhg_409077_0001@ims.eng.rr.com").getIdentifier(), is("1"));
+	}
+
+	@Test
+	public void replace_PublicUserIdOfAnotherSubscriber_ExpectsRejected() {
+
+		store.add(subscriber("1", "sip:+18216328886@ims.eng.rr.com", "219BF751A12481C6@ims.eng.rr.com"));
+		store.add(subscriber("2", "sip:+18216328887@ims.eng.rr.com", "319BF751A12481C6@ims.eng.rr.com"));
+
+		assertThat(store.replace(subscriber("2", "sip:+18216328886@ims.eng.rr.com", "319BF751A12481C6@ims.eng.rr.com")), is(false));
+		assertThat(store.findByAlias("impu", "sip:+18216328887@ims.eng.rr.com").getIdentifier(), is("2"));
+	}
+
+	@Test
+	public void delete_ProvisionedSubscriber_ExpectsAliasesRemoved() {
+
+		store.add(subscriber("1", "sip:+18216328886@ims.eng.rr.com", "219BF751A12481C6@ims.eng.rr.com"));
+
+		assertThat(store.delete("1").getIdentifier(), is("1"));
+		assertThat(store.delete("1"), is(nullValue()));
+		assertThat(store.findByAlias("impu", "sip:+18216328886@ims.eng.rr.com"), is(nullValue()));
+		assertThat(store.findByAlias("impi", "219BF751A12481C6@ims.eng.rr.com"), is(nullValue()));
+	}
+
+	private static StoredSubscriber subscriber(String identifier, String publicUserId, String privateUserId) {
+
+		return StoredSubscriber.builder().identifier(identifier).hssXml("<hss></hss>")
+				.publicUserIds(new HashSet<>(Collections.singletonList(publicUserId)))
+				.privateUserIds(new HashSet<>(Collections.singletonList(privateUserId))).build();
+	}
+}
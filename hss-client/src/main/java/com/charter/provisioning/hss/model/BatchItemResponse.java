@@ -0,0 +1,21 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BatchItemResponse {
+
+	public BatchItemResponse() {}
+
+	private int index;
+
+	private String identity;
+
+	private int httpStatus;
+
+	private DigitalPhoneResponse response;
+}
@@ -0,0 +1,212 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends a single HSS search for concurrent searches of the same identity, keyed
+ * by the alias of the built search request as returned by
+ * {@link SubscriberCache#key}, so searches sent identically are shared. The
+ * first caller runs the search, callers arriving while it is in flight wait for
+ * and share its response or exception. A caller that arrived after an add,
+ * modify or delete which {@link SubscriberCache#isStale} says may have changed
+ * the shared response sends its own search instead, so a response that may
+ * predate a write is never shared with requests arriving after it, while writes
+ * to other subscribers leave searches shared.
+ */
+@Slf4j
+@Component
+public class SearchCoalescer implements MeterBinder {
+
+	private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+	private final SubscriberCache subscriberCache;
+
+	private final LongAdder searches = new LongAdder();
+
+	private final LongAdder waiters = new LongAdder();
+
+	private final LongAdder waitNanos = new LongAdder();
+
+	@Autowired
+	public SearchCoalescer(SubscriberCache subscriberCache) {
+		this.subscriberCache = subscriberCache;
+	}
+
+	/**
+	 * Sends the search, or joins the identical search already in flight, without
+	 * blocking the calling thread. Cancelling the returned future cancels the
+	 * search sent to HSS once no other caller is waiting for it.
+	 * @param key
+	 *            {@link SubscriberCache#key} of the search request, the search is
+	 *            not shared if null.
+	 * @param generation
+	 *            value of {@link SubscriberCache#generation()} read before the
+	 *            search.
+	 * @param search
+	 *            sends the search to HSS.
+	 * @return CompletableFuture completed with the SpmlResponse or the exception
+	 *         of the search.
+	 */
+	public CompletableFuture<SpmlResponse> searchAsync(String key, long generation,
+			Supplier<CompletableFuture<SpmlResponse>> search) {
+
+		if (key == null)
+			return send(search);
+
+		Flight flight = new Flight(generation);
+		Flight leader = inFlight.putIfAbsent(key, flight);
+
+		if (leader != null) {
+			CompletableFuture<SpmlResponse> response = await(key, leader, generation, search);
+			// every earlier caller cancelled, the search is being cancelled and not shared
+			return response != null ? response : send(search);
+		}
+
+		CompletableFuture<SpmlResponse> response = flight.subscribe();
+		flight.search = send(search);
+		flight.search.whenComplete((spmlResponse, e) -> {
+			inFlight.remove(key, flight);
+			if (e != null)
+				flight.response.completeExceptionally(e);
+			else
+				flight.response.complete(spmlResponse);
+		});
+		return response;
+	}
+
+	public int inFlight() {
+		return inFlight.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		FunctionCounter.builder("hss.subscriber.search.sent", searches, LongAdder::doubleValue)
+				.description("Subscriber searches sent to HSS by the coalescer").register(registry);
+		FunctionTimer.builder("hss.subscriber.search.coalesced", this, coalescer -> coalescer.waiters.longValue(),
+				coalescer -> coalescer.waitNanos.doubleValue(), TimeUnit.NANOSECONDS)
+				.description("Time searches waited for an identical search in flight").register(registry);
+	}
+
+	private CompletableFuture<SpmlResponse> send(Supplier<CompletableFuture<SpmlResponse>> search) {
+
+		searches.increment();
+		try {
+			return search.get();
+		} catch (RuntimeException e) {
+			CompletableFuture<SpmlResponse> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	// null if the flight can no longer be joined
+	private CompletableFuture<SpmlResponse> await(String key, Flight leader, long generation,
+			Supplier<CompletableFuture<SpmlResponse>> search) {
+
+		CompletableFuture<SpmlResponse> response = leader.subscribe();
+		if (response == null)
+			return null;
+
+		log.debug("Waiting for the search of {} in flight", key);
+		long start = System.nanoTime();
+		response.whenComplete((spmlResponse, e) -> {
+			waiters.increment();
+			waitNanos.add(System.nanoTime() - start);
+		});
+		if (generation <= leader.generation)
+			return response;
+
+		// the subscriber may have been written after the search was sent and before this caller arrived
+		CompletableFuture<SpmlResponse> current = new CompletableFuture<>();
+		response.whenComplete((spmlResponse, e) -> {
+			if (e == null && subscriberCache.isStale(spmlResponse, leader.generation)) {
+				log.debug("Search of {} in flight may predate a write, searching again", key);
+				CompletableFuture<SpmlResponse> resent = send(search);
+				complete(current, resent);
+				current.whenComplete((ignored, cancelled) -> {
+					if (current.isCancelled())
+						resent.cancel(true);
+				});
+			} else {
+				complete(current, response);
+			}
+		});
+		current.whenComplete((ignored, e) -> {
+			if (current.isCancelled())
+				response.cancel(true);
+		});
+		return current;
+	}
+
+	private static void complete(CompletableFuture<SpmlResponse> target, CompletableFuture<SpmlResponse> source) {
+
+		source.whenComplete((spmlResponse, e) -> {
+			if (e != null)
+				target.completeExceptionally(e);
+			else
+				target.complete(spmlResponse);
+		});
+	}
+
+	private static final class Flight {
+
+		private final long generation;
+
+		private final CompletableFuture<SpmlResponse> response = new CompletableFuture<>();
+
+		// callers waiting for the response, the search is cancelled once all of them cancelled
+		private final AtomicInteger subscribers = new AtomicInteger();
+
+		private volatile CompletableFuture<SpmlResponse> search;
+
+		private Flight(long generation) {
+			this.generation = generation;
+		}
+
+		private CompletableFuture<SpmlResponse> subscribe() {
+
+			int count;
+			do {
+				count = subscribers.get();
+				if (count < 0)
+					return null;
+			} while (!subscribers.compareAndSet(count, count + 1));
+
+			CompletableFuture<SpmlResponse> subscription = new CompletableFuture<>();
+			response.whenComplete((spmlResponse, e) -> {
+				if (e != null)
+					subscription.completeExceptionally(e);
+				else
+					subscription.complete(spmlResponse);
+			});
+			subscription.whenComplete((spmlResponse, e) -> {
+				if (subscription.isCancelled())
+					unsubscribe();
+			});
+			return subscription;
+		}
+
+		private void unsubscribe() {
+
+			// the last caller closes the flight to new callers before cancelling
+			if (subscribers.decrementAndGet() == 0 && subscribers.compareAndSet(0, -1) && search != null)
+				search.cancel(true);
+		}
+	}
+}
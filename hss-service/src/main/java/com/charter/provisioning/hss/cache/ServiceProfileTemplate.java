@@ -0,0 +1,54 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.network.hss.subscriber.spml.schema.GlobalFilterId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.ServiceProfile;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.SubscribedMediaProfileID;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable part of an HSS service profile, identical for every public identity
+ * of a feature package, feature code set and tas. Each call of
+ * {@link #newServiceProfile} returns new schema objects, as the SPML schema is
+ * mutable and XStream writes an instance shared within a request as a reference.
+ */
+public final class ServiceProfileTemplate {
+
+	private final String[] globalFilterIds;
+
+	private final String sessionReleasePolicy;
+
+	private final String forkingPolicy;
+
+	public ServiceProfileTemplate(List<String> globalFilterIds, String sessionReleasePolicy, String forkingPolicy) {
+		this.globalFilterIds = globalFilterIds.toArray(new String[0]);
+		this.sessionReleasePolicy = sessionReleasePolicy;
+		this.forkingPolicy = forkingPolicy;
+	}
+
+	/**
+	 * Creates the service profile of one implicit registered set.
+	 * @param profileName
+	 *            service profile name prefix and irs suffix.
+	 * @return ServiceProfile
+	 */
+	public ServiceProfile newServiceProfile(String profileName) {
+
+		List<GlobalFilterId> globalFilterIdList = new ArrayList<>(globalFilterIds.length);
+		for (String globalFilterId : globalFilterIds)
+			globalFilterIdList.add(GlobalFilterId.builder().globalFilterId(globalFilterId).build());
+
+		return ServiceProfile.builder()
+
+				.profileName(profileName).globalFilterId(globalFilterIdList)
+
+				.subscribedMediaProfileID(SubscribedMediaProfileID.builder().sessionReleasePolicy(sessionReleasePolicy)
+						.forkingPolicy(forkingPolicy).build())
+				.build();
+	}
+
+	public int getGlobalFilterIdCount() {
+		return globalFilterIds.length;
+	}
+}
@@ -0,0 +1,166 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.model.CacheSettings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Memo of service profile templates keyed by feature package, feature and
+ * blocking codes and tas, so the global filter ids of a profile are resolved once
+ * per distinct tuple instead of once per public identity. Templates only depend
+ * on the feature catalog and package classes, which HssServiceConfig builds once
+ * at startup and never changes, so they do not expire; at most
+ * hss.serviceProfileCache.maxSize templates are kept and the oldest are dropped
+ * first.
+ */
+@Slf4j
+@Component
+public class ServiceProfileTemplateCache implements MeterBinder {
+
+	private final int maxSize;
+
+	private final Map<TemplateKey, ServiceProfileTemplate> templates = new ConcurrentHashMap<>();
+
+	private final Queue<TemplateKey> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	@Autowired
+	public ServiceProfileTemplateCache(HssServiceConfig serviceConfig) {
+		this(serviceConfig.getServiceProfileCache());
+	}
+
+	public ServiceProfileTemplateCache(CacheSettings settings) {
+		this.maxSize = settings == null ? 0 : settings.getMaxSize();
+	}
+
+	/**
+	 * Returns the template of the tuple, building and memoizing it on first use.
+	 * @param featurePackage
+	 * @param featureCodes
+	 *            feature and blocking codes of the profile, in any order.
+	 * @param tas
+	 *            suffix appended to the service profile prefixes, empty if none.
+	 * @param builder
+	 *            builds the template of the tuple.
+	 * @return ServiceProfileTemplate
+	 */
+	public ServiceProfileTemplate get(String featurePackage, Collection<String> featureCodes, String tas,
+			Supplier<ServiceProfileTemplate> builder) {
+
+		if (!isEnabled())
+			return builder.get();
+
+		TemplateKey key = new TemplateKey(featurePackage, featureCodes, tas);
+		ServiceProfileTemplate template = templates.get(key);
+		if (template != null) {
+			hits.increment();
+			return template;
+		}
+
+		misses.increment();
+		template = builder.get();
+		if (templates.putIfAbsent(key, template) == null) {
+			insertionOrder.add(key);
+			trim();
+		}
+		return template;
+	}
+
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	public int size() {
+		return templates.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		FunctionCounter.builder("hss.service_profile.templates.requests", hits, LongAdder::doubleValue)
+				.tag("result", "hit").description("Service profiles built from a memoized template")
+				.register(registry);
+		FunctionCounter.builder("hss.service_profile.templates.requests", misses, LongAdder::doubleValue)
+				.tag("result", "miss").description("Service profile templates resolved from the feature catalog")
+				.register(registry);
+		Gauge.builder("hss.service_profile.templates.hit_ratio", this, ServiceProfileTemplateCache::hitRatio)
+				.description("Share of service profiles built from a memoized template").register(registry);
+		Gauge.builder("hss.service_profile.templates.size", templates, Map::size)
+				.description("Memoized service profile templates").register(registry);
+	}
+
+	double hitRatio() {
+
+		double hit = hits.doubleValue();
+		double total = hit + misses.doubleValue();
+		return total == 0 ? 0 : hit / total;
+	}
+
+	private void trim() {
+
+		while (templates.size() > maxSize) {
+			TemplateKey eldest = insertionOrder.poll();
+			if (eldest == null)
+				return;
+			templates.remove(eldest);
+			log.debug("Dropped service profile template of package {}", eldest.featurePackage);
+		}
+	}
+
+	private static final class TemplateKey {
+
+		private final String featurePackage;
+
+		// sorted and distinct, the catalog resolves codes independently of their order
+		private final String[] featureCodes;
+
+		private final String tas;
+
+		private final int hash;
+
+		private TemplateKey(String featurePackage, Collection<String> featureCodes, String tas) {
+
+			this.featurePackage = featurePackage;
+			this.featureCodes = featureCodes.stream().filter(Objects::nonNull).distinct().sorted()
+					.toArray(String[]::new);
+			this.tas = tas;
+			this.hash = Objects.hash(featurePackage, tas) * 31 + Arrays.hashCode(this.featureCodes);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+
+			if (this == o)
+				return true;
+			if (!(o instanceof TemplateKey))
+				return false;
+			TemplateKey other = (TemplateKey) o;
+			return hash == other.hash && Objects.equals(featurePackage, other.featurePackage)
+					&& Objects.equals(tas, other.tas) && Arrays.equals(featureCodes, other.featureCodes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
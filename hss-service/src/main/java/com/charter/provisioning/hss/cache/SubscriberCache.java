@@ -0,0 +1,491 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.hss.model.CacheSettings;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse.Status;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.ModifyRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SearchRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Hss;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.PrivateUserId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.PublicUserId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache of successful HSS subscriber searches. A subscriber is held
+ * once per identifier and indexed under the searched alias and every public and
+ * private user id it carries, so a search by E.164, national or private identity
+ * returns the same entry. Entries live for hss.subscriberCache.timeToLive and at
+ * most hss.subscriberCache.maxSize subscribers are kept, the oldest are dropped
+ * first. Any add, modify or delete sent for a subscriber identifier evicts the
+ * subscriber under all of its aliases at once, and voids the searches of that
+ * subscriber still in flight. Writes are tracked on hashed identifier stripes,
+ * so a write only voids searches of other subscribers sharing its stripe.
+ * <p>
+ * Searches the gateway answers as not found are kept apart, for
+ * hss.notFoundCache.timeToLive and up to hss.notFoundCache.maxSize searched
+ * identities, so retried existence checks of the create flows are answered
+ * locally. Any add or modify sent through the service may attach a cached
+ * identity to a subscriber, so it discards every not found search started
+ * before it.
+ */
+@Slf4j
+@Component
+public class SubscriberCache implements MeterBinder {
+
+	private static final String COMPLETE_RESULT = "completeResult";
+
+	private static final int INVALIDATION_STRIPES = 1024;
+
+	private final int maxSize;
+
+	private final long timeToLive;
+
+	private final int notFoundMaxSize;
+
+	private final long notFoundTimeToLive;
+
+	private final String publicIdentityType;
+
+	private final String privateIdentityType;
+
+	private final LongSupplier ticker;
+
+	private final Map<String, Entry> entriesByIdentifier = new ConcurrentHashMap<>();
+
+	private final Map<String, Entry> entriesByAlias = new ConcurrentHashMap<>();
+
+	// entries share one time to live, so insertion order is also expiry order
+	private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final Map<String, NotFoundEntry> notFoundEntries = new ConcurrentHashMap<>();
+
+	private final Queue<NotFoundEntry> notFoundInsertionOrder = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	// generation of the last write per identifier stripe, found searches started before it are stale
+	private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+	// generation of the last add or modify, not found searches started before it are stale
+	private final AtomicLong lastAddGeneration = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder notFoundHits = new LongAdder();
+
+	@Autowired
+	public SubscriberCache(HssServiceConfig serviceConfig, SpmlConfig spmlConfig) {
+		this(serviceConfig.getSubscriberCache(), serviceConfig.getNotFoundCache(), spmlConfig, System::nanoTime);
+	}
+
+	SubscriberCache(CacheSettings settings, CacheSettings notFoundSettings, SpmlConfig spmlConfig,
+			LongSupplier ticker) {
+
+		this.maxSize = settings == null ? 0 : settings.getMaxSize();
+		this.timeToLive = settings == null ? 0 : TimeUnit.MILLISECONDS.toNanos(settings.getTimeToLive());
+		this.notFoundMaxSize = notFoundSettings == null ? 0 : notFoundSettings.getMaxSize();
+		this.notFoundTimeToLive = notFoundSettings == null ? 0
+				: TimeUnit.MILLISECONDS.toNanos(notFoundSettings.getTimeToLive());
+		this.publicIdentityType = spmlConfig.getPublic_identity_search_name();
+		this.privateIdentityType = spmlConfig.getPrivate_identity_search_name();
+		this.ticker = ticker;
+	}
+
+	/**
+	 * Returns the cache key of a search request, the identity type and the alias
+	 * the request searches, null if the request has no alias. Also keys the
+	 * searches shared by SearchCoalescer, so it is built with the cache disabled
+	 * too.
+	 * @param identityType
+	 *            impu or impi.
+	 * @param searchRequest
+	 *            search request built by DigitalPhoneCommon.
+	 * @return String
+	 */
+	public String key(String identityType, SearchRequest searchRequest) {
+
+		if (identityType == null || searchRequest == null || searchRequest.getBase() == null
+				|| searchRequest.getBase().getAlias() == null)
+			return null;
+
+		return alias(identityType, searchRequest.getBase().getAlias().getValue());
+	}
+
+	/**
+	 * Returns the cached search response of the subscriber indexed under the key,
+	 * or the cached failed response if the key was recently not found.
+	 * @param key
+	 * @return SpmlResponse, null if not cached or expired.
+	 */
+	public SpmlResponse get(String key) {
+
+		if (key == null || !isEnabled() && !isNotFoundEnabled())
+			return null;
+
+		long now = ticker.getAsLong();
+		Entry entry = entriesByAlias.get(key);
+		if (entry != null && !entry.invalidated && !isExpired(entry.expiresAt, now)) {
+			hits.increment();
+			return entry.response;
+		}
+
+		NotFoundEntry notFoundEntry = notFoundEntries.get(key);
+		if (notFoundEntry != null && isCurrent(notFoundEntry) && !isExpired(notFoundEntry.expiresAt, now)) {
+			notFoundHits.increment();
+			return notFoundEntry.response;
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Returns the cached search response of the subscriber.
+	 * @param identifier
+	 *            HSS subscriber identifier.
+	 * @return SpmlResponse, null if not cached or expired.
+	 */
+	public SpmlResponse getByIdentifier(String identifier) {
+
+		if (identifier == null || !isEnabled())
+			return null;
+
+		return response(entriesByIdentifier.get(identifier));
+	}
+
+	/**
+	 * Returns the current invalidation generation, read it before sending the
+	 * search whose response is cached with {@link #put}.
+	 * @return long
+	 */
+	public long generation() {
+		return generation.get();
+	}
+
+	/**
+	 * Returns whether the subscriber a search response is about may have changed
+	 * since the search was sent: its identifier was invalidated for a found
+	 * subscriber, any add or modify was sent for a not found one.
+	 * @param response
+	 * @param searchGeneration
+	 *            value of {@link #generation()} read before the search was sent.
+	 * @return boolean
+	 */
+	public boolean isStale(SpmlResponse response, long searchGeneration) {
+
+		if (response == null)
+			return false;
+		if (Status.SUCCESS.name().equalsIgnoreCase(response.getResult()))
+			return response.getSubscriber() != null && response.getSubscriber().getIdentifier() != null
+					&& invalidations.get(stripe(response.getSubscriber().getIdentifier())) > searchGeneration;
+		return lastAddGeneration.get() > searchGeneration;
+	}
+
+	/**
+	 * Caches a search response. A successful response is cached under the searched
+	 * key and every user id of the subscriber, replacing the previous entry of
+	 * that subscriber, and is dropped if the subscriber was invalidated since the
+	 * search was sent, as it may predate that change. Only the gateway's explicit
+	 * not found answer is cached as not found under the searched key, gateway
+	 * errors and empty responses are not cached at all.
+	 * @param key
+	 * @param response
+	 * @param searchGeneration
+	 *            value of {@link #generation()} read before the search was sent.
+	 */
+	public void put(String key, SpmlResponse response, long searchGeneration) {
+
+		if (key == null || response == null)
+			return;
+
+		if (!Status.SUCCESS.name().equalsIgnoreCase(response.getResult())) {
+			if (isNotFound(response))
+				putNotFound(key, response, searchGeneration);
+			return;
+		}
+
+		if (!isEnabled() || response.getSubscriber() == null || response.getSubscriber().getIdentifier() == null)
+			return;
+
+		long now = ticker.getAsLong();
+		String identifier = response.getSubscriber().getIdentifier();
+		Entry entry = new Entry(identifier, aliases(key, response.getSubscriber()), response, now + timeToLive);
+
+		// writers of one subscriber are serialized on its identifier
+		entriesByIdentifier.compute(identifier, (id, previous) -> {
+			if (invalidations.get(stripe(id)) > searchGeneration)
+				return previous;
+			if (previous != null)
+				unlink(previous);
+			entry.aliases.forEach(alias -> {
+				entriesByAlias.put(alias, entry);
+				notFoundEntries.remove(alias);
+			});
+			insertionOrder.add(entry);
+			return entry;
+		});
+
+		trim(now);
+	}
+
+	/**
+	 * Evicts the subscriber an add, modify or delete request was sent for.
+	 * @param spmlRequest
+	 */
+	public void invalidate(SpmlRequest spmlRequest) {
+
+		if (spmlRequest instanceof AddRequest || spmlRequest instanceof ModifyRequest)
+			invalidateNotFound();
+
+		String identifier = identifier(spmlRequest);
+		if (identifier != null)
+			invalidate(identifier);
+	}
+
+	/**
+	 * Evicts the subscriber under every alias it is indexed with.
+	 * @param identifier
+	 *            HSS subscriber identifier.
+	 */
+	public void invalidate(String identifier) {
+
+		long invalidated = generation.incrementAndGet();
+		// stamped while holding the identifier, so a put of the same subscriber sees it or is evicted
+		entriesByIdentifier.compute(identifier, (id, entry) -> {
+			invalidations.accumulateAndGet(stripe(id), invalidated, Math::max);
+			if (entry != null) {
+				unlink(entry);
+				log.debug("Evicted subscriber {} cached under {} aliases", id, entry.aliases.size());
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Discards every cached not found search.
+	 */
+	public void invalidateNotFound() {
+
+		lastAddGeneration.accumulateAndGet(generation.incrementAndGet(), Math::max);
+		notFoundEntries.clear();
+	}
+
+	public boolean isEnabled() {
+		return maxSize > 0 && timeToLive > 0;
+	}
+
+	public boolean isNotFoundEnabled() {
+		return notFoundMaxSize > 0 && notFoundTimeToLive > 0;
+	}
+
+	public int size() {
+		return entriesByIdentifier.size();
+	}
+
+	public int notFoundSize() {
+		return notFoundEntries.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		FunctionCounter.builder("hss.subscriber.cache.requests", hits, LongAdder::doubleValue).tag("result", "hit")
+				.description("Subscriber searches answered from the cache").register(registry);
+		FunctionCounter.builder("hss.subscriber.cache.requests", notFoundHits, LongAdder::doubleValue)
+				.tag("result", "not_found_hit").description("Subscriber searches answered as not found from the cache")
+				.register(registry);
+		FunctionCounter.builder("hss.subscriber.cache.requests", misses, LongAdder::doubleValue).tag("result", "miss")
+				.description("Subscriber searches sent to HSS").register(registry);
+		Gauge.builder("hss.subscriber.cache.size", entriesByIdentifier, Map::size)
+				.description("Cached subscribers").register(registry);
+		Gauge.builder("hss.subscriber.cache.aliases", entriesByAlias, Map::size)
+				.description("Identities the cached subscribers are indexed under").register(registry);
+		Gauge.builder("hss.subscriber.cache.not_found.size", notFoundEntries, Map::size)
+				.description("Cached not found searches").register(registry);
+	}
+
+	private void putNotFound(String key, SpmlResponse response, long searchGeneration) {
+
+		if (!isNotFoundEnabled())
+			return;
+
+		long now = ticker.getAsLong();
+		NotFoundEntry entry = new NotFoundEntry(key, response, searchGeneration, now + notFoundTimeToLive);
+		// an entry that missed an add is never returned, it only waits to be trimmed
+		if (isCurrent(entry)) {
+			notFoundEntries.put(key, entry);
+			notFoundInsertionOrder.add(entry);
+		}
+
+		NotFoundEntry head;
+		while ((head = notFoundInsertionOrder.peek()) != null && (!isCurrent(head)
+				|| isExpired(head.expiresAt, now) || notFoundEntries.size() > notFoundMaxSize)) {
+			NotFoundEntry polled = notFoundInsertionOrder.poll();
+			if (polled != null)
+				notFoundEntries.remove(polled.key, polled);
+		}
+	}
+
+	// a search without match still completes, a failing gateway does not say so
+	private static boolean isNotFound(SpmlResponse response) {
+
+		if (!COMPLETE_RESULT.equals(response.getSearchStatus()) || response.getErrorMessage() == null)
+			return false;
+		String errorMessage = response.getErrorMessage().toLowerCase(Locale.ROOT);
+		return errorMessage.contains(" not found") || errorMessage.contains("no object found");
+	}
+
+	private boolean isCurrent(NotFoundEntry entry) {
+		return entry.searchGeneration >= lastAddGeneration.get();
+	}
+
+	private SpmlResponse response(Entry entry) {
+
+		if (entry == null || entry.invalidated || isExpired(entry.expiresAt, ticker.getAsLong())) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.response;
+	}
+
+	private Set<String> aliases(String key, Subscriber subscriber) {
+
+		Set<String> aliases = new LinkedHashSet<>();
+		aliases.add(key);
+		Hss hss = subscriber.getHss();
+		if (hss != null) {
+			if (hss.getPublicUserId() != null) {
+				for (PublicUserId publicUserId : hss.getPublicUserId()) {
+					if (publicUserId != null)
+						addAlias(aliases, publicIdentityType, publicUserId.getOriginalPublicUserId());
+				}
+			}
+			if (hss.getPrivateUserId() != null) {
+				for (PrivateUserId privateUserId : hss.getPrivateUserId()) {
+					if (privateUserId != null)
+						addAlias(aliases, privateIdentityType, privateUserId.getPrivateUserId());
+				}
+			}
+		}
+		return aliases;
+	}
+
+	private static void addAlias(Set<String> aliases, String identityType, String value) {
+
+		String alias = alias(identityType, value);
+		if (alias != null)
+			aliases.add(alias);
+	}
+
+	private static String alias(String identityType, String value) {
+		return identityType == null || value == null ? null : identityType.toLowerCase(Locale.ROOT) + ':' + value;
+	}
+
+	private static int stripe(String identifier) {
+		return (identifier.hashCode() & Integer.MAX_VALUE) % INVALIDATION_STRIPES;
+	}
+
+	private void trim(long now) {
+
+		Entry head;
+		while ((head = insertionOrder.peek()) != null
+				&& (head.invalidated || isExpired(head.expiresAt, now) || entriesByIdentifier.size() > maxSize)) {
+			Entry polled = insertionOrder.poll();
+			if (polled != null && !polled.invalidated)
+				entriesByIdentifier.computeIfPresent(polled.identifier, (id, entry) -> {
+					if (entry != polled)
+						return entry;
+					unlink(entry);
+					return null;
+				});
+		}
+	}
+
+	// hides the entry under all of its aliases with a single write, then drops the aliases
+	private void unlink(Entry entry) {
+
+		entry.invalidated = true;
+		entry.aliases.forEach(alias -> entriesByAlias.remove(alias, entry));
+	}
+
+	private static boolean isExpired(long expiresAt, long now) {
+		return expiresAt - now <= 0;
+	}
+
+	private static String identifier(SpmlRequest spmlRequest) {
+
+		if (spmlRequest instanceof ModifyRequest)
+			return ((ModifyRequest) spmlRequest).getIdentifier();
+		if (spmlRequest instanceof DeleteRequest)
+			return ((DeleteRequest) spmlRequest).getIdentifier();
+		if (spmlRequest instanceof AddRequest && ((AddRequest) spmlRequest).getObject() != null)
+			return ((AddRequest) spmlRequest).getObject().getIdentifier();
+		return null;
+	}
+
+	private static final class Entry {
+
+		private final String identifier;
+
+		private final Set<String> aliases;
+
+		private final SpmlResponse response;
+
+		private final long expiresAt;
+
+		private volatile boolean invalidated;
+
+		private Entry(String identifier, Set<String> aliases, SpmlResponse response, long expiresAt) {
+			this.identifier = identifier;
+			this.aliases = aliases;
+			this.response = response;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private static final class NotFoundEntry {
+
+		private final String key;
+
+		private final SpmlResponse response;
+
+		private final long searchGeneration;
+
+		private final long expiresAt;
+
+		private NotFoundEntry(String key, SpmlResponse response, long searchGeneration, long expiresAt) {
+			this.key = key;
+			this.response = response;
+			this.searchGeneration = searchGeneration;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.charter.provisioning.hss.common;
+
+/**
+ * Generates the decimal keys used as HSS subscriber identifiers. The
+ * implementation used by DigitalPhoneCommon is selected with
+ * spml.identifier_generator, implementations are shared by all requests.
+ * Private identities and implicit registered set suffixes always get random
+ * keys from ServiceUtil.appendRandom.
+ */
+@FunctionalInterface
+public interface IdentifierGenerator {
+
+	/**
+	 * Generates a key of the given number of decimal digits.
+	 * @param length
+	 * @return String
+	 */
+	String generate(int length);
+}
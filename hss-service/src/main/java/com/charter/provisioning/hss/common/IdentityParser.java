@@ -0,0 +1,188 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.model.MlhgId;
+import com.charter.provisioning.hss.model.PickupGroupId;
+import com.charter.provisioning.hss.model.SipUri;
+import com.charter.provisioning.hss.model.TelephoneNumber;
+
+/**
+ * Parses and formats the public identities handled by the service: telephone
+ * numbers, mlhg_x_yyyy hunt group ids, pickup_group_n business group ids and
+ * sip:[+1]user@domain public user ids. Parsing walks the characters once
+ * without regular expressions, the is* checks do not allocate and the parse*
+ * methods return null for an invalid identity.
+ */
+public final class IdentityParser {
+
+	private static final int TELEPHONE_NUMBER_LENGTH = 10;
+
+	private static final char DELIMITER = ServiceConstants.NATIONAL_PUBLIC_DELIMITER.charAt(0);
+
+	private static final char DOMAIN_DELIMITER = '@';
+
+	private IdentityParser() {
+	}
+
+	/**
+	 * Checks for a ten digit telephone number not starting with zero.
+	 * @param value
+	 * @return boolean
+	 */
+	public static boolean isTelephoneNumber(CharSequence value) {
+		return value != null && isTelephoneNumber(value, 0, value.length());
+	}
+
+	public static TelephoneNumber parseTelephoneNumber(String value) {
+		return isTelephoneNumber(value) ? new TelephoneNumber(value) : null;
+	}
+
+	/**
+	 * Checks for mlhg_ followed by digit groups separated by a single delimiter.
+	 * @param value
+	 * @return boolean
+	 */
+	public static boolean isMlhgId(String value) {
+		return lastMlhgGroup(value) >= 0;
+	}
+
+	public static MlhgId parseMlhgId(String value) {
+
+		int lastGroup = lastMlhgGroup(value);
+		if (lastGroup < 0)
+			return null;
+
+		int prefixLength = ServiceConstants.MLHG_ID.length();
+		if (lastGroup == prefixLength)
+			return new MlhgId(value, value.substring(prefixLength), "");
+		return new MlhgId(value, value.substring(prefixLength, lastGroup - 1), value.substring(lastGroup));
+	}
+
+	/**
+	 * Checks for pickup_group_ followed by digits.
+	 * @param value
+	 * @return boolean
+	 */
+	public static boolean isPickupGroupId(String value) {
+		return value != null && value.startsWith(ServiceConstants.PICKUP_GROUP)
+				&& isDigits(value, ServiceConstants.PICKUP_GROUP.length(), value.length());
+	}
+
+	public static PickupGroupId parsePickupGroupId(String value) {
+		return isPickupGroupId(value)
+				? new PickupGroupId(value, value.substring(ServiceConstants.PICKUP_GROUP.length())) : null;
+	}
+
+	/**
+	 * Parses a public user id.
+	 * @param uri
+	 * @param sipPrefix
+	 *            hss.sipPrefix.
+	 * @param e164DigitPrefix
+	 *            hss.E164DigitPrefix.
+	 * @return SipUri, null if the uri does not start with the sip prefix.
+	 */
+	public static SipUri parseSipUri(String uri, String sipPrefix, String e164DigitPrefix) {
+
+		int userStart = userStart(uri, sipPrefix, e164DigitPrefix);
+		if (userStart < 0)
+			return null;
+
+		int domainDelimiter = uri.indexOf(DOMAIN_DELIMITER, userStart);
+		int userEnd = domainDelimiter < 0 ? uri.length() : domainDelimiter;
+		String user = uri.substring(userStart, userEnd);
+		return new SipUri(userStart > sipPrefix.length(), user,
+				domainDelimiter < 0 ? null : uri.substring(domainDelimiter + 1),
+				isTelephoneNumber(user) ? new TelephoneNumber(user) : null);
+	}
+
+	/**
+	 * Returns the telephone number of a public user id.
+	 * @param uri
+	 * @param sipPrefix
+	 *            hss.sipPrefix.
+	 * @param e164DigitPrefix
+	 *            hss.E164DigitPrefix.
+	 * @return String, null if the user of the uri is not a telephone number.
+	 */
+	public static String getSipTelephoneNumber(String uri, String sipPrefix, String e164DigitPrefix) {
+
+		int userStart = userStart(uri, sipPrefix, e164DigitPrefix);
+		if (userStart < 0)
+			return null;
+
+		int domainDelimiter = uri.indexOf(DOMAIN_DELIMITER, userStart);
+		int userEnd = domainDelimiter < 0 ? uri.length() : domainDelimiter;
+		return isTelephoneNumber(uri, userStart, userEnd) ? uri.substring(userStart, userEnd) : null;
+	}
+
+	/**
+	 * Formats an identity as prefix, user, @ and domain, the prefixes are skipped
+	 * when null.
+	 * @param sipPrefix
+	 * @param e164DigitPrefix
+	 * @param user
+	 * @param domain
+	 * @return String
+	 */
+	public static String formatSipUri(String sipPrefix, String e164DigitPrefix, String user, String domain) {
+
+		StringBuilder uri = new StringBuilder(length(sipPrefix) + length(e164DigitPrefix) + length(user)
+				+ length(domain) + 1);
+		if (sipPrefix != null)
+			uri.append(sipPrefix);
+		if (e164DigitPrefix != null)
+			uri.append(e164DigitPrefix);
+		return uri.append(user).append(DOMAIN_DELIMITER).append(domain).toString();
+	}
+
+	private static boolean isTelephoneNumber(CharSequence value, int start, int end) {
+		return end - start == TELEPHONE_NUMBER_LENGTH && value.charAt(start) != '0' && isDigits(value, start, end);
+	}
+
+	// start of the last digit group of a valid mlhg id, -1 if the id is invalid
+	private static int lastMlhgGroup(String value) {
+
+		if (value == null || !value.startsWith(ServiceConstants.MLHG_ID))
+			return -1;
+
+		int groupStart = ServiceConstants.MLHG_ID.length();
+		for (int i = groupStart; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == DELIMITER) {
+				if (i == groupStart)
+					return -1;
+				groupStart = i + 1;
+			} else if (!isDigit(c)) {
+				return -1;
+			}
+		}
+		return groupStart < value.length() ? groupStart : -1;
+	}
+
+	private static int userStart(String uri, String sipPrefix, String e164DigitPrefix) {
+
+		if (uri == null || sipPrefix == null || !uri.startsWith(sipPrefix))
+			return -1;
+		if (e164DigitPrefix != null && !e164DigitPrefix.isEmpty() && uri.startsWith(e164DigitPrefix, sipPrefix.length()))
+			return sipPrefix.length() + e164DigitPrefix.length();
+		return sipPrefix.length();
+	}
+
+	private static boolean isDigits(CharSequence value, int start, int end) {
+
+		if (start >= end)
+			return false;
+		for (int i = start; i < end; i++)
+			if (!isDigit(value.charAt(i)))
+				return false;
+		return true;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int length(String value) {
+		return value == null ? 0 : value.length();
+	}
+}
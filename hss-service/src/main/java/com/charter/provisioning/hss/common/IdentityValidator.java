@@ -0,0 +1,66 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates the identities a subscriber is searched by, so GET /digital-phones
+ * and POST /digital-phones/lookup accept and reject the same input.
+ */
+@Slf4j
+@Component
+public class IdentityValidator {
+
+	private final int privateIdentityLength;
+
+	@Autowired
+	public IdentityValidator(@Value("${privateIdentity.length}") int privateIdentityLength) {
+		this.privateIdentityLength = privateIdentityLength;
+	}
+
+	/**
+	 * @param telephoneNumber
+	 * @param transactionId
+	 * @throws ServiceException
+	 *             400 if not a ten digit telephone number.
+	 */
+	public void validateTelephoneNumber(String telephoneNumber, String transactionId) {
+
+		if (!IdentityParser.isTelephoneNumber(telephoneNumber)) {
+			log.error("[{}] - Invalid telephoneNumber {}", transactionId, telephoneNumber);
+			throw new ServiceException(HttpStatus.BAD_REQUEST.value(), "Invalid telephoneNumber");
+		}
+	}
+
+	/**
+	 * @param controllerId
+	 * @param transactionId
+	 * @throws ServiceException
+	 *             400 if neither a pickup group id nor an mlhg id.
+	 */
+	public void validateControllerId(String controllerId, String transactionId) {
+
+		if (!IdentityParser.isPickupGroupId(controllerId) && !IdentityParser.isMlhgId(controllerId)) {
+			log.error("[{}] - Invalid controllerId {}", transactionId, controllerId);
+			throw new ServiceException(HttpStatus.BAD_REQUEST.value(), "Invalid controllerId");
+		}
+	}
+
+	/**
+	 * @param privateIdentity
+	 * @param transactionId
+	 * @throws ServiceException
+	 *             400 if not privateIdentity.length characters long.
+	 */
+	public void validatePrivateIdentity(String privateIdentity, String transactionId) {
+
+		if (privateIdentity == null || privateIdentity.length() != privateIdentityLength) {
+			log.error("[{}] - Invalid privateIdentity {}", transactionId, privateIdentity);
+			throw new ServiceException(HttpStatus.BAD_REQUEST.value(), "Invalid privateIdentity");
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.ExecutorSettings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool running the handler chain of the asynchronous HSSController
+ * endpoints, so servlet threads are released while SPML round trips are in
+ * flight. hss.requestExecutor.poolSize threads take requests from a queue of
+ * hss.requestExecutor.queueCapacity; a request arriving when both are full is
+ * rejected with 503 instead of waiting on a servlet thread.
+ * <p>
+ * Cancelling a task waiting for a thread drops it at once. Cancelling a running
+ * task interrupts it, and its future only completes as cancelled once the task
+ * returned, so callers ordering work behind it know when it really stopped.
+ */
+@Slf4j
+@Component
+public class RequestExecutor implements MeterBinder {
+
+	static final long MIN_RETRY_DELAY_MILLIS = 10;
+
+	static final long MAX_RETRY_DELAY_MILLIS = 500;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ScheduledThreadPoolExecutor retries;
+
+	private final int poolSize;
+
+	private final LongAdder rejected = new LongAdder();
+
+	private final LongAdder started = new LongAdder();
+
+	private final LongAdder queueWaitNanos = new LongAdder();
+
+	@Autowired
+	public RequestExecutor(HssServiceConfig serviceConfig) {
+		this(serviceConfig.getRequestExecutor());
+	}
+
+	public RequestExecutor(ExecutorSettings settings) {
+
+		if (settings == null || settings.getPoolSize() < 1 || settings.getQueueCapacity() < 1)
+			throw new IllegalStateException("hss.requestExecutor poolSize and queueCapacity must be positive");
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.poolSize = settings.getPoolSize();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(settings.getQueueCapacity()), runnable -> {
+					Thread thread = new Thread(runnable, "hss-request-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.retries = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "hss-request-retry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.retries.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Runs the task on the request pool. Cancelling the returned future removes
+	 * the task from the queue, or interrupts it if it is running.
+	 * @param task
+	 * @return CompletableFuture completed with the task result or exception, or
+	 *         failed with a 503 ServiceException if the pool is saturated.
+	 */
+	public <T> CompletableFuture<T> supply(Supplier<T> task) {
+
+		Task<T> future = new Task<>(task);
+		if (future.submit())
+			return future;
+
+		log.error("Request rejected, {} requests queued and {} running", executor.getQueue().size(),
+				executor.getActiveCount());
+		CompletableFuture<T> rejected = new CompletableFuture<>();
+		rejected.completeExceptionally(
+				new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many requests in progress."));
+		return rejected;
+	}
+
+	/**
+	 * Runs the task on the request pool, submitting it again after a delay
+	 * growing from 10 to 500 ms for as long as the pool is saturated, for
+	 * callers applying backpressure instead of failing. Cancelling the returned
+	 * future stops the retries.
+	 * @param task
+	 * @return CompletableFuture completed with the task result or exception.
+	 */
+	public <T> CompletableFuture<T> supplyWhenAccepted(Supplier<T> task) {
+
+		Task<T> future = new Task<>(task);
+		future.submitUntilAccepted(MIN_RETRY_DELAY_MILLIS);
+		return future;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+
+		retries.shutdownNow();
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+				executor.shutdownNow();
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		Gauge.builder("hss.request.executor.queued", executor, e -> e.getQueue().size())
+				.description("Requests waiting for a request thread").register(registry);
+		Gauge.builder("hss.request.executor.queue.remaining", executor, e -> e.getQueue().remainingCapacity())
+				.description("Requests that can still be queued before new ones are rejected").register(registry);
+		Gauge.builder("hss.request.executor.active", executor, ThreadPoolExecutor::getActiveCount)
+				.description("Request threads running a handler chain").register(registry);
+		Gauge.builder("hss.request.executor.saturation", this, RequestExecutor::saturation)
+				.description("Share of request threads busy").register(registry);
+		FunctionCounter.builder("hss.request.executor.rejected", rejected, LongAdder::doubleValue)
+				.description("Requests rejected as the pool and queue were full").register(registry);
+		FunctionTimer.builder("hss.request.executor.queue.wait", this, e -> e.started.sum(),
+				e -> e.queueWaitNanos.doubleValue(), TimeUnit.NANOSECONDS)
+				.description("Time requests waited in the queue").register(registry);
+	}
+
+	double saturation() {
+		return (double) executor.getActiveCount() / poolSize;
+	}
+
+	int queued() {
+		return executor.getQueue().size();
+	}
+
+	private final class Task<T> extends CompletableFuture<T> {
+
+		private static final int PENDING = 0;
+
+		private static final int RUNNING = 1;
+
+		private static final int CANCELLING = 2;
+
+		private static final int DONE = 3;
+
+		private final AtomicInteger state = new AtomicInteger(PENDING);
+
+		private final Supplier<T> task;
+
+		private final FutureTask<Void> execution;
+
+		private final long submitted = System.nanoTime();
+
+		private volatile ScheduledFuture<?> retry;
+
+		private boolean ran;
+
+		private T result;
+
+		private Throwable failure;
+
+		private Task(Supplier<T> task) {
+			this.task = task;
+			// completed once the interrupt of a cancellation was delivered, so it does not leak to dependents
+			this.execution = new FutureTask<Void>(this::run, null) {
+				@Override
+				public void run() {
+					super.run();
+					finish();
+				}
+			};
+		}
+
+		private boolean submit() {
+
+			try {
+				executor.execute(execution);
+				return true;
+			} catch (RejectedExecutionException e) {
+				rejected.increment();
+				return false;
+			}
+		}
+
+		private void submitUntilAccepted(long delay) {
+
+			if (state.get() != PENDING || submit())
+				return;
+
+			log.debug("Request pool saturated, submitting again in {} ms", delay);
+			try {
+				retry = retries.schedule(() -> submitUntilAccepted(Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS)), delay,
+						TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				completeExceptionally(new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Request pool stopped."));
+			}
+		}
+
+		private void run() {
+
+			if (!state.compareAndSet(PENDING, RUNNING))
+				return;
+
+			queueWaitNanos.add(System.nanoTime() - submitted);
+			started.increment();
+			ran = true;
+			try {
+				result = task.get();
+			} catch (Throwable e) {
+				failure = e;
+			}
+		}
+
+		private void finish() {
+
+			if (!ran)
+				return;
+
+			if (!state.compareAndSet(RUNNING, DONE)) {
+				// cancelled while running, completed as cancelled now that the task returned
+				state.set(DONE);
+				Thread.interrupted();
+				super.cancel(false);
+			} else if (failure != null) {
+				completeExceptionally(failure);
+			} else {
+				complete(result);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+
+			if (state.compareAndSet(PENDING, DONE)) {
+				ScheduledFuture<?> scheduled = retry;
+				if (scheduled != null)
+					scheduled.cancel(false);
+				executor.remove(execution);
+				return super.cancel(mayInterruptIfRunning);
+			}
+			if (state.compareAndSet(RUNNING, CANCELLING)) {
+				execution.cancel(true);
+				return true;
+			}
+			return isCancelled();
+		}
+	}
+}
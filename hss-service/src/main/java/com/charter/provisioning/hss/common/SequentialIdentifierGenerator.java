@@ -0,0 +1,130 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Identifier engine composing a millisecond timestamp, a per node sequence and
+ * the node identity into decimal subscriber identifiers, without coordination
+ * between service instances and without locks.
+ * <p>
+ * A key is laid out as 12 digits of milliseconds since 2018-01-01, a 6 digit
+ * sequence, random digits and the 3 node digits, 32 digit keys carry 11 random
+ * digits. The node is set per instance with spml.identifier_node, a number below
+ * 1000. The random digits only keep keys apart should two instances be given
+ * the same node by mistake, uniqueness comes from the timestamp and sequence.
+ * <p>
+ * The timestamp never runs ahead of the clock, so a restarted instance does not
+ * issue keys again. The sequence holds 1,000,000 keys per millisecond and
+ * instance, a caller requesting more within a millisecond waits for the next
+ * one. Keys shorter than 21 digits have no room for the layout, implicit
+ * registered set suffixes stay random.
+ */
+@Slf4j
+public class SequentialIdentifierGenerator implements IdentifierGenerator {
+
+	// 2018-01-01T00:00:00Z, 12 digits of milliseconds last until 2049
+	static final long EPOCH_MILLIS = 1514764800000L;
+
+	static final int TIMESTAMP_DIGITS = 12;
+
+	static final int SEQUENCE_DIGITS = 6;
+
+	static final int NODE_DIGITS = 3;
+
+	static final int MIN_LENGTH = TIMESTAMP_DIGITS + SEQUENCE_DIGITS + NODE_DIGITS;
+
+	// a clock set back further than this fails generation instead of waiting for it
+	static final long MAX_CLOCK_BACKWARD_MILLIS = 1000;
+
+	private static final long SEQUENCE_RADIX = 1_000_000L;
+
+	private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+	private final String node;
+
+	private final IdentifierGenerator random;
+
+	private final LongSupplier clock;
+
+	private final AtomicLong last = new AtomicLong();
+
+	/**
+	 * @param configuredNode
+	 *            spml.identifier_node, unique per service instance.
+	 * @param random
+	 *            generates the random digits between sequence and node.
+	 * @throws IllegalStateException
+	 *             if the node is missing, not numeric or wider than 3 digits.
+	 */
+	public SequentialIdentifierGenerator(String configuredNode, IdentifierGenerator random) {
+		this(configuredNode, random, System::currentTimeMillis);
+	}
+
+	SequentialIdentifierGenerator(String configuredNode, IdentifierGenerator random, LongSupplier clock) {
+
+		if (StringUtils.isBlank(configuredNode))
+			throw new IllegalStateException("spml.identifier_node is required by the sequential identifier generator");
+		String digits = StringUtils.stripStart(configuredNode.trim(), "0");
+		if (!StringUtils.isNumeric(configuredNode.trim()) || digits.length() > NODE_DIGITS)
+			throw new IllegalStateException("spml.identifier_node must be a number below 1000 " + configuredNode);
+
+		this.node = StringUtils.leftPad(digits, NODE_DIGITS, '0');
+		this.random = random;
+		this.clock = clock;
+		log.info("Sequential identifier generator using node {}", digits.isEmpty() ? "0" : digits);
+	}
+
+	@Override
+	public String generate(int length) {
+
+		if (length < MIN_LENGTH)
+			throw new IllegalArgumentException("Unsupported identifier length " + length);
+
+		long tick = next();
+
+		char[] key = new char[length];
+		for (int i = TIMESTAMP_DIGITS + SEQUENCE_DIGITS - 1; i >= 0; i--) {
+			key[i] = (char) ('0' + tick % 10);
+			tick /= 10;
+		}
+		int randomDigits = length - MIN_LENGTH;
+		if (randomDigits > 0)
+			random.generate(randomDigits).getChars(0, randomDigits, key, TIMESTAMP_DIGITS + SEQUENCE_DIGITS);
+		node.getChars(0, NODE_DIGITS, key, length - NODE_DIGITS);
+		return new String(key);
+	}
+
+	String getNode() {
+		return node;
+	}
+
+	private long next() {
+
+		while (true) {
+			long millis = clock.getAsLong() - EPOCH_MILLIS;
+			long previous = last.get();
+			long next = Math.max(previous + 1, millis * SEQUENCE_RADIX);
+			long ahead = next / SEQUENCE_RADIX - millis;
+
+			if (ahead <= 0) {
+				if (last.compareAndSet(previous, next))
+					return next;
+			} else if (ahead > MAX_CLOCK_BACKWARD_MILLIS) {
+				log.error("Clock is {} ms behind the last identifier issued", ahead);
+				throw new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(),
+						"Clock moved backwards, no identifier available.");
+			} else {
+				// sequence of this millisecond used up, or the clock stepped back a little
+				LockSupport.parkNanos(WAIT_NANOS);
+			}
+		}
+	}
+}
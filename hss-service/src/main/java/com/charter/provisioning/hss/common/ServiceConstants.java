@@ -1,13 +1,15 @@
-package com.charter.provisioning.hss.common;
-
-public class ServiceConstants {
-	
-	public static final String TN_VALIDATION_EXP = "^[1-9][0-9]{9}";
-
-	public static final String PICKUP_GROUP = "pickup_group_";
-
-	public static final String MLHG_ID = "mlhg_";
-
-	public static final String NATIONAL_PUBLIC_DELIMITER = "_";
-
-}
+package com.charter.provisioning.hss.common;
+
+public class ServiceConstants {
+	
+	public static final String PICKUP_GROUP = "pickup_group_";
+
+	public static final String MLHG_ID = "mlhg_";
+
+	public static final String NATIONAL_PUBLIC_DELIMITER = "_";
+
+	public static final int MLHG_MEMBER_LENGTH = 4;
+
+	public static final String NDJSON = "application/x-ndjson";
+
+}
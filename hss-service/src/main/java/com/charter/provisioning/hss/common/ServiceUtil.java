@@ -1,129 +1,183 @@
-package com.charter.provisioning.hss.common;
-
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.stereotype.Component;
-
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.nio.ByteBuffer;
-import java.nio.LongBuffer;
-import java.security.SecureRandom;
-
-@Slf4j
-@Component
-public class ServiceUtil {
-
-	private static final int DEFAULT_LENGTH = 29;
-
-	private static final int HEX_MASK = 0x000000ff;
-	private static final String SECURE_ALGO = "SHA1PRNG";
-	
-	private static String IP_ADDR;
-	private static SecureRandom prng;
-	
-	static {
-		try {
-			IP_ADDR = getIPAsHex();
-			prng = SecureRandom.getInstance(SECURE_ALGO);
-		} catch (Exception ex) {
-			log.error("Unknown Error occurred while initializing static block");
-		}
-	}
-	
-	public ServiceUtil() {
-		prng.setSeed(generateSeed());
-	}
-	
-	/**
-	 * <p>
-	 * Returns a <code>DIGIT</code>-digit random number with leading zeros.
-	 * </p>
-	 * <i>NOTE: DIGIT should be less than or equal to 8</i>
-	 * 
-	 * @return a <code>DIGIT</code>-digit random number with leading zeros
-	 */
-	public String appendRandom(final int MAX_RANDOM, boolean useHex) {
-		
-		if (MAX_RANDOM <= 0)
-			return null;
-
-		StringBuilder builder = new StringBuilder(MAX_RANDOM);
-		StringBuilder random = new StringBuilder();
-
-		while (random.length() < MAX_RANDOM) {
-			if (useHex)
-				random.append(Integer.toHexString(prng.nextInt()));
-			else
-				random.append(Math.abs(prng.nextInt()));
-		}
-
-		if (random.length() > MAX_RANDOM)
-			random.delete(MAX_RANDOM, random.length());
-
-		builder.append(random);
-		return builder.toString().toUpperCase();
-	}
-
-	/**
-	 * Appends the current time in milliseconds to <code>buffer</code>
-	 * 
-	 * @return appends the current time in milliseconds to <code>buffer</code>
-	 */
-	public String appendTimestamp(final int MAX_RANDOM, boolean useHex) {
-		if (MAX_RANDOM <= 0)
-			return null;
-
-		StringBuilder builder = new StringBuilder(MAX_RANDOM);
-
-		if (useHex)
-			builder.append(Long.toHexString(System.currentTimeMillis()));
-		else
-			builder.append(System.currentTimeMillis());
-
-		padLeft(builder);
-		builder.append(builder);
-		return builder.toString().toUpperCase();
-	}
-	
-	private static byte[] generateSeed() {
-		byte[] ipBytes = IP_ADDR.getBytes();
-		byte[] sysBytes = currentTimeMillisBytes();
-		byte[] ranBytes = SecureRandom.getSeed(DEFAULT_LENGTH);
-		byte[] seed = new byte[ipBytes.length + sysBytes.length
-				+ ranBytes.length];
-
-		System.arraycopy(ipBytes, 0, seed, 0, ipBytes.length);
-		System.arraycopy(sysBytes, 0, seed, ipBytes.length, sysBytes.length);
-		System.arraycopy(ranBytes, 0, seed, sysBytes.length, ranBytes.length);
-
-		return seed;
-	}
-	
-	private static String getIPAsHex() throws UnknownHostException {
-		StringBuilder ipBuffer = new StringBuilder();
-
-		byte[] ipaddr = InetAddress.getLocalHost().getAddress();
-		for (byte anIpaddr : ipaddr) {
-			ipBuffer.append(Integer.toHexString((int) anIpaddr & HEX_MASK));
-			while (ipBuffer.length() < 2) {
-				ipBuffer.insert(0, '0');
-			}
-		}
-
-		return ipBuffer.toString();
-	}
-	
-	private static byte[] currentTimeMillisBytes() {
-		byte[] bArray = new byte[8];
-		ByteBuffer bBuffer = ByteBuffer.wrap(bArray);
-		LongBuffer lBuffer = bBuffer.asLongBuffer();
-		lBuffer.put(0, System.currentTimeMillis());
-		return bArray;
-	}
-
-	private void padLeft(final StringBuilder builder) {
-		while (builder.length() < 12) {
-			builder.insert(0, '0');
-		}
-	}
-}
+package com.charter.provisioning.hss.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+@Slf4j
+@Component
+public class ServiceUtil {
+
+	private static final int DEFAULT_LENGTH = 29;
+
+	private static final int HEX_MASK = 0x000000ff;
+	private static final String SECURE_ALGO = "SHA1PRNG";
+
+	private static final int TIMESTAMP_LENGTH = 12;
+	private static final int SEED_LENGTH = 32;
+	private static final int DIGITS_PER_LONG = 18;
+	private static final long DIGITS_PER_LONG_BOUND = 1_000_000_000_000_000_000L;
+	// largest multiple of DIGITS_PER_LONG_BOUND a non-negative long can hold, draws above it are rejected
+	private static final long DIGITS_PER_LONG_LIMIT = Long.MAX_VALUE - Long.MAX_VALUE % DIGITS_PER_LONG_BOUND;
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+	private static String IP_ADDR;
+	private static SecureRandom seedSource;
+
+	static {
+		try {
+			IP_ADDR = getIPAsHex();
+		} catch (Exception ex) {
+			log.error("Unknown Error occurred while initializing static block");
+			IP_ADDR = "";
+		}
+		seedSource = newSecureRandom();
+		seedSource.setSeed(generateSeed());
+	}
+
+	// every thread draws from its own generator, seeded once from seedSource
+	private static final ThreadLocal<SecureRandom> prng = ThreadLocal.withInitial(() -> {
+		byte[] seed = new byte[SEED_LENGTH];
+		seedSource.nextBytes(seed);
+		SecureRandom random = newSecureRandom();
+		random.setSeed(seed);
+		return random;
+	});
+
+	/**
+	 * <p>
+	 * Returns a <code>MAX_RANDOM</code>-character random number, decimal with a
+	 * non-zero leading digit or upper case hex.
+	 * </p>
+	 * 
+	 * @return a <code>MAX_RANDOM</code>-character random number, null if
+	 *         <code>MAX_RANDOM</code> is not positive
+	 */
+	public String appendRandom(final int MAX_RANDOM, boolean useHex) {
+		
+		if (MAX_RANDOM <= 0)
+			return null;
+
+		SecureRandom random = prng.get();
+		char[] key = new char[MAX_RANDOM];
+		if (useHex)
+			fillHex(key, random);
+		else
+			fillDigits(key, random);
+		return new String(key);
+	}
+
+	/**
+	 * Appends the current time in milliseconds to <code>buffer</code>
+	 * 
+	 * @return appends the current time in milliseconds to <code>buffer</code>
+	 */
+	public String appendTimestamp(final int MAX_RANDOM, boolean useHex) {
+		if (MAX_RANDOM <= 0)
+			return null;
+
+		// time left padded with zeros to 12 characters, written twice
+		long millis = System.currentTimeMillis();
+		int length = Math.max(TIMESTAMP_LENGTH, useHex ? hexLength(millis) : decimalLength(millis));
+		char[] timestamp = new char[length * 2];
+		for (int i = length - 1; i >= 0; i--) {
+			if (useHex) {
+				timestamp[i] = HEX_DIGITS[(int) (millis & 0xF)];
+				millis >>>= 4;
+			} else {
+				timestamp[i] = (char) ('0' + millis % 10);
+				millis /= 10;
+			}
+		}
+		System.arraycopy(timestamp, 0, timestamp, length, length);
+		return new String(timestamp);
+	}
+
+	private static void fillDigits(char[] key, SecureRandom random) {
+
+		// the leading digit is never zero, as the key may be read as a number
+		key[0] = (char) ('1' + random.nextInt(9));
+		int i = 1;
+		while (i < key.length) {
+			long digits = random.nextLong() >>> 1;
+			if (digits >= DIGITS_PER_LONG_LIMIT)
+				continue;
+			for (int n = 0; n < DIGITS_PER_LONG && i < key.length; n++, i++) {
+				key[i] = (char) ('0' + digits % 10);
+				digits /= 10;
+			}
+		}
+	}
+
+	private static void fillHex(char[] key, SecureRandom random) {
+
+		int i = 0;
+		while (i < key.length) {
+			long hex = random.nextLong();
+			for (int n = 0; n < 16 && i < key.length; n++, i++) {
+				key[i] = HEX_DIGITS[(int) (hex & 0xF)];
+				hex >>>= 4;
+			}
+		}
+	}
+
+	private static int hexLength(long value) {
+		return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 3) / 4);
+	}
+
+	private static int decimalLength(long value) {
+		return Long.toString(value).length();
+	}
+
+	private static SecureRandom newSecureRandom() {
+
+		try {
+			return SecureRandom.getInstance(SECURE_ALGO);
+		} catch (NoSuchAlgorithmException e) {
+			log.error("{} is not available, using the default SecureRandom", SECURE_ALGO);
+			return new SecureRandom();
+		}
+	}
+	
+	private static byte[] generateSeed() {
+		byte[] ipBytes = IP_ADDR.getBytes();
+		byte[] sysBytes = currentTimeMillisBytes();
+		byte[] ranBytes = SecureRandom.getSeed(DEFAULT_LENGTH);
+		byte[] seed = new byte[ipBytes.length + sysBytes.length
+				+ ranBytes.length];
+
+		System.arraycopy(ipBytes, 0, seed, 0, ipBytes.length);
+		System.arraycopy(sysBytes, 0, seed, ipBytes.length, sysBytes.length);
+		System.arraycopy(ranBytes, 0, seed, ipBytes.length + sysBytes.length, ranBytes.length);
+
+		return seed;
+	}
+	
+	private static String getIPAsHex() throws UnknownHostException {
+		StringBuilder ipBuffer = new StringBuilder();
+
+		byte[] ipaddr = InetAddress.getLocalHost().getAddress();
+		for (byte anIpaddr : ipaddr) {
+			ipBuffer.append(Integer.toHexString((int) anIpaddr & HEX_MASK));
+			while (ipBuffer.length() < 2) {
+				ipBuffer.insert(0, '0');
+			}
+		}
+
+		return ipBuffer.toString();
+	}
+	
+	private static byte[] currentTimeMillisBytes() {
+		byte[] bArray = new byte[8];
+		ByteBuffer bBuffer = ByteBuffer.wrap(bArray);
+		LongBuffer lBuffer = bBuffer.asLongBuffer();
+		lBuffer.put(0, System.currentTimeMillis());
+		return bArray;
+	}
+}
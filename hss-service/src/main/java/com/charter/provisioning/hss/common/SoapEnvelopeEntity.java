@@ -0,0 +1,103 @@
+package com.charter.provisioning.hss.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.http.Consts;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+/**
+ * Request entity writing the soap envelope around an already marshalled SPML
+ * body. The envelope prefix and suffix are precomputed, so the body is never
+ * parsed or serialized again on its way to HSS Subscriber.
+ */
+public class SoapEnvelopeEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+
+	static final String ENVELOPE_PREFIX = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\"><SOAP-ENV:Header/><SOAP-ENV:Body>";
+
+	static final String ENVELOPE_SUFFIX = "</SOAP-ENV:Body></SOAP-ENV:Envelope>";
+
+	// Envelope markup is plain ASCII, identical in every charset the gateway accepts.
+	private static final byte[] PREFIX_BYTES = ENVELOPE_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] SUFFIX_BYTES = ENVELOPE_SUFFIX.getBytes(StandardCharsets.US_ASCII);
+
+	private final byte[] body;
+
+	private ByteBuffer[] buffers;
+
+	private int current;
+
+	public SoapEnvelopeEntity(String body, ContentType contentType) {
+
+		Charset charset = contentType.getCharset() != null ? contentType.getCharset() : Consts.ISO_8859_1;
+		this.body = body.getBytes(charset);
+		setContentType(contentType.toString());
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public long getContentLength() {
+		return (long) PREFIX_BYTES.length + body.length + SUFFIX_BYTES.length;
+	}
+
+	@Override
+	public InputStream getContent() {
+		return new SequenceInputStream(Collections.enumeration(Arrays.asList(new ByteArrayInputStream(PREFIX_BYTES),
+				new ByteArrayInputStream(body), new ByteArrayInputStream(SUFFIX_BYTES))));
+	}
+
+	@Override
+	public void writeTo(OutputStream outStream) throws IOException {
+
+		outStream.write(PREFIX_BYTES);
+		outStream.write(body);
+		outStream.write(SUFFIX_BYTES);
+		outStream.flush();
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	@Override
+	public void produceContent(ContentEncoder encoder, IOControl ioControl) throws IOException {
+
+		if (buffers == null) {
+			buffers = new ByteBuffer[] { ByteBuffer.wrap(PREFIX_BYTES), ByteBuffer.wrap(body),
+					ByteBuffer.wrap(SUFFIX_BYTES) };
+		}
+		while (current < buffers.length) {
+			encoder.write(buffers[current]);
+			if (buffers[current].hasRemaining()) {
+				// Channel is full, continue on the next output ready event.
+				return;
+			}
+			current++;
+		}
+		encoder.complete();
+	}
+
+	@Override
+	public void close() {
+		buffers = null;
+		current = 0;
+	}
+}
@@ -0,0 +1,265 @@
+package com.charter.provisioning.hss.common;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import com.charter.provisioning.hss.exception.SoapFaultException;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads the SPML payload out of a soap response in a single streaming pass.
+ * The first child of the soap body is copied as is, a soap fault is reported
+ * as a {@link SoapFaultException}.
+ */
+@Slf4j
+public final class SoapEnvelopeReader {
+
+	private static final String SOAP_11_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+
+	private static final String SOAP_12_NS = "http://www.w3.org/2003/05/soap-envelope";
+
+	private static final String ENVELOPE = "Envelope";
+
+	private static final String BODY = "Body";
+
+	private static final String FAULT = "Fault";
+
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+	private SoapEnvelopeReader() {
+	}
+
+	/**
+	 * Returns the first child of the soap body in XML format, or its text when
+	 * the body only carries text.
+	 * @param soapResponse
+	 * @return String, null when the soap body is empty.
+	 * @throws SoapServiceException
+	 *             if the response is not a soap envelope or carries a soap fault.
+	 */
+	public static String readPayload(InputStream soapResponse) throws SoapServiceException {
+
+		XMLStreamReader reader = null;
+		try {
+			reader = INPUT_FACTORY.createXMLStreamReader(soapResponse);
+
+			Map<String, String> namespaces = new LinkedHashMap<>();
+			moveToBody(reader, namespaces);
+
+			StringBuilder text = new StringBuilder();
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					if (isSoapElement(reader, FAULT)) {
+						throw readFault(reader);
+					}
+					return copyElement(reader, namespaces);
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.CDATA:
+					text.append(reader.getText());
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					// End of the soap body.
+					return text.toString().trim().isEmpty() ? null : text.toString();
+				default:
+					break;
+				}
+			}
+			return null;
+
+		} catch (XMLStreamException e) {
+			log.error("Exception occurred while reading soap response ", e);
+			throw new SoapServiceException(e);
+		} finally {
+			close(reader);
+		}
+	}
+
+	private static void moveToBody(XMLStreamReader reader, Map<String, String> namespaces)
+			throws XMLStreamException, SoapServiceException {
+
+		reader.nextTag();
+		if (!isSoapElement(reader, ENVELOPE)) {
+			throw new SoapServiceException("Response is not a soap envelope, root element=" + reader.getName());
+		}
+		collectNamespaces(reader, namespaces);
+
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if (isSoapElement(reader, BODY)) {
+				collectNamespaces(reader, namespaces);
+				return;
+			}
+			// Soap header and any other envelope child, not part of the payload.
+			skipElement(reader);
+		}
+		throw new SoapServiceException("Soap envelope has no body");
+	}
+
+	private static String copyElement(XMLStreamReader reader, Map<String, String> namespaces)
+			throws XMLStreamException {
+
+		StringWriter out = new StringWriter();
+		XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+		try {
+			int depth = 0;
+			while (true) {
+				switch (reader.getEventType()) {
+				case XMLStreamConstants.START_ELEMENT:
+					writeStartElement(reader, writer, depth == 0 ? namespaces : null);
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					writer.writeEndElement();
+					depth--;
+					break;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					writer.writeCharacters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					break;
+				case XMLStreamConstants.CDATA:
+					writer.writeCData(reader.getText());
+					break;
+				case XMLStreamConstants.COMMENT:
+					writer.writeComment(reader.getText());
+					break;
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					writer.writeProcessingInstruction(reader.getPITarget(), reader.getPIData());
+					break;
+				default:
+					break;
+				}
+				if (depth == 0) {
+					break;
+				}
+				reader.next();
+			}
+
+			writer.flush();
+		} finally {
+			writer.close();
+		}
+		return out.toString();
+	}
+
+	private static void writeStartElement(XMLStreamReader reader, XMLStreamWriter writer,
+			Map<String, String> inheritedNamespaces) throws XMLStreamException {
+
+		String prefix = reader.getPrefix() != null ? reader.getPrefix() : XMLConstants.DEFAULT_NS_PREFIX;
+		String namespace = reader.getNamespaceURI() != null ? reader.getNamespaceURI() : XMLConstants.NULL_NS_URI;
+		writer.writeStartElement(prefix, reader.getLocalName(), namespace);
+
+		Map<String, String> declared = new LinkedHashMap<>();
+		if (inheritedNamespaces != null) {
+			// Namespaces declared on the envelope or body stay in scope for the payload.
+			declared.putAll(inheritedNamespaces);
+		}
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			String nsPrefix = reader.getNamespacePrefix(i);
+			declared.put(nsPrefix != null ? nsPrefix : XMLConstants.DEFAULT_NS_PREFIX, reader.getNamespaceURI(i));
+		}
+		for (Map.Entry<String, String> ns : declared.entrySet()) {
+			if (XMLConstants.DEFAULT_NS_PREFIX.equals(ns.getKey())) {
+				writer.writeDefaultNamespace(ns.getValue());
+			} else {
+				writer.writeNamespace(ns.getKey(), ns.getValue());
+			}
+		}
+
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			String attrPrefix = reader.getAttributePrefix(i);
+			if (attrPrefix == null || attrPrefix.isEmpty()) {
+				writer.writeAttribute(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+			} else {
+				writer.writeAttribute(attrPrefix, reader.getAttributeNamespace(i), reader.getAttributeLocalName(i),
+						reader.getAttributeValue(i));
+			}
+		}
+	}
+
+	private static SoapFaultException readFault(XMLStreamReader reader) throws XMLStreamException {
+
+		String faultCode = null;
+		String faultString = null;
+		int depth = 1;
+		while (depth > 0 && reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+				String name = reader.getLocalName();
+				if ("faultcode".equals(name) || (faultCode == null && "Value".equals(name))) {
+					// Soap 1.1 faultcode or the first soap 1.2 Code/Value.
+					faultCode = reader.getElementText().trim();
+					depth--;
+				} else if ("faultstring".equals(name) || (faultString == null && "Text".equals(name))) {
+					faultString = reader.getElementText().trim();
+					depth--;
+				}
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+		log.error("Soap fault received, faultcode={}, faultstring={}", faultCode, faultString);
+		return new SoapFaultException(faultCode, faultString);
+	}
+
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+
+		int depth = 1;
+		while (depth > 0) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private static void collectNamespaces(XMLStreamReader reader, Map<String, String> namespaces) {
+
+		for (int i = 0; i < reader.getNamespaceCount(); i++) {
+			String prefix = reader.getNamespacePrefix(i);
+			namespaces.put(prefix != null ? prefix : XMLConstants.DEFAULT_NS_PREFIX, reader.getNamespaceURI(i));
+		}
+	}
+
+	private static boolean isSoapElement(XMLStreamReader reader, String localName) {
+
+		String namespace = reader.getNamespaceURI();
+		return localName.equals(reader.getLocalName()) && (SOAP_11_NS.equals(namespace) || SOAP_12_NS.equals(namespace));
+	}
+
+	private static void close(XMLStreamReader reader) {
+
+		if (reader != null) {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				log.debug("Unable to close soap response reader", e);
+			}
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		return factory;
+	}
+}
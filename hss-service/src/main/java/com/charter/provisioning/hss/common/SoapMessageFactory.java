@@ -0,0 +1,38 @@
+package com.charter.provisioning.hss.common;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.charter.provisioning.hss.exception.SoapServiceException;
+
+@Component
+public class SoapMessageFactory {
+
+	private String soapAction;
+
+	private String soapHeader;
+
+	@Autowired
+	public SoapMessageFactory(@Value("${soap.action}") String soapAction, @Value("${soap.header}") String soapHeader) {
+		this.soapAction = soapAction;
+		this.soapHeader = soapHeader;
+	}
+
+	/**
+	 * Creates a new soap message for a single SPML call, so concurrent requests
+	 * never share an envelope or its properties.
+	 *
+	 * @param payload
+	 *            marshalled SPML request placed in the soap body.
+	 * @return SoapMessage
+	 * @throws SoapServiceException
+	 *             if the payload cannot be placed in the soap body.
+	 */
+	public SoapMessage createSoapMessage(String payload) throws SoapServiceException {
+
+		SoapMessage soapMessage = new SoapMessage(soapAction, soapHeader);
+		soapMessage.populateMessageBody(payload);
+		return soapMessage;
+	}
+}
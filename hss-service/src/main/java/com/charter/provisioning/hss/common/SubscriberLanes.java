@@ -0,0 +1,273 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.hss.model.MlhgId;
+import com.charter.provisioning.hss.model.PrivateIdentity;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs create and delete operations of the same subscriber one after the other,
+ * in arrival order, while operations of other subscribers run in parallel.
+ * Operations are keyed by the primary identity of the request and hashed onto
+ * hss.subscriberLaneStripes lanes; each lane only keeps the completion of its
+ * last operation, swapped atomically, so joining a lane takes no lock and a
+ * waiting operation holds no thread. Two subscribers sharing a lane are ordered
+ * as well, the stripe count keeps that rare.
+ * <p>
+ * An operation still waiting for its lane after hss.subscriberLaneWaitTimeout
+ * fails with 503 without starting, a started one not completed within
+ * hss.subscriberLaneOperationTimeout fails with 503 and is cancelled. Its lane is
+ * released once the cancelled operation actually stopped, so a request still
+ * running on the request pool is never overlapped by the next one.
+ */
+@Slf4j
+@Component
+public class SubscriberLanes implements MeterBinder {
+
+	// marks an operation whose result completed, an operation starting after that is cancelled
+	private static final CompletableFuture<?> CLOSED = new CompletableFuture<>();
+
+	private final AtomicReferenceArray<CompletableFuture<Void>> tails;
+
+	private final int mask;
+
+	private final long waitTimeout;
+
+	private final long operationTimeout;
+
+	private final ScheduledThreadPoolExecutor timer;
+
+	private final LongAdder operations = new LongAdder();
+
+	private final LongAdder contended = new LongAdder();
+
+	private final LongAdder waitNanos = new LongAdder();
+
+	private final LongAdder timedOut = new LongAdder();
+
+	@Autowired
+	public SubscriberLanes(HssServiceConfig serviceConfig) {
+		this(serviceConfig.getSubscriberLaneStripes(), serviceConfig.getSubscriberLaneWaitTimeout(),
+				serviceConfig.getSubscriberLaneOperationTimeout());
+	}
+
+	public SubscriberLanes(int stripes, long waitTimeout, long operationTimeout) {
+
+		if (stripes < 1 || waitTimeout < 1 || operationTimeout < 1)
+			throw new IllegalStateException(
+					"hss.subscriberLaneStripes, subscriberLaneWaitTimeout and subscriberLaneOperationTimeout must be positive");
+
+		// rounded up to a power of two so the stripe is a mask of the hash
+		int size = Integer.highestOneBit(stripes);
+		if (size < stripes)
+			size <<= 1;
+		this.tails = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+		this.waitTimeout = waitTimeout;
+		this.operationTimeout = operationTimeout;
+		this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+			Thread thread = new Thread(runnable, "hss-lane-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// expiries of completed operations are dropped at once instead of when they are due
+		this.timer.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Primary identity of a request: the hunt group of its first mlhg id, else its
+	 * first pickup group id, else its first public identity, else its first private
+	 * identity.
+	 * @param digitalPhone
+	 * @return String, null if the request carries no identity.
+	 */
+	public String primaryIdentity(DigitalPhone digitalPhone) {
+
+		if (null == digitalPhone)
+			return null;
+
+		if (!CollectionUtils.isEmpty(digitalPhone.getPublicIdentity())) {
+			String pickupGroup = null;
+			String first = null;
+			for (PublicIdentity publicIdentity : digitalPhone.getPublicIdentity()) {
+				String userId = normalize(publicIdentity.getUserId());
+				MlhgId mlhgId = IdentityParser.parseMlhgId(userId);
+				if (mlhgId != null)
+					return ServiceConstants.MLHG_ID + mlhgId.getHuntGroup();
+				if (pickupGroup == null && IdentityParser.isPickupGroupId(userId))
+					pickupGroup = userId;
+				if (first == null)
+					first = userId;
+			}
+			if (pickupGroup != null)
+				return pickupGroup;
+			if (first != null)
+				return first;
+		}
+
+		if (!CollectionUtils.isEmpty(digitalPhone.getPrivateIdentity())) {
+			PrivateIdentity privateIdentity = digitalPhone.getPrivateIdentity().get(0);
+			return privateIdentity == null ? null : normalize(privateIdentity.getUserId());
+		}
+		return null;
+	}
+
+	/**
+	 * Starts the operation once every operation submitted earlier for the same
+	 * identity completed, successfully or not. Cancelling the returned future
+	 * drops the operation if it is still waiting for the lane, or cancels the
+	 * future of the started operation. An operation timing out while waiting for
+	 * the lane or running fails with 503 and is dropped or cancelled the same way.
+	 * The lane is only released once a started operation's own future completed,
+	 * so the next operation of the subscriber never overlaps it.
+	 * @param identity
+	 *            primary identity, the operation is not ordered if null.
+	 * @param operation
+	 *            starts the operation.
+	 * @return CompletableFuture completed with the result of the operation.
+	 */
+	public <T> CompletableFuture<T> submit(String identity, Supplier<CompletableFuture<T>> operation) {
+
+		if (null == identity)
+			return start(operation);
+
+		int stripe = stripe(identity);
+		CompletableFuture<Void> done = new CompletableFuture<>();
+		CompletableFuture<Void> previous = tails.getAndSet(stripe, done);
+
+		CompletableFuture<T> result = new CompletableFuture<>();
+		CompletableFuture<Void> settled = new CompletableFuture<>();
+		AtomicReference<CompletableFuture<?>> started = new AtomicReference<>();
+		AtomicReference<ScheduledFuture<?>> expiry = new AtomicReference<>();
+		result.whenComplete((response, e) -> {
+			ScheduledFuture<?> pending = expiry.get();
+			if (pending != null)
+				pending.cancel(false);
+			CompletableFuture<?> running = started.getAndSet(CLOSED);
+			if (running != null)
+				running.cancel(true);
+		});
+		// settles after the earlier operations did, an idle lane is cleared
+		settled.whenComplete((ignored, e) -> {
+			tails.compareAndSet(stripe, done, null);
+			done.complete(null);
+		});
+
+		if (previous == null || previous.isDone()) {
+			run(identity, operation, result, settled, started, expiry);
+		} else {
+			log.debug("Waiting for the lane of {}", identity);
+			contended.increment();
+			expireAfter(waitTimeout, identity, result, expiry,
+					"Timed out waiting for an earlier request of the same subscriber.");
+			long queued = System.nanoTime();
+			previous.whenComplete((ignored, e) -> {
+				waitNanos.add(System.nanoTime() - queued);
+				run(identity, operation, result, settled, started, expiry);
+			});
+		}
+		return result;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		FunctionTimer.builder("hss.subscriber.lane.wait", this, lanes -> lanes.operations.longValue(),
+				lanes -> lanes.waitNanos.doubleValue(), TimeUnit.NANOSECONDS)
+				.description("Time operations waited for earlier operations of the same subscriber").register(registry);
+		FunctionCounter.builder("hss.subscriber.lane.contended", contended, LongAdder::doubleValue)
+				.description("Operations queued behind an operation of the same subscriber").register(registry);
+		FunctionCounter.builder("hss.subscriber.lane.timed_out", timedOut, LongAdder::doubleValue)
+				.description("Operations failed as they timed out waiting for their lane or running").register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		timer.shutdownNow();
+	}
+
+	int stripe(String identity) {
+
+		int hash = identity.hashCode();
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> operation) {
+
+		try {
+			return operation.get();
+		} catch (RuntimeException e) {
+			CompletableFuture<T> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	// fails the result with 503 unless it completes first, replacing the previous expiry
+	private <T> void expireAfter(long timeout, String identity, CompletableFuture<T> result,
+			AtomicReference<ScheduledFuture<?>> expiry, String message) {
+
+		ScheduledFuture<?> scheduled = timer.schedule(() -> {
+			if (result.completeExceptionally(new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), message))) {
+				timedOut.increment();
+				log.error("Operation of {} timed out after {} ms: {}", identity, timeout, message);
+			}
+		}, timeout, TimeUnit.MILLISECONDS);
+		ScheduledFuture<?> replaced = expiry.getAndSet(scheduled);
+		if (replaced != null)
+			replaced.cancel(false);
+		if (result.isDone())
+			scheduled.cancel(false);
+	}
+
+	// a result completed before the operation starts means it was cancelled or timed out while waiting
+	private <T> void run(String identity, Supplier<CompletableFuture<T>> operation, CompletableFuture<T> result,
+			CompletableFuture<Void> settled, AtomicReference<CompletableFuture<?>> started,
+			AtomicReference<ScheduledFuture<?>> expiry) {
+
+		if (result.isDone()) {
+			settled.complete(null);
+			return;
+		}
+
+		expireAfter(operationTimeout, identity, result, expiry, "Request timed out.");
+		operations.increment();
+		CompletableFuture<T> running = start(operation);
+		running.whenComplete((response, e) -> settled.complete(null));
+		if (!started.compareAndSet(null, running)) {
+			running.cancel(true);
+			return;
+		}
+		running.whenComplete((response, e) -> {
+			if (e != null)
+				result.completeExceptionally(e);
+			else
+				result.complete(response);
+		});
+	}
+
+	private static String normalize(String identity) {
+		return identity == null ? null : identity.trim();
+	}
+}
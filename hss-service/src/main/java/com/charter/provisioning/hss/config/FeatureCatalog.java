@@ -0,0 +1,129 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.model.Features;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.GlobalFilterId;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the hss.features catalog, built once from the bound
+ * configuration. Every catalog entry gets an ordinal and every feature name or
+ * package maps to the bitset of its entries, so the global filter ids of a
+ * service profile are resolved with one lookup per feature code instead of a
+ * scan of the catalog. Filter ids are emitted in catalog order, as configured.
+ */
+public final class FeatureCatalog {
+
+	private static final String[] NO_VALUES = new String[0];
+
+	private static final BitSet NO_ENTRIES = new BitSet();
+
+	private final Map<String, BitSet> entriesByName;
+
+	private final Map<String, List<Features>> featuresByName;
+
+	// action values of hssFilter entries, used as they are
+	private final String[][] filterIds;
+
+	// action values of service profile prefix entries, suffixed with the tas of residential packages
+	private final String[][] prefixes;
+
+	/**
+	 * @param features
+	 *            hss.features catalog.
+	 * @param hssFilter
+	 *            action name of the entries whose values are global filter ids.
+	 */
+	public FeatureCatalog(List<Features> features, String hssFilter) {
+
+		List<Features> catalog = features == null ? Collections.emptyList() : features;
+		Map<String, BitSet> entries = new HashMap<>();
+		Map<String, List<Features>> byName = new HashMap<>();
+		this.filterIds = new String[catalog.size()][];
+		this.prefixes = new String[catalog.size()][];
+
+		for (int ordinal = 0; ordinal < catalog.size(); ordinal++) {
+			Features feature = catalog.get(ordinal);
+			entries.computeIfAbsent(feature.getName(), name -> new BitSet()).set(ordinal);
+			byName.computeIfAbsent(feature.getName(), name -> new ArrayList<>()).add(feature);
+
+			String[] values = feature.getActionValue() == null ? NO_VALUES
+					: feature.getActionValue().toArray(new String[0]);
+			boolean filter = hssFilter != null && hssFilter.equalsIgnoreCase(feature.getActionName());
+			filterIds[ordinal] = filter ? values : NO_VALUES;
+			prefixes[ordinal] = filter ? NO_VALUES : values;
+		}
+
+		byName.replaceAll((name, list) -> Collections.unmodifiableList(list));
+		this.entriesByName = entries;
+		this.featuresByName = byName;
+	}
+
+	/**
+	 * Returns the catalog entries configured for the feature name or package.
+	 * @param name
+	 * @return List<Features>, empty if the name is not in the catalog.
+	 */
+	public List<Features> getFeaturesByName(String name) {
+		return featuresByName.getOrDefault(name, Collections.emptyList());
+	}
+
+	/**
+	 * Resolves the global filter ids of a service profile.
+	 * @param featureCodes
+	 *            feature and blocking codes requested for the profile.
+	 * @param tasSuffix
+	 *            appended to service profile prefixes, empty if none.
+	 * @return List<GlobalFilterId>
+	 */
+	public List<GlobalFilterId> getGlobalFilterIds(Collection<String> featureCodes, String tasSuffix) {
+
+		List<GlobalFilterId> globalFilterIds = new ArrayList<>();
+		getGlobalFilterIdValues(featureCodes, tasSuffix)
+				.forEach(value -> globalFilterIds.add(GlobalFilterId.builder().globalFilterId(value).build()));
+		return globalFilterIds;
+	}
+
+	/**
+	 * Resolves the values of the global filter ids of a service profile.
+	 * @param featureCodes
+	 *            feature and blocking codes requested for the profile.
+	 * @param tasSuffix
+	 *            appended to service profile prefixes, empty if none.
+	 * @return List<String>
+	 */
+	public List<String> getGlobalFilterIdValues(Collection<String> featureCodes, String tasSuffix) {
+
+		BitSet selected = select(featureCodes);
+		List<String> values = new ArrayList<>();
+		for (int ordinal = selected.nextSetBit(0); ordinal >= 0; ordinal = selected.nextSetBit(ordinal + 1)) {
+			Collections.addAll(values, filterIds[ordinal]);
+			for (String prefix : prefixes[ordinal])
+				values.add(prefix.concat(tasSuffix));
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the catalog entries of the feature codes as a bitset of ordinals.
+	 * @param featureCodes
+	 * @return BitSet
+	 */
+	public BitSet select(Collection<String> featureCodes) {
+
+		BitSet selected = new BitSet(filterIds.length);
+		for (String code : featureCodes)
+			selected.or(entriesByName.getOrDefault(code, NO_ENTRIES));
+		return selected;
+	}
+
+	public int size() {
+		return filterIds.length;
+	}
+}
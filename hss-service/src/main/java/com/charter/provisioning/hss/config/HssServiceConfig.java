@@ -1,160 +1,232 @@
-package com.charter.provisioning.hss.config;
-
-import com.charter.provisioning.hss.model.Features;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NonNull;
-import org.apache.commons.lang3.StringUtils;
-import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
-
-import java.util.HashMap;
-import java.util.List;
-import java.util.stream.Collectors;
-
-@Data
-@Builder
-@AllArgsConstructor
-@Component
-@ConfigurationProperties(prefix = "hss")
-public class HssServiceConfig {
-	
-	private String sipPrefix;
-	
-	private String E164DigitPrefix;
-	
-	private String version;
-	
-	private String defaultSiteDomain;
-	
-	private String subscriber;
-	
-	private String default_subscriber_ns;
-	
-	private String url;
-	
-	private String user;
-	
-	private String password;
-	
-	private String txId;
-	
-	private String methodType;
-	
-	private String contentType;
-	
-	private String credentialsProvider;
-    
-	private String contentTypeTextXML;
-	
-	private String postMethod;
-	
-	private String soapActionHeader;
-	
-	private String endPointURL;
-	
-	private String preferredAuth;
-	
-	private String preferredDomain;
-	
-	private String subscriptionId;
-	
-	private String profileType;
-	
-	private String adminBlocked;
-	
-	private String defaultSCSCFRequired;
-	
-	private String CCFPrimary;
-	
-	private String CCfSecondary;
-	
-	private String implicitRegSetPrefix;
-	
-	private String serviceProfileNamePrefix;
-	
-	private String sessionReleasePolicy;
-	
-	private String forkingPolicy;
-	
-	private String operationCreate;
-
-	private String operationDelete;
-
-	private String operationUpdate;
-
-	private String featureBlock;
-
-	private String hssFilter;
-
-	private String hssPackage;
-
-	private String dPhone;
-
-	private String hGroup;
-
-	private String bGroup;
-
-	private int validFeatureLength;
-
-	@NonNull
-	private HashMap<String, String> siteDomain;
-	
-	private HashMap<String, String> packages;
-	
-	private List<Features> features;
-	
-	/**
-	 * Method checks for feature package being Residential
-	 * 
-	 * @param service feature package service to determine the serviceType.
-	 * @return boolean
-	 */
-	public boolean isResidentialService(String service) {
-		return (!CollectionUtils.isEmpty(packages) && !StringUtils.isEmpty(packages.get(service))
-				&& packages.get(service).matches("Residential"));
-	}
-
-	/**
-	 * Method checks for feature package being Commercial
-	 * 
-	 * @param service feature package service to determine the serviceType.
-	 * @return boolean
-	 */
-	public boolean isCommercialService(String service) {
-		return (!CollectionUtils.isEmpty(packages) && !StringUtils.isEmpty(packages.get(service))
-				&& packages.get(service).matches("Commercial"));
-	}
-
-	/**
-	 * Method checks for feature package is RCF
-	 *
-	 * @param service feature package service to determine the serviceType.
-	 * @return boolean
-	 */
-	public boolean isFeaturePackageRCF(String service) {
-		return (!CollectionUtils.isEmpty(packages) && !StringUtils.isEmpty(packages.get(service))
-				&& packages.get(service).matches("RCF"));
-	}
-
-	/**
-	 * Retrieves List of features by name from hss-configuration.
-	 *
-	 * @param name
-	 *            feature name to fetch features.
-	 * @return List<Features>
-	 */
-	public List<Features> getFeaturesByName(String name) {
-		return features.stream().filter(f -> f.getName().equals(name)).collect(Collectors.toList());
-	}
-	
-	/**
-	 * 
-	 */
-	public HssServiceConfig() {
-		super();
-	}
-	
-}
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.model.BatchSettings;
+import com.charter.provisioning.hss.model.CacheSettings;
+import com.charter.provisioning.hss.model.ConnectionPool;
+import com.charter.provisioning.hss.model.ExecutorSettings;
+import com.charter.provisioning.hss.model.Features;
+import com.charter.provisioning.hss.model.PackageClass;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@EqualsAndHashCode(exclude = { "featureCatalog", "packageClasses" })
+@ToString(exclude = { "featureCatalog", "packageClasses" })
+@Component
+@ConfigurationProperties(prefix = "hss")
+public class HssServiceConfig {
+	
+	private String sipPrefix;
+	
+	private String E164DigitPrefix;
+	
+	private String version;
+	
+	private String defaultSiteDomain;
+	
+	private String subscriber;
+	
+	private String default_subscriber_ns;
+	
+	private String url;
+	
+	private String user;
+	
+	private String password;
+	
+	private String txId;
+	
+	private String methodType;
+	
+	private String contentType;
+	
+	private String credentialsProvider;
+    
+	private String contentTypeTextXML;
+	
+	private String postMethod;
+	
+	private String soapActionHeader;
+	
+	private String endPointURL;
+	
+	private String preferredAuth;
+	
+	private String preferredDomain;
+	
+	private String subscriptionId;
+	
+	private String profileType;
+	
+	private String adminBlocked;
+	
+	private String defaultSCSCFRequired;
+	
+	private String CCFPrimary;
+	
+	private String CCfSecondary;
+	
+	private String implicitRegSetPrefix;
+	
+	private String serviceProfileNamePrefix;
+	
+	private String sessionReleasePolicy;
+	
+	private String forkingPolicy;
+	
+	private String operationCreate;
+
+	private String operationDelete;
+
+	private String operationUpdate;
+
+	private String featureBlock;
+
+	private String hssFilter;
+
+	private String hssPackage;
+
+	private String dPhone;
+
+	private String hGroup;
+
+	private String bGroup;
+
+	private int validFeatureLength;
+
+	@NonNull
+	private HashMap<String, String> siteDomain;
+	
+	private Map<String, String> packages;
+	
+	private List<Features> features;
+
+	private ConnectionPool connectionPool;
+
+	private CacheSettings subscriberCache;
+
+	private CacheSettings notFoundCache;
+
+	private CacheSettings serviceProfileCache;
+
+	private ExecutorSettings requestExecutor;
+
+	private int subscriberLaneStripes;
+
+	private long subscriberLaneWaitTimeout;
+
+	private long subscriberLaneOperationTimeout;
+
+	private BatchSettings batch;
+
+	// index of features, built once the configuration is bound
+	@Setter(AccessLevel.NONE)
+	private FeatureCatalog featureCatalog;
+
+	// class of each feature package, built once the configuration is bound
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.NONE)
+	private Map<String, PackageClass> packageClasses;
+	
+	/**
+	 * Method checks for feature package being Residential
+	 * 
+	 * @param service feature package service to determine the serviceType.
+	 * @return boolean
+	 */
+	public boolean isResidentialService(String service) {
+		return classify(service) == PackageClass.RESIDENTIAL;
+	}
+
+	/**
+	 * Method checks for feature package being Commercial
+	 * 
+	 * @param service feature package service to determine the serviceType.
+	 * @return boolean
+	 */
+	public boolean isCommercialService(String service) {
+		return classify(service) == PackageClass.COMMERCIAL;
+	}
+
+	/**
+	 * Method checks for feature package is RCF
+	 *
+	 * @param service feature package service to determine the serviceType.
+	 * @return boolean
+	 */
+	public boolean isFeaturePackageRCF(String service) {
+		return classify(service) == PackageClass.RCF;
+	}
+
+	/**
+	 * Resolves the class of a feature package from hss.packages.
+	 *
+	 * @param featurePackage feature package of the digital phone.
+	 * @return PackageClass, UNCLASSIFIED if the package is not configured.
+	 */
+	public PackageClass classify(String featurePackage) {
+		return featurePackage == null ? PackageClass.UNCLASSIFIED
+				: packageClasses.getOrDefault(featurePackage, PackageClass.UNCLASSIFIED);
+	}
+
+	/**
+	 * Retrieves List of features by name from hss-configuration.
+	 *
+	 * @param name
+	 *            feature name to fetch features.
+	 * @return List<Features>
+	 */
+	public List<Features> getFeaturesByName(String name) {
+		return getFeatureCatalog().getFeaturesByName(name);
+	}
+
+	/**
+	 * Builds the feature catalog and the package classes from the bound
+	 * configuration. Both are immutable, so the catalog, the classes and the
+	 * service profile templates resolved from them cannot drift apart.
+	 */
+	@PostConstruct
+	public void buildIndexes() {
+		featureCatalog = new FeatureCatalog(features, hssFilter);
+		packageClasses = classifyPackages(packages);
+	}
+
+	public List<Features> getFeatures() {
+		return features == null ? null : Collections.unmodifiableList(features);
+	}
+
+	public Map<String, String> getPackages() {
+		return packages == null ? null : Collections.unmodifiableMap(packages);
+	}
+
+	private static Map<String, PackageClass> classifyPackages(Map<String, String> packages) {
+
+		Map<String, PackageClass> classes = new HashMap<>();
+		if (packages != null)
+			packages.forEach((featurePackage, value) -> classes.put(featurePackage, PackageClass.fromConfigValue(value)));
+		return Collections.unmodifiableMap(classes);
+	}
+
+	/**
+	 * 
+	 */
+	public HssServiceConfig() {
+		super();
+		buildIndexes();
+	}
+	
+}
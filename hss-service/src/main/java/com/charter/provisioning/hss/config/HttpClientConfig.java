@@ -0,0 +1,166 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.model.ConnectionPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.ManagedNHttpClientConnectionFactory;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class HttpClientConfig {
+
+	/**
+	 * Non blocking connection pool shared by every SPML call to the Provisioning
+	 * Gateway.
+	 *
+	 * @param serviceConfig
+	 *            hss configuration holding the connectionPool settings.
+	 * @return PoolingNHttpClientConnectionManager
+	 * @throws IOReactorException
+	 *             if the I/O reactor cannot be started.
+	 */
+	@Bean
+	public PoolingNHttpClientConnectionManager hssConnectionManager(HssServiceConfig serviceConfig)
+			throws IOReactorException {
+
+		ConnectionPool pool = serviceConfig.getConnectionPool();
+
+		PoolingNHttpClientConnectionManager connectionManager = new PoolingNHttpClientConnectionManager(
+				new DefaultConnectingIOReactor(IOReactorConfig.custom().setConnectTimeout(pool.getConnectTimeout())
+						.setSoTimeout(pool.getSocketTimeout()).build()),
+				ManagedNHttpClientConnectionFactory.INSTANCE,
+				RegistryBuilder.<SchemeIOSessionStrategy>create().register("http", NoopIOSessionStrategy.INSTANCE)
+						.register("https", SSLIOSessionStrategy.getDefaultStrategy()).build(),
+				DefaultSchemePortResolver.INSTANCE, SystemDefaultDnsResolver.INSTANCE, pool.getTimeToLive(),
+				TimeUnit.MILLISECONDS);
+		connectionManager.setMaxTotal(pool.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(pool.getMaxPerRoute());
+		return connectionManager;
+	}
+
+	/**
+	 * Long lived asynchronous http client used by HSSSubscriberProxy, requests
+	 * are multiplexed on the I/O reactor so no caller thread waits on the
+	 * gateway.
+	 *
+	 * @param hssConnectionManager
+	 *            pooled connection manager.
+	 * @param serviceConfig
+	 *            hss configuration holding the connectionPool timeouts.
+	 * @return CloseableHttpAsyncClient
+	 */
+	@Bean(destroyMethod = "close")
+	public CloseableHttpAsyncClient hssHttpClient(PoolingNHttpClientConnectionManager hssConnectionManager,
+			HssServiceConfig serviceConfig) {
+
+		ConnectionPool pool = serviceConfig.getConnectionPool();
+		List<Header> headers = Collections.singletonList(new BasicHeader(HttpHeaders.CONNECTION, "keep-alive"));
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(pool.getConnectTimeout())
+				.setSocketTimeout(pool.getSocketTimeout())
+				.setConnectionRequestTimeout(pool.getConnectionRequestTimeout()).build();
+
+		CloseableHttpAsyncClient client = HttpAsyncClients.custom().setConnectionManager(hssConnectionManager)
+				.setDefaultHeaders(headers).setDefaultRequestConfig(requestConfig).build();
+		client.start();
+		return client;
+	}
+
+	/**
+	 * Threads reading and unmarshalling gateway responses, so the I/O reactor
+	 * only moves bytes. The queue holds connectionPool.maxTotal responses, one
+	 * per connection the pool can lease, a response rejected beyond that is
+	 * handled on the reactor instead.
+	 *
+	 * @param serviceConfig
+	 *            hss configuration holding the connectionPool settings.
+	 * @return ExecutorService
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService hssResponseExecutor(HssServiceConfig serviceConfig) {
+
+		ConnectionPool pool = serviceConfig.getConnectionPool();
+		AtomicInteger threadNumber = new AtomicInteger();
+		return new ThreadPoolExecutor(pool.getResponseThreads(), pool.getResponseThreads(), 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(pool.getMaxTotal()), runnable -> {
+					Thread thread = new Thread(runnable, "hss-response-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Evicts expired and idle connections from the pool in the background.
+	 *
+	 * @param serviceConfig
+	 *            hss configuration holding the connectionPool settings.
+	 * @param hssConnectionManager
+	 *            pooled connection manager.
+	 * @return ScheduledExecutorService
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ScheduledExecutorService hssConnectionEvictor(HssServiceConfig serviceConfig,
+			PoolingNHttpClientConnectionManager hssConnectionManager) {
+
+		long idleTimeout = serviceConfig.getConnectionPool().getIdleTimeout();
+
+		ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "hss-connection-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		evictor.scheduleWithFixedDelay(() -> {
+			hssConnectionManager.closeExpiredConnections();
+			hssConnectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+		}, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+		return evictor;
+	}
+
+	/**
+	 * Publishes the connection pool statistics.
+	 *
+	 * @param hssConnectionManager
+	 *            pooled connection manager.
+	 * @return MeterBinder
+	 */
+	@Bean
+	public MeterBinder hssConnectionPoolMetrics(PoolingNHttpClientConnectionManager hssConnectionManager) {
+
+		return registry -> {
+			Gauge.builder("hss.http.pool.leased", hssConnectionManager, m -> m.getTotalStats().getLeased())
+					.description("Connections currently leased to SPML calls").register(registry);
+			Gauge.builder("hss.http.pool.pending", hssConnectionManager, m -> m.getTotalStats().getPending())
+					.description("SPML calls waiting for a connection").register(registry);
+			Gauge.builder("hss.http.pool.available", hssConnectionManager, m -> m.getTotalStats().getAvailable())
+					.description("Idle connections kept alive in the pool").register(registry);
+			Gauge.builder("hss.http.pool.max", hssConnectionManager, m -> m.getTotalStats().getMax())
+					.description("Maximum connections allowed in the pool").register(registry);
+		};
+	}
+}
@@ -0,0 +1,34 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+
+import java.io.OutputStream;
+
+/**
+ * Converts SPML requests to xml and SPML responses back to objects. The
+ * implementation used by SerializableConfig is selected with spml.codec,
+ * implementations are immutable once created and shared by all requests.
+ */
+public interface SpmlCodec {
+
+	/**
+	 * Marshalling SPML request to xml string.
+	 * @param request
+	 * @return String
+	 */
+	String marshall(Object request);
+
+	/**
+	 * Marshalling SPML request as UTF-8 xml to the output stream.
+	 * @param request
+	 * @param out
+	 */
+	void marshall(Object request, OutputStream out);
+
+	/**
+	 * Unmarshalling xml string to SpmlResponse.
+	 * @param spmlResponseXml
+	 * @return SpmlResponse
+	 */
+	SpmlResponse unmarshall(String spmlResponseXml);
+}
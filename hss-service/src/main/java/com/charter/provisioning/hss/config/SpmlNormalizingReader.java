@@ -0,0 +1,130 @@
+package com.charter.provisioning.hss.config;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+/**
+ * Normalizes SPML responses while XStream pulls them. Element and attribute
+ * names are already reported by local name, so only text and attribute values
+ * still carry the {@code xsi:type} and {@code spml:} forms, those are rewritten
+ * the same way the response string used to be. CDATA sections are reported as
+ * plain text so their content is never dropped by the StaxReader.
+ */
+class SpmlNormalizingReader extends StreamReaderDelegate {
+
+	private final String xsiType;
+
+	private final String type;
+
+	private final String spmlPrefix;
+
+	private String text;
+
+	/**
+	 * @param reader
+	 *            parser reading the SPML response.
+	 * @param xsiType
+	 *            qualified type attribute, replaced by {@code type}.
+	 * @param type
+	 *            unqualified type attribute.
+	 * @param spmlPrefix
+	 *            spml prefix removed from the response.
+	 */
+	SpmlNormalizingReader(XMLStreamReader reader, String xsiType, String type, String spmlPrefix) {
+		super(reader);
+		this.xsiType = isEmpty(xsiType) || type == null ? null : xsiType;
+		this.type = type;
+		this.spmlPrefix = isEmpty(spmlPrefix) ? null : spmlPrefix;
+	}
+
+	@Override
+	public int next() throws XMLStreamException {
+		text = null;
+		return toText(super.next());
+	}
+
+	@Override
+	public int nextTag() throws XMLStreamException {
+		text = null;
+		return super.nextTag();
+	}
+
+	@Override
+	public int getEventType() {
+		return toText(super.getEventType());
+	}
+
+	@Override
+	public String getText() {
+		if (text == null) {
+			text = normalize(super.getText());
+		}
+		return text;
+	}
+
+	@Override
+	public char[] getTextCharacters() {
+		return getText().toCharArray();
+	}
+
+	@Override
+	public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length) {
+		String value = getText();
+		int count = Math.min(length, value.length() - sourceStart);
+		if (count <= 0) {
+			return 0;
+		}
+		value.getChars(sourceStart, sourceStart + count, target, targetStart);
+		return count;
+	}
+
+	@Override
+	public int getTextStart() {
+		return 0;
+	}
+
+	@Override
+	public int getTextLength() {
+		return getText().length();
+	}
+
+	@Override
+	public String getElementText() throws XMLStreamException {
+		text = null;
+		return normalize(super.getElementText());
+	}
+
+	@Override
+	public String getAttributeValue(int index) {
+		return normalize(super.getAttributeValue(index));
+	}
+
+	@Override
+	public String getAttributeValue(String namespaceURI, String localName) {
+		return normalize(super.getAttributeValue(namespaceURI, localName));
+	}
+
+	String normalize(String value) {
+		if (value == null) {
+			return null;
+		}
+		String normalized = value;
+		if (xsiType != null && normalized.contains(xsiType)) {
+			normalized = normalized.replace(xsiType, type);
+		}
+		if (spmlPrefix != null && normalized.contains(spmlPrefix)) {
+			normalized = normalized.replace(spmlPrefix, "");
+		}
+		return normalized;
+	}
+
+	private static int toText(int event) {
+		return event == XMLStreamConstants.CDATA ? XMLStreamConstants.CHARACTERS : event;
+	}
+
+	private static boolean isEmpty(String value) {
+		return value == null || value.isEmpty();
+	}
+}
@@ -0,0 +1,122 @@
+package com.charter.provisioning.hss.config;
+
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.WriterWrapper;
+import com.thoughtworks.xstream.io.xml.AbstractPullReader;
+import com.thoughtworks.xstream.io.xml.QNameMap;
+import com.thoughtworks.xstream.io.xml.StaxDriver;
+
+import javax.xml.stream.XMLStreamReader;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * StaxDriver used for SPML messages. Attributes are written in the order the
+ * gateway has always received them (namespace declarations first, then sorted
+ * by name), so the marshalled request can be placed in the soap body as is.
+ * Responses are read through {@link SpmlNormalizingReader}, which takes care of
+ * the xsi:type, spml prefix and CDATA forms while parsing.
+ */
+public class SpmlStaxDriver extends StaxDriver {
+
+	private static final String XMLNS = "xmlns";
+
+	private static final Comparator<String> ATTRIBUTE_ORDER = (first, second) -> {
+		boolean firstNamespace = isNamespaceDeclaration(first);
+		if (firstNamespace != isNamespaceDeclaration(second)) {
+			return firstNamespace ? -1 : 1;
+		}
+		return first.compareTo(second);
+	};
+
+	private final String xsiType;
+
+	private final String type;
+
+	private final String spmlPrefix;
+
+	public SpmlStaxDriver(QNameMap qnameMap, SpmlConfig spmlConfig) {
+		super(qnameMap);
+		this.xsiType = spmlConfig.getXsiType();
+		this.type = spmlConfig.getType();
+		this.spmlPrefix = spmlConfig.getSpml_ext();
+	}
+
+	@Override
+	public AbstractPullReader createStaxReader(XMLStreamReader in) {
+		return super.createStaxReader(new SpmlNormalizingReader(in, xsiType, type, spmlPrefix));
+	}
+
+	@Override
+	public HierarchicalStreamWriter createWriter(Writer out) {
+		return new SortedAttributeWriter(super.createWriter(out));
+	}
+
+	@Override
+	public HierarchicalStreamWriter createWriter(OutputStream out) {
+		return new SortedAttributeWriter(super.createWriter(out));
+	}
+
+	private static boolean isNamespaceDeclaration(String name) {
+		return name.startsWith(XMLNS) && (name.length() == XMLNS.length() || name.charAt(XMLNS.length()) == ':');
+	}
+
+	/**
+	 * Buffers the attributes of the current node until its content starts.
+	 */
+	private static class SortedAttributeWriter extends WriterWrapper {
+
+		private final Map<String, String> attributes = new TreeMap<>(ATTRIBUTE_ORDER);
+
+		SortedAttributeWriter(HierarchicalStreamWriter wrapped) {
+			super(wrapped);
+		}
+
+		@Override
+		public void startNode(String name) {
+			writeAttributes();
+			super.startNode(name);
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public void startNode(String name, Class clazz) {
+			writeAttributes();
+			super.startNode(name, clazz);
+		}
+
+		@Override
+		public void addAttribute(String name, String value) {
+			attributes.put(name, value);
+		}
+
+		@Override
+		public void setValue(String text) {
+			writeAttributes();
+			super.setValue(text);
+		}
+
+		@Override
+		public void endNode() {
+			writeAttributes();
+			super.endNode();
+		}
+
+		@Override
+		public void flush() {
+			writeAttributes();
+			super.flush();
+		}
+
+		private void writeAttributes() {
+			if (!attributes.isEmpty()) {
+				attributes.forEach(super::addAttribute);
+				attributes.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,893 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.ModifyRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SearchRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Alias;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Base;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.GlobalFilterId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Hss;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.ImplicitRegisteredSet;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Match;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Modification;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.PrivateUserId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.PublicUserId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.ServiceProfile;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.SubscribedMediaProfileID;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.ValueObject;
+import org.apache.commons.lang3.StringUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hand written SpmlCodec, requests are written and responses are read with a
+ * single StAX pass and without reflection. The output matches the XStream
+ * mapping element for element: namespace declarations first, remaining
+ * attributes sorted by name and empty elements written as start and end tag.
+ * Namespace, prefix and root elements are read from spml-config.yml, the
+ * remaining names are fixed by the SPML schema. Response elements unknown to
+ * the schema classes are skipped.
+ */
+public class StaxSpmlCodec implements SpmlCodec {
+
+	private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
+	private static final String XMLNS_SUBSCRIBER = "xmlns:subscriber";
+
+	private static final String XMLNS_XSI = "xmlns:xsi";
+
+	private static final String XSI_TYPE = "xsi:type";
+
+	private static final String NULL = "null";
+
+	private static final String TYPE = "type";
+
+	private static final String NAME = "name";
+
+	private static final String VALUE = "value";
+
+	private static final String XSI_TYPE_ATTR = "xsiType";
+
+	private static final String LANGUAGE = "language";
+
+	private static final String NEW_GENERATED = "newGenerated";
+
+	private static final String RETURN_RESULTING_OBJECT = "returnResultingObject";
+
+	private static final String DELETE_SCOPE = "deleteScope";
+
+	private static final String EXECUTION = "execution";
+
+	private static final String EXECUTION_TIME = "executionTime";
+
+	private static final String REQUEST_ID = "requestID";
+
+	private static final String RESULT = "result";
+
+	private static final String SEARCH_STATUS = "searchStatus";
+
+	private static final String OPERATION = "operation";
+
+	private static final String SCOPE = "scope";
+
+	private static final String VERSION = "version";
+
+	private static final String OBJECTCLASS = "objectclass";
+
+	private static final String IDENTIFIER = "identifier";
+
+	private static final String ERROR_MESSAGE = "errorMessage";
+
+	private static final String BASE = "base";
+
+	private static final String ALIAS = "alias";
+
+	private static final String OBJECT = "object";
+
+	private static final String OBJECTS = "objects";
+
+	private static final String MODIFICATION = "modification";
+
+	private static final String MATCH = "match";
+
+	private static final String VALUE_OBJECT = "valueObject";
+
+	private static final String HSS = "hss";
+
+	private static final String SUBSCRIPTION_ID = "subscriptionId";
+
+	private static final String PROFILE_TYPE = "profileType";
+
+	private static final String ADMIN_BLOCKED = "adminBlocked";
+
+	private static final String DEFAULT_SCSCF_REQUIRED = "defaultScscfRequired";
+
+	private static final String CCF_PRIMARY = "ccfPrimary";
+
+	private static final String CCF_SECONDARY = "ccfSecondary";
+
+	private static final String PRIVATE_USER_ID = "privateUserId";
+
+	private static final String HTTP_DIGEST_KEY = "httpDigestKey";
+
+	private static final String HTTP_DIGEST_KEY_VERSION = "httpDigestKeyVersion";
+
+	private static final String PREFERRED_AUTHENTICATION_SCHEME = "preferredAuthenticationScheme";
+
+	private static final String ACT_AS_VLR = "actAsVLR";
+
+	private static final String PREFERRED_DOMAIN = "preferredDomain";
+
+	private static final String LOOSE_ROUTING_INDICATION_REQUIRED = "looseRoutingIndicationRequired";
+
+	private static final String IMPLICIT_REGISTERED_SET = "implicitRegisteredSet";
+
+	private static final String IRS_ID = "irsId";
+
+	private static final String REGISTRATION_STATUS = "registrationStatus";
+
+	private static final String AUTHENTICATION_PENDING = "authenticationPending";
+
+	private static final String PUBLIC_USER_ID = "publicUserId";
+
+	private static final String ORIGINAL_PUBLIC_USER_ID = "originalPublicUserId";
+
+	private static final String BARRING_INDICATION = "barringIndication";
+
+	private static final String DEFAULT_INDICATION = "defaultIndication";
+
+	private static final String SERVICE_PROFILE_NAME = "serviceProfileName";
+
+	private static final String DISPLAY_NAME_PRIVACY = "displayNamePrivacy";
+
+	private static final String SERVICE_PROFILE = "serviceProfile";
+
+	private static final String PROFILE_NAME = "profileName";
+
+	private static final String GLOBAL_FILTER_ID = "globalFilterId";
+
+	private static final String SUBSCRIBED_MEDIA_PROFILE_ID = "subscribedMediaProfileID";
+
+	private static final String SESSION_RELEASE_POLICY = "sessionReleasePolicy";
+
+	private static final String FORKING_POLICY = "forkingPolicy";
+
+	private final String namespace;
+
+	private final String prefix;
+
+	private final String addRequest;
+
+	private final String searchRequest;
+
+	private final String modifyRequest;
+
+	private final String deleteRequest;
+
+	private final Set<String> responses;
+
+	private final String xsiType;
+
+	private final String type;
+
+	private final String spmlPrefix;
+
+	/**
+	 * @param spmlConfig
+	 *            spml configuration holding the namespace and root elements.
+	 */
+	public StaxSpmlCodec(SpmlConfig spmlConfig) {
+		this.namespace = spmlConfig.getSpml_namespace();
+		this.prefix = spmlConfig.getSpml_prefix();
+		this.addRequest = spmlConfig.getSpml_add_request();
+		this.searchRequest = spmlConfig.getSpml_search_request();
+		this.modifyRequest = spmlConfig.getSpml_modify_request();
+		this.deleteRequest = spmlConfig.getSpml_delete_request();
+		this.responses = new HashSet<>(Arrays.asList(spmlConfig.getSpml_add_response(),
+				spmlConfig.getSpml_search_response(), spmlConfig.getSpml_modify_response(),
+				spmlConfig.getSpml_delete_response()));
+		this.xsiType = spmlConfig.getXsiType();
+		this.type = spmlConfig.getType();
+		this.spmlPrefix = spmlConfig.getSpml_ext();
+	}
+
+	@Override
+	public String marshall(Object request) {
+
+		StringWriter out = new StringWriter();
+		try {
+			write(request, OUTPUT_FACTORY.createXMLStreamWriter(out));
+		} catch (XMLStreamException e) {
+			throw new ServiceException("Unable to write SPML request", e);
+		}
+		return out.toString();
+	}
+
+	@Override
+	public void marshall(Object request, OutputStream out) {
+
+		try {
+			write(request, OUTPUT_FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name()));
+		} catch (XMLStreamException e) {
+			throw new ServiceException("Unable to write SPML request", e);
+		}
+	}
+
+	@Override
+	public SpmlResponse unmarshall(String spmlResponseXml) {
+
+		if (StringUtils.isEmpty(spmlResponseXml)) {
+			return null;
+		}
+		XMLStreamReader in = null;
+		try {
+			in = new SpmlNormalizingReader(INPUT_FACTORY.createXMLStreamReader(new StringReader(spmlResponseXml)),
+					xsiType, type, spmlPrefix);
+			return readResponse(in);
+		} catch (XMLStreamException e) {
+			throw new ServiceException("Unable to read SPML response", e);
+		} finally {
+			close(in);
+		}
+	}
+
+	private void write(Object request, XMLStreamWriter out) throws XMLStreamException {
+
+		out.writeStartDocument();
+		if (request instanceof AddRequest) {
+			writeAddRequest((AddRequest) request, out);
+		} else if (request instanceof SearchRequest) {
+			writeSearchRequest((SearchRequest) request, out);
+		} else if (request instanceof ModifyRequest) {
+			writeModifyRequest((ModifyRequest) request, out);
+		} else if (request instanceof DeleteRequest) {
+			writeDeleteRequest((DeleteRequest) request, out);
+		} else {
+			throw new ServiceException("Unsupported SPML request " + (request == null ? null : request.getClass()));
+		}
+		out.writeEndDocument();
+		out.flush();
+		out.close();
+	}
+
+	private void writeAddRequest(AddRequest request, XMLStreamWriter out) throws XMLStreamException {
+
+		writeRootElement(addRequest, out);
+		writeAttribute(XMLNS_SUBSCRIBER, request.getSubscriber(), out);
+		writeAttribute(LANGUAGE, request.getLanguage(), out);
+		writeAttribute(NEW_GENERATED, request.getNewGenerated(), out);
+		writeAttribute(RETURN_RESULTING_OBJECT, request.getReturnResultingObject(), out);
+		writeElement(VERSION, request.getVersion(), out);
+		if (request.getObject() != null) {
+			writeSubscriber(request.getObject(), out);
+		}
+		out.writeEndElement();
+	}
+
+	private void writeSearchRequest(SearchRequest request, XMLStreamWriter out) throws XMLStreamException {
+
+		writeRootElement(searchRequest, out);
+		writeAttribute(XMLNS_XSI, request.getXsi(), out);
+		writeAttribute(LANGUAGE, request.getLanguage(), out);
+		writeElement(VERSION, request.getVersion(), out);
+		Base base = request.getBase();
+		if (base != null) {
+			out.writeStartElement(BASE);
+			writeElement(OBJECTCLASS, base.getObjectclass(), out);
+			Alias alias = base.getAlias();
+			if (alias != null) {
+				out.writeStartElement(ALIAS);
+				writeAttribute(NAME, alias.getName(), out);
+				writeAttribute(VALUE, alias.getValue(), out);
+				writeAttribute(XSI_TYPE_ATTR, alias.getXsiType(), out);
+				out.writeEndElement();
+			}
+			out.writeEndElement();
+		}
+		out.writeEndElement();
+	}
+
+	private void writeModifyRequest(ModifyRequest request, XMLStreamWriter out) throws XMLStreamException {
+
+		writeRootElement(modifyRequest, out);
+		writeAttribute(XMLNS_SUBSCRIBER, request.getSubscriber(), out);
+		writeAttribute(XMLNS_XSI, request.getXsi(), out);
+		writeAttribute(LANGUAGE, request.getLanguage(), out);
+		writeAttribute(RETURN_RESULTING_OBJECT, request.getReturnResultingObject(), out);
+		writeElement(VERSION, request.getVersion(), out);
+		writeElement(OBJECTCLASS, request.getObjectclass(), out);
+		writeElement(IDENTIFIER, request.getIdentifier(), out);
+		if (request.getModification() != null) {
+			for (Modification modification : request.getModification()) {
+				if (modification == null) {
+					writeNull(out);
+					continue;
+				}
+				out.writeStartElement(MODIFICATION);
+				writeAttribute(NAME, modification.getName(), out);
+				writeAttribute(OPERATION, modification.getOperation(), out);
+				writeAttribute(SCOPE, modification.getScope(), out);
+				if (modification.getMatch() != null) {
+					writeMatch(modification.getMatch(), out);
+				}
+				if (modification.getValueObject() != null) {
+					writeValueObject(modification.getValueObject(), out);
+				}
+				out.writeEndElement();
+			}
+		}
+		out.writeEndElement();
+	}
+
+	private void writeDeleteRequest(DeleteRequest request, XMLStreamWriter out) throws XMLStreamException {
+
+		writeRootElement(deleteRequest, out);
+		writeAttribute(DELETE_SCOPE, request.getDeleteScope(), out);
+		writeAttribute(EXECUTION, request.getExecution(), out);
+		writeAttribute(LANGUAGE, request.getLanguage(), out);
+		writeAttribute(RETURN_RESULTING_OBJECT, request.getReturnResultingObject(), out);
+		writeElement(VERSION, request.getVersion(), out);
+		writeElement(OBJECTCLASS, request.getObjectclass(), out);
+		writeElement(IDENTIFIER, request.getIdentifier(), out);
+		out.writeEndElement();
+	}
+
+	private void writeMatch(Match match, XMLStreamWriter out) throws XMLStreamException {
+
+		out.writeStartElement(MATCH);
+		writeAttribute(XMLNS_XSI, match.getXmlnsXSI(), out);
+		writeAttribute(XSI_TYPE, match.getType(), out);
+		writeElement(ORIGINAL_PUBLIC_USER_ID, match.getOriginalPublicUserId(), out);
+		writeElement(IRS_ID, match.getIrsId(), out);
+		writeElement(PROFILE_NAME, match.getProfileName(), out);
+		writeElement(PRIVATE_USER_ID, match.getPrivateUserId(), out);
+		out.writeEndElement();
+	}
+
+	private void writeValueObject(ValueObject valueObject, XMLStreamWriter out) throws XMLStreamException {
+
+		out.writeStartElement(VALUE_OBJECT);
+		writeAttribute(XMLNS_XSI, valueObject.getXmlnsXSI(), out);
+		writeAttribute(XSI_TYPE, valueObject.getType(), out);
+		writeElement(ORIGINAL_PUBLIC_USER_ID, valueObject.getOriginalPublicUserId(), out);
+		writeElement(DEFAULT_INDICATION, valueObject.getDefaultIndication(), out);
+		writeElement(SERVICE_PROFILE_NAME, valueObject.getServiceProfileName(), out);
+		writeElement(IRS_ID, valueObject.getIrsId(), out);
+		writeGlobalFilterIds(valueObject.getGlobalFilterId(), out);
+		out.writeEndElement();
+	}
+
+	private void writeSubscriber(Subscriber subscriber, XMLStreamWriter out) throws XMLStreamException {
+
+		out.writeStartElement(OBJECT);
+		writeAttribute(XMLNS_XSI, subscriber.getXsi(), out);
+		writeAttribute(XSI_TYPE, subscriber.getType(), out);
+		writeElement(IDENTIFIER, subscriber.getIdentifier(), out);
+		Hss hss = subscriber.getHss();
+		if (hss != null) {
+			out.writeStartElement(HSS);
+			writeElement(SUBSCRIPTION_ID, hss.getSubscriptionId(), out);
+			writeElement(PROFILE_TYPE, hss.getProfileType(), out);
+			writeElement(ADMIN_BLOCKED, hss.getAdminBlocked(), out);
+			writeElement(DEFAULT_SCSCF_REQUIRED, hss.getDefaultScscfRequired(), out);
+			writeElement(CCF_PRIMARY, hss.getCcfPrimary(), out);
+			writeElement(CCF_SECONDARY, hss.getCcfSecondary(), out);
+			if (hss.getPrivateUserId() != null) {
+				for (PrivateUserId privateUserId : hss.getPrivateUserId()) {
+					writePrivateUserId(privateUserId, out);
+				}
+			}
+			if (hss.getImplicitRegisteredSet() != null) {
+				for (ImplicitRegisteredSet implicitRegisteredSet : hss.getImplicitRegisteredSet()) {
+					writeImplicitRegisteredSet(implicitRegisteredSet, out);
+				}
+			}
+			if (hss.getPublicUserId() != null) {
+				for (PublicUserId publicUserId : hss.getPublicUserId()) {
+					writePublicUserId(publicUserId, out);
+				}
+			}
+			if (hss.getServiceProfile() != null) {
+				for (ServiceProfile serviceProfile : hss.getServiceProfile()) {
+					writeServiceProfile(serviceProfile, out);
+				}
+			}
+			out.writeEndElement();
+		}
+		out.writeEndElement();
+	}
+
+	private void writePrivateUserId(PrivateUserId privateUserId, XMLStreamWriter out) throws XMLStreamException {
+
+		if (privateUserId == null) {
+			writeNull(out);
+			return;
+		}
+		out.writeStartElement(PRIVATE_USER_ID);
+		writeElement(PRIVATE_USER_ID, privateUserId.getPrivateUserId(), out);
+		writeElement(HTTP_DIGEST_KEY, privateUserId.getHttpDigestKey(), out);
+		writeElement(HTTP_DIGEST_KEY_VERSION, privateUserId.getHttpDigestKeyVersion(), out);
+		writeElement(PREFERRED_AUTHENTICATION_SCHEME, privateUserId.getPreferredAuthenticationScheme(), out);
+		writeElement(ACT_AS_VLR, privateUserId.getActAsVLR(), out);
+		writeElement(PREFERRED_DOMAIN, privateUserId.getPreferredDomain(), out);
+		writeElement(LOOSE_ROUTING_INDICATION_REQUIRED, privateUserId.getLooseRoutingIndicationRequired(), out);
+		out.writeEndElement();
+	}
+
+	private void writeImplicitRegisteredSet(ImplicitRegisteredSet implicitRegisteredSet, XMLStreamWriter out)
+			throws XMLStreamException {
+
+		if (implicitRegisteredSet == null) {
+			writeNull(out);
+			return;
+		}
+		out.writeStartElement(IMPLICIT_REGISTERED_SET);
+		writeElement(IRS_ID, implicitRegisteredSet.getIrsId(), out);
+		writeElement(REGISTRATION_STATUS, implicitRegisteredSet.getRegistrationStatus(), out);
+		writeElement(AUTHENTICATION_PENDING, implicitRegisteredSet.getAuthenticationPending(), out);
+		out.writeEndElement();
+	}
+
+	private void writePublicUserId(PublicUserId publicUserId, XMLStreamWriter out) throws XMLStreamException {
+
+		if (publicUserId == null) {
+			writeNull(out);
+			return;
+		}
+		out.writeStartElement(PUBLIC_USER_ID);
+		writeElement(PUBLIC_USER_ID, publicUserId.getPublicUserId(), out);
+		writeElement(ORIGINAL_PUBLIC_USER_ID, publicUserId.getOriginalPublicUserId(), out);
+		writeElement(BARRING_INDICATION, publicUserId.getBarringIndication(), out);
+		writeElement(DEFAULT_INDICATION, publicUserId.getDefaultIndication(), out);
+		writeElement(SERVICE_PROFILE_NAME, publicUserId.getServiceProfileName(), out);
+		writeElement(IRS_ID, publicUserId.getIrsId(), out);
+		writeElement(DISPLAY_NAME_PRIVACY, publicUserId.getDisplayNamePrivacy(), out);
+		out.writeEndElement();
+	}
+
+	private void writeServiceProfile(ServiceProfile serviceProfile, XMLStreamWriter out) throws XMLStreamException {
+
+		if (serviceProfile == null) {
+			writeNull(out);
+			return;
+		}
+		out.writeStartElement(SERVICE_PROFILE);
+		writeElement(PROFILE_NAME, serviceProfile.getProfileName(), out);
+		writeGlobalFilterIds(serviceProfile.getGlobalFilterId(), out);
+		SubscribedMediaProfileID mediaProfile = serviceProfile.getSubscribedMediaProfileID();
+		if (mediaProfile != null) {
+			out.writeStartElement(SUBSCRIBED_MEDIA_PROFILE_ID);
+			writeElement(SESSION_RELEASE_POLICY, mediaProfile.getSessionReleasePolicy(), out);
+			writeElement(FORKING_POLICY, mediaProfile.getForkingPolicy(), out);
+			out.writeEndElement();
+		}
+		out.writeEndElement();
+	}
+
+	private void writeGlobalFilterIds(List<GlobalFilterId> globalFilterIds, XMLStreamWriter out)
+			throws XMLStreamException {
+
+		if (globalFilterIds == null) {
+			return;
+		}
+		for (GlobalFilterId globalFilterId : globalFilterIds) {
+			if (globalFilterId == null) {
+				writeNull(out);
+				continue;
+			}
+			out.writeStartElement(GLOBAL_FILTER_ID);
+			writeElement(GLOBAL_FILTER_ID, globalFilterId.getGlobalFilterId(), out);
+			out.writeEndElement();
+		}
+	}
+
+	private void writeRootElement(String name, XMLStreamWriter out) throws XMLStreamException {
+		out.writeStartElement(prefix, name, namespace);
+		out.writeNamespace(prefix, namespace);
+	}
+
+	private static void writeElement(String name, String value, XMLStreamWriter out) throws XMLStreamException {
+
+		if (value != null) {
+			out.writeStartElement(name);
+			out.writeCharacters(value);
+			out.writeEndElement();
+		}
+	}
+
+	private static void writeAttribute(String name, String value, XMLStreamWriter out) throws XMLStreamException {
+
+		if (value != null) {
+			out.writeAttribute(name, value);
+		}
+	}
+
+	private static void writeNull(XMLStreamWriter out) throws XMLStreamException {
+		out.writeStartElement(NULL);
+		out.writeEndElement();
+	}
+
+	private SpmlResponse readResponse(XMLStreamReader in) throws XMLStreamException {
+
+		in.nextTag();
+		if (!responses.contains(in.getLocalName())) {
+			throw new ServiceException("Unexpected SPML response " + in.getLocalName());
+		}
+		String executionTime = in.getAttributeValue(null, EXECUTION_TIME);
+		String language = in.getAttributeValue(null, LANGUAGE);
+		String requestId = in.getAttributeValue(null, REQUEST_ID);
+		String result = in.getAttributeValue(null, RESULT);
+		String searchStatus = in.getAttributeValue(null, SEARCH_STATUS);
+
+		String identifier = null;
+		String objectclass = null;
+		String errorMessage = null;
+		String version = null;
+		Subscriber subscriber = null;
+		Modification modification = null;
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case IDENTIFIER:
+				identifier = in.getElementText();
+				break;
+			case OBJECTCLASS:
+				objectclass = in.getElementText();
+				break;
+			case ERROR_MESSAGE:
+				errorMessage = in.getElementText();
+				break;
+			case VERSION:
+				version = in.getElementText();
+				break;
+			case OBJECTS:
+				subscriber = readSubscriber(in);
+				break;
+			case MODIFICATION:
+				modification = readModification(in);
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		SpmlResponse response = new SpmlResponse(executionTime, language, requestId, identifier, subscriber,
+				objectclass, result, errorMessage, version, modification);
+		response.setSearchStatus(searchStatus);
+		return response;
+	}
+
+	private Subscriber readSubscriber(XMLStreamReader in) throws XMLStreamException {
+
+		Subscriber.SubscriberBuilder subscriber = Subscriber.builder().type(in.getAttributeValue(null, TYPE));
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case IDENTIFIER:
+				subscriber.identifier(in.getElementText());
+				break;
+			case HSS:
+				subscriber.hss(readHss(in));
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return subscriber.build();
+	}
+
+	private Hss readHss(XMLStreamReader in) throws XMLStreamException {
+
+		Hss.HssBuilder hss = Hss.builder();
+		List<PrivateUserId> privateUserIds = null;
+		List<ImplicitRegisteredSet> implicitRegisteredSets = null;
+		List<PublicUserId> publicUserIds = null;
+		List<ServiceProfile> serviceProfiles = null;
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case SUBSCRIPTION_ID:
+				hss.subscriptionId(in.getElementText());
+				break;
+			case PROFILE_TYPE:
+				hss.profileType(in.getElementText());
+				break;
+			case ADMIN_BLOCKED:
+				hss.adminBlocked(in.getElementText());
+				break;
+			case DEFAULT_SCSCF_REQUIRED:
+				hss.defaultScscfRequired(in.getElementText());
+				break;
+			case CCF_PRIMARY:
+				hss.ccfPrimary(in.getElementText());
+				break;
+			case CCF_SECONDARY:
+				hss.ccfSecondary(in.getElementText());
+				break;
+			case PRIVATE_USER_ID:
+				privateUserIds = add(privateUserIds, readPrivateUserId(in));
+				break;
+			case IMPLICIT_REGISTERED_SET:
+				implicitRegisteredSets = add(implicitRegisteredSets, readImplicitRegisteredSet(in));
+				break;
+			case PUBLIC_USER_ID:
+				publicUserIds = add(publicUserIds, readPublicUserId(in));
+				break;
+			case SERVICE_PROFILE:
+				serviceProfiles = add(serviceProfiles, readServiceProfile(in));
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return hss.privateUserId(privateUserIds).implicitRegisteredSet(implicitRegisteredSets)
+				.publicUserId(publicUserIds).serviceProfile(serviceProfiles).build();
+	}
+
+	private PrivateUserId readPrivateUserId(XMLStreamReader in) throws XMLStreamException {
+
+		PrivateUserId.PrivateUserIdBuilder privateUserId = PrivateUserId.builder();
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case PRIVATE_USER_ID:
+				privateUserId.privateUserId(in.getElementText());
+				break;
+			case HTTP_DIGEST_KEY:
+				privateUserId.httpDigestKey(in.getElementText());
+				break;
+			case HTTP_DIGEST_KEY_VERSION:
+				privateUserId.httpDigestKeyVersion(in.getElementText());
+				break;
+			case PREFERRED_AUTHENTICATION_SCHEME:
+				privateUserId.preferredAuthenticationScheme(in.getElementText());
+				break;
+			case ACT_AS_VLR:
+				privateUserId.actAsVLR(in.getElementText());
+				break;
+			case PREFERRED_DOMAIN:
+				privateUserId.preferredDomain(in.getElementText());
+				break;
+			case LOOSE_ROUTING_INDICATION_REQUIRED:
+				privateUserId.looseRoutingIndicationRequired(in.getElementText());
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return privateUserId.build();
+	}
+
+	private ImplicitRegisteredSet readImplicitRegisteredSet(XMLStreamReader in) throws XMLStreamException {
+
+		ImplicitRegisteredSet.ImplicitRegisteredSetBuilder implicitRegisteredSet = ImplicitRegisteredSet.builder();
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case IRS_ID:
+				implicitRegisteredSet.irsId(in.getElementText());
+				break;
+			case REGISTRATION_STATUS:
+				implicitRegisteredSet.registrationStatus(in.getElementText());
+				break;
+			case AUTHENTICATION_PENDING:
+				implicitRegisteredSet.authenticationPending(in.getElementText());
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return implicitRegisteredSet.build();
+	}
+
+	private PublicUserId readPublicUserId(XMLStreamReader in) throws XMLStreamException {
+
+		PublicUserId.PublicUserIdBuilder publicUserId = PublicUserId.builder();
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case PUBLIC_USER_ID:
+				publicUserId.publicUserId(in.getElementText());
+				break;
+			case ORIGINAL_PUBLIC_USER_ID:
+				publicUserId.originalPublicUserId(in.getElementText());
+				break;
+			case BARRING_INDICATION:
+				publicUserId.barringIndication(in.getElementText());
+				break;
+			case DEFAULT_INDICATION:
+				publicUserId.defaultIndication(in.getElementText());
+				break;
+			case SERVICE_PROFILE_NAME:
+				publicUserId.serviceProfileName(in.getElementText());
+				break;
+			case IRS_ID:
+				publicUserId.irsId(in.getElementText());
+				break;
+			case DISPLAY_NAME_PRIVACY:
+				publicUserId.displayNamePrivacy(in.getElementText());
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return publicUserId.build();
+	}
+
+	private ServiceProfile readServiceProfile(XMLStreamReader in) throws XMLStreamException {
+
+		ServiceProfile.ServiceProfileBuilder serviceProfile = ServiceProfile.builder();
+		List<GlobalFilterId> globalFilterIds = null;
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case PROFILE_NAME:
+				serviceProfile.profileName(in.getElementText());
+				break;
+			case GLOBAL_FILTER_ID:
+				globalFilterIds = add(globalFilterIds, readGlobalFilterId(in));
+				break;
+			case SUBSCRIBED_MEDIA_PROFILE_ID:
+				serviceProfile.subscribedMediaProfileID(readSubscribedMediaProfileId(in));
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return serviceProfile.globalFilterId(globalFilterIds).build();
+	}
+
+	private SubscribedMediaProfileID readSubscribedMediaProfileId(XMLStreamReader in) throws XMLStreamException {
+
+		SubscribedMediaProfileID.SubscribedMediaProfileIDBuilder mediaProfile = SubscribedMediaProfileID.builder();
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case SESSION_RELEASE_POLICY:
+				mediaProfile.sessionReleasePolicy(in.getElementText());
+				break;
+			case FORKING_POLICY:
+				mediaProfile.forkingPolicy(in.getElementText());
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return mediaProfile.build();
+	}
+
+	private GlobalFilterId readGlobalFilterId(XMLStreamReader in) throws XMLStreamException {
+
+		GlobalFilterId.GlobalFilterIdBuilder globalFilterId = GlobalFilterId.builder();
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			if (GLOBAL_FILTER_ID.equals(in.getLocalName())) {
+				globalFilterId.globalFilterId(in.getElementText());
+			} else {
+				skipElement(in);
+			}
+		}
+		return globalFilterId.build();
+	}
+
+	private Modification readModification(XMLStreamReader in) throws XMLStreamException {
+
+		Modification.ModificationBuilder modification = Modification.builder()
+				.name(in.getAttributeValue(null, NAME)).operation(in.getAttributeValue(null, OPERATION))
+				.scope(in.getAttributeValue(null, SCOPE));
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case MATCH:
+				modification.match(readMatch(in));
+				break;
+			case VALUE_OBJECT:
+				modification.valueObject(readValueObject(in));
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return modification.build();
+	}
+
+	private Match readMatch(XMLStreamReader in) throws XMLStreamException {
+
+		Match.MatchBuilder match = Match.builder().type(in.getAttributeValue(null, TYPE));
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case ORIGINAL_PUBLIC_USER_ID:
+				match.originalPublicUserId(in.getElementText());
+				break;
+			case IRS_ID:
+				match.irsId(in.getElementText());
+				break;
+			case PROFILE_NAME:
+				match.profileName(in.getElementText());
+				break;
+			case PRIVATE_USER_ID:
+				match.privateUserId(in.getElementText());
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return match.build();
+	}
+
+	private ValueObject readValueObject(XMLStreamReader in) throws XMLStreamException {
+
+		ValueObject.ValueObjectBuilder valueObject = ValueObject.builder().type(in.getAttributeValue(null, TYPE));
+		List<GlobalFilterId> globalFilterIds = null;
+		while (in.nextTag() == XMLStreamConstants.START_ELEMENT) {
+			switch (in.getLocalName()) {
+			case ORIGINAL_PUBLIC_USER_ID:
+				valueObject.originalPublicUserId(in.getElementText());
+				break;
+			case DEFAULT_INDICATION:
+				valueObject.defaultIndication(in.getElementText());
+				break;
+			case SERVICE_PROFILE_NAME:
+				valueObject.serviceProfileName(in.getElementText());
+				break;
+			case IRS_ID:
+				valueObject.irsId(in.getElementText());
+				break;
+			case GLOBAL_FILTER_ID:
+				globalFilterIds = add(globalFilterIds, readGlobalFilterId(in));
+				break;
+			default:
+				skipElement(in);
+			}
+		}
+		return valueObject.globalFilterId(globalFilterIds).build();
+	}
+
+	private static <T> List<T> add(List<T> list, T item) {
+		List<T> items = list == null ? new ArrayList<>() : list;
+		items.add(item);
+		return items;
+	}
+
+	private static void skipElement(XMLStreamReader in) throws XMLStreamException {
+
+		int depth = 1;
+		while (depth > 0) {
+			int event = in.next();
+			if (event == XMLStreamConstants.START_ELEMENT) {
+				depth++;
+			} else if (event == XMLStreamConstants.END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private static void close(XMLStreamReader in) {
+
+		if (in != null) {
+			try {
+				in.close();
+			} catch (XMLStreamException e) {
+				// nothing left to release for a string source
+			}
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		return factory;
+	}
+}
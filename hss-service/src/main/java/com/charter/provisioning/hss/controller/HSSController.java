@@ -1,90 +1,209 @@
-package com.charter.provisioning.hss.controller;
-
-import com.charter.provisioning.hss.exception.ErrorResponse;
-import com.charter.provisioning.hss.exception.ServiceException;
-import com.charter.provisioning.hss.model.DigitalPhone;
-import com.charter.provisioning.hss.model.DigitalPhoneResponse;
-import com.charter.provisioning.hss.service.DigitalPhoneService;
-import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
-import io.swagger.annotations.*;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
-
-import javax.servlet.http.HttpServletResponse;
-
-@Slf4j
-@RestController
-@RequestMapping("/digital-phones")
-@Api(value = "HSS Digital Phone Service")
-public class HSSController {
-
-	private DigitalPhoneService digitalPhoneService;
-	
-	@Autowired
-	public HSSController(DigitalPhoneService digitalPhoneService) {
-	    this.digitalPhoneService = digitalPhoneService;
-	}
-	
-	@ApiOperation(value = "	Create a subscriber")
-	@PostMapping(consumes = "application/json", produces = "application/json")
-	@ApiResponses(value = {
-			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = DigitalPhoneResponse.class, responseContainer = "Return Digital Phone Response"),
-			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
-			@ApiResponse(code = HttpServletResponse.SC_NOT_FOUND, message = "Not Found"),
-			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error") })
-	public ResponseEntity<DigitalPhoneResponse> createSubscriber(
-			@RequestHeader(value = "transaction-id", required = false) String transactionId,
-			@ApiParam(value = "The DigitalPhone attributes to create digital phone subscriber.", required = true) @RequestBody DigitalPhone digitalPhone) {
-
-		log.info("Create subscriber for Transaction id {}, Telephone Number {}", transactionId, digitalPhone.getPublicIdentity().get(0).getUserId());
-		
-		return new ResponseEntity<>(digitalPhoneService.createSubscriber(digitalPhone, transactionId), HttpStatus.CREATED);
-	}
-
-	@ApiOperation(value = "Delete a subscriber")
-	@DeleteMapping(produces = "application/json")
-	@ApiResponses(value = {
-			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = DigitalPhoneResponse.class, responseContainer = "Return SubscriberResponse"),
-			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
-			@ApiResponse(code = HttpServletResponse.SC_NOT_FOUND, message = "Not Found"),
-			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error") })
-	public ResponseEntity<?> deleteSubscriber(@RequestHeader(value = "audit-user", required = false) String telephoneNumber,
-			@RequestHeader(value = "transaction-id", required = false) String transactionId,
-			@ApiParam(value = "The DigitalPhone attributes to delete digital phone subscriber.", required = true) @RequestBody DigitalPhone digitalPhone) {
-
-		log.info("Delete subscriber for Transaction id {}, Telephone Number {}", transactionId, telephoneNumber);
-		digitalPhoneService.deleteSubscriber(digitalPhone, transactionId);
-		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
-	}
-
-	@ApiOperation(value = "Retrieving Digital Phone Subscriber")
-	@ApiResponses(value = {
-			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = Subscriber.class, responseContainer = "Return Subscriber"),
-			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
-			@ApiResponse(code = HttpServletResponse.SC_NOT_FOUND, message = "Not Found"),
-			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error")})
-	@GetMapping(produces = "application/json")
-	public ResponseEntity<Subscriber> getDigitalPhone(@ApiParam (value = "UUID used to trace a transaction through all systems end to end.") @RequestHeader(value = "transaction-id", required = false) String transactionId,
-													  @ApiParam (value = "TelephoneNumber is used to lookup the HSS Subscriber.") @RequestParam(value = "telephone-number", required = false) String telephoneNumber,
-													  @ApiParam (value = "ControllerId is used to lookup HSS Subscriber for HG/BG.") @RequestParam(value = "controller-id", required = false) String controllerId,
-													  @ApiParam (value = "privateIdentity is used to lookup the HSS Subscriber.") @RequestParam(value = "private-identity", required = false) String privateIdentity) {
-
-		log.info("retrieving digital phone subscriber by Telephone Number {}, Controller Id {}, privateIdentity {}, Transaction id {}", telephoneNumber,controllerId, privateIdentity, transactionId);
-		return new ResponseEntity<>(digitalPhoneService.getDigitalPhoneSubscriber(telephoneNumber, controllerId, privateIdentity, transactionId), HttpStatus.OK);
-	}
-
-	@ExceptionHandler(Exception.class)
-	public ErrorResponse handleException(HttpServletResponse response, Throwable ex) {
-		response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-
-		if (ex instanceof ServiceException) {
-			response.setStatus(((ServiceException) ex).getHttpStatus());
-		}
-
-		return ErrorResponse.builder().message(ex.getMessage()).status(String.valueOf(response.getStatus())).build();
-	}
-	
+package com.charter.provisioning.hss.controller;
+
+import com.charter.provisioning.hss.common.RequestExecutor;
+import com.charter.provisioning.hss.common.ServiceConstants;
+import com.charter.provisioning.hss.common.SubscriberLanes;
+import com.charter.provisioning.hss.exception.ErrorResponse;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.BatchItemResponse;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse;
+import com.charter.provisioning.hss.model.SubscriberLookupRequest;
+import com.charter.provisioning.hss.model.SubscriberLookupResponse;
+import com.charter.provisioning.hss.service.BatchProvisioningService;
+import com.charter.provisioning.hss.service.DigitalPhoneService;
+import com.charter.provisioning.hss.service.SubscriberLookupService;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.annotations.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+@Slf4j
+@RestController
+@RequestMapping("/digital-phones")
+@Api(value = "HSS Digital Phone Service")
+public class HSSController {
+
+	private DigitalPhoneService digitalPhoneService;
+
+	private RequestExecutor requestExecutor;
+
+	private SubscriberLanes subscriberLanes;
+
+	private BatchProvisioningService batchProvisioningService;
+
+	private SubscriberLookupService subscriberLookupService;
+
+	private ObjectMapper objectMapper;
+	
+	@Autowired
+	public HSSController(DigitalPhoneService digitalPhoneService, RequestExecutor requestExecutor,
+			SubscriberLanes subscriberLanes, BatchProvisioningService batchProvisioningService,
+			SubscriberLookupService subscriberLookupService, ObjectMapper objectMapper) {
+	    this.digitalPhoneService = digitalPhoneService;
+	    this.requestExecutor = requestExecutor;
+	    this.subscriberLanes = subscriberLanes;
+	    this.batchProvisioningService = batchProvisioningService;
+	    this.subscriberLookupService = subscriberLookupService;
+	    this.objectMapper = objectMapper;
+	}
+	
+	@ApiOperation(value = "	Create a subscriber")
+	@PostMapping(consumes = "application/json", produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = DigitalPhoneResponse.class, responseContainer = "Return Digital Phone Response"),
+			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
+			@ApiResponse(code = HttpServletResponse.SC_NOT_FOUND, message = "Not Found"),
+			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error") })
+	public DeferredResult<ResponseEntity<DigitalPhoneResponse>> createSubscriber(
+			@RequestHeader(value = "transaction-id", required = false) String transactionId,
+			@ApiParam(value = "The DigitalPhone attributes to create digital phone subscriber.", required = true) @RequestBody DigitalPhone digitalPhone) {
+
+		log.info("Create subscriber for Transaction id {}, Telephone Number {}", transactionId, digitalPhone.getPublicIdentity().get(0).getUserId());
+		
+		// create and delete requests of the same subscriber run in arrival order
+		return deferred(subscriberLanes.submit(subscriberLanes.primaryIdentity(digitalPhone),
+				() -> requestExecutor.supply(() -> digitalPhoneService.createSubscriber(digitalPhone, transactionId))),
+				response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+	}
+
+	@ApiOperation(value = "Delete a subscriber")
+	@DeleteMapping(produces = "application/json")
+	@ApiResponses(value = {
+			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = DigitalPhoneResponse.class, responseContainer = "Return SubscriberResponse"),
+			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
+			@ApiResponse(code = HttpServletResponse.SC_NOT_FOUND, message = "Not Found"),
+			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error") })
+	public DeferredResult<ResponseEntity<?>> deleteSubscriber(@RequestHeader(value = "audit-user", required = false) String telephoneNumber,
+			@RequestHeader(value = "transaction-id", required = false) String transactionId,
+			@ApiParam(value = "The DigitalPhone attributes to delete digital phone subscriber.", required = true) @RequestBody DigitalPhone digitalPhone) {
+
+		log.info("Delete subscriber for Transaction id {}, Telephone Number {}", transactionId, telephoneNumber);
+		return deferred(subscriberLanes.submit(subscriberLanes.primaryIdentity(digitalPhone),
+				() -> requestExecutor.supply(() -> digitalPhoneService.deleteSubscriber(digitalPhone, transactionId))),
+				response -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+	}
+
+	@ApiOperation(value = "Create and delete subscribers in bulk")
+	@PostMapping(value = "/batch", consumes = { "application/json", ServiceConstants.NDJSON }, produces = { ServiceConstants.NDJSON, "application/json" })
+	@ApiResponses(value = {
+			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = BatchItemResponse.class, responseContainer = "Newline delimited BatchItemResponse per item"),
+			@ApiResponse(code = HttpServletResponse.SC_SERVICE_UNAVAILABLE, message = "Too many batches in progress"),
+			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error") })
+	public ResponseEntity<ResponseBodyEmitter> provisionBatch(
+			@RequestHeader(value = "transaction-id", required = false) String transactionId,
+			@ApiParam(value = "JSON array or newline delimited JSON of DigitalPhone create and delete requests.", required = true) HttpServletRequest request) throws IOException {
+
+		log.info("Batch provisioning for Transaction id {}", transactionId);
+
+		// results are written as items complete, the body is read on a batch thread after this returns
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter(batchProvisioningService.getTimeout());
+		completeWith(emitter, batchProvisioningService.provision(request.getInputStream(), transactionId,
+				result -> send(emitter, result)));
+		return ResponseEntity.ok().contentType(MediaType.valueOf(ServiceConstants.NDJSON)).body(emitter);
+	}
+
+	@ApiOperation(value = "Retrieving Digital Phone Subscribers in bulk")
+	@PostMapping(value = "/lookup", consumes = "application/json", produces = { ServiceConstants.NDJSON, "application/json" })
+	@ApiResponses(value = {
+			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = SubscriberLookupResponse.class, responseContainer = "Newline delimited SubscriberLookupResponse per identity"),
+			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
+			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error") })
+	public ResponseEntity<ResponseBodyEmitter> lookupSubscribers(
+			@ApiParam(value = "UUID used to trace a transaction through all systems end to end.") @RequestHeader(value = "transaction-id", required = false) String transactionId,
+			@ApiParam(value = "Telephone numbers, controller ids and private identities to lookup.", required = true) @RequestBody SubscriberLookupRequest lookupRequest) {
+
+		log.info("Retrieving digital phone subscribers in bulk, Transaction id {}", transactionId);
+
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter(subscriberLookupService.getTimeout());
+		completeWith(emitter, subscriberLookupService.lookup(lookupRequest, transactionId, result -> send(emitter, result)));
+		return ResponseEntity.ok().contentType(MediaType.valueOf(ServiceConstants.NDJSON)).body(emitter);
+	}
+
+	@ApiOperation(value = "Retrieving Digital Phone Subscriber")
+	@ApiResponses(value = {
+			@ApiResponse(code = HttpServletResponse.SC_OK, message = "Success", response = Subscriber.class, responseContainer = "Return Subscriber"),
+			@ApiResponse(code = HttpServletResponse.SC_BAD_REQUEST, message = "Bad Request"),
+			@ApiResponse(code = HttpServletResponse.SC_NOT_FOUND, message = "Not Found"),
+			@ApiResponse(code = HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message = "Internal Server Error")})
+	@GetMapping(produces = "application/json")
+	public DeferredResult<ResponseEntity<Subscriber>> getDigitalPhone(@ApiParam (value = "UUID used to trace a transaction through all systems end to end.") @RequestHeader(value = "transaction-id", required = false) String transactionId,
+													  @ApiParam (value = "TelephoneNumber is used to lookup the HSS Subscriber.") @RequestParam(value = "telephone-number", required = false) String telephoneNumber,
+													  @ApiParam (value = "ControllerId is used to lookup HSS Subscriber for HG/BG.") @RequestParam(value = "controller-id", required = false) String controllerId,
+													  @ApiParam (value = "privateIdentity is used to lookup the HSS Subscriber.") @RequestParam(value = "private-identity", required = false) String privateIdentity) {
+
+		log.info("retrieving digital phone subscriber by Telephone Number {}, Controller Id {}, privateIdentity {}, Transaction id {}", telephoneNumber,controllerId, privateIdentity, transactionId);
+		return deferred(requestExecutor.supply(() -> digitalPhoneService.getDigitalPhoneSubscriber(telephoneNumber, controllerId, privateIdentity, transactionId)),
+				subscriber -> new ResponseEntity<>(subscriber, HttpStatus.OK));
+	}
+
+	// one newline delimited JSON line per result, written in a single send so concurrent results never interleave
+	private void send(ResponseBodyEmitter emitter, Object result) {
+		try {
+			emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.valueOf(ServiceConstants.NDJSON));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// the operation is cancelled on spring.mvc.async.request-timeout, which answers with AsyncRequestTimeoutException
+	private static <T, R> DeferredResult<R> deferred(CompletableFuture<T> operation, Function<T, R> response) {
+
+		DeferredResult<R> result = new DeferredResult<>();
+		result.onTimeout(() -> operation.cancel(true));
+		operation.whenComplete((value, e) -> {
+			if (operation.isCancelled())
+				return;
+			if (e != null)
+				result.setErrorResult(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+			else
+				result.setResult(response.apply(value));
+		});
+		return result;
+	}
+
+	private static void completeWith(ResponseBodyEmitter emitter, CompletableFuture<?> completion) {
+		completion.whenComplete((count, e) -> {
+			if (e != null)
+				emitter.completeWithError(e);
+			else
+				emitter.complete();
+		});
+	}
+
+	@ExceptionHandler(Exception.class)
+	public ErrorResponse handleException(HttpServletResponse response, Throwable ex) {
+		// failures of the streaming endpoints may arrive wrapped in a CompletionException
+		if (ex instanceof CompletionException && ex.getCause() != null)
+			ex = ex.getCause();
+
+		response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+		String message = ex.getMessage();
+
+		if (ex instanceof ServiceException) {
+			response.setStatus(((ServiceException) ex).getHttpStatus());
+		} else if (ex instanceof AsyncRequestTimeoutException) {
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+			message = "Request timed out.";
+		}
+
+		return ErrorResponse.builder().message(message).status(String.valueOf(response.getStatus())).build();
+	}
+	
 }
\ No newline at end of file
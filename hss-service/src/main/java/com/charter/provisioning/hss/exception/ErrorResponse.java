@@ -1,14 +1,14 @@
-package com.charter.provisioning.hss.exception;
-
-import lombok.Builder;
-import lombok.Data;
-
-@Data
-@Builder
-public class ErrorResponse {
-	
-	private String status;
-
-	private String message;
-
+package com.charter.provisioning.hss.exception;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ErrorResponse {
+	
+	private String status;
+
+	private String message;
+
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.charter.provisioning.hss.exception;
+
+import lombok.Getter;
+
+@Getter
+@SuppressWarnings("serial")
+public class SoapFaultException extends SoapServiceException {
+
+	private final String faultCode;
+
+	private final String faultString;
+
+	public SoapFaultException(String faultCode, String faultString) {
+		super("SOAP Fault received, faultcode=" + faultCode + ", faultstring=" + faultString);
+		this.faultCode = faultCode;
+		this.faultString = faultString;
+	}
+}
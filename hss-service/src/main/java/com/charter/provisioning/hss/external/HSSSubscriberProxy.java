@@ -1,173 +1,224 @@
-package com.charter.provisioning.hss.external;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.apache.commons.io.IOUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.http.Header;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.entity.EntityBuilder;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.client.utils.HttpClientUtils;
-import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.entity.ContentType;
-import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.message.BasicHeader;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
-
-import com.charter.provisioning.hss.common.SoapMessage;
-import com.charter.provisioning.hss.config.HssServiceConfig;
-import com.charter.provisioning.hss.exception.SoapServiceException;
-
-import lombok.extern.slf4j.Slf4j;
-
-@Slf4j
-@Component
-public class HSSSubscriberProxy {
-	
-	private HssServiceConfig serviceConfig;
-
-	@Autowired
-	public HSSSubscriberProxy(HssServiceConfig serviceConfig) {
-		this.serviceConfig = serviceConfig;
-	}
-
-	public String sendAndReceive(SoapMessage message, String transactionId) throws SoapServiceException {
-		
-		String response;
-		try {
-			response = handleRequest(message, transactionId);
-		} catch (SoapServiceException | IOException | URISyntaxException e) {
-			String errorMsg = "Protocol related error while sending message";
-			throw new SoapServiceException(errorMsg);
-		}
-		return response;
-	}
-	
-	private String handleRequest(SoapMessage message, String transactionId) throws SoapServiceException, IOException, URISyntaxException {
-
-		HttpUriRequest method;
-		HttpResponse httpResponse = null;
-		String response = null;
-		SoapMessage respMessage;
-		try {
-			method = createMethod(message, transactionId);
-
-			log.debug("[{}] - URI = {}",transactionId,method.getRequestLine().getUri());
-			log.debug("[{}] - Query = {}",transactionId,method.getURI().getQuery());
-			log.debug("[{}] - Host = {}",transactionId,method.getURI().getHost());
-			log.debug("[{}] - Port = {}",transactionId,method.getURI().getPort());
-			log.debug("[{}] - Raw Query = {}",transactionId,method.getURI().getRawQuery());
-			
-			HttpClientContext context = getClientContext(message);
-
-			List<Header> headers = new ArrayList<>();
-			headers.add(new BasicHeader(HttpHeaders.CONNECTION, "keep-alive"));
-
-			HttpClient client = HttpClientBuilder.create().setDefaultHeaders(headers).build();
-			httpResponse = client.execute(method, context);
-
-			int statusCode = httpResponse.getStatusLine().getStatusCode();
-			log.debug("statusCode={}", statusCode);
-
-			if (isStatusError(statusCode)) {
-				String errorMsg = "HTTP method execution failed, response statusLine=" + httpResponse.getStatusLine();
-				log.error(errorMsg);
-				throw new SoapServiceException(errorMsg);
-				
-			} else if (null != httpResponse.getEntity()) {
-				
-				respMessage = SoapMessage.class.newInstance();
-				HttpEntity entity = httpResponse.getEntity();
-				InputStream is = entity.getContent();
-				byte[] bytes = IOUtils.toByteArray(is);
-				respMessage.setMessage(bytes);
-
-				response = respMessage.getPayload();
-				log.debug("[{}] - Getting the response : {}", transactionId, response);
-			}
-			
-		} catch (Exception e) {
-			String errorMsg = "Protocol related error while sending message";
-			throw new SoapServiceException(errorMsg, e);
-		} finally {
-			HttpClientUtils.closeQuietly(httpResponse);
-		}
-		return response;
-	}
-
-	private HttpUriRequest createMethod(SoapMessage message, String transactionId) throws SoapServiceException{
-		
-        HttpPost postMethod = new HttpPost(message.getPropertyValue(serviceConfig.getUrl()));
-        
-        log.debug("[{}] - *** createStringRequestEntity from SOAPProtocolmessage {}",transactionId, message.getSoapXml());
-        HttpEntity requestEntity = EntityBuilder.create().setContentType(ContentType.TEXT_XML).setText(message.getSoapXml()).build();
-        
-        if (requestEntity != null) {
-        	postMethod.setEntity(requestEntity);
-        	postMethod.setHeader(message.getSoapAction(),message.getSoapHeader());
-        }
-        return postMethod;
-	}
-
-	private HttpClientContext getClientContext(SoapMessage message) throws URISyntaxException {
-		
-		String txId = message.getPropertyValue(serviceConfig.getTxId());
-		txId = (txId != null) ? txId : "";
-
-		String user = message.getPropertyValue(serviceConfig.getUser());
-		String password = message.getPropertyValue(serviceConfig.getPassword());
-		user = (user != null) ? user : "";
-		password = (password != null) ? password : "";
-		String endpointUrl = message.getPropertyValue(serviceConfig.getUrl());
-		
-		return getClientContext(user, password, endpointUrl);
-	}
-
-	private HttpClientContext getClientContext(String user, String password, String endpointUrl) throws URISyntaxException {
-
-		HttpClientContext context = HttpClientContext.create();
-        URI endpointUri = new URI(endpointUrl);
-        
-    	URIBuilder builder = new URIBuilder();
-    	builder.setScheme(endpointUri.getScheme());
-    	builder.setHost(endpointUri.getHost());
-    	builder.setPort(endpointUri.getPort());
-    	builder.setPath(endpointUri.getPath());
-    	
-    	if ( !StringUtils.isEmpty(user) && !StringUtils.isEmpty(password) )
-    	{
-    		log.debug("Username and password specified, set credentials provider");
-    		
-    		CredentialsProvider credsProvider = new BasicCredentialsProvider();    	    	
-    		credsProvider.setCredentials(
-                new AuthScope(endpointUri.getHost(), endpointUri.getPort()),
-                new UsernamePasswordCredentials(user, password));    	
-
-    		context.setCredentialsProvider(credsProvider);    	
-    		context.setAttribute(serviceConfig.getCredentialsProvider(),credsProvider);    	    		
-    	}
-    	return context;		
-	}
-	
-	private boolean isStatusError(int statusCode) {
-        int scat = statusCode / 100;
-        return scat == 3 || scat == 4;
-    }
-	
-}
+package com.charter.provisioning.hss.external;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.HttpClientUtils;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import com.charter.provisioning.hss.common.SoapEnvelopeReader;
+import com.charter.provisioning.hss.common.SoapMessage;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.SoapFaultException;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class HSSSubscriberProxy {
+	
+	private HssServiceConfig serviceConfig;
+
+	private HttpAsyncClient hssHttpClient;
+
+	private Executor responseExecutor;
+
+	@Autowired
+	public HSSSubscriberProxy(HssServiceConfig serviceConfig, HttpAsyncClient hssHttpClient,
+			@Qualifier("hssResponseExecutor") Executor responseExecutor) {
+		this.serviceConfig = serviceConfig;
+		this.hssHttpClient = hssHttpClient;
+		this.responseExecutor = responseExecutor;
+	}
+
+	/**
+	 * Sends the soap message on the non blocking http client. The response is
+	 * read and the returned future completed on an hss-response thread, never on
+	 * the I/O reactor, so callers chaining on it cannot stall other exchanges.
+	 *
+	 * @param message
+	 *            soap message holding the SPML request.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return CompletableFuture completed with the SPML payload of the response,
+	 *         or exceptionally with a SoapServiceException.
+	 */
+	public CompletableFuture<String> sendAndReceiveAsync(SoapMessage message, String transactionId) {
+
+		CompletableFuture<String> future = new CompletableFuture<>();
+		try {
+			HttpUriRequest method = createMethod(message, transactionId);
+
+			log.debug("[{}] - URI = {}",transactionId,method.getRequestLine().getUri());
+			log.debug("[{}] - Query = {}",transactionId,method.getURI().getQuery());
+			log.debug("[{}] - Host = {}",transactionId,method.getURI().getHost());
+			log.debug("[{}] - Port = {}",transactionId,method.getURI().getPort());
+			log.debug("[{}] - Raw Query = {}",transactionId,method.getURI().getRawQuery());
+
+			HttpClientContext context = getClientContext(message);
+
+			// Shared non blocking client, the callback runs on the I/O reactor once the response is buffered.
+			Future<HttpResponse> exchange = hssHttpClient.execute(method, context, new FutureCallback<HttpResponse>() {
+
+				@Override
+				public void completed(HttpResponse httpResponse) {
+					offReactor(() -> {
+						try {
+							future.complete(handleResponse(httpResponse, transactionId));
+						} catch (SoapServiceException e) {
+							future.completeExceptionally(e);
+						}
+					});
+				}
+
+				@Override
+				public void failed(Exception e) {
+					String errorMsg = "Protocol related error while sending message";
+					offReactor(() -> future.completeExceptionally(new SoapServiceException(errorMsg, e)));
+				}
+
+				@Override
+				public void cancelled() {
+					String errorMsg = "Request to HSS subscriber was cancelled";
+					offReactor(() -> future.completeExceptionally(new SoapServiceException(errorMsg)));
+				}
+			});
+
+			// a caller no longer interested in the response releases the connection
+			future.whenComplete((response, e) -> {
+				if (future.isCancelled())
+					exchange.cancel(true);
+			});
+		} catch (Exception e) {
+			String errorMsg = "Protocol related error while sending message";
+			future.completeExceptionally(new SoapServiceException(errorMsg, e));
+		}
+		return future;
+	}
+	
+	private void offReactor(Runnable completion) {
+		try {
+			responseExecutor.execute(completion);
+		} catch (RejectedExecutionException e) {
+			// saturated or shutting down, completing on the reactor beats leaving the caller waiting
+			completion.run();
+		}
+	}
+
+	private String handleResponse(HttpResponse httpResponse, String transactionId) throws SoapServiceException {
+
+		String response = null;
+		try {
+			int statusCode = httpResponse.getStatusLine().getStatusCode();
+			log.debug("statusCode={}", statusCode);
+
+			if (isStatusError(statusCode)) {
+				String errorMsg = "HTTP method execution failed, response statusLine=" + httpResponse.getStatusLine();
+				log.error(errorMsg);
+				throw new SoapServiceException(errorMsg);
+				
+			} else if (null != httpResponse.getEntity()) {
+				
+				HttpEntity entity = httpResponse.getEntity();
+				try (InputStream is = entity.getContent()) {
+					// Single streaming pass over the envelope, soap faults are raised as SoapFaultException.
+					response = SoapEnvelopeReader.readPayload(is);
+				}
+				log.debug("[{}] - Getting the response : {}", transactionId, response);
+			}
+			
+		} catch (SoapFaultException e) {
+			throw e;
+		} catch (Exception e) {
+			String errorMsg = "Protocol related error while sending message";
+			throw new SoapServiceException(errorMsg, e);
+		} finally {
+			HttpClientUtils.closeQuietly(httpResponse);
+		}
+		return response;
+	}
+
+	private HttpUriRequest createMethod(SoapMessage message, String transactionId) throws SoapServiceException{
+		
+        HttpPost postMethod = new HttpPost(message.getPropertyValue(serviceConfig.getUrl()));
+        
+        if (log.isDebugEnabled()) {
+        	log.debug("[{}] - *** createStringRequestEntity from SOAPProtocolmessage {}",transactionId, message.getSoapXml());
+        }
+        HttpEntity requestEntity = message.createRequestEntity(ContentType.TEXT_XML);
+        
+        if (requestEntity != null) {
+        	postMethod.setEntity(requestEntity);
+        	postMethod.setHeader(message.getSoapAction(),message.getSoapHeader());
+        }
+        return postMethod;
+	}
+
+	private HttpClientContext getClientContext(SoapMessage message) throws URISyntaxException {
+		
+		String txId = message.getPropertyValue(serviceConfig.getTxId());
+		txId = (txId != null) ? txId : "";
+
+		String user = message.getPropertyValue(serviceConfig.getUser());
+		String password = message.getPropertyValue(serviceConfig.getPassword());
+		user = (user != null) ? user : "";
+		password = (password != null) ? password : "";
+		String endpointUrl = message.getPropertyValue(serviceConfig.getUrl());
+		
+		return getClientContext(user, password, endpointUrl);
+	}
+
+	private HttpClientContext getClientContext(String user, String password, String endpointUrl) throws URISyntaxException {
+
+		HttpClientContext context = HttpClientContext.create();
+        URI endpointUri = new URI(endpointUrl);
+        
+    	URIBuilder builder = new URIBuilder();
+    	builder.setScheme(endpointUri.getScheme());
+    	builder.setHost(endpointUri.getHost());
+    	builder.setPort(endpointUri.getPort());
+    	builder.setPath(endpointUri.getPath());
+    	
+    	if ( !StringUtils.isEmpty(user) && !StringUtils.isEmpty(password) )
+    	{
+    		log.debug("Username and password specified, set credentials provider");
+    		
+    		CredentialsProvider credsProvider = new BasicCredentialsProvider();    	    	
+    		credsProvider.setCredentials(
+                new AuthScope(endpointUri.getHost(), endpointUri.getPort()),
+                new UsernamePasswordCredentials(user, password));    	
+
+    		context.setCredentialsProvider(credsProvider);    	
+    		context.setAttribute(serviceConfig.getCredentialsProvider(),credsProvider);    	    		
+    	}
+    	return context;		
+	}
+	
+	private boolean isStatusError(int statusCode) {
+        int scat = statusCode / 100;
+        return scat == 3 || scat == 4;
+    }
+	
+}
@@ -1,219 +1,419 @@
-package com.charter.provisioning.hss.handler;
-
-import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
-
-import com.charter.provisioning.hss.common.DigitalPhoneCommon;
-import com.charter.provisioning.hss.common.SoapMessage;
-import com.charter.provisioning.hss.config.SerializableConfig;
-import com.charter.provisioning.hss.config.SpmlConfig;
-import com.charter.provisioning.hss.exception.ServiceException;
-import com.charter.provisioning.hss.exception.SoapServiceException;
-import com.charter.provisioning.hss.external.HSSSubscriberProxy;
-import com.charter.provisioning.hss.model.DigitalPhone;
-import com.charter.provisioning.hss.model.DigitalPhoneResponse;
-import com.charter.provisioning.hss.model.DigitalPhoneResponse.Status;
-import com.charter.provisioning.hss.model.PrivateIdentity;
-import com.charter.provisioning.hss.model.PublicIdentity;
-import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
-import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
-import com.charter.provisioning.network.hss.subscriber.spml.SearchRequest;
-import com.charter.provisioning.network.hss.subscriber.spml.SpmlRequest;
-import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
-import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
-
-import lombok.extern.slf4j.Slf4j;
-
-@Slf4j
-@Component
-public class CommonSubscriberHandler {
-
-	private SoapMessage soapMessage;
-
-	private SpmlConfig spmlConfig;
-
-	private DigitalPhoneCommon commonService;
-
-	private SerializableConfig serializableConfig;
-
-	private HSSSubscriberProxy subscriberProxy;
-
-	@Autowired
-	public CommonSubscriberHandler(SoapMessage soapMessage, SpmlConfig spmlConfig, DigitalPhoneCommon commonService,
-			SerializableConfig serializableConfig, HSSSubscriberProxy subscriberProxy) {
-		super();
-		this.soapMessage = soapMessage;
-		this.spmlConfig = spmlConfig;
-		this.commonService = commonService;
-		this.serializableConfig = serializableConfig;
-		this.subscriberProxy = subscriberProxy;
-	}
-
-	/**
-	 * Common Method for Searching subscriber by Public Identity.
-	 *
-	 * @param publicIdentity
-	 *            PublicIdentity/PhoneNumber is an attribute associated with HSS
-	 *            subscriber for residential and commercial packages.
-	 * @param site
-	 *            site is used to determines the search domain.
-	 * @param transactionId
-	 *            uuid used to trace a transaction through all systems end to end.
-	 * @return Subscriber
-	 */
-	public Subscriber searchSubscriberByPublicIdentity(PublicIdentity publicIdentity, String site,
-			String transactionId) {
-
-		Subscriber subscriber = null;
-		if (null != publicIdentity) {
-			log.debug("[{}] - Enter method searchSubscriberByPublicIdentity", transactionId);
-
-			SpmlResponse spmlSearchResponse = searchSubscriber(spmlConfig.getPublic_identity_search_name(),
-					publicIdentity.getUserId(), site, transactionId, true);
-			if (spmlSearchResponse != null && Status.SUCCESS.name().equalsIgnoreCase(spmlSearchResponse.getResult())) {
-				subscriber = spmlSearchResponse.getSubscriber();
-			}
-		}
-		return subscriber;
-	}
-
-	/**
-	 * Common Method for Searching subscriber by National Public Identity
-	 *
-	 * @param publicIdentity
-	 *            NationalPublicIdentity/PhoneNumber is an attribute associated with
-	 *            HSS subscriber for HG and BG.
-	 * @param site
-	 *            site is used to determines the search domain.
-	 * @param transactionId
-	 *            uuid used to trace a transaction through all systems end to end.
-	 * @return Subscriber
-	 */
-	public Subscriber searchSubscriberByNationalPublicIdentity(PublicIdentity publicIdentity, String site,
-			String transactionId) {
-
-		Subscriber subscriber = null;
-		if (null != publicIdentity) {
-			log.debug("[{}] - Enter method searchSubscriberByNationalPublicIdentity", transactionId);
-
-			SpmlResponse spmlSearchResponse = searchSubscriber(spmlConfig.getPublic_identity_search_name(),
-					publicIdentity.getUserId(), site, transactionId, false);
-			if (spmlSearchResponse != null && Status.SUCCESS.name().equalsIgnoreCase(spmlSearchResponse.getResult())) {
-				subscriber = spmlSearchResponse.getSubscriber();
-			}
-		}
-		return subscriber;
-	}
-
-	/**
-	 * Common Method for Searching subscriber by Private Identity.
-	 *
-	 * @param privateIdentity
-	 *            PrivateIdentity associated with the HSS subscriber.
-	 * @param site
-	 *            site is used to determines the search domain.
-	 * @param transactionId
-	 *            uuid used to trace a transaction through all systems end to end.
-	 * @return Subscriber
-	 */
-	public Subscriber searchSubscriberByPrivateIdentity(PrivateIdentity privateIdentity, String site,
-			String transactionId) {
-
-		Subscriber subscriber = null;
-		if (null != privateIdentity) {
-			log.debug("[{}] - Enter method searchSubscriberByPrivateIdentity", transactionId);
-
-			SpmlResponse spmlSearchResponse = searchSubscriber(spmlConfig.getPrivate_identity_search_name(),
-					privateIdentity.getUserId(), site, transactionId, false);
-			if (spmlSearchResponse != null && Status.SUCCESS.name().equalsIgnoreCase(spmlSearchResponse.getResult())) {
-				subscriber = spmlSearchResponse.getSubscriber();
-			}
-		}
-		return subscriber;
-	}
-
-	/**
-	 * Common Method for processing all Spml Requests
-	 *
-	 * @param spmlRequest
-	 *            Request which will be passed to HSS Subscriber.
-	 * @param transactionId
-	 *            uuid used to trace a transaction through all systems end to end.
-	 * @return SpmlResponse
-	 */
-	public SpmlResponse processSpmlRequest(SpmlRequest spmlRequest, String transactionId) {
-
-		SpmlResponse response;
-		try {
-			log.debug("[{}] - Enter processSpmlRequest", transactionId);
-
-			// Marshaling request from smplRequest to string.
-			String strRequest = serializableConfig.marshall(spmlRequest);
-			log.debug("[{}] - Printing the Converted xml :: {}", transactionId, strRequest);
-
-			// Create soap message for calling HSS subscriber service.
-			soapMessage.populateMessageBody(strRequest);
-
-			// Adding soap message properties
-			soapMessage = commonService.populateSoapMessageProperties(soapMessage);
-
-			// Calling proxy to call HSS subscriber service.
-			String spmlResponse = subscriberProxy.sendAndReceive(soapMessage, transactionId);
-
-			// unmarshalling response from HSS subscriber service.
-			if (!StringUtils.isEmpty(spmlResponse)) {
-				response = serializableConfig.unmarshall(spmlResponse);
-			} else {
-				// set failed response.
-				response = new SpmlResponse(null, null, null, null, null, null, "failure", null, null, null);
-			}
-
-		} catch (SoapServiceException e) {
-			log.error("Soap Exception occurred", e);
-			throw new ServiceException("Soap Exception occurred", e);
-		} catch (Exception e) {
-			log.error("Unknown Soap Exception occurred", e);
-			throw new ServiceException("Unknown Exception occurred", e);
-		}
-		return response;
-	}
-	
-	/**
-	 * Common Method to retrieve DigitalPhone Response.
-	 *
-	 * @param spmlResponse
-	 *            Response received from HSS Subscriber.
-	 * @return DigitalPhoneResponse
-	 */
-	public DigitalPhoneResponse createResponse(SpmlResponse spmlResponse) {
-
-		return DigitalPhoneResponse.builder().description(spmlResponse.getErrorMessage()).status(
-				spmlResponse.getResult().equalsIgnoreCase(Status.SUCCESS.name()) ? Status.CREATED : Status.FAILURE)
-				.build();
-	}
-
-	/**
-	 * Method used to create AddRequest for HSS Subscriber.
-	 *
-	 * @param digitalPhone
-	 *            digitalPhone request used to create an AddRequest.
-	 * @return AddRequest
-	 */
-	public AddRequest createAddRequest(DigitalPhone digitalPhone) {
-		return commonService.createAddRequest(digitalPhone);
-	}
-
-	SpmlResponse searchSubscriber(String identityType, String userId, String site, String transactionId,
-			boolean appendE164DigitPrefix) {
-
-		log.debug("[{}] - Enter method searchSubscriber", transactionId);
-		SearchRequest searchRequest = commonService.createSearchRequest(identityType, userId, site,
-				appendE164DigitPrefix);
-		return processSpmlRequest(searchRequest, transactionId);
-	}
-
-	DeleteRequest createDeleteRequest(String identifier) {
-		return commonService.createDeleteRequest(identifier);
-	}
-}
+package com.charter.provisioning.hss.handler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.charter.provisioning.hss.cache.SearchCoalescer;
+import com.charter.provisioning.hss.cache.SubscriberCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.SoapMessage;
+import com.charter.provisioning.hss.common.SoapMessageFactory;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SerializableConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+import com.charter.provisioning.hss.external.HSSSubscriberProxy;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse.Status;
+import com.charter.provisioning.hss.model.PrivateIdentity;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SearchRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class CommonSubscriberHandler {
+
+	private SoapMessageFactory soapMessageFactory;
+
+	private SpmlConfig spmlConfig;
+
+	private DigitalPhoneCommon commonService;
+
+	private SerializableConfig serializableConfig;
+
+	private HSSSubscriberProxy subscriberProxy;
+
+	private SubscriberCache subscriberCache;
+
+	private SearchCoalescer searchCoalescer;
+
+	private HssServiceConfig serviceConfig;
+
+	@Autowired
+	public CommonSubscriberHandler(SoapMessageFactory soapMessageFactory, SpmlConfig spmlConfig, DigitalPhoneCommon commonService,
+			SerializableConfig serializableConfig, HSSSubscriberProxy subscriberProxy, SubscriberCache subscriberCache,
+			SearchCoalescer searchCoalescer, HssServiceConfig serviceConfig) {
+		super();
+		this.soapMessageFactory = soapMessageFactory;
+		this.spmlConfig = spmlConfig;
+		this.commonService = commonService;
+		this.serializableConfig = serializableConfig;
+		this.subscriberProxy = subscriberProxy;
+		this.subscriberCache = subscriberCache;
+		this.searchCoalescer = searchCoalescer;
+		this.serviceConfig = serviceConfig;
+	}
+
+	/**
+	 * Common Method for Searching subscriber by Public Identity.
+	 *
+	 * @param publicIdentity
+	 *            PublicIdentity/PhoneNumber is an attribute associated with HSS
+	 *            subscriber for residential and commercial packages.
+	 * @param site
+	 *            site is used to determines the search domain.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return Subscriber
+	 */
+	public Subscriber searchSubscriberByPublicIdentity(PublicIdentity publicIdentity, String site,
+			String transactionId) {
+
+		Subscriber subscriber = null;
+		if (null != publicIdentity) {
+			log.debug("[{}] - Enter method searchSubscriberByPublicIdentity", transactionId);
+
+			SpmlResponse spmlSearchResponse = searchSubscriber(spmlConfig.getPublic_identity_search_name(),
+					publicIdentity.getUserId(), site, transactionId, true);
+			if (spmlSearchResponse != null && Status.SUCCESS.name().equalsIgnoreCase(spmlSearchResponse.getResult())) {
+				subscriber = spmlSearchResponse.getSubscriber();
+			}
+		}
+		return subscriber;
+	}
+
+	/**
+	 * Common Method for Searching subscriber by National Public Identity
+	 *
+	 * @param publicIdentity
+	 *            NationalPublicIdentity/PhoneNumber is an attribute associated with
+	 *            HSS subscriber for HG and BG.
+	 * @param site
+	 *            site is used to determines the search domain.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return Subscriber
+	 */
+	public Subscriber searchSubscriberByNationalPublicIdentity(PublicIdentity publicIdentity, String site,
+			String transactionId) {
+
+		Subscriber subscriber = null;
+		if (null != publicIdentity) {
+			log.debug("[{}] - Enter method searchSubscriberByNationalPublicIdentity", transactionId);
+
+			SpmlResponse spmlSearchResponse = searchSubscriber(spmlConfig.getPublic_identity_search_name(),
+					publicIdentity.getUserId(), site, transactionId, false);
+			if (spmlSearchResponse != null && Status.SUCCESS.name().equalsIgnoreCase(spmlSearchResponse.getResult())) {
+				subscriber = spmlSearchResponse.getSubscriber();
+			}
+		}
+		return subscriber;
+	}
+
+	/**
+	 * Searches subscriber by Public Identity without blocking the calling thread.
+	 * Cancelling the returned future cancels the search.
+	 *
+	 * @param publicIdentity
+	 *            PublicIdentity/PhoneNumber is an attribute associated with HSS
+	 *            subscriber for residential and commercial packages.
+	 * @param site
+	 *            site is used to determines the search domain.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return CompletableFuture completed with the Subscriber, null if not found.
+	 */
+	public CompletableFuture<Subscriber> searchSubscriberByPublicIdentityAsync(PublicIdentity publicIdentity,
+			String site, String transactionId) {
+
+		if (null == publicIdentity)
+			return CompletableFuture.completedFuture(null);
+
+		log.debug("[{}] - Enter method searchSubscriberByPublicIdentityAsync", transactionId);
+		return toSubscriber(searchSubscriberAsync(spmlConfig.getPublic_identity_search_name(),
+				publicIdentity.getUserId(), site, transactionId, true));
+	}
+
+	/**
+	 * Searches subscriber by National Public Identity without blocking the calling
+	 * thread. Cancelling the returned future cancels the search.
+	 *
+	 * @param publicIdentity
+	 *            NationalPublicIdentity/PhoneNumber is an attribute associated with
+	 *            HSS subscriber for HG and BG.
+	 * @param site
+	 *            site is used to determines the search domain.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return CompletableFuture completed with the Subscriber, null if not found.
+	 */
+	public CompletableFuture<Subscriber> searchSubscriberByNationalPublicIdentityAsync(PublicIdentity publicIdentity,
+			String site, String transactionId) {
+
+		if (null == publicIdentity)
+			return CompletableFuture.completedFuture(null);
+
+		log.debug("[{}] - Enter method searchSubscriberByNationalPublicIdentityAsync", transactionId);
+		return toSubscriber(searchSubscriberAsync(spmlConfig.getPublic_identity_search_name(),
+				publicIdentity.getUserId(), site, transactionId, false));
+	}
+
+	/**
+	 * Common Method for Searching subscriber by Private Identity.
+	 *
+	 * @param privateIdentity
+	 *            PrivateIdentity associated with the HSS subscriber.
+	 * @param site
+	 *            site is used to determines the search domain.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return Subscriber
+	 */
+	public Subscriber searchSubscriberByPrivateIdentity(PrivateIdentity privateIdentity, String site,
+			String transactionId) {
+
+		Subscriber subscriber = null;
+		if (null != privateIdentity) {
+			log.debug("[{}] - Enter method searchSubscriberByPrivateIdentity", transactionId);
+
+			SpmlResponse spmlSearchResponse = searchSubscriber(spmlConfig.getPrivate_identity_search_name(),
+					privateIdentity.getUserId(), site, transactionId, false);
+			if (spmlSearchResponse != null && Status.SUCCESS.name().equalsIgnoreCase(spmlSearchResponse.getResult())) {
+				subscriber = spmlSearchResponse.getSubscriber();
+			}
+		}
+		return subscriber;
+	}
+
+	/**
+	 * Searches subscriber by Private Identity without blocking the calling thread.
+	 * Cancelling the returned future cancels the search.
+	 *
+	 * @param privateIdentity
+	 *            PrivateIdentity associated with the HSS subscriber.
+	 * @param site
+	 *            site is used to determines the search domain.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return CompletableFuture completed with the Subscriber, null if not found.
+	 */
+	public CompletableFuture<Subscriber> searchSubscriberByPrivateIdentityAsync(PrivateIdentity privateIdentity,
+			String site, String transactionId) {
+
+		if (null == privateIdentity)
+			return CompletableFuture.completedFuture(null);
+
+		log.debug("[{}] - Enter method searchSubscriberByPrivateIdentityAsync", transactionId);
+		return toSubscriber(searchSubscriberAsync(spmlConfig.getPrivate_identity_search_name(),
+				privateIdentity.getUserId(), site, transactionId, false));
+	}
+
+	/**
+	 * Common Method for processing all Spml Requests. Waits at most
+	 * connectionPool.responseTimeout for the response, the request to HSS
+	 * Subscriber is cancelled once that elapses or the calling thread is
+	 * interrupted.
+	 *
+	 * @param spmlRequest
+	 *            Request which will be passed to HSS Subscriber.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return SpmlResponse
+	 */
+	public SpmlResponse processSpmlRequest(SpmlRequest spmlRequest, String transactionId) {
+
+		return await(processSpmlRequestAsync(spmlRequest, transactionId), transactionId);
+	}
+
+	/**
+	 * Common Method for processing all Spml Requests without blocking the calling
+	 * thread while HSS Subscriber answers. Add, modify and delete requests evict
+	 * the cached searches of the subscriber they were sent for.
+	 *
+	 * @param spmlRequest
+	 *            Request which will be passed to HSS Subscriber.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @return CompletableFuture completed with the SpmlResponse, or exceptionally
+	 *         with a ServiceException.
+	 */
+	public CompletableFuture<SpmlResponse> processSpmlRequestAsync(SpmlRequest spmlRequest, String transactionId) {
+
+		CompletableFuture<String> spmlResponse;
+		try {
+			log.debug("[{}] - Enter processSpmlRequest", transactionId);
+
+			// Marshaling request from smplRequest to string.
+			String strRequest = serializableConfig.marshall(spmlRequest);
+			log.debug("[{}] - Printing the Converted xml :: {}", transactionId, strRequest);
+
+			// Create a per request soap message for calling HSS subscriber service.
+			SoapMessage soapMessage = soapMessageFactory.createSoapMessage(strRequest);
+
+			// Adding soap message properties
+			soapMessage = commonService.populateSoapMessageProperties(soapMessage);
+
+			// Calling proxy to call HSS subscriber service.
+			spmlResponse = subscriberProxy.sendAndReceiveAsync(soapMessage, transactionId);
+
+		} catch (Exception e) {
+			log.error("Unknown Soap Exception occurred", e);
+			CompletableFuture<SpmlResponse> failed = new CompletableFuture<>();
+			failed.completeExceptionally(new ServiceException("Unknown Exception occurred", e));
+			return failed;
+		}
+
+		return cancellable(spmlResponse.handle((response, e) -> {
+			if (e != null) {
+				Throwable cause = (e instanceof CompletionException) ? e.getCause() : e;
+				if (cause instanceof CancellationException) {
+					throw (CancellationException) cause;
+				}
+				if (cause instanceof SoapServiceException) {
+					log.error("Soap Exception occurred", cause);
+					throw new ServiceException("Soap Exception occurred", cause);
+				}
+				log.error("Unknown Soap Exception occurred", cause);
+				throw new ServiceException("Unknown Exception occurred", cause);
+			}
+			return unmarshall(response);
+		}).whenComplete((response, e) -> subscriberCache.invalidate(spmlRequest)), spmlResponse);
+	}
+
+	private SpmlResponse unmarshall(String spmlResponse) {
+
+		try {
+			// unmarshalling response from HSS subscriber service.
+			if (!StringUtils.isEmpty(spmlResponse)) {
+				return serializableConfig.unmarshall(spmlResponse);
+			}
+			// set failed response.
+			return new SpmlResponse(null, null, null, null, null, null, "failure", null, null, null);
+		} catch (Exception e) {
+			log.error("Unknown Soap Exception occurred", e);
+			throw new ServiceException("Unknown Exception occurred", e);
+		}
+	}
+	
+	/**
+	 * Common Method to retrieve DigitalPhone Response.
+	 *
+	 * @param spmlResponse
+	 *            Response received from HSS Subscriber.
+	 * @return DigitalPhoneResponse
+	 */
+	public DigitalPhoneResponse createResponse(SpmlResponse spmlResponse) {
+
+		return DigitalPhoneResponse.builder().description(spmlResponse.getErrorMessage()).status(
+				spmlResponse.getResult().equalsIgnoreCase(Status.SUCCESS.name()) ? Status.CREATED : Status.FAILURE)
+				.build();
+	}
+
+	/**
+	 * Method used to create AddRequest for HSS Subscriber.
+	 *
+	 * @param digitalPhone
+	 *            digitalPhone request used to create an AddRequest.
+	 * @return AddRequest
+	 */
+	public AddRequest createAddRequest(DigitalPhone digitalPhone) {
+		return commonService.createAddRequest(digitalPhone);
+	}
+
+	SpmlResponse searchSubscriber(String identityType, String userId, String site, String transactionId,
+			boolean appendE164DigitPrefix) {
+
+		return await(searchSubscriberAsync(identityType, userId, site, transactionId, appendE164DigitPrefix),
+				transactionId);
+	}
+
+	CompletableFuture<SpmlResponse> searchSubscriberAsync(String identityType, String userId, String site,
+			String transactionId, boolean appendE164DigitPrefix) {
+
+		log.debug("[{}] - Enter method searchSubscriber", transactionId);
+		SearchRequest searchRequest = commonService.createSearchRequest(identityType, userId, site,
+				appendE164DigitPrefix);
+
+		String cacheKey = subscriberCache.key(identityType, searchRequest);
+		SpmlResponse cachedResponse = subscriberCache.get(cacheKey);
+		if (cachedResponse != null) {
+			log.debug("[{}] - Subscriber found in cache for {}", transactionId, cacheKey);
+			return CompletableFuture.completedFuture(cachedResponse);
+		}
+
+		// concurrent searches of the same identity share a single request to HSS
+		long generation = subscriberCache.generation();
+		return searchCoalescer.searchAsync(cacheKey, generation, () -> {
+			CompletableFuture<SpmlResponse> spmlResponse = processSpmlRequestAsync(searchRequest, transactionId);
+			spmlResponse.thenAccept(response -> subscriberCache.put(cacheKey, response, generation));
+			return spmlResponse;
+		});
+	}
+
+	// a caller timed out or interrupted cancels the request, releasing its connection
+	private SpmlResponse await(CompletableFuture<SpmlResponse> spmlResponse, String transactionId) {
+
+		long responseTimeout = serviceConfig.getConnectionPool().getResponseTimeout();
+		try {
+			return spmlResponse.get(responseTimeout, TimeUnit.MILLISECONDS);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof ServiceException) {
+				throw (ServiceException) e.getCause();
+			}
+			log.error("Unknown Soap Exception occurred", e);
+			throw new ServiceException("Unknown Exception occurred", e.getCause());
+		} catch (TimeoutException e) {
+			spmlResponse.cancel(true);
+			log.error("[{}] - No response from HSS subscriber within {} ms", transactionId, responseTimeout);
+			throw new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Request to HSS subscriber timed out");
+		} catch (InterruptedException e) {
+			spmlResponse.cancel(true);
+			Thread.currentThread().interrupt();
+			log.error("[{}] - Interrupted while waiting for HSS subscriber, request cancelled", transactionId);
+			throw new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Request to HSS subscriber was cancelled");
+		} catch (CancellationException e) {
+			log.error("[{}] - Request to HSS subscriber was cancelled", transactionId);
+			throw new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Request to HSS subscriber was cancelled");
+		}
+	}
+
+	private static CompletableFuture<Subscriber> toSubscriber(CompletableFuture<SpmlResponse> spmlSearchResponse) {
+
+		return cancellable(spmlSearchResponse.thenApply(spmlResponse -> spmlResponse != null
+				&& Status.SUCCESS.name().equalsIgnoreCase(spmlResponse.getResult()) ? spmlResponse.getSubscriber() : null),
+				spmlSearchResponse);
+	}
+
+	// cancelling a dependent stage does not reach the stage it depends on
+	private static <T> CompletableFuture<T> cancellable(CompletableFuture<T> stage, Future<?> source) {
+
+		stage.whenComplete((result, e) -> {
+			if (stage.isCancelled())
+				source.cancel(true);
+		});
+		return stage;
+	}
+
+	DeleteRequest createDeleteRequest(String identifier) {
+		return commonService.createDeleteRequest(identifier);
+	}
+}
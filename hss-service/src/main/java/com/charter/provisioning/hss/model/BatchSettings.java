@@ -0,0 +1,18 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+@Data
+public class BatchSettings {
+
+	private int parallelism;
+
+	private int concurrentBatches;
+
+	private long timeout;
+
+	private int lookupParallelism;
+
+	private int maxLookupIdentities;
+
+}
@@ -0,0 +1,26 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+@Data
+public class ConnectionPool {
+
+	private int maxTotal;
+
+	private int maxPerRoute;
+
+	private long timeToLive;
+
+	private long idleTimeout;
+
+	private int connectTimeout;
+
+	private int socketTimeout;
+
+	private int connectionRequestTimeout;
+
+	private long responseTimeout;
+
+	private int responseThreads;
+
+}
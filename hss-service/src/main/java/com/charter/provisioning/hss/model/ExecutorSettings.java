@@ -0,0 +1,12 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+@Data
+public class ExecutorSettings {
+
+	private int poolSize;
+
+	private int queueCapacity;
+
+}
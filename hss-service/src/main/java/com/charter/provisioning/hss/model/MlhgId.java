@@ -0,0 +1,21 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+/**
+ * Multi line hunt group identity, mlhg_ followed by the hunt group and the
+ * member digits, as in mlhg_409077_0001. Member 0000 is the hunt group
+ * controller.
+ */
+@Data
+public final class MlhgId {
+
+	private final String value;
+
+	// digit groups between the prefix and the last delimiter, the only group if there is no delimiter
+	private final String huntGroup;
+
+	// digits after the last delimiter, empty if there is no delimiter
+	private final String member;
+
+}
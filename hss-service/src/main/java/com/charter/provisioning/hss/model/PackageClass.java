@@ -0,0 +1,31 @@
+package com.charter.provisioning.hss.model;
+
+/**
+ * Class of a feature package, as configured in hss.packages.
+ */
+public enum PackageClass {
+
+	RESIDENTIAL("Residential"),
+	COMMERCIAL("Commercial"),
+	RCF("RCF"),
+	UNCLASSIFIED(null);
+
+	private final String configValue;
+
+	PackageClass(String configValue) {
+		this.configValue = configValue;
+	}
+
+	/**
+	 * Resolves the class of a hss.packages value, the value must match exactly.
+	 * @param configValue
+	 * @return PackageClass, UNCLASSIFIED if the value is not a known class.
+	 */
+	public static PackageClass fromConfigValue(String configValue) {
+
+		for (PackageClass packageClass : values())
+			if (packageClass.configValue != null && packageClass.configValue.equals(configValue))
+				return packageClass;
+		return UNCLASSIFIED;
+	}
+}
@@ -0,0 +1,15 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+/**
+ * Business group identity, pickup_group_ followed by the group digits.
+ */
+@Data
+public final class PickupGroupId {
+
+	private final String value;
+
+	private final String groupNumber;
+
+}
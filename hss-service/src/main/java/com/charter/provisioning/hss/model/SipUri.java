@@ -0,0 +1,22 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+/**
+ * Public user id of the form sip:[+1]user@domain.
+ */
+@Data
+public final class SipUri {
+
+	// whether the user is prefixed with the E.164 digit prefix
+	private final boolean e164;
+
+	private final String user;
+
+	// null if the uri has no domain
+	private final String domain;
+
+	// null if the user is not a telephone number
+	private final TelephoneNumber telephoneNumber;
+
+}
@@ -0,0 +1,21 @@
+package com.charter.provisioning.hss.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class SubscriberLookupRequest {
+
+	public SubscriberLookupRequest() {}
+
+	private List<String> telephoneNumbers;
+
+	private List<String> controllerIds;
+
+	private List<String> privateIdentities;
+}
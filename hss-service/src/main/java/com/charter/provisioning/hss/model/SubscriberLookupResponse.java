@@ -0,0 +1,31 @@
+package com.charter.provisioning.hss.model;
+
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class SubscriberLookupResponse {
+
+	public SubscriberLookupResponse() {}
+
+	private IdentityType identityType;
+
+	private String identity;
+
+	private int httpStatus;
+
+	private Subscriber subscriber;
+
+	private String message;
+
+	public enum IdentityType {
+		TELEPHONE_NUMBER,
+		CONTROLLER_ID,
+		PRIVATE_IDENTITY
+	}
+}
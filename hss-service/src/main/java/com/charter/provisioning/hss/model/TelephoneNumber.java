@@ -0,0 +1,13 @@
+package com.charter.provisioning.hss.model;
+
+import lombok.Data;
+
+/**
+ * Ten digit North American telephone number, the first digit is not zero.
+ */
+@Data
+public final class TelephoneNumber {
+
+	private final String value;
+
+}
@@ -0,0 +1,229 @@
+package com.charter.provisioning.hss.service;
+
+import com.charter.provisioning.hss.aop.ValidationAspect;
+import com.charter.provisioning.hss.common.RequestExecutor;
+import com.charter.provisioning.hss.common.SubscriberLanes;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.BatchItemResponse;
+import com.charter.provisioning.hss.model.BatchSettings;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Provisions a stream of DigitalPhone create and delete requests. Items are read
+ * one at a time, so a batch is never held in memory, and each item goes through
+ * the same validation, subscriber lane, request pool and handlers as a single
+ * request. At most hss.batch.parallelism items of a batch are in flight and at
+ * most hss.batch.concurrentBatches batches are read at once.
+ * <p>
+ * The request pool is shared with single requests. An item arriving while it is
+ * saturated is submitted again after a growing delay instead of failing, keeping
+ * its slot of the batch, so a saturated pool slows reading down.
+ */
+@Slf4j
+@Service
+public class BatchProvisioningService {
+
+	private DigitalPhoneService digitalPhoneService;
+
+	private ValidationAspect validationAspect;
+
+	private RequestExecutor requestExecutor;
+
+	private SubscriberLanes subscriberLanes;
+
+	private HssServiceConfig serviceConfig;
+
+	private final ObjectReader itemReader;
+
+	private final ThreadPoolExecutor batchReaders;
+
+	private final int parallelism;
+
+	private final long timeout;
+
+	@Autowired
+	public BatchProvisioningService(DigitalPhoneService digitalPhoneService, ValidationAspect validationAspect,
+			RequestExecutor requestExecutor, SubscriberLanes subscriberLanes, HssServiceConfig serviceConfig,
+			ObjectMapper objectMapper) {
+
+		BatchSettings settings = serviceConfig.getBatch();
+		if (settings == null || settings.getParallelism() < 1 || settings.getConcurrentBatches() < 1)
+			throw new IllegalStateException("hss.batch parallelism and concurrentBatches must be positive");
+
+		this.digitalPhoneService = digitalPhoneService;
+		this.validationAspect = validationAspect;
+		this.requestExecutor = requestExecutor;
+		this.subscriberLanes = subscriberLanes;
+		this.serviceConfig = serviceConfig;
+		this.itemReader = objectMapper.readerFor(DigitalPhone.class);
+		this.parallelism = settings.getParallelism();
+		this.timeout = settings.getTimeout();
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.batchReaders = new ThreadPoolExecutor(settings.getConcurrentBatches(), settings.getConcurrentBatches(), 0,
+				TimeUnit.MILLISECONDS, new SynchronousQueue<>(), runnable -> {
+					Thread thread = new Thread(runnable, "hss-batch-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * Provisions the items of a JSON array or of newline delimited JSON. Results
+	 * are passed to the consumer as items complete, in completion order, from the
+	 * threads completing them. Reading stops at the first malformed item, which is
+	 * reported with status 400, or when the consumer throws.
+	 *
+	 * @param items
+	 *            request body holding the DigitalPhone items.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end,
+	 *            suffixed with the item index for each item.
+	 * @param results
+	 *            receives one BatchItemResponse per item read.
+	 * @return CompletableFuture completed with the number of items read once all
+	 *         of them completed.
+	 * @throws ServiceException
+	 *             503 if hss.batch.concurrentBatches batches are already running.
+	 */
+	public CompletableFuture<Integer> provision(InputStream items, String transactionId,
+			Consumer<BatchItemResponse> results) {
+
+		CompletableFuture<Integer> provisioned = new CompletableFuture<>();
+		try {
+			batchReaders.execute(() -> {
+				try {
+					provisioned.complete(readItems(items, transactionId, results));
+				} catch (Throwable e) {
+					provisioned.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			log.error("[{}] - Batch rejected, {} batches running", transactionId, batchReaders.getActiveCount());
+			throw new ServiceException(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many batches in progress.");
+		}
+		return provisioned;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		batchReaders.shutdownNow();
+	}
+
+	private int readItems(InputStream items, String transactionId, Consumer<BatchItemResponse> results)
+			throws InterruptedException {
+
+		Semaphore permits = new Semaphore(parallelism);
+		AtomicBoolean stopped = new AtomicBoolean();
+		Consumer<BatchItemResponse> deliver = result -> {
+			try {
+				if (!stopped.get())
+					results.accept(result);
+			} catch (RuntimeException e) {
+				log.error("[{}] - Batch results no longer delivered", transactionId, e);
+				stopped.set(true);
+			}
+		};
+
+		int index = 0;
+		try (MappingIterator<DigitalPhone> iterator = itemReader.readValues(items)) {
+			while (!stopped.get() && iterator.hasNextValue()) {
+				DigitalPhone item = iterator.nextValue();
+				permits.acquire();
+				provisionItem(item, index++, transactionId).whenComplete((result, e) -> {
+					deliver.accept(result);
+					permits.release();
+				});
+			}
+		} catch (JsonProcessingException e) {
+			log.error("[{}] - Malformed batch item {}", transactionId, index, e);
+			deliver.accept(failure(index++, null, HttpStatus.BAD_REQUEST.value(),
+					"Malformed batch item: " + e.getOriginalMessage()));
+		} catch (IOException e) {
+			log.error("[{}] - Batch read failed after {} items", transactionId, index, e);
+			throw new ServiceException("Batch read failed", e);
+		} finally {
+			// items already submitted complete before the batch does
+			permits.acquire(parallelism);
+		}
+		log.info("[{}] - Batch of {} items provisioned", transactionId, index);
+		return index;
+	}
+
+	private CompletableFuture<BatchItemResponse> provisionItem(DigitalPhone item, int index, String transactionId) {
+
+		String identity = subscriberLanes.primaryIdentity(item);
+		String itemTransactionId = transactionId == null ? String.valueOf(index) : transactionId + "-" + index;
+
+		boolean create;
+		try {
+			if (null == item)
+				throw new ServiceException(HttpStatus.BAD_REQUEST.value(), "Bad Request, Empty batch item.");
+			validationAspect.validate(item);
+
+			create = serviceConfig.getOperationCreate().equalsIgnoreCase(item.getOperation());
+			if (!create && !serviceConfig.getOperationDelete().equalsIgnoreCase(item.getOperation()))
+				throw new ServiceException(HttpStatus.BAD_REQUEST.value(), "Bad Request, Invalid operation.");
+		} catch (ServiceException e) {
+			return CompletableFuture.completedFuture(failure(index, identity, e.getHttpStatus(), e.getMessage()));
+		}
+
+		return subscriberLanes.submit(identity, () -> requestExecutor.supplyWhenAccepted(() -> create
+				? digitalPhoneService.createSubscriber(item, itemTransactionId)
+				: digitalPhoneService.deleteSubscriber(item, itemTransactionId)))
+				.handle((response, e) -> {
+					if (e != null)
+						return failure(index, identity, e);
+					if (null == response)
+						return failure(index, identity, HttpStatus.BAD_REQUEST.value(),
+								"Bad Request, Invalid Digital Phone Name.");
+					return BatchItemResponse.builder().index(index).identity(identity)
+							.httpStatus(create ? HttpStatus.CREATED.value() : HttpStatus.NO_CONTENT.value())
+							.response(response).build();
+				});
+	}
+
+	private static BatchItemResponse failure(int index, String identity, Throwable e) {
+
+		Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+		if (cause instanceof ServiceException)
+			return failure(index, identity, ((ServiceException) cause).getHttpStatus(), cause.getMessage());
+		return failure(index, identity, HttpStatus.INTERNAL_SERVER_ERROR.value(), cause.getMessage());
+	}
+
+	private static BatchItemResponse failure(int index, String identity, int httpStatus, String description) {
+
+		return BatchItemResponse.builder().index(index).identity(identity).httpStatus(httpStatus)
+				.response(DigitalPhoneResponse.builder().status(DigitalPhoneResponse.Status.FAILURE)
+						.description(description).build())
+				.build();
+	}
+}
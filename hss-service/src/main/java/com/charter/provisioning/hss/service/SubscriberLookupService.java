@@ -0,0 +1,269 @@
+package com.charter.provisioning.hss.service;
+
+import com.charter.provisioning.hss.common.IdentityValidator;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.handler.CommonSubscriberHandler;
+import com.charter.provisioning.hss.model.BatchSettings;
+import com.charter.provisioning.hss.model.PrivateIdentity;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import com.charter.provisioning.hss.model.SubscriberLookupRequest;
+import com.charter.provisioning.hss.model.SubscriberLookupResponse;
+import com.charter.provisioning.hss.model.SubscriberLookupResponse.IdentityType;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Looks up many subscribers in one request. Identities are deduplicated and
+ * searched concurrently, at most hss.batch.lookupParallelism at a time, through
+ * the same coalesced and cached searches as a single lookup. A search waiting
+ * for the gateway holds no thread, its completion starts the next one on one of
+ * hss.batch.lookupParallelism hss-lookup threads, so delivering results never
+ * runs on the thread completing the search, such as the HTTP client reactor.
+ */
+@Slf4j
+@Service
+public class SubscriberLookupService {
+
+	private CommonSubscriberHandler commonHandler;
+
+	private IdentityValidator identityValidator;
+
+	private final int parallelism;
+
+	private final int maxIdentities;
+
+	private final long timeout;
+
+	private final ExecutorService lookupExecutor;
+
+	@Autowired
+	public SubscriberLookupService(CommonSubscriberHandler commonHandler, IdentityValidator identityValidator,
+			HssServiceConfig serviceConfig) {
+
+		BatchSettings settings = serviceConfig.getBatch();
+		if (settings == null || settings.getLookupParallelism() < 1 || settings.getMaxLookupIdentities() < 1)
+			throw new IllegalStateException("hss.batch lookupParallelism and maxLookupIdentities must be positive");
+
+		this.commonHandler = commonHandler;
+		this.identityValidator = identityValidator;
+		this.parallelism = settings.getLookupParallelism();
+		this.maxIdentities = settings.getMaxLookupIdentities();
+		this.timeout = settings.getTimeout();
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.lookupExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "hss-lookup-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Searches the subscriber of every distinct identity of the request. Results
+	 * are passed to the consumer as searches complete, from the calling thread for
+	 * searches completing at once and from the hss-lookup threads otherwise: the
+	 * Subscriber with status 200, a not found marker with status 404, or
+	 * the status of the failure. No further search starts once the consumer throws.
+	 *
+	 * @param request
+	 *            telephone numbers, controller ids and private identities to look up.
+	 * @param transactionId
+	 *            uuid used to trace a transaction through all systems end to end.
+	 * @param results
+	 *            receives one SubscriberLookupResponse per distinct identity.
+	 * @return CompletableFuture completed with the number of results delivered.
+	 * @throws ServiceException
+	 *             400 if the request holds no identity or more than
+	 *             hss.batch.maxLookupIdentities distinct ones.
+	 */
+	public CompletableFuture<Integer> lookup(SubscriberLookupRequest request, String transactionId,
+			Consumer<SubscriberLookupResponse> results) {
+
+		List<Lookup> lookups = new ArrayList<>();
+		if (null != request) {
+			distinct(request.getTelephoneNumbers(), IdentityType.TELEPHONE_NUMBER, lookups);
+			distinct(request.getControllerIds(), IdentityType.CONTROLLER_ID, lookups);
+			distinct(request.getPrivateIdentities(), IdentityType.PRIVATE_IDENTITY, lookups);
+		}
+
+		if (lookups.isEmpty()) {
+			log.error("[{}] - No input passed.", transactionId);
+			throw new ServiceException(HttpStatus.BAD_REQUEST.value(), "No input passed");
+		}
+		if (lookups.size() > maxIdentities) {
+			log.error("[{}] - {} identities passed, at most {} allowed", transactionId, lookups.size(), maxIdentities);
+			throw new ServiceException(HttpStatus.BAD_REQUEST.value(),
+					"Too many identities, at most " + maxIdentities + " allowed");
+		}
+
+		log.info("[{}] - Looking up {} subscribers", transactionId, lookups.size());
+		return new FanOut(lookups, transactionId, results).start(Math.min(parallelism, lookups.size()));
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		lookupExecutor.shutdownNow();
+	}
+
+	private static void distinct(List<String> identities, IdentityType identityType, List<Lookup> lookups) {
+
+		if (null == identities)
+			return;
+
+		Set<String> distinct = new LinkedHashSet<>();
+		for (String identity : identities) {
+			if (!StringUtils.isBlank(identity))
+				distinct.add(identity.trim());
+		}
+		distinct.forEach(identity -> lookups.add(new Lookup(identityType, identity)));
+	}
+
+	private CompletableFuture<Subscriber> search(Lookup lookup, String transactionId) {
+
+		try {
+			switch (lookup.identityType) {
+			case TELEPHONE_NUMBER:
+				identityValidator.validateTelephoneNumber(lookup.identity, transactionId);
+				return commonHandler.searchSubscriberByPublicIdentityAsync(
+						PublicIdentity.builder().userId(lookup.identity).build(), null, transactionId);
+			case CONTROLLER_ID:
+				identityValidator.validateControllerId(lookup.identity, transactionId);
+				return commonHandler.searchSubscriberByNationalPublicIdentityAsync(
+						PublicIdentity.builder().userId(lookup.identity).build(), null, transactionId);
+			default:
+				identityValidator.validatePrivateIdentity(lookup.identity, transactionId);
+				return commonHandler.searchSubscriberByPrivateIdentityAsync(
+						PrivateIdentity.builder().userId(lookup.identity).build(), null, transactionId);
+			}
+		} catch (RuntimeException e) {
+			CompletableFuture<Subscriber> failed = new CompletableFuture<>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+	}
+
+	private static SubscriberLookupResponse toResponse(Lookup lookup, Subscriber subscriber, Throwable e) {
+
+		SubscriberLookupResponse.SubscriberLookupResponseBuilder response = SubscriberLookupResponse.builder()
+				.identityType(lookup.identityType).identity(lookup.identity);
+		if (e != null) {
+			Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+			int httpStatus = cause instanceof ServiceException ? ((ServiceException) cause).getHttpStatus()
+					: HttpStatus.INTERNAL_SERVER_ERROR.value();
+			return response.httpStatus(httpStatus).message(cause.getMessage()).build();
+		}
+		if (null == subscriber)
+			return response.httpStatus(HttpStatus.NOT_FOUND.value()).message("Subscriber Not found").build();
+		return response.httpStatus(HttpStatus.OK.value()).subscriber(subscriber).build();
+	}
+
+	private static final class Lookup {
+
+		private final IdentityType identityType;
+
+		private final String identity;
+
+		private Lookup(IdentityType identityType, String identity) {
+			this.identityType = identityType;
+			this.identity = identity;
+		}
+	}
+
+	/**
+	 * Runs the lookups of one request on a fixed number of workers. A worker runs
+	 * lookups on the calling thread while they complete at once, from the cache or
+	 * as invalid, and continues on a lookup thread once the first one that does
+	 * not completes.
+	 */
+	private final class FanOut {
+
+		private final Iterator<Lookup> pending;
+
+		private final String transactionId;
+
+		private final Consumer<SubscriberLookupResponse> results;
+
+		private final AtomicInteger workers = new AtomicInteger();
+
+		private final AtomicInteger delivered = new AtomicInteger();
+
+		private final CompletableFuture<Integer> done = new CompletableFuture<>();
+
+		private volatile boolean stopped;
+
+		private FanOut(List<Lookup> lookups, String transactionId, Consumer<SubscriberLookupResponse> results) {
+			this.pending = lookups.iterator();
+			this.transactionId = transactionId;
+			this.results = results;
+		}
+
+		private CompletableFuture<Integer> start(int count) {
+
+			workers.set(count);
+			for (int i = 0; i < count; i++)
+				run();
+			return done;
+		}
+
+		private void run() {
+
+			Lookup lookup;
+			while ((lookup = next()) != null) {
+				Lookup current = lookup;
+				CompletableFuture<Subscriber> search = search(current, transactionId);
+				if (!search.isDone()) {
+					search.whenCompleteAsync((subscriber, e) -> {
+						deliver(toResponse(current, subscriber, e));
+						run();
+					}, lookupExecutor);
+					return;
+				}
+				search.whenComplete((subscriber, e) -> deliver(toResponse(current, subscriber, e)));
+			}
+
+			if (workers.decrementAndGet() == 0) {
+				log.info("[{}] - Lookup of {} subscribers completed", transactionId, delivered.get());
+				done.complete(delivered.get());
+			}
+		}
+
+		private synchronized Lookup next() {
+			return stopped || !pending.hasNext() ? null : pending.next();
+		}
+
+		private void deliver(SubscriberLookupResponse response) {
+
+			if (stopped)
+				return;
+			try {
+				results.accept(response);
+				delivered.incrementAndGet();
+			} catch (RuntimeException e) {
+				log.error("[{}] - Lookup results no longer delivered", transactionId, e);
+				stopped = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,200 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SearchCoalescerTest {
+
+	private static final int WAITERS = 8;
+
+	private static final String KEY = "impu:sip:+1" + MockObjectCreator.PHONE_NUMBER + "@ims.eng.rr.com";
+
+	private final SubscriberCache subscriberCache = mock(SubscriberCache.class);
+
+	private final SearchCoalescer searchCoalescer = new SearchCoalescer(subscriberCache);
+
+	@Test
+	public void searchAsync_IdenticalSearches_ExpectsSingleSearchSharedByAllCallers() throws Exception {
+
+		SpmlResponse response = MockObjectCreator.getSpmlResponse();
+		CompletableFuture<SpmlResponse> sent = new CompletableFuture<>();
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<CompletableFuture<SpmlResponse>> search = () -> {
+			searches.incrementAndGet();
+			return sent;
+		};
+
+		List<CompletableFuture<SpmlResponse>> responses = new ArrayList<>();
+		for (int i = 0; i < WAITERS; i++) {
+			responses.add(searchCoalescer.searchAsync(KEY, 0, search));
+		}
+		assertThat(searchCoalescer.inFlight(), is(1));
+		sent.complete(response);
+
+		for (CompletableFuture<SpmlResponse> future : responses) {
+			assertThat(future.get(5, TimeUnit.SECONDS), is(response));
+		}
+		assertThat(searches.get(), is(1));
+		assertThat(searchCoalescer.inFlight(), is(0));
+	}
+
+	@Test
+	public void searchAsync_DifferentKeys_ExpectsSeparateSearches() throws Exception {
+
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<CompletableFuture<SpmlResponse>> search = () -> {
+			searches.incrementAndGet();
+			return new CompletableFuture<>();
+		};
+
+		searchCoalescer.searchAsync(KEY, 0, search);
+		searchCoalescer.searchAsync("impu:sip:" + MockObjectCreator.PHONE_NUMBER + "@ims.eng.rr.com", 0, search);
+
+		assertThat(searchCoalescer.inFlight(), is(2));
+		assertThat(searches.get(), is(2));
+	}
+
+	@Test
+	public void searchAsync_NoKey_ExpectsSearchNotShared() throws Exception {
+
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<CompletableFuture<SpmlResponse>> search = () -> {
+			searches.incrementAndGet();
+			return new CompletableFuture<>();
+		};
+
+		searchCoalescer.searchAsync(null, 0, search);
+		searchCoalescer.searchAsync(null, 0, search);
+
+		assertThat(searchCoalescer.inFlight(), is(0));
+		assertThat(searches.get(), is(2));
+	}
+
+	@Test
+	public void searchAsync_SubscriberWrittenSinceSearchInFlight_ExpectsOwnSearch() throws Exception {
+
+		CompletableFuture<SpmlResponse> olderSent = new CompletableFuture<>();
+		CompletableFuture<SpmlResponse> older = searchCoalescer.searchAsync(KEY, 0, () -> olderSent);
+
+		CompletableFuture<SpmlResponse> response = searchCoalescer.searchAsync(KEY, 1,
+				() -> CompletableFuture.completedFuture(MockObjectCreator.getSpmlResponse()));
+		when(subscriberCache.isStale(any(), eq(0L))).thenReturn(true);
+		olderSent.complete(MockObjectCreator.getFailedSpmlResponse());
+
+		assertThat(response.get(5, TimeUnit.SECONDS).getResult(), is("success"));
+		assertThat(older.get(5, TimeUnit.SECONDS).getResult(), is("failure"));
+	}
+
+	@Test
+	public void searchAsync_OtherSubscriberWrittenSinceSearchInFlight_ExpectsSearchShared() throws Exception {
+
+		CompletableFuture<SpmlResponse> sent = new CompletableFuture<>();
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<CompletableFuture<SpmlResponse>> search = () -> {
+			searches.incrementAndGet();
+			return sent;
+		};
+
+		CompletableFuture<SpmlResponse> older = searchCoalescer.searchAsync(KEY, 0, search);
+		CompletableFuture<SpmlResponse> response = searchCoalescer.searchAsync(KEY, 1, search);
+		sent.complete(MockObjectCreator.getSpmlResponse());
+
+		assertThat(response.get(5, TimeUnit.SECONDS).getResult(), is("success"));
+		assertThat(older.get(5, TimeUnit.SECONDS).getResult(), is("success"));
+		assertThat(searches.get(), is(1));
+	}
+
+	@Test
+	public void searchAsync_InFlightSearchFails_ExpectsWaitersSeeServiceException() throws Exception {
+
+		CompletableFuture<SpmlResponse> sent = new CompletableFuture<>();
+
+		List<CompletableFuture<SpmlResponse>> responses = new ArrayList<>();
+		for (int i = 0; i < WAITERS; i++) {
+			responses.add(searchCoalescer.searchAsync("impi:219BF751A12481C6", 0, () -> sent));
+		}
+		sent.completeExceptionally(new ServiceException("Soap Exception occurred"));
+
+		for (CompletableFuture<SpmlResponse> future : responses) {
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				fail("Expected ServiceException");
+			} catch (ExecutionException e) {
+				assertThat(e.getCause(), instanceOf(ServiceException.class));
+			}
+		}
+		assertThat(searchCoalescer.inFlight(), is(0));
+	}
+
+	@Test
+	public void bindTo_CoalescedSearches_ExpectsWaitTimeRecorded() throws Exception {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		searchCoalescer.bindTo(registry);
+		CompletableFuture<SpmlResponse> sent = new CompletableFuture<>();
+
+		List<CompletableFuture<SpmlResponse>> responses = new ArrayList<>();
+		for (int i = 0; i < WAITERS; i++) {
+			responses.add(searchCoalescer.searchAsync(KEY, 0, () -> sent));
+		}
+		sent.complete(MockObjectCreator.getSpmlResponse());
+		for (CompletableFuture<SpmlResponse> future : responses) {
+			future.get(5, TimeUnit.SECONDS);
+		}
+
+		assertThat(registry.get("hss.subscriber.search.sent").functionCounter().count(), is(1.0));
+		assertThat(registry.get("hss.subscriber.search.coalesced").functionTimer().count(), is((double) WAITERS - 1));
+	}
+
+	@Test
+	public void searchAsync_OnlyCallerCancels_ExpectsSearchCancelled() throws Exception {
+
+		CompletableFuture<SpmlResponse> sent = new CompletableFuture<>();
+
+		CompletableFuture<SpmlResponse> response = searchCoalescer.searchAsync(KEY, 0, () -> sent);
+		response.cancel(true);
+
+		assertThat(sent.isCancelled(), is(true));
+		assertThat(searchCoalescer.inFlight(), is(0));
+	}
+
+	@Test
+	public void searchAsync_OneOfTwoCallersCancels_ExpectsSearchSharedWithOtherCaller() throws Exception {
+
+		CompletableFuture<SpmlResponse> sent = new CompletableFuture<>();
+		AtomicInteger searches = new AtomicInteger();
+		Supplier<CompletableFuture<SpmlResponse>> search = () -> {
+			searches.incrementAndGet();
+			return sent;
+		};
+
+		CompletableFuture<SpmlResponse> first = searchCoalescer.searchAsync(KEY, 0, search);
+		CompletableFuture<SpmlResponse> second = searchCoalescer.searchAsync(KEY, 0, search);
+		first.cancel(true);
+		sent.complete(MockObjectCreator.getSpmlResponse());
+
+		assertThat(sent.isCancelled(), is(false));
+		assertThat(second.get(5, TimeUnit.SECONDS).getResult(), is("success"));
+		assertThat(searches.get(), is(1));
+	}
+}
@@ -0,0 +1,110 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.GlobalFilterId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.ServiceProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ServiceProfileTemplateCacheTest {
+
+	private final ServiceProfileTemplateCache cache = new ServiceProfileTemplateCache(
+			MockObjectCreator.getCacheSettings(2, 0));
+
+	private final AtomicInteger builds = new AtomicInteger();
+
+	@Test
+	public void get_SameCodesInAnyOrder_ExpectsTemplateBuiltOnce() throws Exception {
+
+		ServiceProfileTemplate first = cache.get("DP01", Arrays.asList("900", "INTL", "900"), "-DCA01q", builder());
+		ServiceProfileTemplate second = cache.get("DP01", Arrays.asList("INTL", "900"), "-DCA01q", builder());
+
+		assertThat(first == second, is(true));
+		assertThat(builds.get(), is(1));
+		assertThat(cache.hitRatio(), is(0.5));
+	}
+
+	@Test
+	public void get_DifferentTas_ExpectsSeparateTemplates() throws Exception {
+
+		cache.get("DP01", Arrays.asList("900"), "-DCA01q", builder());
+		cache.get("DP01", Arrays.asList("900"), "-DCA02q", builder());
+
+		assertThat(builds.get(), is(2));
+		assertThat(cache.size(), is(2));
+	}
+
+	@Test
+	public void get_MoreTuplesThanMaxSize_ExpectsOldestTemplateDropped() throws Exception {
+
+		cache.get("BC01", Arrays.asList("900"), "", builder());
+		cache.get("BC02", Arrays.asList("900"), "", builder());
+		cache.get("BC03", Arrays.asList("900"), "", builder());
+		cache.get("BC03", Arrays.asList("900"), "", builder());
+		cache.get("BC01", Arrays.asList("900"), "", builder());
+
+		assertThat(cache.size(), is(2));
+		assertThat(builds.get(), is(4));
+	}
+
+	@Test
+	public void get_Disabled_ExpectsTemplateBuiltPerCall() throws Exception {
+
+		ServiceProfileTemplateCache disabled = new ServiceProfileTemplateCache(
+				MockObjectCreator.getCacheSettings(0, 0));
+
+		disabled.get("DP01", Arrays.asList("900"), "", builder());
+		disabled.get("DP01", Arrays.asList("900"), "", builder());
+
+		assertThat(builds.get(), is(2));
+		assertThat(disabled.size(), is(0));
+	}
+
+	@Test
+	public void newServiceProfile_SameTemplate_ExpectsNewSchemaObjectsPerProfile() throws Exception {
+
+		ServiceProfileTemplate template = new ServiceProfileTemplate(Arrays.asList("900COS", "MUT-DCA01q"), "1", "2");
+
+		ServiceProfile first = template.newServiceProfile("sp1601409354118132");
+		ServiceProfile second = template.newServiceProfile("sp1601409354118133");
+
+		assertThat(first.getProfileName(), is("sp1601409354118132"));
+		assertThat(first.getGlobalFilterId().stream().map(GlobalFilterId::getGlobalFilterId)
+				.collect(Collectors.toList()), is(Arrays.asList("900COS", "MUT-DCA01q")));
+		assertThat(first.getSubscribedMediaProfileID().getSessionReleasePolicy(), is("1"));
+		assertThat(first.getGlobalFilterId().get(0) == second.getGlobalFilterId().get(0), is(false));
+		assertThat(first.getSubscribedMediaProfileID() == second.getSubscribedMediaProfileID(), is(false));
+	}
+
+	@Test
+	public void bindTo_Requests_ExpectsHitRatioGauge() throws Exception {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		cache.bindTo(registry);
+
+		cache.get("DP01", Arrays.asList("900"), "", builder());
+		cache.get("DP01", Arrays.asList("900"), "", builder());
+		cache.get("DP01", Arrays.asList("900"), "", builder());
+		cache.get("DP01", Arrays.asList("900"), "", builder());
+
+		assertThat(registry.get("hss.service_profile.templates.hit_ratio").gauge().value(), is(0.75));
+		assertThat(registry.get("hss.service_profile.templates.requests").tag("result", "miss").functionCounter()
+				.count(), is(1.0));
+	}
+
+	private Supplier<ServiceProfileTemplate> builder() {
+
+		return () -> {
+			builds.incrementAndGet();
+			return new ServiceProfileTemplate(Arrays.asList("900COS"), "1", "2");
+		};
+	}
+}
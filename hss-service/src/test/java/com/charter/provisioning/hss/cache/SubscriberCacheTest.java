@@ -0,0 +1,330 @@
+package com.charter.provisioning.hss.cache;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.hss.model.CacheSettings;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hamcrest.core.IsNull;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class SubscriberCacheTest {
+
+	private static final String KEY = "impu:sip:+18163888611@ims.eng.rr.com";
+
+	private final AtomicLong ticker = new AtomicLong();
+
+	private SubscriberCache subscriberCache;
+
+	@Before
+	public void setUp() {
+		subscriberCache = new SubscriberCache(settings(2, 1000), settings(2, 100), spmlConfig(), ticker::get);
+	}
+
+	@Test
+	public void key_SearchRequest_ExpectsIdentityTypeAndNormalizedIdentity() {
+
+		assertThat(subscriberCache.key("IMPU", MockObjectCreator.getSearchRequestForPublicIdentity()),
+				is("impu:sip:+1" + MockObjectCreator.PHONE_NUMBER + "@ims.eng.rr.com"));
+	}
+
+	@Test
+	public void key_CacheDisabled_ExpectsKeyButNothingCached() {
+
+		SubscriberCache disabled = new SubscriberCache(null, null, spmlConfig(), ticker::get);
+		String key = disabled.key("impu", MockObjectCreator.getSearchRequestForPublicIdentity());
+		disabled.put(key, MockObjectCreator.getSpmlResponse(), disabled.generation());
+
+		assertThat(key, is("impu:sip:+1" + MockObjectCreator.PHONE_NUMBER + "@ims.eng.rr.com"));
+		assertThat(disabled.get(key), is(IsNull.nullValue()));
+		assertThat(disabled.isEnabled(), is(false));
+	}
+
+	@Test
+	public void get_SuccessfulResponseCached_ExpectsCachedResponse() {
+
+		SpmlResponse response = MockObjectCreator.getSpmlResponse();
+		subscriberCache.put(KEY, response, subscriberCache.generation());
+
+		assertThat(subscriberCache.get(KEY), is(response));
+	}
+
+	@Test
+	public void put_NotFoundResponse_ExpectsCachedAsNotFound() {
+
+		SpmlResponse response = MockObjectCreator.getNotFoundSpmlResponse();
+		subscriberCache.put(KEY, response, subscriberCache.generation());
+
+		assertThat(subscriberCache.get(KEY), is(response));
+		assertThat(subscriberCache.size(), is(0));
+		assertThat(subscriberCache.notFoundSize(), is(1));
+	}
+
+	@Test
+	public void put_GatewayErrorResponse_ExpectsNothingCached() {
+
+		SpmlResponse response = MockObjectCreator.getFailedSpmlResponse();
+		response.setSearchStatus("completeResult");
+		response.setErrorMessage("Internal error, request timed out towards the HLR");
+		subscriberCache.put(KEY, response, subscriberCache.generation());
+		subscriberCache.put("impu:empty", new SpmlResponse(null, null, null, null, null, null, "failure", null, null, null),
+				subscriberCache.generation());
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+		assertThat(subscriberCache.notFoundSize(), is(0));
+	}
+
+	@Test
+	public void put_NotFoundResponseWithNotFoundCacheDisabled_ExpectsNothingCached() {
+
+		SubscriberCache positiveOnly = new SubscriberCache(settings(2, 1000), null, spmlConfig(), ticker::get);
+		positiveOnly.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), positiveOnly.generation());
+
+		assertThat(positiveOnly.get(KEY), is(IsNull.nullValue()));
+		assertThat(positiveOnly.notFoundSize(), is(0));
+	}
+
+	@Test
+	public void get_NotFoundOlderThanTimeToLive_ExpectsNullResponse() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+		ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void put_NotFoundMaxSizeReached_ExpectsOldestNotFoundEvicted() {
+
+		subscriberCache.put("impu:1", MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+		subscriberCache.put("impu:2", MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+		subscriberCache.put("impu:3", MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+
+		assertThat(subscriberCache.notFoundSize(), is(2));
+		assertThat(subscriberCache.get("impu:1"), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void invalidate_AddRequest_ExpectsAllNotFoundDiscarded() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+		subscriberCache.put("impi:other", MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+
+		subscriberCache.invalidate(MockObjectCreator.getAddRequest());
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+		assertThat(subscriberCache.get("impi:other"), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void invalidate_ModifyRequest_ExpectsNotFoundDiscarded() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+
+		subscriberCache.invalidate(MockObjectCreator.getHGModifyRequest());
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void invalidate_DeleteRequest_ExpectsNotFoundKept() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+
+		subscriberCache.invalidate(MockObjectCreator.getDeleteRequest());
+
+		assertThat(subscriberCache.get(KEY) != null, is(true));
+	}
+
+	@Test
+	public void put_NotFoundSearchStartedBeforeAdd_ExpectsNotCached() {
+
+		long generation = subscriberCache.generation();
+		subscriberCache.invalidate(MockObjectCreator.getAddRequest());
+		subscriberCache.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), generation);
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void put_SubscriberFoundAfterNotFound_ExpectsSubscriberReturned() {
+
+		SpmlResponse response = MockObjectCreator.getSpmlResponse();
+		subscriberCache.put(KEY, MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+		subscriberCache.put(KEY, response, subscriberCache.generation());
+
+		assertThat(subscriberCache.get(KEY), is(response));
+		assertThat(subscriberCache.notFoundSize(), is(0));
+	}
+
+	@Test
+	public void get_EntryOlderThanTimeToLive_ExpectsNullResponse() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+		ticker.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void put_MaxSizeReached_ExpectsOldestEntryEvicted() {
+
+		subscriberCache.put("impu:1", response("1"), subscriberCache.generation());
+		subscriberCache.put("impu:2", response("2"), subscriberCache.generation());
+		subscriberCache.put("impu:3", response("3"), subscriberCache.generation());
+
+		assertThat(subscriberCache.size(), is(2));
+		assertThat(subscriberCache.get("impu:1"), is(IsNull.nullValue()));
+		assertThat(subscriberCache.get("impu:3") != null, is(true));
+	}
+
+	@Test
+	public void get_SearchedByOtherIdentityOfSubscriber_ExpectsSharedEntry() {
+
+		SpmlResponse response = MockObjectCreator.getSpmlResponse();
+		subscriberCache.put(KEY, response, subscriberCache.generation());
+
+		assertThat(subscriberCache.get("impu:" + MockObjectCreator.ORIGINAL_PUBLIC_USER_ID), is(response));
+		assertThat(subscriberCache.get("impi:privateUserId"), is(response));
+		assertThat(subscriberCache.getByIdentifier(MockObjectCreator.SUBSCRIBER_ID), is(response));
+		assertThat(subscriberCache.size(), is(1));
+	}
+
+	@Test
+	public void put_SubscriberSearchedAgain_ExpectsPreviousEntryReplaced() {
+
+		SpmlResponse response = MockObjectCreator.getSpmlResponse();
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+		subscriberCache.put("impi:privateUserId", response, subscriberCache.generation());
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+		assertThat(subscriberCache.get("impi:privateUserId"), is(response));
+		assertThat(subscriberCache.size(), is(1));
+	}
+
+	@Test
+	public void invalidate_DeleteRequest_ExpectsAllAliasesOfSubscriberEvicted() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+
+		subscriberCache.invalidate(MockObjectCreator.getDeleteRequest());
+
+		assertThat(subscriberCache.size(), is(0));
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+		assertThat(subscriberCache.get("impu:" + MockObjectCreator.ORIGINAL_PUBLIC_USER_ID), is(IsNull.nullValue()));
+		assertThat(subscriberCache.get("impi:privateUserId"), is(IsNull.nullValue()));
+		assertThat(subscriberCache.getByIdentifier(MockObjectCreator.SUBSCRIBER_ID), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void invalidate_OtherSubscriber_ExpectsEntryKept() {
+
+		subscriberCache.put("impu:1", response("1"), subscriberCache.generation());
+		subscriberCache.invalidate("2");
+
+		assertThat(subscriberCache.get("impu:1") != null, is(true));
+	}
+
+	@Test
+	public void invalidate_ModifyAndAddRequests_ExpectsSubscriberEvicted() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+		subscriberCache.invalidate(MockObjectCreator.getHGModifyRequest());
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+		subscriberCache.invalidate(MockObjectCreator.getAddRequest());
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void invalidate_SearchRequest_ExpectsEntriesKept() {
+
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+		subscriberCache.invalidate(MockObjectCreator.getSearchRequestForPublicIdentity());
+
+		assertThat(subscriberCache.size(), is(1));
+	}
+
+	@Test
+	public void put_SubscriberInvalidatedWhileSearching_ExpectsResponseNotCached() {
+
+		long generation = subscriberCache.generation();
+		subscriberCache.invalidate(MockObjectCreator.getDeleteRequest());
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), generation);
+
+		assertThat(subscriberCache.get(KEY), is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void put_OtherSubscriberInvalidatedWhileSearching_ExpectsResponseCached() {
+
+		long generation = subscriberCache.generation();
+		subscriberCache.invalidate("2");
+		subscriberCache.put("impu:1", response("1"), generation);
+
+		assertThat(subscriberCache.get("impu:1") != null, is(true));
+	}
+
+	@Test
+	public void isStale_WritesSinceSearch_ExpectsOnlyResponsesOfWrittenSubscriberStale() {
+
+		long generation = subscriberCache.generation();
+		subscriberCache.invalidate("1");
+
+		assertThat(subscriberCache.isStale(response("1"), generation), is(true));
+		assertThat(subscriberCache.isStale(response("2"), generation), is(false));
+		assertThat(subscriberCache.isStale(response("1"), subscriberCache.generation()), is(false));
+		assertThat(subscriberCache.isStale(MockObjectCreator.getNotFoundSpmlResponse(), generation), is(false));
+
+		subscriberCache.invalidate(MockObjectCreator.getAddRequest());
+		assertThat(subscriberCache.isStale(MockObjectCreator.getNotFoundSpmlResponse(), generation), is(true));
+	}
+
+	@Test
+	public void bindTo_HitsAndMisses_ExpectsMetersRegistered() {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		subscriberCache.bindTo(registry);
+		subscriberCache.put(KEY, MockObjectCreator.getSpmlResponse(), subscriberCache.generation());
+		subscriberCache.get(KEY);
+		subscriberCache.get("impu:unknown");
+		subscriberCache.put("impu:missing", MockObjectCreator.getNotFoundSpmlResponse(), subscriberCache.generation());
+		subscriberCache.get("impu:missing");
+
+		assertThat(registry.get("hss.subscriber.cache.requests").tag("result", "hit").functionCounter().count(), is(1.0));
+		assertThat(registry.get("hss.subscriber.cache.requests").tag("result", "miss").functionCounter().count(), is(1.0));
+		assertThat(registry.get("hss.subscriber.cache.requests").tag("result", "not_found_hit").functionCounter().count(), is(1.0));
+		assertThat(registry.get("hss.subscriber.cache.size").gauge().value(), is(1.0));
+		assertThat(registry.get("hss.subscriber.cache.not_found.size").gauge().value(), is(1.0));
+	}
+
+	private static SpmlResponse response(String identifier) {
+		return new SpmlResponse(null, null, null, identifier, Subscriber.builder().identifier(identifier).build(), null,
+				"success", null, "HSS_SUBSCRIBER_v82", null);
+	}
+
+	private static SpmlConfig spmlConfig() {
+
+		SpmlConfig spmlConfig = new SpmlConfig();
+		spmlConfig.setPublic_identity_search_name(MockObjectCreator.PUBLIC_SEARCH_NAME);
+		spmlConfig.setPrivate_identity_search_name("impi");
+		return spmlConfig;
+	}
+
+	private static CacheSettings settings(int maxSize, long timeToLive) {
+
+		CacheSettings settings = new CacheSettings();
+		settings.setMaxSize(maxSize);
+		settings.setTimeToLive(timeToLive);
+		return settings;
+	}
+}
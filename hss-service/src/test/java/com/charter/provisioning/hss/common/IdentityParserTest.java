@@ -0,0 +1,97 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.model.MlhgId;
+import com.charter.provisioning.hss.model.PickupGroupId;
+import com.charter.provisioning.hss.model.SipUri;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class IdentityParserTest {
+
+	@Test
+	public void isTelephoneNumber_ValidAndInvalidNumbers_ExpectsTenDigitsNotStartingWithZero() throws Exception {
+
+		assertThat(IdentityParser.isTelephoneNumber(MockObjectCreator.PHONE_NUMBER), is(true));
+		assertThat(IdentityParser.isTelephoneNumber("0216328886"), is(false));
+		assertThat(IdentityParser.isTelephoneNumber("821632888"), is(false));
+		assertThat(IdentityParser.isTelephoneNumber("82163288861"), is(false));
+		assertThat(IdentityParser.isTelephoneNumber("82163a8886"), is(false));
+		assertThat(IdentityParser.isTelephoneNumber(""), is(false));
+		assertThat(IdentityParser.isTelephoneNumber(null), is(false));
+		assertThat(IdentityParser.parseTelephoneNumber(MockObjectCreator.PHONE_NUMBER).getValue(),
+				is(MockObjectCreator.PHONE_NUMBER));
+	}
+
+	@Test
+	public void parseMlhgId_HuntGroupAndMember_ExpectsTypedId() throws Exception {
+
+		MlhgId mlhgId = IdentityParser.parseMlhgId(MockObjectCreator.NATIONAL_PUBLIC_IDENTITY);
+
+		assertThat(mlhgId.getHuntGroup(), is("409077"));
+		assertThat(mlhgId.getMember(), is("0001"));
+		assertThat(IdentityParser.parseMlhgId("mlhg_1_2_0000").getHuntGroup(), is("1_2"));
+		assertThat(IdentityParser.parseMlhgId("mlhg_409077").getMember(), is(""));
+	}
+
+	@Test
+	public void isMlhgId_MalformedIds_ExpectsFalse() throws Exception {
+
+		assertThat(IdentityParser.isMlhgId("mhg_40@077_0000"), is(false));
+		assertThat(IdentityParser.isMlhgId("mlhg_40@077_0000"), is(false));
+		assertThat(IdentityParser.isMlhgId("mlhg_"), is(false));
+		assertThat(IdentityParser.isMlhgId("mlhg__0001"), is(false));
+		assertThat(IdentityParser.isMlhgId("mlhg_409077__0001"), is(false));
+		assertThat(IdentityParser.isMlhgId("mlhg_409077_"), is(false));
+		assertThat(IdentityParser.isMlhgId(null), is(false));
+	}
+
+	@Test
+	public void parsePickupGroupId_ValidAndInvalidIds_ExpectsGroupNumber() throws Exception {
+
+		PickupGroupId pickupGroupId = IdentityParser.parsePickupGroupId("pickup_group_123456");
+
+		assertThat(pickupGroupId.getGroupNumber(), is("123456"));
+		assertThat(IdentityParser.parsePickupGroupId("pickup_group_"), is(nullValue()));
+		assertThat(IdentityParser.parsePickupGroupId("pickup_group_12a"), is(nullValue()));
+	}
+
+	@Test
+	public void parseSipUri_E164AndNationalUris_ExpectsUserDomainAndTelephoneNumber() throws Exception {
+
+		SipUri e164 = IdentityParser.parseSipUri(MockObjectCreator.ORIGINAL_PUBLIC_USER_ID, "sip:", "+1");
+		SipUri national = IdentityParser.parseSipUri("sip:mlhg_409077_0001@ims.eng.rr.com", "sip:", "+1");
+
+		assertThat(e164.isE164(), is(true));
+		assertThat(e164.getUser(), is(MockObjectCreator.PHONE_NUMBER));
+		assertThat(e164.getDomain(), is("ims.eng.rr.com"));
+		assertThat(e164.getTelephoneNumber().getValue(), is(MockObjectCreator.PHONE_NUMBER));
+		assertThat(national.isE164(), is(false));
+		assertThat(national.getTelephoneNumber(), is(nullValue()));
+		assertThat(IdentityParser.parseSipUri("tel:8216328886", "sip:", "+1"), is(nullValue()));
+	}
+
+	@Test
+	public void getSipTelephoneNumber_PublicUserIds_ExpectsTelephoneNumberOnly() throws Exception {
+
+		assertThat(IdentityParser.getSipTelephoneNumber(MockObjectCreator.ORIGINAL_PUBLIC_USER_ID, "sip:", "+1"),
+				is(MockObjectCreator.PHONE_NUMBER));
+		assertThat(IdentityParser.getSipTelephoneNumber("sip:8216328886@ims.eng.rr.com", "sip:", "+1"),
+				is(MockObjectCreator.PHONE_NUMBER));
+		assertThat(IdentityParser.getSipTelephoneNumber("sip:+182163288861@ims.eng.rr.com", "sip:", "+1"),
+				is(nullValue()));
+		assertThat(IdentityParser.getSipTelephoneNumber("sip:pickup_group_1@ims.eng.rr.com", "sip:", "+1"),
+				is(nullValue()));
+	}
+
+	@Test
+	public void formatSipUri_WithAndWithoutPrefixes_ExpectsUri() throws Exception {
+
+		assertThat(IdentityParser.formatSipUri("sip:", "+1", MockObjectCreator.PHONE_NUMBER, "ims.eng.rr.com"),
+				is(MockObjectCreator.ORIGINAL_PUBLIC_USER_ID));
+		assertThat(IdentityParser.formatSipUri(null, null, "219BF751A12481C6", "ims.eng.rr.com"),
+				is("219BF751A12481C6@ims.eng.rr.com"));
+	}
+}
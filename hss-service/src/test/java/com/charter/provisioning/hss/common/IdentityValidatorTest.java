@@ -0,0 +1,60 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class IdentityValidatorTest {
+
+	private final IdentityValidator identityValidator = new IdentityValidator(16);
+
+	@Test
+	public void validate_ValidIdentities_ExpectsNoException() {
+
+		identityValidator.validateTelephoneNumber(MockObjectCreator.PHONE_NUMBER, MockObjectCreator.CORRELATION_ID);
+		identityValidator.validateControllerId("pickup_group_123456", MockObjectCreator.CORRELATION_ID);
+		identityValidator.validateControllerId("mlhg_409077_1", MockObjectCreator.CORRELATION_ID);
+		identityValidator.validatePrivateIdentity(MockObjectCreator.PRIVATE_IDENTITY, MockObjectCreator.CORRELATION_ID);
+	}
+
+	@Test
+	public void validateTelephoneNumber_NonNumeric_ExpectsBadRequest() {
+
+		try {
+			identityValidator.validateTelephoneNumber("8216328&86", MockObjectCreator.CORRELATION_ID);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+			assertThat(e.getMessage(), is("Invalid telephoneNumber"));
+		}
+	}
+
+	@Test
+	public void validateControllerId_TelephoneNumber_ExpectsBadRequest() {
+
+		try {
+			identityValidator.validateControllerId(MockObjectCreator.PHONE_NUMBER, MockObjectCreator.CORRELATION_ID);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+			assertThat(e.getMessage(), is("Invalid controllerId"));
+		}
+	}
+
+	@Test
+	public void validatePrivateIdentity_IncorrectLength_ExpectsBadRequest() {
+
+		try {
+			identityValidator.validatePrivateIdentity("219CF751", MockObjectCreator.CORRELATION_ID);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+			assertThat(e.getMessage(), is("Invalid privateIdentity"));
+		}
+	}
+}
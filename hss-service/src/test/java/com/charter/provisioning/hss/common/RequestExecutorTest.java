@@ -0,0 +1,187 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class RequestExecutorTest {
+
+	private final RequestExecutor executor = new RequestExecutor(MockObjectCreator.getExecutorSettings(1, 1));
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@After
+	public void shutdown() {
+		release.countDown();
+		executor.shutdown();
+	}
+
+	@Test
+	public void supply_Task_ExpectsResultOnRequestThread() throws Exception {
+
+		String threadName = executor.supply(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+		assertThat(threadName, startsWith("hss-request-"));
+	}
+
+	@Test
+	public void supply_TaskThrows_ExpectsFutureFailedWithException() throws Exception {
+
+		ServiceException hcee = new ServiceException(HttpServletResponse.SC_BAD_REQUEST, "Invalid request.");
+
+		try {
+			executor.supply(() -> {
+				throw hcee;
+			}).get(5, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(hcee));
+		}
+	}
+
+	@Test
+	public void supply_PoolAndQueueFull_ExpectsServiceUnavailableAndRejectedCount() throws Exception {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		executor.bindTo(registry);
+
+		executor.supply(this::awaitRelease);
+		CompletableFuture<String> queued = executor.supply(this::awaitRelease);
+
+		try {
+			executor.supply(this::awaitRelease).get(5, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertThat(((ServiceException) e.getCause()).getHttpStatus(),
+					is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		}
+		assertThat(executor.queued(), is(1));
+		assertThat(registry.get("hss.request.executor.rejected").functionCounter().count(), is(1.0));
+		assertThat(registry.get("hss.request.executor.queue.remaining").gauge().value(), is(0.0));
+
+		release.countDown();
+		assertThat(queued.get(5, TimeUnit.SECONDS), is("released"));
+		assertThat(registry.get("hss.request.executor.queue.wait").functionTimer().count(), is(2.0));
+	}
+
+	@Test
+	public void supplyWhenAccepted_PoolAndQueueFull_ExpectsTaskRunOnceAccepted() throws Exception {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		executor.bindTo(registry);
+
+		executor.supply(this::awaitRelease);
+		executor.supply(this::awaitRelease);
+
+		CompletableFuture<String> waiting = executor.supplyWhenAccepted(() -> "accepted");
+		Thread.sleep(RequestExecutor.MIN_RETRY_DELAY_MILLIS * 3);
+
+		assertThat(waiting.isDone(), is(false));
+		assertThat(registry.get("hss.request.executor.rejected").functionCounter().count() >= 2, is(true));
+
+		release.countDown();
+		assertThat(waiting.get(5, TimeUnit.SECONDS), is("accepted"));
+	}
+
+	@Test
+	public void supplyWhenAccepted_CancelledWhileWaiting_ExpectsTaskNeverRun() throws Exception {
+
+		executor.supply(this::awaitRelease);
+		executor.supply(this::awaitRelease);
+		AtomicBoolean ran = new AtomicBoolean();
+		CompletableFuture<Boolean> waiting = executor.supplyWhenAccepted(() -> ran.getAndSet(true));
+
+		waiting.cancel(true);
+		release.countDown();
+
+		assertThat(waiting.isCancelled(), is(true));
+		assertThat(executor.supplyWhenAccepted(ran::get).get(5, TimeUnit.SECONDS), is(false));
+	}
+
+	@Test
+	public void supply_QueuedTaskCancelled_ExpectsTaskRemovedAndNeverRun() throws Exception {
+
+		executor.supply(this::awaitRelease);
+		AtomicBoolean ran = new AtomicBoolean();
+		CompletableFuture<Boolean> queued = executor.supply(() -> ran.getAndSet(true));
+
+		queued.cancel(true);
+
+		assertThat(executor.queued(), is(0));
+		release.countDown();
+		assertThat(executor.supply(ran::get).get(5, TimeUnit.SECONDS), is(false));
+	}
+
+	@Test
+	public void supply_RunningTaskCancelled_ExpectsTaskInterruptedAndCancelledOnceReturned() throws Exception {
+
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		CountDownLatch returning = new CountDownLatch(1);
+		CompletableFuture<String> task = executor.supply(() -> {
+			running.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			awaitUninterruptibly(returning);
+			return "released";
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS), is(true));
+
+		assertThat(task.cancel(true), is(true));
+
+		assertThat(interrupted.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(task.isDone(), is(false));
+
+		returning.countDown();
+		CountDownLatch completed = new CountDownLatch(1);
+		task.whenComplete((response, e) -> completed.countDown());
+		assertThat(completed.await(5, TimeUnit.SECONDS), is(true));
+		assertThat(task.isCancelled(), is(true));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_ZeroPoolSize_ExpectsIllegalStateException() {
+		new RequestExecutor(MockObjectCreator.getExecutorSettings(0, 1));
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+
+		boolean interrupted = false;
+		while (true) {
+			try {
+				latch.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private String awaitRelease() {
+
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "released";
+	}
+}
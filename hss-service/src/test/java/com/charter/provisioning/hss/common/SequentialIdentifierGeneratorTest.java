@@ -0,0 +1,137 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class SequentialIdentifierGeneratorTest {
+
+	private static final long NOW = SequentialIdentifierGenerator.EPOCH_MILLIS + 271828182845L;
+
+	private static final IdentifierGenerator RANDOM = length -> StringUtils.repeat('7', length);
+
+	private final SequentialIdentifierGenerator generator = new SequentialIdentifierGenerator("5", RANDOM);
+
+	@Test
+	public void generate_32Digits_ExpectsTimestampSequenceRandomDigitsAndNode() throws Exception {
+
+		long before = System.currentTimeMillis() - SequentialIdentifierGenerator.EPOCH_MILLIS;
+		String identifier = generator.generate(32);
+		long after = System.currentTimeMillis() - SequentialIdentifierGenerator.EPOCH_MILLIS;
+
+		assertThat(identifier.matches("[1-9][0-9]{31}"), is(true));
+		long millis = Long.parseLong(identifier.substring(0, 12));
+		assertThat(millis >= before && millis <= after, is(true));
+		assertThat(identifier.substring(18), is("77777777777005"));
+		assertThat(identifier.substring(29), is(generator.getNode()));
+	}
+
+	@Test
+	public void generate_ShortestLength_ExpectsNoRandomDigits() throws Exception {
+
+		String identifier = generator.generate(SequentialIdentifierGenerator.MIN_LENGTH);
+
+		assertThat(identifier.matches("[1-9][0-9]{20}"), is(true));
+		assertThat(identifier.endsWith("005"), is(true));
+	}
+
+	@Test
+	public void generate_LeadingZerosInNode_ExpectsSameNode() throws Exception {
+		assertThat(new SequentialIdentifierGenerator("000042", RANDOM).generate(32).endsWith("77042"), is(true));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_MissingNode_ExpectsIllegalStateException() throws Exception {
+		new SequentialIdentifierGenerator(" ", RANDOM);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_NonNumericNode_ExpectsIllegalStateException() throws Exception {
+		new SequentialIdentifierGenerator("node-1", RANDOM);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_NodeNotBelow1000_ExpectsIllegalStateException() throws Exception {
+		new SequentialIdentifierGenerator("1005", RANDOM);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void generate_IrsSuffixLength_ExpectsIllegalArgumentException() throws Exception {
+		generator.generate(16);
+	}
+
+	@Test
+	public void generate_MoreKeysThanSequenceWithinMillisecond_ExpectsTimestampNeverAheadOfClock() throws Exception {
+
+		// the clock advances a millisecond once the sequence of the first one is used up
+		AtomicLong reads = new AtomicLong();
+		long perMillisecond = 1_000_000L;
+		SequentialIdentifierGenerator clocked = new SequentialIdentifierGenerator("5", RANDOM,
+				() -> NOW + reads.getAndIncrement() / perMillisecond);
+
+		String last = null;
+		for (long i = 0; i <= perMillisecond; i++) {
+			String identifier = clocked.generate(SequentialIdentifierGenerator.MIN_LENGTH);
+			long issuedAt = Long.parseLong(identifier.substring(0, 12)) + SequentialIdentifierGenerator.EPOCH_MILLIS;
+			assertThat(issuedAt <= NOW + reads.get() / perMillisecond, is(true));
+			last = identifier;
+		}
+		assertThat(Long.parseLong(last.substring(0, 12)) + SequentialIdentifierGenerator.EPOCH_MILLIS, is(NOW + 1));
+	}
+
+	@Test
+	public void generate_ClockSetBack_ExpectsServiceUnavailable() throws Exception {
+
+		List<Long> clock = new ArrayList<>();
+		clock.add(NOW);
+		clock.add(NOW - SequentialIdentifierGenerator.MAX_CLOCK_BACKWARD_MILLIS - 1);
+		SequentialIdentifierGenerator clocked = new SequentialIdentifierGenerator("5", RANDOM,
+				() -> clock.size() > 1 ? clock.remove(0) : clock.get(0));
+
+		clocked.generate(32);
+		try {
+			clocked.generate(32);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		}
+	}
+
+	@Test
+	public void generate_ManyKeysFromConcurrentThreads_ExpectsUniqueIncreasingPerThreadKeys() throws Exception {
+
+		Set<String> identifiers = ConcurrentHashMap.newKeySet();
+		Set<Boolean> ordered = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 8; i++) {
+			executor.execute(() -> {
+				String previous = "";
+				for (int n = 0; n < 4000; n++) {
+					String identifier = generator.generate(32);
+					ordered.add(identifier.compareTo(previous) > 0);
+					previous = identifier;
+					identifiers.add(identifier);
+				}
+			});
+		}
+		executor.shutdown();
+		assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+
+		assertThat(identifiers.size(), is(8 * 4000));
+		assertThat(ordered.contains(false), is(false));
+	}
+}
@@ -1,68 +1,124 @@
-package com.charter.provisioning.hss.common;
-
-import org.hamcrest.core.IsNull;
-import org.junit.Assert;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.junit.MockitoJUnitRunner;
-
-import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.nullValue;
-
-@RunWith(MockitoJUnitRunner.class)
-public class ServiceUtilTest {
-
-	@InjectMocks
-	private ServiceUtil serviceUtil;
-	
-	@Test
-	public void testAppendRandom_GenerateRandomNumber_ExpectsNotNull32CharLengthString() throws Exception {
-		
-		String random = serviceUtil.appendRandom(32, false);
-		
-		Assert.assertThat(random, is(IsNull.notNullValue()));
-		Assert.assertThat(random.length(), is(32));
-	}
-	
-	@Test
-	public void testAppendRandom_GenerateRandomNumberUsingHex_ExpectsNotNull32CharLengthString() throws Exception {
-		
-		String random = serviceUtil.appendRandom(32, true);
-		
-		Assert.assertThat(random, is(IsNull.notNullValue()));
-		Assert.assertThat(random.length(), is(32));
-	}
-	
-	@Test
-	public void testAppendRandom_GenerateRandomNumberUsingHex_ExpectsNull() throws Exception {
-		
-		String random = serviceUtil.appendRandom(0, true);
-		Assert.assertThat(random, is(nullValue()));
-	}
-	
-	@Test
-	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsNotNull24CharLengthString() throws Exception {
-		
-		String random = serviceUtil.appendTimestamp(32, true);
-		
-		Assert.assertThat(random, is(IsNull.notNullValue()));
-		Assert.assertThat(random.length(), is(24));
-	}
-	
-	@Test
-	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsNotNull26CharLengthString() throws Exception {
-		
-		String random = serviceUtil.appendTimestamp(32, false);
-		
-		Assert.assertThat(random, is(IsNull.notNullValue()));
-		Assert.assertThat(random.length(), is(26));
-	}
-	
-	@Test
-	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsNull() throws Exception {
-		
-		String random = serviceUtil.appendTimestamp(0, false);
-		Assert.assertThat(random, is(nullValue()));
-	}
-}
+package com.charter.provisioning.hss.common;
+
+import org.hamcrest.core.IsNull;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ServiceUtilTest {
+
+	@InjectMocks
+	private ServiceUtil serviceUtil;
+	
+	@Test
+	public void testAppendRandom_GenerateRandomNumber_ExpectsNotNull32CharLengthString() throws Exception {
+		
+		String random = serviceUtil.appendRandom(32, false);
+		
+		Assert.assertThat(random, is(IsNull.notNullValue()));
+		Assert.assertThat(random.length(), is(32));
+	}
+	
+	@Test
+	public void testAppendRandom_GenerateRandomNumberUsingHex_ExpectsNotNull32CharLengthString() throws Exception {
+		
+		String random = serviceUtil.appendRandom(32, true);
+		
+		Assert.assertThat(random, is(IsNull.notNullValue()));
+		Assert.assertThat(random.length(), is(32));
+	}
+	
+	@Test
+	public void testAppendRandom_GenerateRandomNumberUsingHex_ExpectsNull() throws Exception {
+		
+		String random = serviceUtil.appendRandom(0, true);
+		Assert.assertThat(random, is(nullValue()));
+	}
+	
+	@Test
+	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsNotNull24CharLengthString() throws Exception {
+		
+		String random = serviceUtil.appendTimestamp(32, true);
+		
+		Assert.assertThat(random, is(IsNull.notNullValue()));
+		Assert.assertThat(random.length(), is(24));
+	}
+	
+	@Test
+	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsNotNull26CharLengthString() throws Exception {
+		
+		String random = serviceUtil.appendTimestamp(32, false);
+		
+		Assert.assertThat(random, is(IsNull.notNullValue()));
+		Assert.assertThat(random.length(), is(26));
+	}
+	
+	@Test
+	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsNull() throws Exception {
+		
+		String random = serviceUtil.appendTimestamp(0, false);
+		Assert.assertThat(random, is(nullValue()));
+	}
+
+	@Test
+	public void testAppendRandom_GenerateRandomNumber_ExpectsDigitsWithNonZeroLeadingDigit() throws Exception {
+
+		for (int i = 0; i < 1000; i++) {
+			String random = serviceUtil.appendRandom(16, false);
+
+			Assert.assertThat(random.matches("[1-9][0-9]{15}"), is(true));
+		}
+	}
+
+	@Test
+	public void testAppendRandom_GenerateRandomNumberUsingHex_ExpectsUpperCaseHex() throws Exception {
+
+		for (int i = 0; i < 1000; i++) {
+			String random = serviceUtil.appendRandom(20, true);
+
+			Assert.assertThat(random.matches("[0-9A-F]{20}"), is(true));
+		}
+	}
+
+	@Test
+	public void testAppendRandom_GenerateFromConcurrentThreads_ExpectsUniqueKeys() throws Exception {
+
+		Set<String> keys = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		for (int i = 0; i < 16; i++) {
+			executor.execute(() -> {
+				for (int n = 0; n < 2000; n++)
+					keys.add(serviceUtil.appendRandom(32, false));
+			});
+		}
+		executor.shutdown();
+		Assert.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+
+		Assert.assertThat(keys.size(), is(16 * 2000));
+	}
+
+	@Test
+	public void testAppendTimeStamp_GenerateRandomTimeStamp_ExpectsPaddedTimestampWrittenTwice() throws Exception {
+
+		long before = System.currentTimeMillis();
+		String random = serviceUtil.appendTimestamp(32, true);
+		long after = System.currentTimeMillis();
+
+		Assert.assertThat(random.substring(0, 12), is(random.substring(12)));
+		long millis = Long.parseLong(random.substring(0, 12), 16);
+		Assert.assertThat(millis >= before && millis <= after, is(true));
+		Assert.assertThat(random.matches("[0-9A-F]{24}"), is(true));
+	}
+}
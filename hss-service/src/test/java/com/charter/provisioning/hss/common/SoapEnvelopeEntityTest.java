@@ -0,0 +1,85 @@
+package com.charter.provisioning.hss.common;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.Consts;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentEncoder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SoapEnvelopeEntityTest {
+
+	private static final String BODY = "<spml:deleteRequest xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" language=\"en_us\"><version>HSS_SUBSCRIBER_v82</version><identifier>C61561BD55AE4C072C92</identifier></spml:deleteRequest>";
+
+	private static final String ENVELOPE = "<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\"><SOAP-ENV:Header/><SOAP-ENV:Body>"
+			+ BODY + "</SOAP-ENV:Body></SOAP-ENV:Envelope>";
+
+	@Mock
+	private ContentEncoder encoder;
+
+	@Test
+	public void writeTo_WrapSpmlBody_ExpectsSoapEnvelopeBytes() throws Exception {
+
+		SoapEnvelopeEntity entity = new SoapEnvelopeEntity(BODY, ContentType.TEXT_XML);
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		entity.writeTo(bos);
+
+		assertThat(new String(bos.toByteArray(), Consts.ISO_8859_1), is(ENVELOPE));
+		assertThat(entity.getContentLength(), is((long) ENVELOPE.length()));
+		assertThat(entity.getContentType().getValue(), is("text/xml; charset=ISO-8859-1"));
+	}
+
+	@Test
+	public void getContent_ReadEntityTwice_ExpectsSameSoapEnvelope() throws Exception {
+
+		SoapEnvelopeEntity entity = new SoapEnvelopeEntity(BODY, ContentType.TEXT_XML);
+
+		assertThat(IOUtils.toString(entity.getContent(), Consts.ISO_8859_1), is(ENVELOPE));
+		assertThat(IOUtils.toString(entity.getContent(), Consts.ISO_8859_1), is(ENVELOPE));
+		assertThat(entity.isRepeatable(), is(true));
+	}
+
+	@Test
+	public void produceContent_EncoderAcceptsEverything_ExpectsSoapEnvelopeAndComplete() throws Exception {
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		when(encoder.write(any(ByteBuffer.class))).thenAnswer(invocation -> {
+			ByteBuffer buffer = invocation.getArgument(0);
+			int length = buffer.remaining();
+			bos.write(buffer.array(), buffer.position(), length);
+			buffer.position(buffer.limit());
+			return length;
+		});
+
+		SoapEnvelopeEntity entity = new SoapEnvelopeEntity(BODY, ContentType.TEXT_XML);
+		entity.produceContent(encoder, null);
+
+		assertThat(new String(bos.toByteArray(), Consts.ISO_8859_1), is(ENVELOPE));
+		verify(encoder).complete();
+	}
+
+	@Test
+	public void createRequestEntity_PopulateMarshalledRequest_ExpectsEnvelopeWithoutXmlDeclaration() throws Exception {
+
+		SoapMessage message = new SoapMessage();
+		message.populateMessageBody("<?xml version=\"1.0\" ?>" + BODY);
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		message.createRequestEntity(ContentType.TEXT_XML).writeTo(bos);
+
+		assertThat(new String(bos.toByteArray(), Consts.ISO_8859_1), is(ENVELOPE));
+		assertThat(message.getSoapXml(), is(ENVELOPE));
+	}
+}
@@ -0,0 +1,97 @@
+package com.charter.provisioning.hss.common;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.charter.provisioning.hss.exception.SoapFaultException;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+
+public class SoapEnvelopeReaderTest {
+
+	@Test
+	public void readPayload_SearchResponseEnvelope_ExpectsFirstBodyChild() throws Exception {
+
+		String payload = SoapEnvelopeReader.readPayload(toStream(MockObjectCreator.getStringSearchResponse()));
+
+		assertThat(payload, startsWith("<spml:searchResponse"));
+		assertThat(payload, containsString("xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\""));
+		assertThat(payload, containsString("<identifier>13718275614005466511585250035104</identifier>"));
+		assertThat(payload.endsWith("</spml:searchResponse>"), is(true));
+	}
+
+	@Test
+	public void readPayload_EnvelopeWithHeaderAndCData_ExpectsHeaderSkippedAndTextUnwrapped() throws Exception {
+
+		String payload = SoapEnvelopeReader.readPayload(toStream(
+				"<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"http://schemas.xmlsoap.org/soap/envelope/\"><SOAP-ENV:Header><h>header</h></SOAP-ENV:Header>"
+						+ "<SOAP-ENV:Body><spml:deleteResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" result=\"success\"><![CDATA[a<b]]></spml:deleteResponse></SOAP-ENV:Body></SOAP-ENV:Envelope>"));
+
+		assertThat(payload, startsWith("<spml:deleteResponse"));
+		assertThat(payload, containsString("result=\"success\">a&lt;b</spml:deleteResponse>"));
+	}
+
+	@Test
+	public void readPayload_EmptyBody_ExpectsNullPayload() throws Exception {
+
+		String payload = SoapEnvelopeReader.readPayload(toStream(
+				"<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body> </soapenv:Body></soapenv:Envelope>"));
+
+		assertThat(payload, is(nullValue()));
+	}
+
+	@Test
+	public void readPayload_Soap11Fault_ExpectsSoapFaultException() throws Exception {
+
+		try {
+			SoapEnvelopeReader.readPayload(toStream(
+					"<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body><soapenv:Fault>"
+							+ "<faultcode>soapenv:Server</faultcode><faultstring>Gateway unavailable</faultstring><detail/>"
+							+ "</soapenv:Fault></soapenv:Body></soapenv:Envelope>"));
+			fail("Expected SoapFaultException");
+		} catch (SoapFaultException e) {
+			assertThat(e.getFaultCode(), is("soapenv:Server"));
+			assertThat(e.getFaultString(), is("Gateway unavailable"));
+		}
+	}
+
+	@Test
+	public void readPayload_Soap12Fault_ExpectsSoapFaultException() throws Exception {
+
+		try {
+			SoapEnvelopeReader.readPayload(toStream(
+					"<env:Envelope xmlns:env=\"http://www.w3.org/2003/05/soap-envelope\"><env:Body><env:Fault>"
+							+ "<env:Code><env:Value>env:Receiver</env:Value></env:Code><env:Reason><env:Text xml:lang=\"en\">Timeout</env:Text></env:Reason>"
+							+ "</env:Fault></env:Body></env:Envelope>"));
+			fail("Expected SoapFaultException");
+		} catch (SoapFaultException e) {
+			assertThat(e.getFaultCode(), is("env:Receiver"));
+			assertThat(e.getFaultString(), is("Timeout"));
+		}
+	}
+
+	@Test(expected = SoapServiceException.class)
+	public void readPayload_NotSoapEnvelope_ExpectsSoapServiceException() throws Exception {
+
+		SoapEnvelopeReader.readPayload(toStream(MockObjectCreator.getStringModifyResponse()));
+	}
+
+	@Test(expected = SoapServiceException.class)
+	public void readPayload_MalformedEnvelope_ExpectsSoapServiceException() throws Exception {
+
+		SoapEnvelopeReader.readPayload(toStream("<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body>"));
+	}
+
+	private static InputStream toStream(String xml) {
+		return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+	}
+}
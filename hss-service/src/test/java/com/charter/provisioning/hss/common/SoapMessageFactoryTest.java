@@ -0,0 +1,37 @@
+package com.charter.provisioning.hss.common;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class SoapMessageFactoryTest {
+
+	private SoapMessageFactory soapMessageFactory = new SoapMessageFactory("SOAPAction", "SpmlRequest");
+
+	@Test
+	public void createSoapMessage_PopulateMessageBody_ExpectsSoapMessageWithPayloadAndHeaders() throws Exception {
+
+		SoapMessage message = soapMessageFactory.createSoapMessage(MockObjectCreator.getPublicKeyStringSearchRequest());
+
+		assertThat(message.getSoapXml(), containsString("searchRequest"));
+		assertThat(message.getSoapAction(), is("SOAPAction"));
+		assertThat(message.getSoapHeader(), is("SpmlRequest"));
+	}
+
+	@Test
+	public void createSoapMessage_CreateTwoMessages_ExpectsIndependentMessages() throws Exception {
+
+		SoapMessage first = soapMessageFactory.createSoapMessage(MockObjectCreator.getPublicKeyStringSearchRequest());
+		SoapMessage second = soapMessageFactory.createSoapMessage(MockObjectCreator.getPublicKeyStringSearchRequest());
+		first.addProperty("endpoint.url", "http://localhost:8081/ProvisioningGateway");
+
+		assertThat(first, not(sameInstance(second)));
+		assertThat(first.getBody(), is(second.getBody()));
+		assertThat(second.getPropertyValue("endpoint.url"), is(nullValue()));
+	}
+}
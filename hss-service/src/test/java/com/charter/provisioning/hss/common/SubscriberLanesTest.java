@@ -0,0 +1,262 @@
+package com.charter.provisioning.hss.common;
+
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class SubscriberLanesTest {
+
+	private final SubscriberLanes lanes = new SubscriberLanes(1024, 60000, 60000);
+
+	@After
+	public void shutdown() {
+		lanes.shutdown();
+	}
+
+	@Test
+	public void submit_SameIdentity_ExpectsOperationStartedAfterEarlierOneCompleted() throws Exception {
+
+		CompletableFuture<String> create = new CompletableFuture<>();
+		List<String> started = new ArrayList<>();
+
+		CompletableFuture<String> first = lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> {
+			started.add("create");
+			return create;
+		});
+		CompletableFuture<String> second = lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> {
+			started.add("delete");
+			return CompletableFuture.completedFuture("deleted");
+		});
+
+		assertThat(started.size(), is(1));
+		assertThat(second.isDone(), is(false));
+
+		create.complete("created");
+
+		assertThat(first.get(5, TimeUnit.SECONDS), is("created"));
+		assertThat(second.get(5, TimeUnit.SECONDS), is("deleted"));
+		assertThat(started.get(1), is("delete"));
+	}
+
+	@Test
+	public void submit_EarlierOperationFails_ExpectsNextOperationStarted() throws Exception {
+
+		CompletableFuture<String> create = new CompletableFuture<>();
+		lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+		CompletableFuture<String> second = lanes.submit(MockObjectCreator.PHONE_NUMBER,
+				() -> CompletableFuture.completedFuture("deleted"));
+
+		create.completeExceptionally(new ServiceException("Soap Exception occurred"));
+
+		assertThat(second.get(5, TimeUnit.SECONDS), is("deleted"));
+	}
+
+	@Test
+	public void submit_DifferentIdentities_ExpectsOperationsRunInParallel() throws Exception {
+
+		String other = "8582452001";
+		assertThat(lanes.stripe(other) == lanes.stripe(MockObjectCreator.PHONE_NUMBER), is(false));
+
+		CompletableFuture<String> create = new CompletableFuture<>();
+		lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+		CompletableFuture<String> second = lanes.submit(other, () -> CompletableFuture.completedFuture("created"));
+
+		assertThat(second.isDone(), is(true));
+		create.complete("created");
+	}
+
+	@Test
+	public void submit_OperationThrows_ExpectsFailedFutureAndLaneReleased() throws Exception {
+
+		CompletableFuture<String> failed = lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> {
+			throw new ServiceException("Too many requests in progress.");
+		});
+		CompletableFuture<String> next = lanes.submit(MockObjectCreator.PHONE_NUMBER,
+				() -> CompletableFuture.completedFuture("created"));
+
+		assertThat(failed.isCompletedExceptionally(), is(true));
+		assertThat(next.get(5, TimeUnit.SECONDS), is("created"));
+	}
+
+	@Test
+	public void submit_RunningOperationCancelled_ExpectsOperationCancelledAndLaneReleased() throws Exception {
+
+		CompletableFuture<String> create = new CompletableFuture<>();
+		CompletableFuture<String> first = lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+		CompletableFuture<String> second = lanes.submit(MockObjectCreator.PHONE_NUMBER,
+				() -> CompletableFuture.completedFuture("deleted"));
+
+		first.cancel(true);
+
+		assertThat(create.isCancelled(), is(true));
+		assertThat(second.get(5, TimeUnit.SECONDS), is("deleted"));
+	}
+
+	@Test
+	public void submit_RunningOperationCancelled_ExpectsLaneKeptUntilOperationStopped() throws Exception {
+
+		AtomicBoolean interrupted = new AtomicBoolean();
+		// completes only once its task returns, like a request pool task
+		CompletableFuture<String> create = new CompletableFuture<String>() {
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning) {
+				interrupted.set(mayInterruptIfRunning);
+				return true;
+			}
+		};
+		CompletableFuture<String> first = lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+		CompletableFuture<String> second = lanes.submit(MockObjectCreator.PHONE_NUMBER,
+				() -> CompletableFuture.completedFuture("deleted"));
+
+		first.cancel(true);
+
+		assertThat(first.isCancelled(), is(true));
+		assertThat(interrupted.get(), is(true));
+		assertThat(second.isDone(), is(false));
+
+		create.complete("created");
+		assertThat(second.get(5, TimeUnit.SECONDS), is("deleted"));
+	}
+
+	@Test
+	public void submit_QueuedOperationCancelled_ExpectsOperationNeverStartedAndLaneKeptForEarlierOne() throws Exception {
+
+		CompletableFuture<String> create = new CompletableFuture<>();
+		List<String> started = new ArrayList<>();
+		lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+		CompletableFuture<String> second = lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> {
+			started.add("delete");
+			return CompletableFuture.completedFuture("deleted");
+		});
+
+		second.cancel(true);
+		CompletableFuture<String> third = lanes.submit(MockObjectCreator.PHONE_NUMBER,
+				() -> CompletableFuture.completedFuture("created again"));
+
+		assertThat(third.isDone(), is(false));
+		create.complete("created");
+
+		assertThat(started.isEmpty(), is(true));
+		assertThat(third.get(5, TimeUnit.SECONDS), is("created again"));
+	}
+
+	@Test
+	public void submit_OperationNotCompletedInTime_ExpectsServiceUnavailableCancelledAndLaneReleased() throws Exception {
+
+		SubscriberLanes timed = new SubscriberLanes(16, 60000, 100);
+		try {
+			CompletableFuture<String> create = new CompletableFuture<>();
+			CompletableFuture<String> first = timed.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+			CompletableFuture<String> second = timed.submit(MockObjectCreator.PHONE_NUMBER,
+					() -> CompletableFuture.completedFuture("deleted"));
+
+			assertServiceUnavailable(first, "Request timed out.");
+			assertThat(create.isCancelled(), is(true));
+			assertThat(second.get(5, TimeUnit.SECONDS), is("deleted"));
+		} finally {
+			timed.shutdown();
+		}
+	}
+
+	@Test
+	public void submit_LaneNotFreedInTime_ExpectsServiceUnavailableWithoutStart() throws Exception {
+
+		SubscriberLanes timed = new SubscriberLanes(16, 100, 60000);
+		try {
+			CompletableFuture<String> create = new CompletableFuture<>();
+			List<String> started = new ArrayList<>();
+			timed.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+			CompletableFuture<String> second = timed.submit(MockObjectCreator.PHONE_NUMBER, () -> {
+				started.add("delete");
+				return CompletableFuture.completedFuture("deleted");
+			});
+
+			assertServiceUnavailable(second, "Timed out waiting for an earlier request of the same subscriber.");
+			create.complete("created");
+
+			assertThat(started.isEmpty(), is(true));
+			assertThat(timed.submit(MockObjectCreator.PHONE_NUMBER,
+					() -> CompletableFuture.completedFuture("deleted")).get(5, TimeUnit.SECONDS), is("deleted"));
+		} finally {
+			timed.shutdown();
+		}
+	}
+
+	@Test
+	public void bindTo_QueuedOperation_ExpectsContendedAndWaitRecorded() throws Exception {
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		lanes.bindTo(registry);
+
+		CompletableFuture<String> create = new CompletableFuture<>();
+		lanes.submit(MockObjectCreator.PHONE_NUMBER, () -> create);
+		CompletableFuture<String> second = lanes.submit(MockObjectCreator.PHONE_NUMBER,
+				() -> CompletableFuture.completedFuture("deleted"));
+		create.complete("created");
+		second.get(5, TimeUnit.SECONDS);
+
+		assertThat(registry.get("hss.subscriber.lane.contended").functionCounter().count(), is(1.0));
+		assertThat(registry.get("hss.subscriber.lane.wait").functionTimer().count(), is(2.0));
+	}
+
+	@Test
+	public void primaryIdentity_HuntGroupRequest_ExpectsHuntGroup() {
+
+		assertThat(lanes.primaryIdentity(MockObjectCreator.getHGDigitalPhone()), is("mlhg_409077"));
+		assertThat(lanes.primaryIdentity(MockObjectCreator.getHGDigitalPhoneWithSingleTerminalPublicIdentity()),
+				is("mlhg_409077"));
+	}
+
+	@Test
+	public void primaryIdentity_BusinessGroupRequest_ExpectsPickupGroup() {
+		assertThat(lanes.primaryIdentity(MockObjectCreator.getBGDigitalPhone()), is("pickup_group_123456"));
+	}
+
+	@Test
+	public void primaryIdentity_DigitalPhoneRequest_ExpectsFirstPublicIdentity() {
+		assertThat(lanes.primaryIdentity(MockObjectCreator.getDigitalPhone()),
+				is(MockObjectCreator.getPublicIdentitys().get(0).getUserId()));
+	}
+
+	@Test
+	public void primaryIdentity_NoIdentity_ExpectsNull() {
+		assertThat(lanes.primaryIdentity(DigitalPhone.builder().build()), is(nullValue()));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_ZeroStripes_ExpectsIllegalStateException() {
+		new SubscriberLanes(0, 60000, 60000);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_ZeroWaitTimeout_ExpectsIllegalStateException() {
+		new SubscriberLanes(16, 0, 60000);
+	}
+
+	private static void assertServiceUnavailable(CompletableFuture<String> result, String message) throws Exception {
+
+		try {
+			result.get(5, TimeUnit.SECONDS);
+			fail("Expected ServiceException");
+		} catch (ExecutionException e) {
+			ServiceException cause = (ServiceException) e.getCause();
+			assertThat(cause.getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+			assertThat(cause.getMessage(), is(message));
+		}
+	}
+}
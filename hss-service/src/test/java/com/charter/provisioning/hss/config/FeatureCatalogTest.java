@@ -0,0 +1,85 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.model.Features;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.GlobalFilterId;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class FeatureCatalogTest {
+
+	private final FeatureCatalog catalog = new FeatureCatalog(MockObjectCreator.getHssFeature(), "hssFilter");
+
+	@Test
+	public void getGlobalFilterIds_ResidentialCodes_ExpectsFilterIdsAndSuffixedPrefixesInCatalogOrder() throws Exception {
+
+		List<String> globalFilterIds = values(catalog.getGlobalFilterIds(Arrays.asList("DP01", "900"), "-DCA01q"));
+
+		assertThat(globalFilterIds, is(Arrays.asList("900COS", "CID", "MUT-DCA01q", "REG-DCA01q", "MO-DCA01q")));
+	}
+
+	@Test
+	public void getGlobalFilterIds_DuplicateAndUnknownCodes_ExpectsEachEntryOnce() throws Exception {
+
+		List<String> globalFilterIds = values(catalog.getGlobalFilterIds(Arrays.asList("INTL", "UNKNOWN", "INTL"), ""));
+
+		assertThat(globalFilterIds, is(Collections.singletonList("INTLCOS")));
+	}
+
+	@Test
+	public void getGlobalFilterIds_FilterActionNameInOtherCase_ExpectsValuesWithoutSuffix() throws Exception {
+
+		Features feature = new Features();
+		feature.setName("900");
+		feature.setActionName("HSSFILTER");
+		feature.setActionValue(Collections.singletonList("900COS"));
+		FeatureCatalog upperCase = new FeatureCatalog(Collections.singletonList(feature), "hssFilter");
+
+		assertThat(values(upperCase.getGlobalFilterIds(Collections.singletonList("900"), "-TAS")),
+				is(Collections.singletonList("900COS")));
+	}
+
+	@Test
+	public void getFeaturesByName_ConfiguredAndUnknownName_ExpectsCatalogEntries() throws Exception {
+
+		assertThat(catalog.getFeaturesByName("DP01").size(), is(2));
+		assertThat(catalog.getFeaturesByName("UNKNOWN").isEmpty(), is(true));
+		assertThat(catalog.size(), is(4));
+	}
+
+	@Test
+	public void getFeatureCatalog_IndexesBuilt_ExpectsCatalogOfBoundFeatures() throws Exception {
+
+		HssServiceConfig serviceConfig = new HssServiceConfig();
+		serviceConfig.setHssFilter("hssFilter");
+		serviceConfig.setFeatures(MockObjectCreator.getHssFeature());
+
+		assertThat(serviceConfig.getFeaturesByName("DP01").isEmpty(), is(true));
+
+		serviceConfig.buildIndexes();
+
+		assertThat(serviceConfig.getFeatureCatalog().size(), is(4));
+		assertThat(serviceConfig.getFeaturesByName("DP01").size(), is(2));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getFeatures_ModifiedAfterIndexesBuilt_ExpectsUnsupportedOperationException() throws Exception {
+
+		HssServiceConfig serviceConfig = new HssServiceConfig();
+		serviceConfig.setFeatures(MockObjectCreator.getHssFeature());
+		serviceConfig.buildIndexes();
+
+		serviceConfig.getFeatures().clear();
+	}
+
+	private static List<String> values(List<GlobalFilterId> globalFilterIds) {
+		return globalFilterIds.stream().map(GlobalFilterId::getGlobalFilterId).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,65 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.model.PackageClass;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HssServiceConfigTest {
+
+	private HssServiceConfig serviceConfig;
+
+	@Before
+	public void setup() throws Exception {
+
+		HashMap<String, String> packages = new HashMap<>();
+		packages.put("DP01", "Residential");
+		packages.put("BC01", "Commercial");
+		packages.put("BC02", "RCF");
+		packages.put("BC05", "residential");
+
+		serviceConfig = new HssServiceConfig();
+		serviceConfig.setPackages(packages);
+		serviceConfig.buildIndexes();
+	}
+
+	@Test
+	public void classify_ConfiguredPackages_ExpectsPackageClass() throws Exception {
+
+		assertThat(serviceConfig.classify("DP01"), is(PackageClass.RESIDENTIAL));
+		assertThat(serviceConfig.classify("BC01"), is(PackageClass.COMMERCIAL));
+		assertThat(serviceConfig.classify("BC02"), is(PackageClass.RCF));
+	}
+
+	@Test
+	public void classify_UnknownOrMismatchedPackage_ExpectsUnclassified() throws Exception {
+
+		assertThat(serviceConfig.classify("BC05"), is(PackageClass.UNCLASSIFIED));
+		assertThat(serviceConfig.classify("XX99"), is(PackageClass.UNCLASSIFIED));
+		assertThat(serviceConfig.classify(null), is(PackageClass.UNCLASSIFIED));
+	}
+
+	@Test
+	public void isResidentialService_ConfiguredPackages_ExpectsPackageClassChecks() throws Exception {
+
+		assertThat(serviceConfig.isResidentialService("DP01"), is(true));
+		assertThat(serviceConfig.isCommercialService("BC01"), is(true));
+		assertThat(serviceConfig.isFeaturePackageRCF("BC02"), is(true));
+		assertThat(serviceConfig.isResidentialService("BC01"), is(false));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void getPackages_ModifiedAfterIndexesBuilt_ExpectsUnsupportedOperationException() throws Exception {
+		serviceConfig.getPackages().put("DP01", "Commercial");
+	}
+
+	@Test
+	public void classify_NoPackagesConfigured_ExpectsUnclassified() throws Exception {
+
+		assertThat(new HssServiceConfig().classify("DP01"), is(PackageClass.UNCLASSIFIED));
+	}
+}
@@ -0,0 +1,104 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.model.ConnectionPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.HttpHost;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HttpClientConfigTest {
+
+	private HttpClientConfig httpClientConfig = new HttpClientConfig();
+
+	@Mock
+	private HssServiceConfig serviceConfig;
+
+	@Before
+	public void setup() throws Exception {
+
+		ConnectionPool pool = new ConnectionPool();
+		pool.setMaxTotal(50);
+		pool.setMaxPerRoute(20);
+		pool.setTimeToLive(60000);
+		pool.setIdleTimeout(30000);
+		pool.setConnectTimeout(5000);
+		pool.setSocketTimeout(30000);
+		pool.setConnectionRequestTimeout(5000);
+		pool.setResponseThreads(2);
+		when(serviceConfig.getConnectionPool()).thenReturn(pool);
+	}
+
+	@Test
+	public void hssConnectionManager_CreatePoolFromConfig_ExpectsConfiguredLimits() throws Exception {
+
+		PoolingNHttpClientConnectionManager connectionManager = httpClientConfig.hssConnectionManager(serviceConfig);
+
+		assertThat(connectionManager.getMaxTotal(), is(50));
+		assertThat(connectionManager.getDefaultMaxPerRoute(), is(20));
+		assertThat(connectionManager.getMaxPerRoute(new HttpRoute(new HttpHost("localhost", 8081))), is(20));
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void hssHttpClient_CreateClientFromPool_ExpectsStartedClient() throws Exception {
+
+		PoolingNHttpClientConnectionManager connectionManager = httpClientConfig.hssConnectionManager(serviceConfig);
+
+		try (CloseableHttpAsyncClient client = httpClientConfig.hssHttpClient(connectionManager, serviceConfig)) {
+			assertThat(client.isRunning(), is(true));
+		}
+	}
+
+	@Test
+	public void hssResponseExecutor_CreateFromConfig_ExpectsNamedThreadsAndQueueBoundedByMaxTotal() throws Exception {
+
+		ExecutorService responseExecutor = httpClientConfig.hssResponseExecutor(serviceConfig);
+
+		assertThat(responseExecutor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS),
+				is("hss-response-1"));
+		assertThat(((ThreadPoolExecutor) responseExecutor).getQueue().remainingCapacity(), is(50));
+		responseExecutor.shutdownNow();
+	}
+
+	@Test
+	public void hssConnectionEvictor_SchedulePoolEviction_ExpectsRunningEvictor() throws Exception {
+
+		PoolingNHttpClientConnectionManager connectionManager = httpClientConfig.hssConnectionManager(serviceConfig);
+		ScheduledExecutorService evictor = httpClientConfig.hssConnectionEvictor(serviceConfig, connectionManager);
+
+		assertThat(evictor.isShutdown(), is(false));
+		evictor.shutdownNow();
+		connectionManager.shutdown();
+	}
+
+	@Test
+	public void hssConnectionPoolMetrics_BindPoolStats_ExpectsLeasedPendingAvailableGauges() throws Exception {
+
+		PoolingNHttpClientConnectionManager connectionManager = httpClientConfig.hssConnectionManager(serviceConfig);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+		httpClientConfig.hssConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+		assertThat(registry.get("hss.http.pool.leased").gauge().value(), is(0.0));
+		assertThat(registry.get("hss.http.pool.pending").gauge().value(), is(0.0));
+		assertThat(registry.get("hss.http.pool.available").gauge().value(), is(0.0));
+		assertThat(registry.get("hss.http.pool.max").gauge().value(), is(50.0));
+		connectionManager.shutdown();
+	}
+}
@@ -0,0 +1,138 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.common.SoapEnvelopeReader;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.ModifyRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SearchRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Alias;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Base;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.GlobalFilterId;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Match;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Modification;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.ValueObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Runs the same requests and responses through both SpmlCodec implementations,
+ * the xml written and the objects read have to be identical.
+ */
+public class SpmlCodecConformanceTest {
+
+	private XStreamSpmlCodec xstreamCodec;
+
+	private StaxSpmlCodec staxCodec;
+
+	@Before
+	public void setup() throws Exception {
+
+		SpmlConfig spmlConfig = MockObjectCreator.getSpmlConfig();
+		HssServiceConfig serviceConfig = new HssServiceConfig();
+		serviceConfig.setDefault_subscriber_ns("urn:siemens:names:prov:gw:HSS_SUBSCRIBER:8:2");
+
+		xstreamCodec = new XStreamSpmlCodec(spmlConfig, serviceConfig);
+		staxCodec = new StaxSpmlCodec(spmlConfig);
+	}
+
+	@Test
+	public void marshall_RequestCorpus_ExpectsIdenticalXML() throws Exception {
+
+		for (Object request : requests()) {
+			assertThat(staxCodec.marshall(request), is(xstreamCodec.marshall(request)));
+		}
+	}
+
+	@Test
+	public void marshall_RequestCorpusToOutputStream_ExpectsIdenticalBytes() throws Exception {
+
+		for (Object request : requests()) {
+			ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			ByteArrayOutputStream actual = new ByteArrayOutputStream();
+			xstreamCodec.marshall(request, expected);
+			staxCodec.marshall(request, actual);
+			assertThat(new String(actual.toByteArray(), StandardCharsets.UTF_8),
+					is(new String(expected.toByteArray(), StandardCharsets.UTF_8)));
+		}
+	}
+
+	@Test
+	public void unmarshall_ResponseCorpus_ExpectsIdenticalObjects() throws Exception {
+
+		for (String response : responses()) {
+			SpmlResponse expected = xstreamCodec.unmarshall(response);
+			SpmlResponse actual = staxCodec.unmarshall(response);
+			assertThat(actual, is(notNullValue()));
+			// compare the complete object graphs through the same writer
+			assertThat(xstreamCodec.marshall(actual), is(xstreamCodec.marshall(expected)));
+		}
+	}
+
+	@Test
+	public void unmarshall_EmptyResponse_ExpectsNullFromBoth() throws Exception {
+
+		assertThat(staxCodec.unmarshall(""), is(xstreamCodec.unmarshall("")));
+		assertThat(staxCodec.unmarshall(null), is(xstreamCodec.unmarshall(null)));
+	}
+
+	private static List<Object> requests() {
+
+		Modification removeProfile = Modification.builder().operation("remove").name("hss/serviceProfile")
+				.scope("uniqueTypeMapping").match(Match.builder().type("subscriber:ServiceProfile")
+						.xmlnsXSI("http://www.w3.org/2001/XMLSchema-instance").profileName("sp1601409354118132").build())
+				.build();
+		Modification addFilters = Modification.builder().operation("setoradd")
+				.valueObject(ValueObject.builder().type("subscriber:ServiceProfile")
+						.globalFilterId(Arrays.asList(GlobalFilterId.builder().globalFilterId("MUT-CTS").build(),
+								GlobalFilterId.builder().globalFilterId("A&B <\"CTS\">").build()))
+						.build())
+				.build();
+		ModifyRequest modifyRequest = ModifyRequest.builder().subscriber("urn:siemens:names:prov:gw:HSS_SUBSCRIBER:8:2")
+				.xsi("http://www.w3.org/2001/XMLSchema-instance").language("en_us").returnResultingObject("none")
+				.version("HSS_SUBSCRIBER_v82").objectclass("Subscriber").identifier(MockObjectCreator.SUBSCRIBER_ID)
+				.modification(Arrays.asList(removeProfile, addFilters)).build();
+
+		SearchRequest aliasTypeRequest = SearchRequest.builder().xsi("http://www.w3.org/2001/XMLSchema-instance")
+				.language("en_us").version("HSS_SUBSCRIBER_v82")
+				.base(Base.builder().objectclass("Subscriber")
+						.alias(Alias.builder().name("impi").xsiType("string").value("219BF751A12481C6@ims.eng.rr.com")
+								.build())
+						.build())
+				.build();
+
+		return Arrays.asList(MockObjectCreator.getSearchRequestForPublicIdentity(),
+				MockObjectCreator.getSearchRequestForPrivateIdentity(), aliasTypeRequest,
+				MockObjectCreator.getAddRequest(), MockObjectCreator.getHGAddRequest(),
+				AddRequest.builder().version("HSS_SUBSCRIBER_v82").object(MockObjectCreator.getSubscriberWithMultiplePublicUserIds()).build(),
+				MockObjectCreator.getHGModifyRequest(), MockObjectCreator.getHGModifyRequestWithModification(),
+				MockObjectCreator.getModifyRequestWithModification(), modifyRequest,
+				MockObjectCreator.getDeleteRequest(), DeleteRequest.builder().build());
+	}
+
+	private static List<String> responses() throws Exception {
+
+		String searchResponse = SoapEnvelopeReader.readPayload(
+				new ByteArrayInputStream(MockObjectCreator.getStringSearchResponse().getBytes(StandardCharsets.UTF_8)));
+
+		return Arrays.asList(searchResponse, MockObjectCreator.getStringModifyResponse(),
+				MockObjectCreator.getStringAddFailedResponse(),
+				"<spml:deleteResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" executionTime=\"5\" "
+						+ "requestID=\"-730f14c4:1638663eead:7da6\" result=\"success\"><version>HSS_SUBSCRIBER_v82</version>"
+						+ "<identifier>14786136245232146014940388441980</identifier></spml:deleteResponse>",
+				"<spml:searchResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" result=\"failure\" "
+						+ "searchStatus=\"completeResult\"><errorMessage>No object found &amp; nothing deleted"
+						+ "</errorMessage></spml:searchResponse>");
+	}
+}
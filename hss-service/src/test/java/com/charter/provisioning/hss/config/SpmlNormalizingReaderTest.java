@@ -0,0 +1,75 @@
+package com.charter.provisioning.hss.config;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class SpmlNormalizingReaderTest {
+
+	private static XMLStreamReader createReader(String xml) throws Exception {
+
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty("http://java.sun.com/xml/stream/properties/report-cdata-event", Boolean.TRUE);
+		return new SpmlNormalizingReader(factory.createXMLStreamReader(new StringReader(xml)), "xsi:type", "type",
+				"spml:");
+	}
+
+	@Test
+	public void next_ReadCdataSection_ExpectsNormalizedCharacters() throws Exception {
+
+		XMLStreamReader reader = createReader("<errorMessage><![CDATA[spml:object xsi:type exists]]></errorMessage>");
+		reader.nextTag();
+
+		assertThat(reader.next(), is(XMLStreamConstants.CHARACTERS));
+		assertThat(reader.getEventType(), is(XMLStreamConstants.CHARACTERS));
+		assertThat(reader.getText(), is("object type exists"));
+		assertThat(new String(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength()),
+				is("object type exists"));
+	}
+
+	@Test
+	public void getAttributeValue_ReadPrefixedValue_ExpectsPrefixRemoved() throws Exception {
+
+		XMLStreamReader reader = createReader("<objects kind=\"spml:Subscriber\" other=\"ns2:Subscriber\"/>");
+		reader.nextTag();
+
+		assertThat(reader.getAttributeValue(0), is("Subscriber"));
+		assertThat(reader.getAttributeValue(null, "other"), is("ns2:Subscriber"));
+		assertThat(reader.getAttributeValue(null, "missing"), is(nullValue()));
+	}
+
+	@Test
+	public void getElementText_ReadPlainText_ExpectsUnchangedText() throws Exception {
+
+		XMLStreamReader reader = createReader("<identifier>13718275614005466511585250035104</identifier>");
+		reader.nextTag();
+
+		assertThat(reader.getElementText(), is("13718275614005466511585250035104"));
+	}
+
+	@Test
+	public void normalize_ValueWithoutPrefixes_ExpectsSameInstance() throws Exception {
+
+		SpmlNormalizingReader reader = (SpmlNormalizingReader) createReader("<version/>");
+		String value = "HSS_SUBSCRIBER_v82";
+
+		assertThat(reader.normalize(value), is(sameInstance(value)));
+	}
+
+	@Test
+	public void normalize_EmptyConfiguration_ExpectsNoReplacement() throws Exception {
+
+		SpmlNormalizingReader reader = new SpmlNormalizingReader(
+				XMLInputFactory.newInstance().createXMLStreamReader(new StringReader("<version/>")), null, "type", "");
+
+		assertThat(reader.normalize("spml:xsi:type"), is("spml:xsi:type"));
+	}
+}
@@ -0,0 +1,55 @@
+package com.charter.provisioning.hss.config;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class StaxSpmlCodecTest {
+
+	private StaxSpmlCodec staxCodec;
+
+	@Before
+	public void setup() throws Exception {
+		staxCodec = new StaxSpmlCodec(MockObjectCreator.getSpmlConfig());
+	}
+
+	@Test
+	public void marshall_MarshallDeleteRequest_ExpectsSortedAttributes() throws Exception {
+
+		String marshallString = staxCodec.marshall(MockObjectCreator.getDeleteRequest());
+		assertThat(marshallString, containsString("<spml:deleteRequest xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" "
+				+ "deleteScope=\"all\" execution=\"synchronous\">"));
+	}
+
+	@Test(expected = ServiceException.class)
+	public void marshall_MarshallUnsupportedObject_ExpectsServiceException() throws Exception {
+		staxCodec.marshall(MockObjectCreator.getSubscriber());
+	}
+
+	@Test
+	public void unmarshall_UnmarshallResponseWithUnknownElement_ExpectsElementSkipped() throws Exception {
+
+		SpmlResponse response = staxCodec.unmarshall("<spml:addResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\" "
+				+ "result=\"success\"><extension><identifier>ignored</identifier></extension>"
+				+ "<identifier>14786136245232146014940388441980</identifier></spml:addResponse>");
+
+		assertThat(response.getResult(), is("success"));
+		assertThat(response.getIdentifier(), is("14786136245232146014940388441980"));
+	}
+
+	@Test(expected = ServiceException.class)
+	public void unmarshall_UnmarshallUnknownRootElement_ExpectsServiceException() throws Exception {
+		staxCodec.unmarshall("<spml:listResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\"/>");
+	}
+
+	@Test(expected = ServiceException.class)
+	public void unmarshall_UnmarshallMalformedXML_ExpectsServiceException() throws Exception {
+		staxCodec.unmarshall("<spml:addResponse xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\">");
+	}
+}
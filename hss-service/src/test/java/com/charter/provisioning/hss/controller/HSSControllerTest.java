@@ -1,113 +1,337 @@
-package com.charter.provisioning.hss.controller;
-
-import com.charter.provisioning.hss.common.MockObjectCreator;
-import com.charter.provisioning.hss.exception.ErrorResponse;
-import com.charter.provisioning.hss.exception.ServiceException;
-import com.charter.provisioning.hss.model.DigitalPhoneResponse;
-import com.charter.provisioning.hss.service.DigitalPhoneService;
-import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.mock.web.MockHttpServletResponse;
-
-import javax.servlet.http.HttpServletResponse;
-
-import static org.hamcrest.CoreMatchers.is;
-import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.when;
-
-@RunWith(MockitoJUnitRunner.class)
-public class HSSControllerTest {
-
-	@InjectMocks
-	private HSSController controller;
-
-	@Mock
-	private DigitalPhoneService digitalPhoneService;
-
-	@Test
-	public void createSubscriber_CreateSubscriberWithValidInput_ExpectsDigitalPhoneResponse() throws Exception {
-
-		when(digitalPhoneService.createSubscriber(MockObjectCreator.createDigitalPhoneRequest(),
-				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
-
-		ResponseEntity<DigitalPhoneResponse> responseEntity = controller
-				.createSubscriber(MockObjectCreator.CORRELATION_ID, MockObjectCreator.createDigitalPhoneRequest());
-
-		assertThat(responseEntity.getStatusCode(), is(HttpStatus.CREATED));
-		assertThat(responseEntity.getBody(), is(MockObjectCreator.createSuccessDigitalPhoneResponse()));
-	}
-
-	@Test
-	public void deleteSubscriber_DeleteSubscriberWithValidInput_ExpectsDigitalPhoneResponse() throws Exception {
-
-		when(digitalPhoneService.deleteSubscriber(MockObjectCreator.createDigitalPhoneRequest(),
-				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
-
-		ResponseEntity<?> responseEntity = controller.deleteSubscriber(MockObjectCreator.PHONE_NUMBER,
-				MockObjectCreator.CORRELATION_ID, MockObjectCreator.createDigitalPhoneRequest());
-
-		assertThat(responseEntity.getStatusCode(), is(HttpStatus.NO_CONTENT));
-	}
-
-	@Test
-	public void getDigitalPhone_getDigitalPhoneSubscriberWithTelephoneNumber_ExpectsSubscriberObject()
-			throws Exception {
-
-		when(digitalPhoneService.getDigitalPhoneSubscriber(MockObjectCreator.PHONE_NUMBER, null, null,
-				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getSubscriber());
-
-		ResponseEntity<Subscriber> responseEntity = controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID,
-				MockObjectCreator.PHONE_NUMBER, null, null);
-
-		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
-		assertThat(responseEntity.getBody(), is(MockObjectCreator.getSubscriber()));
-	}
-
-	@Test
-	public void getDigitalPhone_getDigitalPhoneSubscriberWithControllerId_ExpectsSubscriberObject() throws Exception {
-
-		when(digitalPhoneService.getDigitalPhoneSubscriber(null, MockObjectCreator.NATIONAL_PUBLIC_IDENTITY, null,
-				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getSubscriber());
-
-		ResponseEntity<Subscriber> responseEntity = controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, null,
-				MockObjectCreator.NATIONAL_PUBLIC_IDENTITY, null);
-
-		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
-		assertThat(responseEntity.getBody(), is(MockObjectCreator.getSubscriber()));
-	}
-
-	@Test
-	public void getDigitalPhone_getDigitalPhoneSubscriberWithPrivateIdentity_ExpectsSubscriberObject()
-			throws Exception {
-
-		when(digitalPhoneService.getDigitalPhoneSubscriber(null, null, MockObjectCreator.PRIVATE_IDENTITY,
-				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getSubscriber());
-
-		ResponseEntity<Subscriber> responseEntity = controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, null,
-				null, MockObjectCreator.PRIVATE_IDENTITY);
-
-		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
-		assertThat(responseEntity.getBody(), is(MockObjectCreator.getSubscriber()));
-	}
-
-	@Test
-	public void handleException_ServiceException_ExpectsErrorResponse() {
-
-		MockHttpServletResponse response = new MockHttpServletResponse();
-		response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-
-		String errorMessage = "Invalid site :DV8, Invalid phone number :821632888611.";
-		ServiceException hcee = new ServiceException(HttpServletResponse.SC_BAD_REQUEST, errorMessage);
-
-		ErrorResponse errorResponse = controller.handleException(response, hcee);
-
-		assertThat(Integer.parseInt(errorResponse.getStatus()), is(HttpServletResponse.SC_BAD_REQUEST));
-		assertThat((errorResponse).getMessage(), is(errorMessage));
-	}
-}
+package com.charter.provisioning.hss.controller;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.common.RequestExecutor;
+import com.charter.provisioning.hss.common.ServiceConstants;
+import com.charter.provisioning.hss.common.SubscriberLanes;
+import com.charter.provisioning.hss.exception.ErrorResponse;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.BatchItemResponse;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse;
+import com.charter.provisioning.hss.model.SubscriberLookupRequest;
+import com.charter.provisioning.hss.model.SubscriberLookupResponse;
+import com.charter.provisioning.hss.service.BatchProvisioningService;
+import com.charter.provisioning.hss.service.DigitalPhoneService;
+import com.charter.provisioning.hss.service.SubscriberLookupService;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HSSControllerTest {
+
+	@InjectMocks
+	private HSSController controller;
+
+	@Mock
+	private DigitalPhoneService digitalPhoneService;
+
+	@Spy
+	private RequestExecutor requestExecutor = new RequestExecutor(MockObjectCreator.getExecutorSettings(1, 1));
+
+	@Spy
+	private SubscriberLanes subscriberLanes = new SubscriberLanes(16, 60000, 60000);
+
+	@Mock
+	private BatchProvisioningService batchProvisioningService;
+
+	@Mock
+	private SubscriberLookupService subscriberLookupService;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper();
+
+	@After
+	public void shutdown() {
+		requestExecutor.shutdown();
+	}
+
+	@Test
+	public void createSubscriber_CreateSubscriberWithValidInput_ExpectsDigitalPhoneResponse() throws Exception {
+
+		when(digitalPhoneService.createSubscriber(MockObjectCreator.createDigitalPhoneRequest(),
+				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
+
+		ResponseEntity<DigitalPhoneResponse> responseEntity = await(controller
+				.createSubscriber(MockObjectCreator.CORRELATION_ID, MockObjectCreator.createDigitalPhoneRequest()));
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.CREATED));
+		assertThat(responseEntity.getBody(), is(MockObjectCreator.createSuccessDigitalPhoneResponse()));
+	}
+
+	@Test
+	public void deleteSubscriber_DeleteSubscriberWithValidInput_ExpectsDigitalPhoneResponse() throws Exception {
+
+		when(digitalPhoneService.deleteSubscriber(MockObjectCreator.createDigitalPhoneRequest(),
+				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
+
+		ResponseEntity<?> responseEntity = await(controller.deleteSubscriber(MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.CORRELATION_ID, MockObjectCreator.createDigitalPhoneRequest()));
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.NO_CONTENT));
+	}
+
+	@Test
+	public void getDigitalPhone_getDigitalPhoneSubscriberWithTelephoneNumber_ExpectsSubscriberObject()
+			throws Exception {
+
+		when(digitalPhoneService.getDigitalPhoneSubscriber(MockObjectCreator.PHONE_NUMBER, null, null,
+				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getSubscriber());
+
+		ResponseEntity<Subscriber> responseEntity = await(controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID,
+				MockObjectCreator.PHONE_NUMBER, null, null));
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+		assertThat(responseEntity.getBody(), is(MockObjectCreator.getSubscriber()));
+	}
+
+	@Test
+	public void getDigitalPhone_getDigitalPhoneSubscriberWithControllerId_ExpectsSubscriberObject() throws Exception {
+
+		when(digitalPhoneService.getDigitalPhoneSubscriber(null, MockObjectCreator.NATIONAL_PUBLIC_IDENTITY, null,
+				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getSubscriber());
+
+		ResponseEntity<Subscriber> responseEntity = await(controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, null,
+				MockObjectCreator.NATIONAL_PUBLIC_IDENTITY, null));
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+		assertThat(responseEntity.getBody(), is(MockObjectCreator.getSubscriber()));
+	}
+
+	@Test
+	public void getDigitalPhone_getDigitalPhoneSubscriberWithPrivateIdentity_ExpectsSubscriberObject()
+			throws Exception {
+
+		when(digitalPhoneService.getDigitalPhoneSubscriber(null, null, MockObjectCreator.PRIVATE_IDENTITY,
+				MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getSubscriber());
+
+		ResponseEntity<Subscriber> responseEntity = await(controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, null,
+				null, MockObjectCreator.PRIVATE_IDENTITY));
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+		assertThat(responseEntity.getBody(), is(MockObjectCreator.getSubscriber()));
+	}
+
+	@Test
+	public void handleException_ServiceException_ExpectsErrorResponse() {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+
+		String errorMessage = "Invalid site :DV8, Invalid phone number :821632888611.";
+		ServiceException hcee = new ServiceException(HttpServletResponse.SC_BAD_REQUEST, errorMessage);
+
+		ErrorResponse errorResponse = controller.handleException(response, hcee);
+
+		assertThat(Integer.parseInt(errorResponse.getStatus()), is(HttpServletResponse.SC_BAD_REQUEST));
+		assertThat((errorResponse).getMessage(), is(errorMessage));
+	}
+
+	@Test
+	public void handleException_CompletionException_ExpectsErrorResponseOfCause() {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		String errorMessage = "Subscriber not found.";
+		ServiceException hcee = new ServiceException(HttpServletResponse.SC_NOT_FOUND, errorMessage);
+
+		ErrorResponse errorResponse = controller.handleException(response, new CompletionException(hcee));
+
+		assertThat(response.getStatus(), is(HttpServletResponse.SC_NOT_FOUND));
+		assertThat(Integer.parseInt(errorResponse.getStatus()), is(HttpServletResponse.SC_NOT_FOUND));
+		assertThat(errorResponse.getMessage(), is(errorMessage));
+	}
+
+	@Test
+	public void getDigitalPhone_ServiceThrowsServiceException_ExpectsFailedFuture() throws Exception {
+
+		ServiceException hcee = new ServiceException(HttpServletResponse.SC_NOT_FOUND, "Subscriber not found.");
+		when(digitalPhoneService.getDigitalPhoneSubscriber(MockObjectCreator.PHONE_NUMBER, null, null,
+				MockObjectCreator.CORRELATION_ID)).thenThrow(hcee);
+
+		try {
+			await(controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, MockObjectCreator.PHONE_NUMBER, null,
+					null));
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), is(hcee));
+		}
+	}
+
+	@Test
+	public void getDigitalPhone_RequestPoolSaturated_ExpectsServiceUnavailable() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		when(digitalPhoneService.getDigitalPhoneSubscriber(MockObjectCreator.PHONE_NUMBER, null, null,
+				MockObjectCreator.CORRELATION_ID)).thenAnswer(invocation -> {
+					release.await();
+					return MockObjectCreator.getSubscriber();
+				});
+
+		// one request running and one queued fill the pool
+		controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, MockObjectCreator.PHONE_NUMBER, null, null);
+		controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, MockObjectCreator.PHONE_NUMBER, null, null);
+
+		try {
+			await(controller.getDigitalPhone(MockObjectCreator.CORRELATION_ID, MockObjectCreator.PHONE_NUMBER, null,
+					null));
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertThat(((ServiceException) e.getCause()).getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void getDigitalPhone_AsyncRequestTimesOut_ExpectsServiceUnavailableAndRequestThreadReleased() throws Exception {
+
+		CountDownLatch interrupted = new CountDownLatch(1);
+		when(digitalPhoneService.getDigitalPhoneSubscriber(MockObjectCreator.PHONE_NUMBER, null, null,
+				MockObjectCreator.CORRELATION_ID)).thenAnswer(invocation -> {
+					try {
+						new CountDownLatch(1).await();
+					} catch (InterruptedException e) {
+						interrupted.countDown();
+					}
+					return null;
+				});
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+		MvcResult mvcResult = mockMvc.perform(get("/digital-phones").header("transaction-id", MockObjectCreator.CORRELATION_ID)
+				.param("telephone-number", MockObjectCreator.PHONE_NUMBER)).andExpect(request().asyncStarted()).andReturn();
+		MockAsyncContext asyncContext = (MockAsyncContext) mvcResult.getRequest().getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+
+		mockMvc.perform(asyncDispatch(mvcResult)).andExpect(status().isServiceUnavailable())
+				.andExpect(jsonPath("$.message").value("Request timed out."));
+		assertThat(interrupted.await(5, TimeUnit.SECONDS), is(true));
+	}
+
+	@Test
+	public void handleException_AsyncRequestTimeoutException_ExpectsServiceUnavailable() {
+
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		ErrorResponse errorResponse = controller.handleException(response, new AsyncRequestTimeoutException());
+
+		assertThat(response.getStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		assertThat(errorResponse.getMessage(), is("Request timed out."));
+	}
+
+	@Test
+	public void provisionBatch_ValidInput_ExpectsNdjsonResponseWithItemResults() throws Exception {
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setContent("[]".getBytes());
+		BatchItemResponse result = BatchItemResponse.builder().index(0).identity(MockObjectCreator.PHONE_NUMBER)
+				.httpStatus(HttpServletResponse.SC_CREATED)
+				.response(MockObjectCreator.createSuccessDigitalPhoneResponse()).build();
+
+		when(batchProvisioningService.getTimeout()).thenReturn(60000L);
+		when(batchProvisioningService.provision(any(), eq(MockObjectCreator.CORRELATION_ID), any()))
+				.thenAnswer(invocation -> {
+					invocation.<Consumer<BatchItemResponse>>getArgument(2).accept(result);
+					return CompletableFuture.completedFuture(1);
+				});
+
+		ResponseEntity<ResponseBodyEmitter> responseEntity = controller
+				.provisionBatch(MockObjectCreator.CORRELATION_ID, request);
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+		assertThat(responseEntity.getHeaders().getContentType(), is(MediaType.valueOf(ServiceConstants.NDJSON)));
+		assertThat(responseEntity.getBody().getTimeout(), is(60000L));
+		verify(objectMapper).writeValueAsString(result);
+	}
+
+	@Test
+	public void lookupSubscribers_ValidInput_ExpectsNdjsonResponseWithLookupResults() throws Exception {
+
+		SubscriberLookupRequest lookupRequest = SubscriberLookupRequest.builder()
+				.telephoneNumbers(Collections.singletonList(MockObjectCreator.PHONE_NUMBER)).build();
+		SubscriberLookupResponse result = SubscriberLookupResponse.builder()
+				.identityType(SubscriberLookupResponse.IdentityType.TELEPHONE_NUMBER)
+				.identity(MockObjectCreator.PHONE_NUMBER).httpStatus(HttpServletResponse.SC_NOT_FOUND)
+				.message("Subscriber Not found").build();
+
+		when(subscriberLookupService.getTimeout()).thenReturn(60000L);
+		when(subscriberLookupService.lookup(eq(lookupRequest), eq(MockObjectCreator.CORRELATION_ID), any()))
+				.thenAnswer(invocation -> {
+					invocation.<Consumer<SubscriberLookupResponse>>getArgument(2).accept(result);
+					return CompletableFuture.completedFuture(1);
+				});
+
+		ResponseEntity<ResponseBodyEmitter> responseEntity = controller
+				.lookupSubscribers(MockObjectCreator.CORRELATION_ID, lookupRequest);
+
+		assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+		assertThat(responseEntity.getHeaders().getContentType(), is(MediaType.valueOf(ServiceConstants.NDJSON)));
+		verify(objectMapper).writeValueAsString(result);
+	}
+
+	@Test(expected = ServiceException.class)
+	public void lookupSubscribers_NoIdentity_ExpectsServiceException() {
+
+		SubscriberLookupRequest lookupRequest = SubscriberLookupRequest.builder().build();
+		when(subscriberLookupService.getTimeout()).thenReturn(60000L);
+		when(subscriberLookupService.lookup(eq(lookupRequest), eq(MockObjectCreator.CORRELATION_ID), any()))
+				.thenThrow(new ServiceException(HttpServletResponse.SC_BAD_REQUEST, "No input passed"));
+
+		controller.lookupSubscribers(MockObjectCreator.CORRELATION_ID, lookupRequest);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T await(DeferredResult<T> deferredResult) throws Exception {
+
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		deferredResult.setResultHandler(result::complete);
+		Object value = result.get(5, TimeUnit.SECONDS);
+		if (value instanceof Throwable)
+			throw new ExecutionException((Throwable) value);
+		return (T) value;
+	}
+}
@@ -1,51 +1,187 @@
-package com.charter.provisioning.hss.external;
-
-import static org.mockito.Mockito.when;
-
-import org.hamcrest.CoreMatchers;
-import org.junit.Assert;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
-
-import com.charter.provisioning.hss.common.MockObjectCreator;
-import com.charter.provisioning.hss.config.HssServiceConfig;
-import com.charter.provisioning.hss.exception.SoapServiceException;
-
-@RunWith(MockitoJUnitRunner.class)
-public class HSSSubscriberProxyTest {
-
-	@InjectMocks
-	private HSSSubscriberProxy proxy;
-	
-	@Mock
-	private HssServiceConfig serviceConfig;
-	
-	@Test
-	public void sendAndReceive_CallHSSSubscriber_ExceptsSuccessResponse() throws Exception {
-		
-		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
-		when(serviceConfig.getTxId()).thenReturn("transaction.id");
-		when(serviceConfig.getUser()).thenReturn("endpoint.username");
-		when(serviceConfig.getPassword()).thenReturn("endpoint.password");
-		
-		String response = proxy.sendAndReceive(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID);
-		Assert.assertThat(response, CoreMatchers.containsString("result=\"success\""));
-	}
-	
-	@Test
-	public void sendAndReceive_CallHSSSubscriberWithoutHttpContext_ExceptsSuccessResponse() throws Exception {
-		
-		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
-		
-		String response = proxy.sendAndReceive(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID);
-		Assert.assertThat(response, CoreMatchers.containsString("result=\"success\""));
-	}
-	
-	@Test(expected = SoapServiceException.class)
-	public void sendAndReceive_WithInvalidInput_ExceptsSoapServiceException() throws Exception {
-		proxy.sendAndReceive(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID);
-	}
-}
+package com.charter.provisioning.hss.external;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.protocol.HttpContext;
+import org.hamcrest.CoreMatchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.SoapFaultException;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HSSSubscriberProxyTest {
+
+	private HSSSubscriberProxy proxy;
+
+	@Mock
+	private HssServiceConfig serviceConfig;
+
+	@Mock
+	private HttpAsyncClient hssHttpClient;
+
+	private ExecutorService responseExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "hss-response-1"));
+
+	@Before
+	public void setup() {
+		proxy = new HSSSubscriberProxy(serviceConfig, hssHttpClient, responseExecutor);
+	}
+
+	@After
+	public void shutdown() {
+		responseExecutor.shutdownNow();
+	}
+
+	@Test
+	public void sendAndReceiveAsync_CallHSSSubscriber_ExceptsSuccessResponse() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		when(serviceConfig.getTxId()).thenReturn("transaction.id");
+		when(serviceConfig.getUser()).thenReturn("endpoint.username");
+		when(serviceConfig.getPassword()).thenReturn("endpoint.password");
+		respondWith(createHttpResponse(200, MockObjectCreator.getStringSearchResponse()));
+
+		String response = send();
+		Assert.assertThat(response, CoreMatchers.containsString("result=\"success\""));
+	}
+
+	@Test
+	public void sendAndReceiveAsync_CallHSSSubscriberWithoutHttpContext_ExceptsSuccessResponse() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		respondWith(createHttpResponse(200, MockObjectCreator.getStringSearchResponse()));
+
+		String response = send();
+		Assert.assertThat(response, CoreMatchers.containsString("result=\"success\""));
+	}
+
+	@Test(expected = SoapServiceException.class)
+	public void sendAndReceiveAsync_CallHSSSubscriberWithErrorStatus_ExceptsSoapServiceException() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		respondWith(createHttpResponse(404, ""));
+
+		send();
+	}
+
+	@Test(expected = SoapFaultException.class)
+	public void sendAndReceiveAsync_CallHSSSubscriberReturnsSoapFault_ExceptsSoapFaultException() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		respondWith(createHttpResponse(500, "<soapenv:Envelope xmlns:soapenv=\"http://schemas.xmlsoap.org/soap/envelope/\"><soapenv:Body><soapenv:Fault>"
+				+ "<faultcode>soapenv:Server</faultcode><faultstring>Internal Error</faultstring></soapenv:Fault></soapenv:Body></soapenv:Envelope>"));
+
+		send();
+	}
+
+	@Test(expected = SoapServiceException.class)
+	public void sendAndReceiveAsync_WithInvalidInput_ExceptsSoapServiceException() throws Exception {
+		send();
+	}
+
+	@Test
+	public void sendAndReceiveAsync_CallHSSSubscriber_ExpectsCompletedFuture() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		respondWith(createHttpResponse(200, MockObjectCreator.getStringSearchResponse()));
+
+		CompletableFuture<String> response = proxy.sendAndReceiveAsync(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID);
+		Assert.assertThat(response.get(), CoreMatchers.containsString("result=\"success\""));
+	}
+
+	@Test
+	public void sendAndReceiveAsync_ConnectionFailed_ExpectsFutureFailedWithSoapServiceException() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		doAnswer(invocation -> {
+			invocation.<FutureCallback<HttpResponse>>getArgument(2).failed(new ConnectException("Connection refused"));
+			return null;
+		}).when(hssHttpClient).execute(any(HttpUriRequest.class), any(HttpContext.class), any());
+
+		CompletableFuture<String> response = proxy.sendAndReceiveAsync(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID);
+		try {
+			response.join();
+			Assert.fail("Expected SoapServiceException");
+		} catch (CompletionException e) {
+			Assert.assertThat(e.getCause(), CoreMatchers.instanceOf(SoapServiceException.class));
+		}
+	}
+
+	@Test
+	public void sendAndReceiveAsync_FutureCancelled_ExpectsExchangeCancelled() throws Exception {
+
+		Future<HttpResponse> exchange = new BasicFuture<>(null);
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		when(hssHttpClient.execute(any(HttpUriRequest.class), any(HttpContext.class), any())).thenReturn(exchange);
+
+		CompletableFuture<String> response = proxy.sendAndReceiveAsync(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID);
+		response.cancel(true);
+
+		Assert.assertThat(exchange.isCancelled(), CoreMatchers.is(true));
+	}
+
+	@Test
+	public void sendAndReceiveAsync_ResponseOnReactor_ExpectsFutureCompletedOnResponseThread() throws Exception {
+
+		when(serviceConfig.getUrl()).thenReturn("endpoint.url");
+		respondWith(createHttpResponse(200, MockObjectCreator.getStringSearchResponse()));
+
+		String completingThread = proxy.sendAndReceiveAsync(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID)
+				.thenApply(response -> Thread.currentThread().getName()).get();
+
+		Assert.assertThat(completingThread, CoreMatchers.is("hss-response-1"));
+	}
+
+	private String send() throws Exception {
+
+		try {
+			return proxy.sendAndReceiveAsync(MockObjectCreator.getSoapMessage(), MockObjectCreator.CORRELATION_ID)
+					.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			throw (Exception) e.getCause();
+		}
+	}
+
+	private void respondWith(HttpResponse httpResponse) {
+
+		doAnswer(invocation -> {
+			invocation.<FutureCallback<HttpResponse>>getArgument(2).completed(httpResponse);
+			return null;
+		}).when(hssHttpClient).execute(any(HttpUriRequest.class), any(HttpContext.class), any());
+	}
+
+	private static HttpResponse createHttpResponse(int statusCode, String body) {
+
+		HttpResponse httpResponse = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+		httpResponse.setEntity(new StringEntity(body, ContentType.TEXT_XML));
+		return httpResponse;
+	}
+}
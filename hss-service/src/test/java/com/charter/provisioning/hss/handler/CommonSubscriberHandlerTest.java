@@ -1,221 +1,543 @@
-package com.charter.provisioning.hss.handler;
-
-import com.charter.provisioning.hss.common.DigitalPhoneCommon;
-import com.charter.provisioning.hss.common.MockObjectCreator;
-import com.charter.provisioning.hss.common.SoapMessage;
-import com.charter.provisioning.hss.config.SerializableConfig;
-import com.charter.provisioning.hss.config.SpmlConfig;
-import com.charter.provisioning.hss.external.HSSSubscriberProxy;
-import com.charter.provisioning.hss.model.DigitalPhoneResponse;
-import com.charter.provisioning.hss.model.DigitalPhoneResponse.Status;
-import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
-import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
-import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
-import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
-import org.hamcrest.core.IsNull;
-import org.junit.Test;
-import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.MockitoJUnitRunner;
-
-import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.text.IsEqualIgnoringCase.equalToIgnoringCase;
-import static org.junit.Assert.assertThat;
-import static org.mockito.Mockito.when;
-
-@RunWith(MockitoJUnitRunner.class)
-public class CommonSubscriberHandlerTest {
-
-	@InjectMocks
-	private CommonSubscriberHandler commonSubscriberHandler;
-	
-	@Mock
-	private SoapMessage soapMessage;
-	
-	@Mock
-	private SpmlConfig spmlConfig;
-	
-	@Mock
-	private DigitalPhoneCommon commonService;
-	
-	@Mock
-	private SerializableConfig serializableConfig;
-	
-	@Mock
-	private HSSSubscriberProxy subscriberProxy;
-	
-	@Test
-	public void searchSubscriberByPublicIdentity_SearchForExistingPublicIdentity_ExpectsValidSubscriber() throws Exception {
-			
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
-		
-		commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
-				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, false);
-		
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber.getIdentifier(), is("C61561BD55AE4C072C92"));
-	}
-	
-	@Test
-	public void searchSubscriberByPublicIdentity_SearchForEmptyPublicIdentity_ExpectsNullSubscriber() throws Exception {
-		
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(null, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-	
-	@Test
-	public void searchSubscriberByPublicIdentity_SearchPublicIdentityWithNoSubscriber_ExpectsNullSubscriber() throws Exception {
-		
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn("");
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-	
-	@Test
-	public void searchSubscriberByPublicIdentity_SearchForPublicIdentityWithFailedResponse_ExpectsNullSubscriber() throws Exception {
-		
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getFailedSpmlResponse());
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-
-	@Test
-	public void searchSubscriberByNationalPublicIdentity_SearchForExistingPublicIdentity_ExpectsValidSubscriber() throws Exception {
-
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
-
-		commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.NATIONAL_PUBLIC_IDENTITY,
-				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, false);
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber.getIdentifier(), is("C61561BD55AE4C072C92"));
-	}
-
-	@Test
-	public void searchSubscriberByNationalPublicIdentity_SearchForEmptyPublicIdentity_ExpectsNullSubscriber() throws Exception {
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(null, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-
-	@Test
-	public void searchSubscriberByNationalPublicIdentity_SearchPublicIdentityWithNoSubscriber_ExpectsNullSubscriber() throws Exception {
-
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn("");
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-
-	@Test
-	public void searchSubscriberByNationalPublicIdentity_SearchForPublicIdentityWithFailedResponse_ExpectsNullSubscriber() throws Exception {
-
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getFailedSpmlResponse());
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-	
-	@Test
-	public void searchSubscriberByPrivateIdentity_SearchForExistingPrivateIdentity_ExpectsValidSubscriber() throws Exception {
-		
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
-		
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber.getIdentifier(), is("C61561BD55AE4C072C92"));
-	}
-	
-	@Test
-	public void searchSubscriberByPrivateIdentity_SearchForEmptyPrivateIdentity_ExpectsNullSubscriber() throws Exception {
-			
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(null, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);		
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-	
-	@Test
-	public void searchSubscriberByPrivateIdentity_SearchForPrivateIdentityWithFailedResponse_ExpectsNullSubscriber() throws Exception {
-		
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getFailedSpmlResponse());
-
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);		
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-	
-	@Test
-	public void searchSubscriberByPrivateIdentity_SearchPrivateIdentityWithNoSubscriber_ExpectsNullSubscriber() throws Exception {
-
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn("");
-		
-		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
-		assertThat(subscriber, is(IsNull.nullValue()));
-	}
-	
-	@Test
-	public void searchSubscriber_SearchForExistingPublicIdentity_ExpectsValidSpmlResponse() throws Exception {
-			
-		when(commonService.createSearchRequest(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
-				MockObjectCreator.SITE, false)).thenReturn(MockObjectCreator.getSearchRequestForPublicIdentity());
-		
-		when(serializableConfig.marshall(MockObjectCreator.getSearchRequestForPublicIdentity())).thenReturn(MockObjectCreator.getPublicKeyStringSearchRequest());
-		
-		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
-		when(subscriberProxy.sendAndReceive(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(MockObjectCreator.getStringSearchResponse());
-		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
-		
-		SpmlResponse response = commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
-				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, false);
-		
-		assertThat(response.getResult(), is(equalToIgnoringCase(Status.SUCCESS.name())));
-	}
-	
-	@Test
-	public void createResponse_GenerateDigitalPhoneResponse_ExpectsSuccessDigitalPhoneResponse() throws Exception {
-		
-		DigitalPhoneResponse response = commonSubscriberHandler.createResponse(MockObjectCreator.getSpmlResponse());
-		assertThat(response.getStatus(), is(Status.CREATED));
-	}
-	
-	@Test
-	public void createResponse_GenerateDigitalPhoneResponse_ExpectsFailureDigitalPhoneResponse() throws Exception {
-		
-		DigitalPhoneResponse failedResponse = commonSubscriberHandler.createResponse(MockObjectCreator.getFailedSpmlResponse());
-		assertThat(failedResponse.getStatus(), is(Status.FAILURE));
-	}
-	
-	@Test
-	public void createAddRequest_GenerateAddRequestObject_ExpectsValidAddRequest() throws Exception {
-		
-		when(commonService.createAddRequest(MockObjectCreator.getDigitalPhone())).thenReturn(MockObjectCreator.getAddRequest());
-		
-		AddRequest addRequest = commonSubscriberHandler.createAddRequest(MockObjectCreator.getDigitalPhone());
-		assertThat(addRequest.getVersion(), is("HSS_SUBSCRIBER_v82"));
-	}
-	
-	@Test
-	public void createDeleteRequest_GenerateDeleteRequestObject_ExpectsValidDeleteRequest() throws Exception {
-		
-		when(commonService.createDeleteRequest(MockObjectCreator.SUBSCRIBER_ID)).thenReturn(MockObjectCreator.getDeleteRequest());
-		
-		DeleteRequest deleteRequest = commonSubscriberHandler.createDeleteRequest(MockObjectCreator.SUBSCRIBER_ID);
-		assertThat(deleteRequest.getVersion(), is("HSS_SUBSCRIBER_v82"));
-		assertThat(deleteRequest.getIdentifier(), is(MockObjectCreator.SUBSCRIBER_ID));
-	}
-}
+package com.charter.provisioning.hss.handler;
+
+import com.charter.provisioning.hss.cache.SearchCoalescer;
+import com.charter.provisioning.hss.cache.SubscriberCache;
+import com.charter.provisioning.hss.common.DigitalPhoneCommon;
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.common.RequestExecutor;
+import com.charter.provisioning.hss.common.SoapMessage;
+import com.charter.provisioning.hss.common.SoapMessageFactory;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.config.SerializableConfig;
+import com.charter.provisioning.hss.config.SpmlConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.exception.SoapServiceException;
+import com.charter.provisioning.hss.external.HSSSubscriberProxy;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse.Status;
+import com.charter.provisioning.hss.model.Property;
+import com.charter.provisioning.network.hss.subscriber.spml.AddRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.DeleteRequest;
+import com.charter.provisioning.network.hss.subscriber.spml.SpmlResponse;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import org.hamcrest.core.IsNull;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.text.IsEqualIgnoringCase.equalToIgnoringCase;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommonSubscriberHandlerTest {
+
+	@InjectMocks
+	private CommonSubscriberHandler commonSubscriberHandler;
+	
+	@Mock
+	private SoapMessageFactory soapMessageFactory;
+
+	@Mock
+	private SoapMessage soapMessage;
+	
+	@Mock
+	private SpmlConfig spmlConfig;
+	
+	@Mock
+	private DigitalPhoneCommon commonService;
+	
+	@Mock
+	private SerializableConfig serializableConfig;
+	
+	@Mock
+	private HSSSubscriberProxy subscriberProxy;
+
+	@Mock
+	private SubscriberCache subscriberCache;
+
+	@Spy
+	private SearchCoalescer searchCoalescer = new SearchCoalescer(mock(SubscriberCache.class));
+
+	@Spy
+	private HssServiceConfig serviceConfig = MockObjectCreator.getServiceConfig(5000);
+	
+	@Test
+	public void searchSubscriberByPublicIdentity_SearchForExistingPublicIdentity_ExpectsValidSubscriber() throws Exception {
+			
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+		
+		commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, false);
+		
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber.getIdentifier(), is("C61561BD55AE4C072C92"));
+	}
+	
+	@Test
+	public void searchSubscriberByPublicIdentity_SearchForEmptyPublicIdentity_ExpectsNullSubscriber() throws Exception {
+		
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(null, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+	
+	@Test
+	public void searchSubscriberByPublicIdentity_SearchPublicIdentityWithNoSubscriber_ExpectsNullSubscriber() throws Exception {
+		
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(""));
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+	
+	@Test
+	public void searchSubscriberByPublicIdentity_SearchForPublicIdentityWithFailedResponse_ExpectsNullSubscriber() throws Exception {
+		
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getFailedSpmlResponse());
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void searchSubscriberByNationalPublicIdentity_SearchForExistingPublicIdentity_ExpectsValidSubscriber() throws Exception {
+
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+
+		commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.NATIONAL_PUBLIC_IDENTITY,
+				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, false);
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber.getIdentifier(), is("C61561BD55AE4C072C92"));
+	}
+
+	@Test
+	public void searchSubscriberByNationalPublicIdentity_SearchForEmptyPublicIdentity_ExpectsNullSubscriber() throws Exception {
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(null, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void searchSubscriberByNationalPublicIdentity_SearchPublicIdentityWithNoSubscriber_ExpectsNullSubscriber() throws Exception {
+
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(""));
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+
+	@Test
+	public void searchSubscriberByNationalPublicIdentity_SearchForPublicIdentityWithFailedResponse_ExpectsNullSubscriber() throws Exception {
+
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getFailedSpmlResponse());
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentity(MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+	
+	@Test
+	public void searchSubscriberByPrivateIdentity_SearchForExistingPrivateIdentity_ExpectsValidSubscriber() throws Exception {
+		
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+		
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber.getIdentifier(), is("C61561BD55AE4C072C92"));
+	}
+	
+	@Test
+	public void searchSubscriberByPrivateIdentity_SearchForEmptyPrivateIdentity_ExpectsNullSubscriber() throws Exception {
+			
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(null, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);		
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+	
+	@Test
+	public void searchSubscriberByPrivateIdentity_SearchForPrivateIdentityWithFailedResponse_ExpectsNullSubscriber() throws Exception {
+		
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getFailedSpmlResponse());
+
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);		
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+	
+	@Test
+	public void searchSubscriberByPrivateIdentity_SearchPrivateIdentityWithNoSubscriber_ExpectsNullSubscriber() throws Exception {
+
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);		
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(""));
+		
+		Subscriber subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentity(MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		assertThat(subscriber, is(IsNull.nullValue()));
+	}
+	
+	@Test
+	public void searchSubscriber_SearchForExistingPublicIdentity_ExpectsValidSpmlResponse() throws Exception {
+			
+		when(commonService.createSearchRequest(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, false)).thenReturn(MockObjectCreator.getSearchRequestForPublicIdentity());
+		
+		when(serializableConfig.marshall(MockObjectCreator.getSearchRequestForPublicIdentity())).thenReturn(MockObjectCreator.getPublicKeyStringSearchRequest());
+		
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+		
+		SpmlResponse response = commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, false);
+		
+		assertThat(response.getResult(), is(equalToIgnoringCase(Status.SUCCESS.name())));
+	}
+	
+	@Test
+	public void processSpmlRequestAsync_SearchForExistingPublicIdentity_ExpectsCompletedSpmlResponse() throws Exception {
+
+		when(serializableConfig.marshall(MockObjectCreator.getSearchRequestForPublicIdentity())).thenReturn(MockObjectCreator.getPublicKeyStringSearchRequest());
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+
+		CompletableFuture<SpmlResponse> response = commonSubscriberHandler.processSpmlRequestAsync(
+				MockObjectCreator.getSearchRequestForPublicIdentity(), MockObjectCreator.CORRELATION_ID);
+
+		assertThat(response.get().getResult(), is(equalToIgnoringCase(Status.SUCCESS.name())));
+	}
+
+	@Test
+	public void processSpmlRequestAsync_ProxyFailsWithSoapException_ExpectsServiceException() throws Exception {
+
+		CompletableFuture<String> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new SoapServiceException("Protocol related error while sending message"));
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(failed);
+
+		try {
+			commonSubscriberHandler.processSpmlRequestAsync(MockObjectCreator.getDeleteRequest(), MockObjectCreator.CORRELATION_ID).join();
+			fail("Expected ServiceException");
+		} catch (CompletionException e) {
+			assertThat(e.getCause(), instanceOf(ServiceException.class));
+			assertThat(e.getCause().getMessage(), is("Soap Exception occurred"));
+		}
+	}
+
+	@Test
+	public void searchSubscriber_SubscriberCached_ExpectsCachedResponseWithoutCallingHss() throws Exception {
+
+		SpmlResponse cachedResponse = MockObjectCreator.getSpmlResponse();
+		when(commonService.createSearchRequest(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, true)).thenReturn(MockObjectCreator.getSearchRequestForPublicIdentity());
+		when(subscriberCache.key(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.getSearchRequestForPublicIdentity())).thenReturn("impu:key");
+		when(subscriberCache.get("impu:key")).thenReturn(cachedResponse);
+
+		SpmlResponse spmlResponse = commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME,
+				MockObjectCreator.PHONE_NUMBER, MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, true);
+
+		assertThat(spmlResponse, is(cachedResponse));
+		verify(subscriberProxy, never()).sendAndReceiveAsync(any(), any());
+	}
+
+	@Test
+	public void searchSubscriber_SubscriberNotCached_ExpectsResponseCached() throws Exception {
+
+		SpmlResponse searchResponse = MockObjectCreator.getSpmlResponse();
+		when(commonService.createSearchRequest(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, true)).thenReturn(MockObjectCreator.getSearchRequestForPublicIdentity());
+		when(subscriberCache.key(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.getSearchRequestForPublicIdentity())).thenReturn("impu:key");
+		when(subscriberCache.generation()).thenReturn(7L);
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(searchResponse);
+
+		commonSubscriberHandler.searchSubscriber(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, true);
+
+		verify(subscriberCache).put("impu:key", searchResponse, 7L);
+	}
+
+	@Test
+	public void searchSubscriberAsync_IdentitiesBuildingSameSearch_ExpectsSingleRequestToHss() throws Exception {
+
+		CompletableFuture<String> exchange = new CompletableFuture<>();
+		String paddedPhoneNumber = " " + MockObjectCreator.PHONE_NUMBER + " ";
+		when(commonService.createSearchRequest(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, true)).thenReturn(MockObjectCreator.getSearchRequestForPublicIdentity());
+		when(commonService.createSearchRequest(MockObjectCreator.PUBLIC_SEARCH_NAME, paddedPhoneNumber,
+				MockObjectCreator.SITE, true)).thenReturn(MockObjectCreator.getSearchRequestForPublicIdentity());
+		when(subscriberCache.key(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.getSearchRequestForPublicIdentity())).thenReturn("impu:key");
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(exchange);
+
+		commonSubscriberHandler.searchSubscriberAsync(MockObjectCreator.PUBLIC_SEARCH_NAME, MockObjectCreator.PHONE_NUMBER,
+				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, true);
+		commonSubscriberHandler.searchSubscriberAsync(MockObjectCreator.PUBLIC_SEARCH_NAME, paddedPhoneNumber,
+				MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID, true);
+
+		verify(subscriberProxy, times(1)).sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID);
+		assertThat(searchCoalescer.inFlight(), is(1));
+	}
+
+	@Test
+	public void searchSubscriberByNationalPublicIdentityAsync_SearchForExistingPublicIdentity_ExpectsValidSubscriber() throws Exception {
+
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+
+		CompletableFuture<Subscriber> subscriber = commonSubscriberHandler.searchSubscriberByNationalPublicIdentityAsync(
+				MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+
+		assertThat(subscriber.get().getIdentifier(), is("C61561BD55AE4C072C92"));
+	}
+
+	@Test
+	public void searchSubscriberByPrivateIdentityAsync_SearchForExistingPrivateIdentity_ExpectsValidSubscriber() throws Exception {
+
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getStringSearchResponse()));
+		when(serializableConfig.unmarshall(MockObjectCreator.getStringSearchResponse())).thenReturn(MockObjectCreator.getSpmlResponse());
+
+		CompletableFuture<Subscriber> subscriber = commonSubscriberHandler.searchSubscriberByPrivateIdentityAsync(
+				MockObjectCreator.getPrivateIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+
+		assertThat(subscriber.get().getIdentifier(), is("C61561BD55AE4C072C92"));
+	}
+
+	@Test
+	public void searchSubscriberByPublicIdentityAsync_SearchCancelled_ExpectsRequestToHssCancelled() throws Exception {
+
+		CompletableFuture<String> exchange = new CompletableFuture<>();
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(exchange);
+
+		CompletableFuture<Subscriber> subscriber = commonSubscriberHandler.searchSubscriberByPublicIdentityAsync(
+				MockObjectCreator.getPublicIdentitys().get(0), MockObjectCreator.SITE, MockObjectCreator.CORRELATION_ID);
+		subscriber.cancel(true);
+
+		assertThat(exchange.isCancelled(), is(true));
+		assertThat(searchCoalescer.inFlight(), is(0));
+	}
+
+	@Test
+	public void processSpmlRequest_DeleteRequest_ExpectsSubscriberEvictedFromCache() throws Exception {
+
+		DeleteRequest deleteRequest = MockObjectCreator.getDeleteRequest();
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(""));
+
+		commonSubscriberHandler.processSpmlRequest(deleteRequest, MockObjectCreator.CORRELATION_ID);
+
+		verify(subscriberCache).invalidate(deleteRequest);
+	}
+
+	@Test(expected = ServiceException.class)
+	public void processSpmlRequest_ProxyFailsWithSoapException_ExpectsServiceException() throws Exception {
+
+		CompletableFuture<String> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new SoapServiceException("Protocol related error while sending message"));
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(failed);
+
+		commonSubscriberHandler.processSpmlRequest(MockObjectCreator.getDeleteRequest(), MockObjectCreator.CORRELATION_ID);
+	}
+
+	@Test
+	public void processSpmlRequest_NoResponseWithinTimeout_ExpectsServiceUnavailableAndExchangeCancelled() throws Exception {
+
+		CommonSubscriberHandler handler = new CommonSubscriberHandler(soapMessageFactory, spmlConfig, commonService,
+				serializableConfig, subscriberProxy, subscriberCache, searchCoalescer, MockObjectCreator.getServiceConfig(50));
+		CompletableFuture<String> exchange = new CompletableFuture<>();
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(exchange);
+
+		try {
+			handler.processSpmlRequest(MockObjectCreator.getDeleteRequest(), MockObjectCreator.CORRELATION_ID);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+			assertThat(e.getMessage(), is("Request to HSS subscriber timed out"));
+		}
+		assertThat(exchange.isCancelled(), is(true));
+	}
+
+	@Test
+	public void processSpmlRequest_CallerInterrupted_ExpectsServiceUnavailableAndExchangeCancelled() throws Exception {
+
+		CompletableFuture<String> exchange = new CompletableFuture<>();
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenReturn(exchange);
+
+		Thread.currentThread().interrupt();
+		try {
+			commonSubscriberHandler.processSpmlRequest(MockObjectCreator.getDeleteRequest(), MockObjectCreator.CORRELATION_ID);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		} finally {
+			assertThat(Thread.interrupted(), is(true));
+		}
+		assertThat(exchange.isCancelled(), is(true));
+	}
+
+	@Test
+	public void processSpmlRequest_RunningRequestCancelled_ExpectsExchangeCancelledAndRequestThreadFreed() throws Exception {
+
+		RequestExecutor requestExecutor = new RequestExecutor(MockObjectCreator.getExecutorSettings(1, 1));
+		CompletableFuture<String> exchange = new CompletableFuture<>();
+		CountDownLatch sent = new CountDownLatch(1);
+		when(soapMessageFactory.createSoapMessage(any())).thenReturn(soapMessage);
+		when(commonService.populateSoapMessageProperties(soapMessage)).thenReturn(soapMessage);
+		when(subscriberProxy.sendAndReceiveAsync(soapMessage, MockObjectCreator.CORRELATION_ID)).thenAnswer(invocation -> {
+			sent.countDown();
+			return exchange;
+		});
+
+		try {
+			CompletableFuture<SpmlResponse> request = requestExecutor.supply(() -> commonSubscriberHandler
+					.processSpmlRequest(MockObjectCreator.getDeleteRequest(), MockObjectCreator.CORRELATION_ID));
+			assertThat(sent.await(5, TimeUnit.SECONDS), is(true));
+
+			request.cancel(true);
+
+			// the single request thread runs the next task once the cancelled one returned
+			assertThat(requestExecutor.supply(() -> "freed").get(5, TimeUnit.SECONDS), is("freed"));
+			assertThat(exchange.isCancelled(), is(true));
+		} finally {
+			requestExecutor.shutdown();
+		}
+	}
+
+	@Test
+	public void processSpmlRequestAsync_ConcurrentRequests_ExpectsNoSoapMessageSharedBetweenRequests() throws Exception {
+
+		CommonSubscriberHandler handler = new CommonSubscriberHandler(
+				new SoapMessageFactory("SOAPAction", "SpmlRequest"), spmlConfig, commonService,
+				serializableConfig, subscriberProxy, subscriberCache, searchCoalescer, serviceConfig);
+		Queue<String> bleeds = new ConcurrentLinkedQueue<>();
+
+		when(serializableConfig.marshall(any())).thenAnswer(invocation -> "<spml:deleteRequest xmlns:spml=\"urn:siemens:names:prov:gw:SPML:2:0\"><identifier>"
+				+ invocation.<DeleteRequest>getArgument(0).getIdentifier() + "</identifier></spml:deleteRequest>");
+		when(commonService.populateSoapMessageProperties(any())).thenAnswer(invocation -> {
+			SoapMessage message = invocation.getArgument(0);
+			message.getProperties().put("endpoint.url", Property.builder().name("endpoint.url").value(message.getSoapXml()).build());
+			return message;
+		});
+		when(subscriberProxy.sendAndReceiveAsync(any(), any())).thenAnswer(invocation -> {
+			SoapMessage message = invocation.getArgument(0);
+			String identifier = "<identifier>" + invocation.getArgument(1) + "</identifier>";
+			// Give the other requests a chance to interleave before the envelope is read back.
+			Thread.yield();
+			if (!message.getSoapXml().contains(identifier) || !message.getPropertyValue("endpoint.url").contains(identifier)) {
+				bleeds.add(identifier);
+			}
+			return CompletableFuture.completedFuture("");
+		});
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		try {
+			List<Future<SpmlResponse>> responses = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				String identifier = "SUBSCRIBER-" + i;
+				responses.add(executor.submit(() -> handler.processSpmlRequest(
+						DeleteRequest.builder().identifier(identifier).build(), identifier)));
+			}
+			for (Future<SpmlResponse> response : responses) {
+				assertThat(response.get().getResult(), is("failure"));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(bleeds.isEmpty(), is(true));
+	}
+
+	@Test
+	public void createResponse_GenerateDigitalPhoneResponse_ExpectsSuccessDigitalPhoneResponse() throws Exception {
+		
+		DigitalPhoneResponse response = commonSubscriberHandler.createResponse(MockObjectCreator.getSpmlResponse());
+		assertThat(response.getStatus(), is(Status.CREATED));
+	}
+	
+	@Test
+	public void createResponse_GenerateDigitalPhoneResponse_ExpectsFailureDigitalPhoneResponse() throws Exception {
+		
+		DigitalPhoneResponse failedResponse = commonSubscriberHandler.createResponse(MockObjectCreator.getFailedSpmlResponse());
+		assertThat(failedResponse.getStatus(), is(Status.FAILURE));
+	}
+	
+	@Test
+	public void createAddRequest_GenerateAddRequestObject_ExpectsValidAddRequest() throws Exception {
+		
+		when(commonService.createAddRequest(MockObjectCreator.getDigitalPhone())).thenReturn(MockObjectCreator.getAddRequest());
+		
+		AddRequest addRequest = commonSubscriberHandler.createAddRequest(MockObjectCreator.getDigitalPhone());
+		assertThat(addRequest.getVersion(), is("HSS_SUBSCRIBER_v82"));
+	}
+	
+	@Test
+	public void createDeleteRequest_GenerateDeleteRequestObject_ExpectsValidDeleteRequest() throws Exception {
+		
+		when(commonService.createDeleteRequest(MockObjectCreator.SUBSCRIBER_ID)).thenReturn(MockObjectCreator.getDeleteRequest());
+		
+		DeleteRequest deleteRequest = commonSubscriberHandler.createDeleteRequest(MockObjectCreator.SUBSCRIBER_ID);
+		assertThat(deleteRequest.getVersion(), is("HSS_SUBSCRIBER_v82"));
+		assertThat(deleteRequest.getIdentifier(), is(MockObjectCreator.SUBSCRIBER_ID));
+	}
+}
@@ -0,0 +1,301 @@
+package com.charter.provisioning.hss.service;
+
+import com.charter.provisioning.hss.aop.ValidationAspect;
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.common.RequestExecutor;
+import com.charter.provisioning.hss.common.SubscriberLanes;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.model.BatchItemResponse;
+import com.charter.provisioning.hss.model.BatchSettings;
+import com.charter.provisioning.hss.model.DigitalPhone;
+import com.charter.provisioning.hss.model.DigitalPhoneResponse;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BatchProvisioningServiceTest {
+
+	@Mock
+	private DigitalPhoneService digitalPhoneService;
+
+	@Mock
+	private ValidationAspect validationAspect;
+
+	@Mock
+	private HssServiceConfig serviceConfig;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final RequestExecutor requestExecutor = new RequestExecutor(MockObjectCreator.getExecutorSettings(4, 16));
+
+	private final List<BatchItemResponse> results = Collections.synchronizedList(new ArrayList<>());
+
+	private BatchProvisioningService batchService;
+
+	@Before
+	public void setUp() {
+		batchService = batchService(MockObjectCreator.getBatchSettings(2, 1));
+	}
+
+	@After
+	public void shutdown() {
+		batchService.shutdown();
+		requestExecutor.shutdown();
+	}
+
+	@Test
+	public void provision_JsonArray_ExpectsResultPerItem() throws Exception {
+
+		stubOperations();
+		when(digitalPhoneService.createSubscriber(any(), anyString()))
+				.thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
+		when(digitalPhoneService.deleteSubscriber(any(), anyString()))
+				.thenReturn(MockObjectCreator.getDigitalPhoneResponseWithSuccessStatus());
+
+		InputStream items = json(Arrays.asList(digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452000"),
+				digitalPhone(MockObjectCreator.OPERATION_DELETE, "8582452001")));
+
+		assertThat(batchService.provision(items, MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS), is(2));
+
+		List<BatchItemResponse> sorted = sortedResults();
+		assertThat(sorted.get(0).getHttpStatus(), is(HttpServletResponse.SC_CREATED));
+		assertThat(sorted.get(0).getIdentity(), is("8582452000"));
+		assertThat(sorted.get(0).getResponse(), is(MockObjectCreator.createSuccessDigitalPhoneResponse()));
+		assertThat(sorted.get(1).getHttpStatus(), is(HttpServletResponse.SC_NO_CONTENT));
+		verify(digitalPhoneService).createSubscriber(any(), eq(MockObjectCreator.CORRELATION_ID + "-0"));
+	}
+
+	@Test
+	public void provision_NewlineDelimitedJson_ExpectsResultPerItem() throws Exception {
+
+		stubOperations();
+		when(digitalPhoneService.createSubscriber(any(), anyString()))
+				.thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
+
+		String items = objectMapper.writeValueAsString(digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452000"))
+				+ "\n" + objectMapper.writeValueAsString(digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452001"))
+				+ "\n";
+
+		assertThat(batchService.provision(new ByteArrayInputStream(items.getBytes()), MockObjectCreator.CORRELATION_ID,
+				results::add).get(5, TimeUnit.SECONDS), is(2));
+
+		assertThat(results.size(), is(2));
+		assertThat(results.stream().allMatch(result -> result.getHttpStatus() == HttpServletResponse.SC_CREATED), is(true));
+	}
+
+	@Test
+	public void provision_InvalidOperation_ExpectsBadRequestItem() throws Exception {
+
+		stubOperations();
+		InputStream items = json(Collections.singletonList(digitalPhone(MockObjectCreator.OPERATION_UPDATE, "8582452000")));
+
+		batchService.provision(items, MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS);
+
+		assertThat(results.get(0).getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+		verify(digitalPhoneService, never()).createSubscriber(any(), anyString());
+	}
+
+	@Test
+	public void provision_ValidationFails_ExpectsBadRequestItem() throws Exception {
+
+		DigitalPhone digitalPhone = digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452000");
+		doThrow(new ServiceException(HttpServletResponse.SC_BAD_REQUEST, "Bad Request, Invalid Digital Phone Name."))
+				.when(validationAspect).validate(digitalPhone);
+
+		batchService.provision(json(Collections.singletonList(digitalPhone)), MockObjectCreator.CORRELATION_ID,
+				results::add).get(5, TimeUnit.SECONDS);
+
+		assertThat(results.get(0).getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+		assertThat(results.get(0).getResponse().getDescription(), is("Bad Request, Invalid Digital Phone Name."));
+	}
+
+	@Test
+	public void provision_ServiceException_ExpectsItemStatusOfException() throws Exception {
+
+		stubOperations();
+		when(digitalPhoneService.createSubscriber(any(), anyString()))
+				.thenThrow(new ServiceException(HttpServletResponse.SC_NOT_FOUND, "Subscriber not found."));
+
+		batchService.provision(json(Collections.singletonList(digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452000"))),
+				MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS);
+
+		assertThat(results.get(0).getHttpStatus(), is(HttpServletResponse.SC_NOT_FOUND));
+		assertThat(results.get(0).getResponse().getDescription(), is("Subscriber not found."));
+	}
+
+	@Test
+	public void provision_MalformedItem_ExpectsBadRequestItemAndReadingStopped() throws Exception {
+
+		stubOperations();
+		when(digitalPhoneService.createSubscriber(any(), anyString()))
+				.thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
+
+		String items = objectMapper.writeValueAsString(digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452000"))
+				+ "\n{\"operation\": \n" + objectMapper.writeValueAsString(digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452001"));
+
+		assertThat(batchService.provision(new ByteArrayInputStream(items.getBytes()), MockObjectCreator.CORRELATION_ID,
+				results::add).get(5, TimeUnit.SECONDS), is(2));
+
+		List<BatchItemResponse> sorted = sortedResults();
+		assertThat(sorted.size(), is(2));
+		assertThat(sorted.get(0).getHttpStatus(), is(HttpServletResponse.SC_CREATED));
+		assertThat(sorted.get(1).getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+	}
+
+	@Test
+	public void provision_MoreItemsThanParallelism_ExpectsParallelismNotExceeded() throws Exception {
+
+		stubOperations();
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		when(digitalPhoneService.createSubscriber(any(), anyString())).thenAnswer(invocation -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Thread.sleep(50);
+			inFlight.decrementAndGet();
+			return MockObjectCreator.createSuccessDigitalPhoneResponse();
+		});
+
+		List<DigitalPhone> digitalPhones = new ArrayList<>();
+		for (int i = 0; i < 8; i++)
+			digitalPhones.add(digitalPhone(MockObjectCreator.OPERATION_CREATE, "858245200" + i));
+
+		assertThat(batchService.provision(json(digitalPhones), MockObjectCreator.CORRELATION_ID, results::add)
+				.get(5, TimeUnit.SECONDS), is(8));
+
+		assertThat(results.size(), is(8));
+		assertThat(maxInFlight.get(), is(2));
+	}
+
+	@Test
+	public void provision_RequestPoolSaturated_ExpectsItemsWaitForPoolInsteadOfFailing() throws Exception {
+
+		RequestExecutor saturated = new RequestExecutor(MockObjectCreator.getExecutorSettings(1, 1));
+		BatchProvisioningService saturatedBatch = batchService(MockObjectCreator.getBatchSettings(2, 1), saturated);
+		CountDownLatch busy = new CountDownLatch(1);
+		try {
+			saturated.supply(() -> await(busy));
+			saturated.supply(() -> await(busy));
+			stubOperations();
+			when(digitalPhoneService.createSubscriber(any(), anyString()))
+					.thenReturn(MockObjectCreator.createSuccessDigitalPhoneResponse());
+
+			CompletableFuture<Integer> provisioned = saturatedBatch.provision(json(Arrays.asList(
+					digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452000"),
+					digitalPhone(MockObjectCreator.OPERATION_CREATE, "8582452001"))), MockObjectCreator.CORRELATION_ID,
+					results::add);
+
+			Thread.sleep(100);
+			assertThat(results.isEmpty(), is(true));
+			busy.countDown();
+
+			assertThat(provisioned.get(5, TimeUnit.SECONDS), is(2));
+			assertThat(results.stream().allMatch(result -> result.getHttpStatus() == HttpServletResponse.SC_CREATED), is(true));
+		} finally {
+			busy.countDown();
+			saturatedBatch.shutdown();
+			saturated.shutdown();
+		}
+	}
+
+	@Test
+	public void provision_AllBatchReadersBusy_ExpectsServiceUnavailable() throws Exception {
+
+		PipedOutputStream body = new PipedOutputStream();
+		batchService.provision(new PipedInputStream(body), MockObjectCreator.CORRELATION_ID, results::add);
+
+		try {
+			batchService.provision(json(Collections.emptyList()), MockObjectCreator.CORRELATION_ID, results::add);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		} finally {
+			body.close();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_MissingBatchSettings_ExpectsIllegalStateException() {
+
+		when(serviceConfig.getBatch()).thenReturn(null);
+		new BatchProvisioningService(digitalPhoneService, validationAspect, requestExecutor, new SubscriberLanes(16, 60000, 60000),
+				serviceConfig, objectMapper);
+	}
+
+	private BatchProvisioningService batchService(BatchSettings settings) {
+		return batchService(settings, requestExecutor);
+	}
+
+	private BatchProvisioningService batchService(BatchSettings settings, RequestExecutor executor) {
+
+		when(serviceConfig.getBatch()).thenReturn(settings);
+		return new BatchProvisioningService(digitalPhoneService, validationAspect, executor,
+				new SubscriberLanes(16, 60000, 60000), serviceConfig, objectMapper);
+	}
+
+	private static DigitalPhoneResponse await(CountDownLatch latch) {
+
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	private void stubOperations() {
+
+		when(serviceConfig.getOperationCreate()).thenReturn(MockObjectCreator.OPERATION_CREATE);
+		when(serviceConfig.getOperationDelete()).thenReturn(MockObjectCreator.OPERATION_DELETE);
+	}
+
+	private InputStream json(List<DigitalPhone> digitalPhones) throws Exception {
+		return new ByteArrayInputStream(objectMapper.writeValueAsBytes(digitalPhones));
+	}
+
+	private List<BatchItemResponse> sortedResults() {
+
+		List<BatchItemResponse> sorted = new ArrayList<>(results);
+		sorted.sort(Comparator.comparingInt(BatchItemResponse::getIndex));
+		return sorted;
+	}
+
+	private static DigitalPhone digitalPhone(String operation, String telephoneNumber) {
+
+		return DigitalPhone.builder().operation(operation).site(MockObjectCreator.SITE)
+				.publicIdentity(Collections.singletonList(PublicIdentity.builder().userId(telephoneNumber).build()))
+				.build();
+	}
+}
@@ -0,0 +1,237 @@
+package com.charter.provisioning.hss.service;
+
+import com.charter.provisioning.hss.common.IdentityValidator;
+import com.charter.provisioning.hss.common.MockObjectCreator;
+import com.charter.provisioning.hss.config.HssServiceConfig;
+import com.charter.provisioning.hss.exception.ServiceException;
+import com.charter.provisioning.hss.handler.CommonSubscriberHandler;
+import com.charter.provisioning.hss.model.PrivateIdentity;
+import com.charter.provisioning.hss.model.PublicIdentity;
+import com.charter.provisioning.hss.model.SubscriberLookupRequest;
+import com.charter.provisioning.hss.model.SubscriberLookupResponse;
+import com.charter.provisioning.hss.model.SubscriberLookupResponse.IdentityType;
+import com.charter.provisioning.network.hss.subscriber.spml.schema.Subscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SubscriberLookupServiceTest {
+
+	@Mock
+	private CommonSubscriberHandler commonHandler;
+
+	@Mock
+	private HssServiceConfig serviceConfig;
+
+	private final List<SubscriberLookupResponse> results = Collections.synchronizedList(new ArrayList<>());
+
+	private SubscriberLookupService lookupService;
+
+	@Before
+	public void setUp() {
+
+		when(serviceConfig.getBatch()).thenReturn(MockObjectCreator.getLookupSettings(2, 4));
+		lookupService = new SubscriberLookupService(commonHandler, new IdentityValidator(16), serviceConfig);
+	}
+
+	@After
+	public void shutdown() {
+		lookupService.shutdown();
+	}
+
+	@Test
+	public void lookup_DuplicateTelephoneNumbers_ExpectsOneSearchPerDistinctNumber() throws Exception {
+
+		when(commonHandler.searchSubscriberByPublicIdentityAsync(
+				PublicIdentity.builder().userId(MockObjectCreator.PHONE_NUMBER).build(), null,
+				MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getSubscriber()));
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder().telephoneNumbers(Arrays.asList(
+				MockObjectCreator.PHONE_NUMBER, " " + MockObjectCreator.PHONE_NUMBER + " ", MockObjectCreator.PHONE_NUMBER, ""))
+				.build();
+
+		assertThat(lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS), is(1));
+
+		assertThat(results.get(0).getIdentityType(), is(IdentityType.TELEPHONE_NUMBER));
+		assertThat(results.get(0).getIdentity(), is(MockObjectCreator.PHONE_NUMBER));
+		assertThat(results.get(0).getHttpStatus(), is(HttpServletResponse.SC_OK));
+		assertThat(results.get(0).getSubscriber(), is(MockObjectCreator.getSubscriber()));
+		verify(commonHandler, times(1)).searchSubscriberByPublicIdentityAsync(any(), isNull(), eq(MockObjectCreator.CORRELATION_ID));
+	}
+
+	@Test
+	public void lookup_ControllerIdAndPrivateIdentity_ExpectsMatchingSearches() throws Exception {
+
+		when(commonHandler.searchSubscriberByNationalPublicIdentityAsync(
+				PublicIdentity.builder().userId(MockObjectCreator.NATIONAL_PUBLIC_IDENTITY).build(), null,
+				MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getSubscriber()));
+		when(commonHandler.searchSubscriberByPrivateIdentityAsync(
+				PrivateIdentity.builder().userId(MockObjectCreator.PRIVATE_IDENTITY).build(), null,
+				MockObjectCreator.CORRELATION_ID)).thenReturn(CompletableFuture.completedFuture(null));
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder()
+				.controllerIds(Collections.singletonList(MockObjectCreator.NATIONAL_PUBLIC_IDENTITY))
+				.privateIdentities(Collections.singletonList(MockObjectCreator.PRIVATE_IDENTITY)).build();
+
+		lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS);
+
+		assertThat(results.get(0).getIdentityType(), is(IdentityType.CONTROLLER_ID));
+		assertThat(results.get(0).getHttpStatus(), is(HttpServletResponse.SC_OK));
+		assertThat(results.get(1).getIdentityType(), is(IdentityType.PRIVATE_IDENTITY));
+		assertThat(results.get(1).getHttpStatus(), is(HttpServletResponse.SC_NOT_FOUND));
+		assertThat(results.get(1).getSubscriber(), is(nullValue()));
+	}
+
+	@Test
+	public void lookup_InvalidIdentities_ExpectsBadRequestMarkersWithoutSearch() throws Exception {
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder()
+				.telephoneNumbers(Collections.singletonList("82163288"))
+				.controllerIds(Collections.singletonList(MockObjectCreator.PHONE_NUMBER))
+				.privateIdentities(Collections.singletonList("219CF751")).build();
+
+		assertThat(lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS), is(3));
+
+		assertThat(results.get(0).getMessage(), is("Invalid telephoneNumber"));
+		assertThat(results.get(1).getMessage(), is("Invalid controllerId"));
+		assertThat(results.get(2).getMessage(), is("Invalid privateIdentity"));
+		assertThat(results.stream().allMatch(result -> result.getHttpStatus() == HttpServletResponse.SC_BAD_REQUEST), is(true));
+		verify(commonHandler, never()).searchSubscriberByPublicIdentityAsync(any(), any(), any());
+	}
+
+	@Test
+	public void lookup_SearchFails_ExpectsStatusOfFailure() throws Exception {
+
+		CompletableFuture<Subscriber> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new ServiceException(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "HSS unavailable"));
+		when(commonHandler.searchSubscriberByPublicIdentityAsync(any(), isNull(), eq(MockObjectCreator.CORRELATION_ID)))
+				.thenReturn(failed);
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder()
+				.telephoneNumbers(Collections.singletonList(MockObjectCreator.PHONE_NUMBER)).build();
+
+		lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, results::add).get(5, TimeUnit.SECONDS);
+
+		assertThat(results.get(0).getHttpStatus(), is(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+		assertThat(results.get(0).getMessage(), is("HSS unavailable"));
+	}
+
+	@Test
+	public void lookup_MoreIdentitiesThanParallelism_ExpectsNextSearchStartedOnCompletion() throws Exception {
+
+		List<CompletableFuture<Subscriber>> searches = Collections.synchronizedList(new ArrayList<>());
+		List<String> deliveringThreads = Collections.synchronizedList(new ArrayList<>());
+		when(commonHandler.searchSubscriberByPublicIdentityAsync(any(), isNull(), eq(MockObjectCreator.CORRELATION_ID)))
+				.thenAnswer(invocation -> {
+					CompletableFuture<Subscriber> search = new CompletableFuture<>();
+					searches.add(search);
+					return search;
+				});
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder()
+				.telephoneNumbers(Arrays.asList("8582452000", "8582452001", "8582452002", "8582452003")).build();
+
+		CompletableFuture<Integer> lookup = lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, result -> {
+			deliveringThreads.add(Thread.currentThread().getName());
+			results.add(result);
+		});
+		assertThat(searches.size(), is(2));
+
+		searches.get(0).complete(MockObjectCreator.getSubscriber());
+		awaitSize(searches, 3);
+		assertThat(results.size(), is(1));
+
+		searches.get(1).complete(null);
+		searches.get(2).complete(null);
+		awaitSize(results, 3);
+		assertThat(lookup.isDone(), is(false));
+		searches.get(3).complete(null);
+
+		assertThat(lookup.get(5, TimeUnit.SECONDS), is(4));
+		assertThat(searches.size(), is(4));
+		assertThat(deliveringThreads.stream().allMatch(name -> name.startsWith("hss-lookup-")), is(true));
+	}
+
+	@Test
+	public void lookup_ConsumerFails_ExpectsNoFurtherSearch() throws Exception {
+
+		when(commonHandler.searchSubscriberByPublicIdentityAsync(any(), isNull(), eq(MockObjectCreator.CORRELATION_ID)))
+				.thenReturn(CompletableFuture.completedFuture(MockObjectCreator.getSubscriber()));
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder()
+				.telephoneNumbers(Arrays.asList("8582452000", "8582452001", "8582452002", "8582452003")).build();
+
+		CompletableFuture<Integer> lookup = lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, result -> {
+			throw new IllegalStateException("Client disconnected");
+		});
+
+		assertThat(lookup.get(5, TimeUnit.SECONDS), is(0));
+		verify(commonHandler, times(1)).searchSubscriberByPublicIdentityAsync(any(), isNull(), eq(MockObjectCreator.CORRELATION_ID));
+	}
+
+	@Test
+	public void lookup_NoIdentity_ExpectsBadRequest() {
+
+		try {
+			lookupService.lookup(SubscriberLookupRequest.builder().telephoneNumbers(Collections.singletonList(" ")).build(),
+					MockObjectCreator.CORRELATION_ID, results::add);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+		}
+	}
+
+	@Test
+	public void lookup_TooManyIdentities_ExpectsBadRequest() {
+
+		SubscriberLookupRequest request = SubscriberLookupRequest.builder()
+				.telephoneNumbers(Arrays.asList("8582452000", "8582452001", "8582452002", "8582452003"))
+				.privateIdentities(Collections.singletonList(MockObjectCreator.PRIVATE_IDENTITY)).build();
+		try {
+			lookupService.lookup(request, MockObjectCreator.CORRELATION_ID, results::add);
+			fail("Expected ServiceException");
+		} catch (ServiceException e) {
+			assertThat(e.getHttpStatus(), is(HttpServletResponse.SC_BAD_REQUEST));
+			assertThat(e.getMessage(), is("Too many identities, at most 4 allowed"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void constructor_MissingLookupSettings_ExpectsIllegalStateException() {
+
+		when(serviceConfig.getBatch()).thenReturn(MockObjectCreator.getBatchSettings(2, 1));
+		new SubscriberLookupService(commonHandler, new IdentityValidator(16), serviceConfig);
+	}
+
+	private static void awaitSize(List<?> list, int size) throws InterruptedException {
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (list.size() < size && System.currentTimeMillis() < deadline)
+			Thread.sleep(5);
+		assertThat(list.size(), is(size));
+	}
+}